@@ -0,0 +1,87 @@
+package com.example.demo.auditoria;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola circular acotada sin bloqueos para varios productores y un consumidor
+ * Cada casilla lleva un número de secuencia que indica si está libre para el productor de esa vuelta
+ * o lista para el consumidor; los productores se reparten las posiciones con compareAndSet y nunca
+ * esperan: si la cola está llena, ofrecer devuelve false y quien llama decide qué hacer con el elemento
+ */
+class AnilloEventos<T> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong escritura = new AtomicLong();
+    private final AtomicLong lectura = new AtomicLong();
+
+    /**
+     * @param capacidad número de casillas; se redondea a la siguiente potencia de 2
+     */
+    AnilloEventos(int capacidad) {
+        if (capacidad < 2) {
+            throw new IllegalArgumentException("La capacidad de la cola debe ser al menos 2");
+        }
+        int casillas = Integer.highestOneBit(capacidad - 1) << 1;
+        this.mascara = casillas - 1;
+        this.elementos = new AtomicReferenceArray<>(casillas);
+        this.secuencias = new AtomicLongArray(casillas);
+        for (int i = 0; i < casillas; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Añadir un elemento sin esperar
+     * @return false si la cola está llena
+     */
+    boolean ofrecer(T elemento) {
+        while (true) {
+            long posicion = escritura.get();
+            int casilla = (int) (posicion & mascara);
+            long diferencia = secuencias.get(casilla) - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    elementos.set(casilla, elemento);
+                    secuencias.set(casilla, posicion + 1);
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                // La casilla aún tiene el elemento de la vuelta anterior: la cola está llena
+                return false;
+            }
+            // Otro productor se adelantó: reintentar con la posición actual
+        }
+    }
+
+    /**
+     * Sacar el siguiente elemento (solo desde el hilo consumidor)
+     * @return elemento, o null si la cola está vacía o el siguiente elemento aún se está escribiendo
+     */
+    T tomar() {
+        long posicion = lectura.get();
+        int casilla = (int) (posicion & mascara);
+        if (secuencias.get(casilla) != posicion + 1) {
+            return null;
+        }
+        T elemento = elementos.get(casilla);
+        elementos.set(casilla, null);
+        secuencias.set(casilla, posicion + mascara + 1);
+        lectura.set(posicion + 1);
+        return elemento;
+    }
+
+    /**
+     * Elementos en cola (aproximado mientras hay productores escribiendo)
+     */
+    int tamano() {
+        return (int) Math.max(0, escritura.get() - lectura.get());
+    }
+
+    int capacidad() {
+        return mascara + 1;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.auditoria;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.entity.Categoria;
+import com.example.demo.entity.Estado;
+import com.example.demo.entity.RegistroAuditoria;
+import com.example.demo.entity.Rol;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Captura las altas, cambios y bajas de las entidades de negocio a partir de los eventos de Hibernate
+ * Así ningún servicio tiene que acordarse de auditar: basta con que el cambio pase por JPA. De cada cambio
+ * se guardan solo los atributos modificados, con su valor anterior y el nuevo, y el usuario del JWT.
+ * El evento se encola cuando la transacción se confirma; las actualizaciones masivas con JPQL no pasan
+ * por aquí (solo las usan procesos internos como el archivado o los acumulados de ventas)
+ */
+@Component
+public class CapturaAuditoria implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String SISTEMA = "sistema";
+
+    // Atributos que no se auditan: credenciales y columnas técnicas
+    private static final Set<String> EXCLUIDOS = Set.of("password", "version", "versionCambio");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EscritorAuditoria escritor;
+
+    @Value("${auditoria.habilitada:true}")
+    private boolean habilitada = true;
+
+    @Value("${auditoria.entidades:Comanda,DetalleComanda,Producto,Mesa,Usuario,Categoria,Estado,Rol,Reserva}")
+    private String entidadesAuditadas = "";
+
+    private Set<String> entidades = Set.of();
+
+    /**
+     * Registrar el listener en Hibernate
+     */
+    @PostConstruct
+    public void iniciar() {
+        entidades = Arrays.stream(entidadesAuditadas.split(","))
+            .map(String::trim)
+            .filter(nombre -> !nombre.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+        if (!habilitada) {
+            System.out.println("ℹ️ Auditoría deshabilitada");
+            return;
+        }
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, this);
+        registro.appendListeners(EventType.POST_UPDATE, this);
+        registro.appendListeners(EventType.POST_DELETE, this);
+        System.out.println("✅ Auditoría - Entidades auditadas: " + entidades);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        String entidad = event.getEntity().getClass().getSimpleName();
+        if (!entidades.contains(entidad)) {
+            return;
+        }
+        Map<String, String> despues = valores(event.getPersister(), event.getState(), null, event.getSession());
+        capturar(entidad, event.getId(), RegistroAuditoria.ALTA, null, despues);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        String entidad = event.getEntity().getClass().getSimpleName();
+        if (!entidades.contains(entidad)) {
+            return;
+        }
+        Object[] anterior = event.getOldState();
+        Object[] actual = event.getState();
+        boolean[] modificados = new boolean[actual.length];
+        boolean alguno = false;
+        for (int i = 0; i < actual.length; i++) {
+            // Sin estado anterior (entidad actualizada sin cargarla antes) se registran todos los valores
+            modificados[i] = anterior == null || !Objects.equals(anterior[i], actual[i]);
+            alguno |= modificados[i] && !EXCLUIDOS.contains(event.getPersister().getPropertyNames()[i]);
+        }
+        if (!alguno) {
+            return;
+        }
+        Map<String, String> antes = anterior != null ? valores(event.getPersister(), anterior, modificados, event.getSession()) : null;
+        Map<String, String> despues = valores(event.getPersister(), actual, modificados, event.getSession());
+        capturar(entidad, event.getId(), RegistroAuditoria.CAMBIO, antes, despues);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        String entidad = event.getEntity().getClass().getSimpleName();
+        if (!entidades.contains(entidad)) {
+            return;
+        }
+        Map<String, String> antes = valores(event.getPersister(), event.getDeletedState(), null, event.getSession());
+        capturar(entidad, event.getId(), RegistroAuditoria.BAJA, antes, null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void capturar(String entidad, Object id, String operacion, Map<String, String> antes, Map<String, String> despues) {
+        EventoAuditoria evento = new EventoAuditoria(usuarioActual(), entidad, String.valueOf(id), operacion, antes, despues);
+        TrasTransaccion.alConfirmar(() -> escritor.encolar(evento));
+    }
+
+    /**
+     * Valores de los atributos simples y de las referencias (por su ID, o su nombre en los catálogos)
+     * @param incluir atributos a incluir, o null para todos
+     */
+    private Map<String, String> valores(EntityPersister persister, Object[] estado, boolean[] incluir,
+                                        SharedSessionContractImplementor sesion) {
+        String[] nombres = persister.getPropertyNames();
+        Type[] tipos = persister.getPropertyTypes();
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (int i = 0; i < nombres.length; i++) {
+            if ((incluir != null && !incluir[i]) || EXCLUIDOS.contains(nombres[i]) || tipos[i].isCollectionType()) {
+                continue;
+            }
+            valores.put(nombres[i], aTexto(estado[i], tipos[i], sesion));
+        }
+        return valores;
+    }
+
+    private static String aTexto(Object valor, Type tipo, SharedSessionContractImplementor sesion) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof Estado estado) {
+            return estado.getNombre();
+        }
+        if (valor instanceof Rol rol) {
+            return rol.getNombre();
+        }
+        if (valor instanceof Categoria categoria) {
+            return categoria.getNombre();
+        }
+        if (valor instanceof HibernateProxy proxy) {
+            return String.valueOf(proxy.getHibernateLazyInitializer().getIdentifier());
+        }
+        if (tipo.isEntityType()) {
+            return String.valueOf(sesion.getEntityPersister(null, valor).getIdentifier(valor, sesion));
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return String.valueOf(valor);
+    }
+
+    private static String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion == null || !autenticacion.isAuthenticated() || autenticacion instanceof AnonymousAuthenticationToken) {
+            return SISTEMA;
+        }
+        return autenticacion.getName();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.auditoria;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escribe los eventos de auditoría en restaurante_auditoria desde un hilo de fondo
+ * Los hilos de las peticiones solo dejan el evento en una cola acotada sin bloqueos; la tarea programada
+ * la vacía e inserta los eventos por lotes JDBC. Si la cola se llena (base de datos lenta o caída) los
+ * eventos nuevos se descartan y se cuentan, pero la toma de comandas nunca espera a la auditoría
+ */
+@Component
+public class EscritorAuditoria {
+
+    static final String INSERT = "INSERT INTO restaurante_auditoria " +
+        "(fecha, usuario, entidad, id_entidad, operacion, antes, despues) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int LONGITUD_VALORES = 4000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${auditoria.capacidad:8192}")
+    private int capacidad = 8192;
+
+    @Value("${auditoria.lote:500}")
+    private int tamanoLote = 500;
+
+    private AnilloEventos<EventoAuditoria> cola;
+    // Lote que no se pudo insertar: se reintenta antes de sacar más eventos de la cola
+    private List<EventoAuditoria> pendiente = new ArrayList<>();
+
+    private final LongAdder aceptados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final AtomicInteger ocupacionMaxima = new AtomicInteger();
+
+    @PostConstruct
+    public void iniciar() {
+        cola = new AnilloEventos<>(capacidad);
+        System.out.println("✅ Auditoría - Cola de " + cola.capacidad() + " eventos, lotes de " + tamanoLote);
+    }
+
+    /**
+     * Encolar un evento sin esperar
+     * @return false si la cola estaba llena y el evento se descartó
+     */
+    boolean encolar(EventoAuditoria evento) {
+        if (!cola.ofrecer(evento)) {
+            descartados.increment();
+            return false;
+        }
+        aceptados.increment();
+        int ocupacion = cola.tamano();
+        ocupacionMaxima.accumulateAndGet(ocupacion, Math::max);
+        return true;
+    }
+
+    /**
+     * Vaciar la cola escribiendo lotes hasta que no queden eventos o falle una escritura
+     */
+    @Scheduled(fixedDelayString = "${auditoria.drenado-ms:250}")
+    public synchronized void drenar() {
+        while (true) {
+            if (pendiente.isEmpty()) {
+                EventoAuditoria evento;
+                while (pendiente.size() < tamanoLote && (evento = cola.tomar()) != null) {
+                    pendiente.add(evento);
+                }
+                if (pendiente.isEmpty()) {
+                    return;
+                }
+            }
+            try {
+                escribir(pendiente);
+            } catch (Exception e) {
+                fallos.increment();
+                System.out.println("⚠️ Auditoría - No se pudo escribir un lote de " + pendiente.size() + " evento(s): " + e.getMessage());
+                return;
+            }
+            escritos.add(pendiente.size());
+            lotes.increment();
+            pendiente = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Escribir lo que quede en la cola al detener la aplicación
+     */
+    @PreDestroy
+    public void detener() {
+        drenar();
+    }
+
+    /**
+     * Obtener métricas de la auditoría
+     * @return mapa con eventos aceptados, descartados por cola llena, escritos, ocupación y fallos de escritura
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("capacidad", cola.capacidad());
+        estadisticas.put("enCola", cola.tamano());
+        estadisticas.put("ocupacionMaxima", ocupacionMaxima.get());
+        estadisticas.put("aceptados", aceptados.sum());
+        estadisticas.put("descartados", descartados.sum());
+        estadisticas.put("escritos", escritos.sum());
+        estadisticas.put("lotes", lotes.sum());
+        estadisticas.put("fallosEscritura", fallos.sum());
+        return estadisticas;
+    }
+
+    private void escribir(List<EventoAuditoria> eventos) {
+        List<Object[]> filas = new ArrayList<>(eventos.size());
+        for (EventoAuditoria evento : eventos) {
+            filas.add(new Object[]{
+                Timestamp.valueOf(evento.fecha), evento.usuario, evento.entidad, evento.idEntidad, evento.operacion,
+                aJson(evento.antes), aJson(evento.despues)
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT, filas);
+    }
+
+    private String aJson(Map<String, String> valores) {
+        if (valores == null) {
+            return null;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(valores);
+            if (json.length() <= LONGITUD_VALORES) {
+                return json;
+            }
+            // Un valor enorme no debe hacer fallar el lote entero: se guarda recortado (ya no es JSON válido)
+            return json.substring(0, LONGITUD_VALORES - 3) + "...";
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.auditoria;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Cambio capturado pendiente de escribir en restaurante_auditoria
+ * Los valores ya van convertidos a texto: el evento no guarda referencias a entidades
+ */
+final class EventoAuditoria {
+
+    final LocalDateTime fecha;
+    final String usuario;
+    final String entidad;
+    final String idEntidad;
+    final String operacion;
+    final Map<String, String> antes;
+    final Map<String, String> despues;
+
+    EventoAuditoria(String usuario, String entidad, String idEntidad, String operacion,
+                    Map<String, String> antes, Map<String, String> despues) {
+        this.fecha = LocalDateTime.now();
+        this.usuario = usuario;
+        this.entidad = entidad;
+        this.idEntidad = idEntidad;
+        this.operacion = operacion;
+        this.antes = antes;
+        this.despues = despues;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.concurrencia;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una operación de servicio que puede repetirse entera si su transacción falla por un conflicto
+ * de concurrencia (versión desactualizada o bloqueo mutuo). Solo debe usarse en métodos cuyos efectos
+ * quedan dentro de la transacción, de modo que ejecutarlos de nuevo tras el rollback es seguro
+ * @see ReintentoConflictosAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReintentarConflicto {
+}
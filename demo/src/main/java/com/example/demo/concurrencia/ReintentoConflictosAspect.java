@@ -0,0 +1,146 @@
+package com.example.demo.concurrencia;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repite las operaciones marcadas con @ReintentarConflicto cuando su transacción falla por un conflicto
+ * de concurrencia. Entre intentos espera un tiempo aleatorio (backoff exponencial con jitter completo)
+ * para que las peticiones en conflicto no vuelvan a chocar a la vez.
+ * Los reintentos salen de un presupuesto compartido que se recarga con cada llamada
+ * (concurrencia.reintentos.presupuesto-ratio por llamada, hasta presupuesto-maximo): con muchos conflictos
+ * seguidos se deja de reintentar y el error llega al controlador (HTTP 409) en lugar de multiplicar la carga
+ * Se ejecuta por fuera de @Transactional para que cada intento use una transacción nueva
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ReintentoConflictosAspect {
+
+    @Value("${concurrencia.reintentos.max-intentos:4}")
+    private int maxIntentos = 4;
+
+    @Value("${concurrencia.reintentos.espera-inicial-ms:20}")
+    private long esperaInicialMs = 20;
+
+    @Value("${concurrencia.reintentos.espera-maxima-ms:400}")
+    private long esperaMaximaMs = 400;
+
+    @Value("${concurrencia.reintentos.presupuesto-ratio:0.1}")
+    private double presupuestoRatio = 0.1;
+
+    @Value("${concurrencia.reintentos.presupuesto-maximo:20}")
+    private double presupuestoMaximo = 20;
+
+    // Reintentos gastados del presupuesto; cada llamada devuelve presupuestoRatio
+    private double presupuestoGastado = 0;
+
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder resueltos = new LongAdder();
+    private final LongAdder agotados = new LongAdder();
+    private final LongAdder sinPresupuesto = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> conflictosPorOperacion = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.example.demo.concurrencia.ReintentarConflicto)")
+    public Object reintentar(ProceedingJoinPoint punto) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Dentro de otra transacción el conflicto la deja marcada para rollback: reintenta quien la abrió
+            return punto.proceed();
+        }
+        String operacion = punto.getSignature().getDeclaringType().getSimpleName() + "." + punto.getSignature().getName();
+        llamadas.increment();
+        devolverPresupuesto();
+        for (int intento = 1; ; intento++) {
+            try {
+                Object resultado = punto.proceed();
+                if (intento > 1) {
+                    resueltos.increment();
+                }
+                return resultado;
+            } catch (ConcurrencyFailureException e) {
+                conflictos.increment();
+                conflictosPorOperacion.computeIfAbsent(operacion, clave -> new LongAdder()).increment();
+                if (intento >= maxIntentos) {
+                    agotados.increment();
+                    System.out.println("⚠️ Conflicto de concurrencia en " + operacion + " tras " + intento + " intento(s)");
+                    throw e;
+                }
+                if (!gastarPresupuesto()) {
+                    sinPresupuesto.increment();
+                    System.out.println("⚠️ Conflicto de concurrencia en " + operacion + " sin presupuesto de reintentos");
+                    throw e;
+                }
+                reintentos.increment();
+                try {
+                    Thread.sleep(calcularEspera(intento));
+                } catch (InterruptedException interrupcion) {
+                    // Quien interrumpe quiere que el hilo termine: no se reintenta y se conserva la marca
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtener estadísticas de conflictos y reintentos
+     * @return Mapa con contadores, tasa de conflictos por llamada y conflictos por operación
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        long totalLlamadas = llamadas.sum();
+        long totalConflictos = conflictos.sum();
+        Map<String, Long> porOperacion = new TreeMap<>();
+        conflictosPorOperacion.forEach((operacion, contador) -> porOperacion.put(operacion, contador.sum()));
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("llamadas", totalLlamadas);
+        estadisticas.put("conflictos", totalConflictos);
+        estadisticas.put("tasaConflictos", totalLlamadas == 0 ? 0.0 : (double) totalConflictos / totalLlamadas);
+        estadisticas.put("reintentos", reintentos.sum());
+        estadisticas.put("resueltosTrasReintento", resueltos.sum());
+        estadisticas.put("agotados", agotados.sum());
+        estadisticas.put("sinPresupuesto", sinPresupuesto.sum());
+        estadisticas.put("presupuestoDisponible", presupuestoDisponible());
+        estadisticas.put("conflictosPorOperacion", porOperacion);
+        return estadisticas;
+    }
+
+    /**
+     * Espera antes del siguiente intento: aleatoria entre 0 y el doble de la anterior, con tope
+     */
+    long calcularEspera(int intento) {
+        long tope = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(intento - 1, 20));
+        return ThreadLocalRandom.current().nextLong(tope + 1);
+    }
+
+    private synchronized void devolverPresupuesto() {
+        presupuestoGastado = Math.max(0, presupuestoGastado - presupuestoRatio);
+    }
+
+    private synchronized boolean gastarPresupuesto() {
+        if (presupuestoGastado + 1 > presupuestoMaximo) {
+            return false;
+        }
+        presupuestoGastado++;
+        return true;
+    }
+
+    private synchronized double presupuestoDisponible() {
+        return presupuestoMaximo - presupuestoGastado;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.concurrencia;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Acciones ligadas al desenlace de la transacción en curso
+ * Los servicios que mantienen estado en memoria (colas, índices, contadores) lo actualizan con estas
+ * acciones para que una transacción revertida no deje en memoria cambios que no llegaron a la base de datos
+ */
+public final class TrasTransaccion {
+
+    private TrasTransaccion() {
+    }
+
+    /**
+     * Ejecutar una acción cuando la transacción en curso se confirme, o en el acto si no hay transacción
+     * @param accion acción a ejecutar
+     */
+    public static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Ejecutar una acción si la transacción en curso se revierte. Sin transacción no hace nada
+     * @param accion acción que deshace un cambio hecho por adelantado
+     */
+    public static void alDeshacer(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        accion.run();
+                    }
+                }
+            });
+        }
+    }
+}
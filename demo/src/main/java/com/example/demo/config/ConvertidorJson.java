@@ -0,0 +1,81 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversor JSON que reutiliza un ObjectWriter por tipo de respuesta
+ * El conversor estándar crea un ObjectWriter en cada petición y vuelve a buscar el serializador raíz;
+ * aquí cada tipo guarda su ObjectWriter con el serializador ya resuelto (writerFor hace el prefetch)
+ */
+public class ConvertidorJson extends MappingJackson2HttpMessageConverter {
+
+    // Los tipos son los de retorno de los endpoints, así que el caché no crece con las peticiones
+    private static final int MAXIMO_ESCRITORES = 256;
+
+    private static final String PAQUETE_DTO = "com.example.demo.dto.";
+
+    private final ConcurrentHashMap<JavaType, ObjectWriter> escritores = new ConcurrentHashMap<>();
+
+    public ConvertidorJson(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    /**
+     * Resolver al arrancar los serializadores de los tipos indicados
+     * Así la primera petición de cada listado no paga la introspección de los DTOs
+     * @param tipos tipos de respuesta (se admiten genéricos como List<ComandaResponseDTO>)
+     */
+    public void precalentar(Type... tipos) {
+        for (Type tipo : tipos) {
+            JavaType javaType = getObjectMapper().constructType(tipo);
+            escritores.computeIfAbsent(javaType, getObjectMapper()::writerFor);
+        }
+    }
+
+    /**
+     * Obtener el número de ObjectWriter guardados
+     * @return tamaño del caché
+     */
+    public int getNumeroEscritores() {
+        return escritores.size();
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        if (javaType == null || !esReutilizable(writer.getConfig(), javaType)) {
+            return writer;
+        }
+        ObjectWriter escritor = escritores.get(javaType);
+        if (escritor == null && escritores.size() < MAXIMO_ESCRITORES) {
+            escritor = escritores.computeIfAbsent(javaType, getObjectMapper()::writerFor);
+        }
+        return escritor != null ? escritor : writer;
+    }
+
+    /**
+     * Con @JsonView o filtros el escritor depende de la petición y no se guarda
+     * Fuera de las colecciones solo se fija el tipo raíz en DTOs concretos: con un tipo declarado
+     * abstracto se perderían los campos de la subclase real
+     */
+    private boolean esReutilizable(SerializationConfig config, JavaType javaType) {
+        if (config.getActiveView() != null || config.getFilterProvider() != null) {
+            return false;
+        }
+        if (javaType.isContainerType()) {
+            return true;
+        }
+        Class<?> clase = javaType.getRawClass();
+        return clase.getName().startsWith(PAQUETE_DTO)
+            && !clase.isInterface()
+            && !Modifier.isAbstract(clase.getModifiers());
+    }
+}
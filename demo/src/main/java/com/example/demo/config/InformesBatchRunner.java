@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import com.example.demo.service.InformesCierreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Modo batch de los informes de cierre: la misma aplicación arrancada con el perfil batch, sin servidor web
+ * ni tareas programadas, calcula los informes y termina (código de salida 0 si todo fue bien, 1 si no)
+ * Se programa de noche con --spring.profiles.active=batch y opcionalmente --informes.desde / --informes.hasta
+ * (AAAA-MM-DD, por defecto el día anterior)
+ */
+@Component
+@Profile("batch")
+public class InformesBatchRunner implements ApplicationRunner {
+
+    @Autowired
+    private InformesCierreService informesCierreService;
+
+    @Autowired
+    private ConfigurableApplicationContext contexto;
+
+    @Value("${informes.desde:}")
+    private String desde;
+
+    @Value("${informes.hasta:}")
+    private String hasta;
+
+    @Value("${informes.salir-al-terminar:true}")
+    private boolean salirAlTerminar = true;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int codigo = 0;
+        try {
+            LocalDate ayer = LocalDate.now().minusDays(1);
+            LocalDate fechaDesde = desde.isBlank() ? ayer : LocalDate.parse(desde);
+            LocalDate fechaHasta = hasta.isBlank() ? (desde.isBlank() ? ayer : fechaDesde) : LocalDate.parse(hasta);
+            informesCierreService.generar(fechaDesde, fechaHasta);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            codigo = 1;
+        } catch (Exception e) {
+            System.out.println("⚠️ Informes de cierre - Error: " + e.getMessage());
+            codigo = 1;
+        }
+
+        if (salirAlTerminar) {
+            int codigoSalida = codigo;
+            System.exit(SpringApplication.exit(contexto, () -> codigoSalida));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.response.*;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Configuración de Jackson para las respuestas JSON de alto volumen
+ * Blackbird sustituye la reflexión por accesores generados (LambdaMetafactory) al leer los campos de los DTOs,
+ * y el conversor reutiliza un ObjectWriter por tipo con los serializadores resueltos al arrancar
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Spring Boot registra en el ObjectMapper todos los beans de tipo Module
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Reemplaza el conversor JSON de Spring Boot (se crea solo si no hay otro bean de este tipo)
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        ConvertidorJson convertidor = new ConvertidorJson(objectMapper);
+        TypeFactory tipos = objectMapper.getTypeFactory();
+        convertidor.precalentar(
+            tipos.constructCollectionType(List.class, ComandaResponseDTO.class),
+            tipos.constructCollectionType(List.class, ProductoResponseDTO.class),
+            tipos.constructCollectionType(List.class, MesaResponseDTO.class),
+            tipos.constructCollectionType(List.class, DetalleComandaDTO.class),
+            ComandaResponseDTO.class,
+            ProductoResponseDTO.class,
+            MesaResponseDTO.class,
+            // Tipos anidados: al no ser finales se resuelven aparte y quedan en el caché del ObjectMapper
+            MesaSimpleDTO.class,
+            UsuarioSimpleDTO.class,
+            EstadoDTO.class);
+        return convertidor;
+    }
+}
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,6 +17,7 @@ import java.util.List;
  * Configuración de OpenAPI/Swagger para la documentación de la API
  * Proporciona una interfaz interactiva para probar todos los endpoints
  */
+@Lazy
 @Configuration
 public class OpenApiConfig {
     
@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (limpieza de registros expirados, procesos periódicos)
+ * En el modo batch no se activan: ese proceso solo calcula los informes y termina
+ */
+@Configuration
+@Profile("!batch")
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,88 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Sincronizable;
+import com.example.demo.entity.VersionCambioListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Vuelve a sellar al confirmar la transacción las entidades sincronizables que cambió
+ * VersionCambioListener las sella al hacer flush, que puede ocurrir mucho antes del commit (inserciones con
+ * IDENTITY, saveAndFlush, consultas que vacían la sesión); si la transacción tarda más que sync.margen-ms,
+ * una tablet ya habría pasado de esa versión cuando el cambio se hace visible y no lo recibiría nunca.
+ * Justo antes del commit, tras el último flush, todas las filas de la transacción reciben una misma versión
+ * nueva con una actualización masiva (no incrementa @Version ni se audita)
+ */
+@Component
+public class SelloVersionCambio implements PostInsertEventListener, PostUpdateEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Entidades pendientes de sellar por sesión; la sesión se libera sola si la transacción se revierte
+    private final Map<SharedSessionContractImplementor, Map<EntityPersister, Set<Object>>> pendientes =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Registrar el listener en Hibernate
+     */
+    @PostConstruct
+    public void iniciar() {
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, this);
+        registro.appendListeners(EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        registrar(event.getSession(), event.getPersister(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        registrar(event.getSession(), event.getPersister(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void registrar(EventSource sesion, EntityPersister persister, Object entidad, Object id) {
+        if (!(entidad instanceof Sincronizable)) {
+            return;
+        }
+        Map<EntityPersister, Set<Object>> deLaSesion = pendientes.get(sesion);
+        if (deLaSesion == null) {
+            deLaSesion = new LinkedHashMap<>();
+            pendientes.put(sesion, deLaSesion);
+            sesion.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::sellar);
+        }
+        deLaSesion.computeIfAbsent(persister, clave -> new LinkedHashSet<>()).add(id);
+    }
+
+    private void sellar(SessionImplementor sesion) {
+        Map<EntityPersister, Set<Object>> deLaSesion = pendientes.remove(sesion);
+        if (deLaSesion == null) {
+            return;
+        }
+        long version = VersionCambioListener.siguienteVersion();
+        deLaSesion.forEach((persister, ids) -> sesion
+            .createMutationQuery("UPDATE " + persister.getEntityName() + " e SET e.versionCambio = :version WHERE e.id IN :ids")
+            .setParameter("version", version)
+            .setParameterList("ids", ids)
+            .executeUpdate());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import com.example.demo.service.VentasDiariasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Carga inicial de restaurante_ventas_diarias al arrancar
+ * Se activa pasando --ventas-diarias.backfill.desde=AAAA-MM-DD (y opcionalmente .hasta, por defecto hoy)
+ */
+@Component
+@ConditionalOnProperty(name = "ventas-diarias.backfill.desde")
+public class VentasDiariasBackfillRunner implements ApplicationRunner {
+
+    @Autowired
+    private VentasDiariasService ventasDiariasService;
+
+    @Value("${ventas-diarias.backfill.desde}")
+    private String desde;
+
+    @Value("${ventas-diarias.backfill.hasta:}")
+    private String hasta;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDate fechaDesde = LocalDate.parse(desde);
+        LocalDate fechaHasta = hasta.isBlank() ? LocalDate.now() : LocalDate.parse(hasta);
+        ventasDiariasService.reconstruir(fechaDesde, fechaHasta);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.RendimientoMeseroDTO;
+import com.example.demo.service.AnaliticaService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para las analíticas de rendimiento
+ */
+@Tag(name = "Analíticas", description = "API de analíticas de rendimiento del personal")
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnaliticaController {
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
+    /**
+     * Obtener el ranking de meseros por ingresos con sus métricas de rendimiento
+     * GET /api/analytics/meseros?desde={desde}&hasta={hasta}
+     */
+    @GetMapping("/meseros")
+    public ResponseEntity<?> obtenerRendimientoMeseros(@RequestParam String desde, @RequestParam String hasta) {
+        try {
+            List<RendimientoMeseroDTO> meseros = analiticaService.obtenerRendimientoMeseros(
+                LocalDate.parse(desde), LocalDate.parse(hasta));
+            return ResponseEntity.ok(meseros);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
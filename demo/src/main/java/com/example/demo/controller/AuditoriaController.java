@@ -0,0 +1,54 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.RegistroAuditoriaDTO;
+import com.example.demo.service.AuditoriaService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para consultar el registro de auditoría (solo administradores)
+ */
+@Tag(name = "Auditoría", description = "API de consulta de los cambios auditados: quién, qué y cuándo")
+@RestController
+@RequestMapping("/api/auditoria")
+@CrossOrigin(origins = "*")
+public class AuditoriaController {
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    /**
+     * Buscar cambios auditados con filtros opcionales
+     * GET /api/auditoria?entidad={entidad}&idEntidad={id}&usuario={usuario}&desde={desde}&hasta={hasta}&pagina={pagina}&tamano={tamano}
+     */
+    @GetMapping
+    public ResponseEntity<?> buscar(
+            @RequestParam(required = false) String entidad,
+            @RequestParam(required = false) String idEntidad,
+            @RequestParam(required = false) String usuario,
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) String hasta,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "50") int tamano) {
+        try {
+            List<RegistroAuditoriaDTO> registros = auditoriaService.buscar(entidad, idEntidad, usuario,
+                desde != null ? LocalDateTime.parse(desde) : null,
+                hasta != null ? LocalDateTime.parse(hasta) : null,
+                pagina, tamano);
+            return ResponseEntity.ok(registros);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
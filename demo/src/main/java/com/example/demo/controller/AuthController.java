@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.request.LoginRequestDTO;
+import com.example.demo.dto.request.RefreshTokenRequestDTO;
 import com.example.demo.dto.request.UsuarioCreateRequestDTO;
 import com.example.demo.dto.response.LoginResponseDTO;
 import com.example.demo.dto.response.UsuarioResponseDTO;
@@ -14,6 +15,11 @@ import com.example.demo.repository.TelefonoRepository;
 import com.example.demo.repository.UsuarioRepository;
 import com.example.demo.repository.UsuarioTelefonoRepository;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.security.ListaRevocacion;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.PasswordHasher;
+import com.example.demo.service.RefreshTokenService;
+import com.example.demo.service.SecuenciaUsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -22,18 +28,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controlador para autenticación con JWT
  */
-@Tag(name = "Autenticación", description = "Endpoints de autenticación con JWT (Login, Registro)")
+@Tag(name = "Autenticación", description = "Endpoints de autenticación con JWT (Login, Registro, Refresh, Logout)")
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -52,67 +61,205 @@ public class AuthController {
     private UsuarioTelefonoRepository usuarioTelefonoRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private LoginThrottle loginThrottle;
     
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+    
     @Autowired
     private UsuarioMapper usuarioMapper;
     
+    @Autowired
+    private SecuenciaUsuarioService secuenciaUsuarioService;
+    
     /**
      * Login con JWT
      */
     @Operation(
         summary = "Login con JWT",
-        description = "Autentica un usuario y devuelve un token JWT"
+        description = "Autentica un usuario y devuelve un token JWT de corta duración y un refresh token"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Login exitoso",
             content = @Content(schema = @Schema(implementation = LoginResponseDTO.class))),
-        @ApiResponse(responseCode = "400", description = "Credenciales inválidas")
+        @ApiResponse(responseCode = "400", description = "Credenciales inválidas"),
+        @ApiResponse(responseCode = "429", description = "Demasiados intentos para la cuenta"),
+        @ApiResponse(responseCode = "503", description = "Servicio de autenticación saturado")
     })
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
+        String cuenta = loginRequest.getEmail();
         try {
+            // Rechazar ráfagas contra la misma cuenta antes de gastar CPU en BCrypt
+            long espera = loginThrottle.iniciarIntento(cuenta);
+            if (espera > 0) {
+                return respuesta(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(espera))
+                        .body(Map.of("error", "Demasiados intentos, intente de nuevo en " + espera + " segundos")));
+            }
+            
             // Buscar usuario por email
-            Usuario usuario = usuarioRepository.findByEmail(loginRequest.getEmail())
+            Usuario usuario = usuarioRepository.findByEmail(cuenta)
                     .orElse(null);
             
             if (usuario == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Credenciales inválidas"));
+                loginThrottle.finalizarIntento(cuenta, false);
+                return respuesta(ResponseEntity.badRequest()
+                        .body(Map.of("error", "Credenciales inválidas")));
             }
             
-            // Verificar contraseña
-            if (!passwordEncoder.matches(loginRequest.getPassword(), usuario.getPassword())) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Credenciales inválidas"));
-            }
+            // Datos que se usan fuera del hilo de la petición
+            String idUsuario = usuario.getIdUsuario();
+            String nombre = usuario.getNombre();
+            String email = usuario.getEmail();
+            String rol = usuario.getRol().getNombre();
+            String hash = usuario.getPassword();
             
-            // Generar token JWT
-            String token = jwtUtil.generateToken(
-                usuario.getIdUsuario(),
-                usuario.getEmail(),
-                usuario.getRol().getNombre()
-            );
-            
-            // Construir respuesta
-            LoginResponseDTO response = LoginResponseDTO.builder()
-                    .token(token)
-                    .type("Bearer")
-                    .idUsuario(usuario.getIdUsuario())
-                    .nombre(usuario.getNombre())
-                    .email(usuario.getEmail())
-                    .rol(usuario.getRol().getNombre())
-                    .expiresIn(jwtUtil.getExpirationTime())
-                    .build();
-            
-            return ResponseEntity.ok(response);
+            // Verificar contraseña en el pool de hashing, sin ocupar el hilo de Tomcat
+            return passwordHasher.verificar(loginRequest.getPassword(), hash)
+                    .handle((valida, error) -> {
+                        loginThrottle.finalizarIntento(cuenta, error == null && valida);
+                        if (error != null) {
+                            return errorHashing(error);
+                        }
+                        if (!valida) {
+                            return ResponseEntity.badRequest()
+                                    .body(Map.of("error", "Credenciales inválidas"));
+                        }
+                        
+                        // Subir el hash al coste actual de BCrypt sin retrasar la respuesta
+                        if (passwordHasher.necesitaRehash(hash)) {
+                            rehacerHash(idUsuario, loginRequest.getPassword());
+                        }
+                        
+                        try {
+                            // Generar token JWT y el refresh token que abre la sesión
+                            String token = jwtUtil.generateToken(idUsuario, email, rol);
+                            String refreshToken = refreshTokenService.emitir(idUsuario);
+                            
+                            // Construir respuesta
+                            LoginResponseDTO response = LoginResponseDTO.builder()
+                                    .token(token)
+                                    .type("Bearer")
+                                    .idUsuario(idUsuario)
+                                    .nombre(nombre)
+                                    .email(email)
+                                    .rol(rol)
+                                    .expiresIn(jwtUtil.getExpirationTime())
+                                    .refreshToken(refreshToken)
+                                    .refreshExpiresIn(refreshTokenService.getRefreshExpiration())
+                                    .build();
+                            
+                            return ResponseEntity.ok(response);
+                        } catch (Exception e) {
+                            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                    .body(Map.of("error", "Error al procesar la solicitud: " + e.getMessage()));
+                        }
+                    });
             
+        } catch (Exception e) {
+            loginThrottle.finalizarIntento(cuenta, false);
+            return respuesta(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error al procesar la solicitud: " + e.getMessage())));
+        }
+    }
+    
+    /**
+     * Renovar el token JWT con un refresh token
+     * POST /api/auth/refresh
+     */
+    @Operation(
+        summary = "Renovar token JWT",
+        description = "Cambia un refresh token por un token JWT nuevo y el siguiente refresh token. " +
+                      "Cada refresh token sirve una sola vez; reutilizarlo cierra la sesión"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens renovados",
+            content = @Content(schema = @Schema(implementation = LoginResponseDTO.class))),
+        @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado, revocado o ya utilizado")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.refrescar(request.getRefreshToken()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Error al procesar la solicitud: " + e.getMessage()));
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+    
+    /**
+     * Cerrar sesión: revoca el refresh token (y su familia) y el token JWT presentado
+     * POST /api/auth/logout
+     */
+    @Operation(
+        summary = "Cerrar sesión",
+        description = "Revoca el refresh token indicado y, si se envía el header Authorization, también el token JWT"
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshTokenRequestDTO request,
+                                    @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        try {
+            boolean sesionCerrada = request != null && refreshTokenService.cerrarSesion(request.getRefreshToken());
+            
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                try {
+                    String tokenId = jwtUtil.extractTokenId(token);
+                    if (tokenId != null) {
+                        listaRevocacion.revocarToken(tokenId, jwtUtil.extractExpiration(token).getTime());
+                        sesionCerrada = true;
+                    }
+                } catch (Exception e) {
+                    // Un token expirado o malformado ya no da acceso: no hay nada que revocar
+                }
+            }
+            
+            return ResponseEntity.ok(Map.of("sesionCerrada", sesionCerrada));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+    
+    /**
+     * Revocar todas las sesiones de un usuario (ej: empleado dado de baja). Solo administradores
+     * POST /api/auth/revoke/{idUsuario}
+     */
+    @Operation(
+        summary = "Revocar sesiones de un usuario",
+        description = "Invalida sus refresh tokens y todos los tokens JWT emitidos hasta ahora. Requiere rol ADMINISTRADOR"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sesiones revocadas"),
+        @ApiResponse(responseCode = "403", description = "El usuario autenticado no es administrador")
+    })
+    @PostMapping("/revoke/{idUsuario}")
+    public ResponseEntity<?> revoke(@PathVariable String idUsuario) {
+        try {
+            int revocados = refreshTokenService.revocarUsuario(idUsuario);
+            return ResponseEntity.ok(Map.of(
+                "idUsuario", idUsuario,
+                "refreshTokensRevocados", revocados
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
         }
     }
     
@@ -142,6 +289,8 @@ public class AuthController {
                         .body(Map.of("error", "El email ya está registrado"));
             }
             
+            secuenciaUsuarioService.validarIdManual(request.getIdUsuario());
+            
             // Buscar rol
             Rol rol = rolRepository.findById(request.getIdRol().intValue())
                     .orElseThrow(() -> new RuntimeException("Rol no encontrado"));
@@ -151,7 +300,7 @@ public class AuthController {
             usuario.setIdUsuario(request.getIdUsuario());
             usuario.setNombre(request.getNombre());
             usuario.setEmail(request.getEmail());
-            usuario.setPassword(passwordEncoder.encode(request.getPassword()));
+            usuario.setPassword(passwordHasher.codificarYEsperar(request.getPassword()));
             usuario.setRol(rol);
             usuario.setFechaRegistro(LocalDateTime.now());
             
@@ -179,6 +328,11 @@ public class AuthController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return errorHashing(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error al crear usuario: " + e.getMessage()));
@@ -220,5 +374,31 @@ public class AuthController {
                     .body(Map.of("valid", false, "error", "Token inválido: " + e.getMessage()));
         }
     }
+    
+    private CompletableFuture<ResponseEntity<?>> respuesta(ResponseEntity<?> response) {
+        return CompletableFuture.completedFuture(response);
+    }
+    
+    /**
+     * Convertir un error del pool de hashing en respuesta: 503 si está saturado, 500 en otro caso
+     */
+    private ResponseEntity<?> errorHashing(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (causa instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Servicio de autenticación saturado, intente de nuevo"));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error al procesar la solicitud: " + causa.getMessage()));
+    }
+    
+    private void rehacerHash(String idUsuario, String password) {
+        passwordHasher.codificar(password)
+                .thenAccept(nuevoHash -> usuarioRepository.actualizarPassword(idUsuario, nuevoHash))
+                .exceptionally(error -> {
+                    System.out.println("⚠️ Login - No se pudo actualizar el hash de " + idUsuario + ": " + error.getMessage());
+                    return null;
+                });
+    }
 }
-
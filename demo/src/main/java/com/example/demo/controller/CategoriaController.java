@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.CategoriaDTO;
 import com.example.demo.entity.Categoria;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.service.CategoriaService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,14 +28,17 @@ public class CategoriaController {
     @Autowired
     private CategoriaService categoriaService;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todas las categorías
      * GET /api/categorias
      */
     @GetMapping
-    public ResponseEntity<List<Categoria>> obtenerTodasLasCategorias() {
+    public ResponseEntity<List<CategoriaDTO>> obtenerTodasLasCategorias() {
         try {
-            List<Categoria> categorias = categoriaService.obtenerCategoriasOrdenadas();
+            List<CategoriaDTO> categorias = categoriaService.listarCategoriasOrdenadas();
             return ResponseEntity.ok(categorias);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -45,10 +50,11 @@ public class CategoriaController {
      * GET /api/categorias/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Categoria> obtenerCategoriaPorId(@PathVariable Integer id) {
+    public ResponseEntity<CategoriaDTO> obtenerCategoriaPorId(@PathVariable Integer id) {
         try {
             Optional<Categoria> categoria = categoriaService.obtenerCategoriaPorId(id);
-            return categoria.map(ResponseEntity::ok)
+            return categoria.map(catalogoMapper::toCategoriaDTO)
+                          .map(ResponseEntity::ok)
                           .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -60,10 +66,11 @@ public class CategoriaController {
      * GET /api/categorias/nombre/{nombre}
      */
     @GetMapping("/nombre/{nombre}")
-    public ResponseEntity<Categoria> obtenerCategoriaPorNombre(@PathVariable String nombre) {
+    public ResponseEntity<CategoriaDTO> obtenerCategoriaPorNombre(@PathVariable String nombre) {
         try {
             Optional<Categoria> categoria = categoriaService.obtenerCategoriaPorNombre(nombre);
-            return categoria.map(ResponseEntity::ok)
+            return categoria.map(catalogoMapper::toCategoriaDTO)
+                          .map(ResponseEntity::ok)
                           .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -78,7 +85,7 @@ public class CategoriaController {
     public ResponseEntity<?> crearCategoria(@Valid @RequestBody Categoria categoria) {
         try {
             Categoria categoriaCreada = categoriaService.crearCategoria(categoria);
-            return ResponseEntity.status(HttpStatus.CREATED).body(categoriaCreada);
+            return ResponseEntity.status(HttpStatus.CREATED).body(catalogoMapper.toCategoriaDTO(categoriaCreada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -95,7 +102,7 @@ public class CategoriaController {
     public ResponseEntity<?> actualizarCategoria(@PathVariable Integer id, @Valid @RequestBody Categoria categoria) {
         try {
             Categoria categoriaActualizada = categoriaService.actualizarCategoria(id, categoria);
-            return ResponseEntity.ok(categoriaActualizada);
+            return ResponseEntity.ok(catalogoMapper.toCategoriaDTO(categoriaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -126,9 +133,9 @@ public class CategoriaController {
      * GET /api/categorias/buscar?texto={texto}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Categoria>> buscarCategorias(@RequestParam String texto) {
+    public ResponseEntity<List<CategoriaDTO>> buscarCategorias(@RequestParam String texto) {
         try {
-            List<Categoria> categorias = categoriaService.buscarCategoriasPorTexto(texto);
+            List<CategoriaDTO> categorias = categoriaService.listarCategoriasPorTexto(texto);
             return ResponseEntity.ok(categorias);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
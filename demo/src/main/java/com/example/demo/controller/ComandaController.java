@@ -4,10 +4,12 @@ import com.example.demo.dto.request.ComandaCreateRequestDTO;
 import com.example.demo.dto.response.ComandaResponseDTO;
 import com.example.demo.entity.Comanda;
 import com.example.demo.mapper.ComandaMapper;
+import com.example.demo.service.ArchivadoComandasService;
 import com.example.demo.service.ComandaService;
 import com.example.demo.service.MesaService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +19,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Controlador REST para la gestión de comandas
@@ -38,6 +39,9 @@ public class ComandaController {
     @Autowired
     private MesaService mesaService;
     
+    @Autowired
+    private ArchivadoComandasService archivadoComandasService;
+    
     /**
      * Obtener todas las comandas
      * GET /api/comandas
@@ -45,11 +49,8 @@ public class ComandaController {
     @GetMapping
     public ResponseEntity<List<ComandaResponseDTO>> obtenerTodasLasComandas() {
         try {
-            List<Comanda> comandas = comandaService.obtenerTodasLasComandas();
-            List<ComandaResponseDTO> comandasDTO = comandas.stream()
-                    .map(comandaMapper::toResponseDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(comandasDTO);
+            List<ComandaResponseDTO> comandas = comandaService.listarComandas();
+            return ResponseEntity.ok(comandas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -60,10 +61,11 @@ public class ComandaController {
      * GET /api/comandas/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Comanda> obtenerComandaPorId(@PathVariable Integer id) {
+    public ResponseEntity<ComandaResponseDTO> obtenerComandaPorId(@PathVariable Integer id) {
         try {
             Optional<Comanda> comanda = comandaService.obtenerComandaPorId(id);
-            return comanda.map(ResponseEntity::ok)
+            return comanda.map(comandaMapper::toResponseDTO)
+                         .map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -75,9 +77,9 @@ public class ComandaController {
      * GET /api/comandas/mesa/{idMesa}
      */
     @GetMapping("/mesa/{idMesa}")
-    public ResponseEntity<List<Comanda>> obtenerComandasPorMesa(@PathVariable Integer idMesa) {
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasPorMesa(@PathVariable Integer idMesa) {
         try {
-            List<Comanda> comandas = comandaService.obtenerComandasPorMesa(idMesa);
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasPorMesa(idMesa);
             return ResponseEntity.ok(comandas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -145,6 +147,9 @@ public class ComandaController {
             ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -160,9 +165,12 @@ public class ComandaController {
     public ResponseEntity<?> marcarComandaComoPagada(@PathVariable Integer id) {
         try {
             Comanda comandaActualizada = comandaService.marcarComandaComoPagada(id);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -184,6 +192,9 @@ public class ComandaController {
             ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -196,9 +207,9 @@ public class ComandaController {
      * GET /api/comandas/mesero/{idMesero}
      */
     @GetMapping("/mesero/{idMesero}")
-    public ResponseEntity<List<Comanda>> obtenerComandasPorMesero(@PathVariable String idMesero) {
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasPorMesero(@PathVariable String idMesero) {
         try {
-            List<Comanda> comandas = comandaService.obtenerComandasPorMesero(idMesero);
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasPorMesero(idMesero);
             return ResponseEntity.ok(comandas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -212,9 +223,9 @@ public class ComandaController {
      * GET /api/comandas/cocinero/{idCocinero}
      */
     @GetMapping("/cocinero/{idCocinero}")
-    public ResponseEntity<List<Comanda>> obtenerComandasPorCocinero(@PathVariable String idCocinero) {
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasPorCocinero(@PathVariable String idCocinero) {
         try {
-            List<Comanda> comandas = comandaService.obtenerComandasPorCocinero(idCocinero);
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasPorCocinero(idCocinero);
             return ResponseEntity.ok(comandas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -228,9 +239,9 @@ public class ComandaController {
      * GET /api/comandas/estado/{idEstado}
      */
     @GetMapping("/estado/{idEstado}")
-    public ResponseEntity<List<Comanda>> obtenerComandasPorEstado(@PathVariable Integer idEstado) {
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasPorEstado(@PathVariable Integer idEstado) {
         try {
-            List<Comanda> comandas = comandaService.obtenerComandasPorEstado(idEstado);
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasPorEstado(idEstado);
             return ResponseEntity.ok(comandas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -244,9 +255,9 @@ public class ComandaController {
      * GET /api/comandas/pendientes
      */
     @GetMapping("/pendientes")
-    public ResponseEntity<List<Comanda>> obtenerComandasPendientes() {
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasPendientes() {
         try {
-            List<Comanda> comandas = comandaService.obtenerComandasPendientes();
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasPendientes();
             return ResponseEntity.ok(comandas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -258,9 +269,9 @@ public class ComandaController {
      * GET /api/comandas/preparacion
      */
     @GetMapping("/preparacion")
-    public ResponseEntity<List<Comanda>> obtenerComandasEnPreparacion() {
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasEnPreparacion() {
         try {
-            List<Comanda> comandas = comandaService.obtenerComandasEnPreparacion();
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasEnPreparacion();
             return ResponseEntity.ok(comandas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -275,9 +286,12 @@ public class ComandaController {
     public ResponseEntity<?> crearComanda(@Valid @RequestBody Comanda comanda) {
         try {
             Comanda comandaCreada = comandaService.crearComanda(comanda);
-            return ResponseEntity.status(HttpStatus.CREATED).body(comandaCreada);
+            return ResponseEntity.status(HttpStatus.CREATED).body(comandaMapper.toResponseDTO(comandaCreada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -328,11 +342,14 @@ public class ComandaController {
             System.out.println("✅ Todos los campos válidos, creando comanda...");
             Comanda comandaCreada = comandaService.crearComandaConDatos(idMesa, idMesero);
             System.out.println("✅ Comanda creada con ID: " + comandaCreada.getIdComanda());
-            return ResponseEntity.status(HttpStatus.CREATED).body(comandaCreada);
+            return ResponseEntity.status(HttpStatus.CREATED).body(comandaMapper.toResponseDTO(comandaCreada));
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Error de validación: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             System.out.println("❌ Error interno: " + e.getMessage());
             e.printStackTrace();
@@ -349,9 +366,12 @@ public class ComandaController {
     public ResponseEntity<?> actualizarComanda(@PathVariable Integer id, @Valid @RequestBody Comanda comanda) {
         try {
             Comanda comandaActualizada = comandaService.actualizarComanda(id, comanda);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -369,6 +389,9 @@ public class ComandaController {
             return ResponseEntity.ok(Map.of("message", "Comanda eliminada exitosamente"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -383,9 +406,12 @@ public class ComandaController {
     public ResponseEntity<?> cambiarEstadoComanda(@PathVariable Integer id, @PathVariable Integer idEstado) {
         try {
             Comanda comandaActualizada = comandaService.cambiarEstadoComanda(id, idEstado);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -400,9 +426,12 @@ public class ComandaController {
     public ResponseEntity<?> asignarCocinero(@PathVariable Integer id, @PathVariable String idCocinero) {
         try {
             Comanda comandaActualizada = comandaService.asignarCocinero(id, idCocinero);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -417,9 +446,12 @@ public class ComandaController {
     public ResponseEntity<?> marcarComandaComoPendiente(@PathVariable Integer id) {
         try {
             Comanda comandaActualizada = comandaService.marcarComandaComoPendiente(id);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -434,9 +466,12 @@ public class ComandaController {
     public ResponseEntity<?> marcarComandaComoEnPreparacion(@PathVariable Integer id, @PathVariable String idCocinero) {
         try {
             Comanda comandaActualizada = comandaService.marcarComandaComoEnPreparacion(id, idCocinero);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -451,9 +486,12 @@ public class ComandaController {
     public ResponseEntity<?> marcarComandaComoCompletada(@PathVariable Integer id) {
         try {
             Comanda comandaActualizada = comandaService.marcarComandaComoCompletada(id);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -468,9 +506,12 @@ public class ComandaController {
     public ResponseEntity<?> marcarComandaComoCancelada(@PathVariable Integer id) {
         try {
             Comanda comandaActualizada = comandaService.marcarComandaComoCancelada(id);
-            return ResponseEntity.ok(comandaActualizada);
+            return ResponseEntity.ok(comandaMapper.toResponseDTO(comandaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -482,14 +523,14 @@ public class ComandaController {
      * GET /api/comandas/fechas?inicio={inicio}&fin={fin}
      */
     @GetMapping("/fechas")
-    public ResponseEntity<List<Comanda>> obtenerComandasPorRangoFechas(
+    public ResponseEntity<List<ComandaResponseDTO>> obtenerComandasPorRangoFechas(
             @RequestParam String inicio, 
             @RequestParam String fin) {
         try {
             LocalDateTime fechaInicio = LocalDateTime.parse(inicio);
             LocalDateTime fechaFin = LocalDateTime.parse(fin);
             
-            List<Comanda> comandas = comandaService.obtenerComandasPorRangoFechas(fechaInicio, fechaFin);
+            List<ComandaResponseDTO> comandas = comandaService.listarComandasPorRangoFechas(fechaInicio, fechaFin);
             return ResponseEntity.ok(comandas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -519,6 +560,29 @@ public class ComandaController {
         }
     }
     
+    /**
+     * Archivar las comandas pagadas o canceladas con más de {dias} días
+     * POST /api/comandas/archivar?dias={dias}
+     */
+    @PostMapping("/archivar")
+    public ResponseEntity<?> archivarComandas(@RequestParam(defaultValue = "90") Integer dias) {
+        try {
+            int archivadas = archivadoComandasService.archivarComandas(dias);
+            return ResponseEntity.ok(Map.of(
+                "archivadas", archivadas,
+                "totalHistorico", archivadoComandasService.contarComandasArchivadas()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+    
     /**
      * Contar total de comandas
      * GET /api/comandas/count
@@ -1,9 +1,10 @@
 package com.example.demo.controller;
 
 import com.example.demo.entity.Comanda;
-import com.example.demo.entity.Producto;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +18,7 @@ import java.util.stream.Collectors;
 /**
  * Controlador para el dashboard del panel de control
  */
+@Lazy
 @RestController
 @RequestMapping("/api/dashboard")
 @CrossOrigin(origins = "*")
@@ -115,17 +117,16 @@ public class DashboardController {
             }).collect(Collectors.toList());
             
             // Productos más vendidos (top 5)
-            List<Object[]> productosMasVendidos = detalleComandaRepository.findProductosMasVendidos(null);
+            List<Object[]> productosMasVendidos = detalleComandaRepository.findProductosMasVendidos(PageRequest.of(0, 5));
             List<Map<String, Object>> productosTopDTO = productosMasVendidos.stream()
-                .limit(5)
                 .map(result -> {
-                    Producto producto = (Producto) result[0];
-                    Long cantidadTotal = ((Number) result[1]).longValue();
+                    BigDecimal precio = (BigDecimal) result[2];
+                    Long cantidadTotal = ((Number) result[3]).longValue();
                     Map<String, Object> productoMap = new HashMap<>();
-                    productoMap.put("id", producto.getIdProducto());
-                    productoMap.put("nombre", producto.getNombre());
+                    productoMap.put("id", result[0]);
+                    productoMap.put("nombre", result[1]);
                     productoMap.put("cantidadVendida", cantidadTotal);
-                    productoMap.put("precio", producto.getPrecio() != null ? producto.getPrecio().doubleValue() : 0.0);
+                    productoMap.put("precio", precio != null ? precio.doubleValue() : 0.0);
                     return productoMap;
                 })
                 .collect(Collectors.toList());
@@ -1,9 +1,12 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.DetalleComandaDTO;
 import com.example.demo.entity.DetalleComanda;
+import com.example.demo.mapper.ComandaMapper;
 import com.example.demo.service.DetalleComandaService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,14 +30,17 @@ public class DetalleComandaController {
     @Autowired
     private DetalleComandaService detalleComandaService;
     
+    @Autowired
+    private ComandaMapper comandaMapper;
+    
     /**
      * Obtener todos los detalles de comandas
      * GET /api/detalle-comandas
      */
     @GetMapping
-    public ResponseEntity<List<DetalleComanda>> obtenerTodosLosDetalles() {
+    public ResponseEntity<List<DetalleComandaDTO>> obtenerTodosLosDetalles() {
         try {
-            List<DetalleComanda> detalles = detalleComandaService.obtenerTodosLosDetalles();
+            List<DetalleComandaDTO> detalles = detalleComandaService.listarDetalles();
             return ResponseEntity.ok(detalles);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -46,10 +52,11 @@ public class DetalleComandaController {
      * GET /api/detalle-comandas/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<DetalleComanda> obtenerDetallePorId(@PathVariable Integer id) {
+    public ResponseEntity<DetalleComandaDTO> obtenerDetallePorId(@PathVariable Integer id) {
         try {
             Optional<DetalleComanda> detalle = detalleComandaService.obtenerDetallePorId(id);
-            return detalle.map(ResponseEntity::ok)
+            return detalle.map(comandaMapper::toDetalleComandaDTO)
+                         .map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -61,9 +68,9 @@ public class DetalleComandaController {
      * GET /api/detalle-comandas/comanda/{idComanda}
      */
     @GetMapping("/comanda/{idComanda}")
-    public ResponseEntity<List<DetalleComanda>> obtenerDetallesPorComanda(@PathVariable Integer idComanda) {
+    public ResponseEntity<List<DetalleComandaDTO>> obtenerDetallesPorComanda(@PathVariable Integer idComanda) {
         try {
-            List<DetalleComanda> detalles = detalleComandaService.obtenerDetallesPorComanda(idComanda);
+            List<DetalleComandaDTO> detalles = detalleComandaService.listarDetallesPorComanda(idComanda);
             return ResponseEntity.ok(detalles);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -77,9 +84,9 @@ public class DetalleComandaController {
      * GET /api/detalle-comandas/producto/{idProducto}
      */
     @GetMapping("/producto/{idProducto}")
-    public ResponseEntity<List<DetalleComanda>> obtenerDetallesPorProducto(@PathVariable Integer idProducto) {
+    public ResponseEntity<List<DetalleComandaDTO>> obtenerDetallesPorProducto(@PathVariable Integer idProducto) {
         try {
-            List<DetalleComanda> detalles = detalleComandaService.obtenerDetallesPorProducto(idProducto);
+            List<DetalleComandaDTO> detalles = detalleComandaService.listarDetallesPorProducto(idProducto);
             return ResponseEntity.ok(detalles);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -93,9 +100,9 @@ public class DetalleComandaController {
      * GET /api/detalle-comandas/estado/{idEstado}
      */
     @GetMapping("/estado/{idEstado}")
-    public ResponseEntity<List<DetalleComanda>> obtenerDetallesPorEstado(@PathVariable Integer idEstado) {
+    public ResponseEntity<List<DetalleComandaDTO>> obtenerDetallesPorEstado(@PathVariable Integer idEstado) {
         try {
-            List<DetalleComanda> detalles = detalleComandaService.obtenerDetallesPorEstado(idEstado);
+            List<DetalleComandaDTO> detalles = detalleComandaService.listarDetallesPorEstado(idEstado);
             return ResponseEntity.ok(detalles);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -112,9 +119,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> crearDetalle(@Valid @RequestBody DetalleComanda detalle) {
         try {
             DetalleComanda detalleCreado = detalleComandaService.crearDetalle(detalle);
-            return ResponseEntity.status(HttpStatus.CREATED).body(detalleCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(comandaMapper.toDetalleComandaDTO(detalleCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -138,9 +148,12 @@ public class DetalleComandaController {
             }
             
             DetalleComanda detalleCreado = detalleComandaService.crearDetalleConDatos(idComanda, idProducto, cantidad, precioUnitario);
-            return ResponseEntity.status(HttpStatus.CREATED).body(detalleCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(comandaMapper.toDetalleComandaDTO(detalleCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -155,9 +168,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> actualizarDetalle(@PathVariable Integer id, @Valid @RequestBody DetalleComanda detalle) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.actualizarDetalle(id, detalle);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -175,6 +191,9 @@ public class DetalleComandaController {
             return ResponseEntity.ok(Map.of("message", "Detalle eliminado exitosamente"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -189,9 +208,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> cambiarEstadoDetalle(@PathVariable Integer id, @PathVariable Integer idEstado) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.cambiarEstadoDetalle(id, idEstado);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -206,9 +228,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> marcarDetalleComoPendiente(@PathVariable Integer id) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.marcarDetalleComoPendiente(id);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -223,9 +248,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> marcarDetalleComoEnPreparacion(@PathVariable Integer id) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.marcarDetalleComoEnPreparacion(id);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -240,9 +268,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> marcarDetalleComoCompletado(@PathVariable Integer id) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.marcarDetalleComoCompletado(id);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -257,9 +288,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> marcarDetalleComoCancelado(@PathVariable Integer id) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.marcarDetalleComoCancelado(id);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -279,9 +313,12 @@ public class DetalleComandaController {
             }
             
             DetalleComanda detalleActualizado = detalleComandaService.actualizarCantidad(id, nuevaCantidad);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -301,9 +338,12 @@ public class DetalleComandaController {
             }
             
             DetalleComanda detalleActualizado = detalleComandaService.actualizarPrecioUnitario(id, nuevoPrecio);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -318,9 +358,12 @@ public class DetalleComandaController {
     public ResponseEntity<?> recalcularSubtotal(@PathVariable Integer id) {
         try {
             DetalleComanda detalleActualizado = detalleComandaService.recalcularSubtotal(id);
-            return ResponseEntity.ok(detalleActualizado);
+            return ResponseEntity.ok(comandaMapper.toDetalleComandaDTO(detalleActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -0,0 +1,85 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.request.CompletarLineasRequestDTO;
+import com.example.demo.dto.response.EstacionCocinaDTO;
+import com.example.demo.dto.response.LineaEstacionDTO;
+import com.example.demo.service.DetalleComandaService;
+import com.example.demo.service.EstacionesCocinaService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para las estaciones de cocina
+ * Cada estación ve solo las líneas de sus categorías y las completa en bloque
+ */
+@Tag(name = "Estaciones de cocina", description = "API de colas de preparación por estación (bebidas, postres, platos calientes...)")
+@RestController
+@RequestMapping("/api/estaciones")
+@CrossOrigin(origins = "*")
+public class EstacionCocinaController {
+
+    @Autowired
+    private EstacionesCocinaService estacionesCocinaService;
+
+    @Autowired
+    private DetalleComandaService detalleComandaService;
+
+    /**
+     * Obtener las estaciones con sus líneas pendientes y completadas
+     * GET /api/estaciones
+     */
+    @GetMapping
+    public ResponseEntity<List<EstacionCocinaDTO>> obtenerEstaciones() {
+        return ResponseEntity.ok(estacionesCocinaService.obtenerEstaciones());
+    }
+
+    /**
+     * Obtener las líneas pendientes de una estación en orden de llegada
+     * GET /api/estaciones/{estacion}/pendientes
+     */
+    @GetMapping("/{estacion}/pendientes")
+    public ResponseEntity<?> obtenerPendientes(@PathVariable String estacion) {
+        try {
+            List<LineaEstacionDTO> lineas = estacionesCocinaService.obtenerPendientes(estacion);
+            return ResponseEntity.ok(lineas);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Completar varias líneas de una estación
+     * POST /api/estaciones/{estacion}/completar
+     */
+    @PostMapping("/{estacion}/completar")
+    public ResponseEntity<?> completarLineas(@PathVariable String estacion,
+                                             @Valid @RequestBody CompletarLineasRequestDTO request) {
+        try {
+            List<Integer> comandasCompletadas = detalleComandaService.completarLineasEstacion(estacion, request.getIdsDetalle());
+            return ResponseEntity.ok(Map.of(
+                "message", "Líneas completadas exitosamente",
+                "lineas", request.getIdsDetalle().size(),
+                "comandasCompletadas", comandasCompletadas
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.EstadoDTO;
 import com.example.demo.entity.Estado;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.service.EstadoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,6 +34,9 @@ public class EstadoController {
     @Autowired
     private EstadoService estadoService;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     @Operation(
         summary = "Obtener todos los estados",
         description = "Retorna una lista de todos los estados ordenados alfabéticamente"
@@ -41,9 +46,9 @@ public class EstadoController {
             content = @Content(schema = @Schema(implementation = Estado.class)))
     })
     @GetMapping
-    public ResponseEntity<List<Estado>> obtenerTodosLosEstados() {
+    public ResponseEntity<List<EstadoDTO>> obtenerTodosLosEstados() {
         try {
-            List<Estado> estados = estadoService.obtenerEstadosOrdenados();
+            List<EstadoDTO> estados = estadoService.listarEstadosOrdenados();
             return ResponseEntity.ok(estados);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -55,10 +60,11 @@ public class EstadoController {
      * GET /api/estados/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Estado> obtenerEstadoPorId(@PathVariable Integer id) {
+    public ResponseEntity<EstadoDTO> obtenerEstadoPorId(@PathVariable Integer id) {
         try {
             Optional<Estado> estado = estadoService.obtenerEstadoPorId(id);
-            return estado.map(ResponseEntity::ok)
+            return estado.map(catalogoMapper::toEstadoDTO)
+                        .map(ResponseEntity::ok)
                         .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -70,10 +76,11 @@ public class EstadoController {
      * GET /api/estados/nombre/{nombre}
      */
     @GetMapping("/nombre/{nombre}")
-    public ResponseEntity<Estado> obtenerEstadoPorNombre(@PathVariable String nombre) {
+    public ResponseEntity<EstadoDTO> obtenerEstadoPorNombre(@PathVariable String nombre) {
         try {
             Optional<Estado> estado = estadoService.obtenerEstadoPorNombre(nombre);
-            return estado.map(ResponseEntity::ok)
+            return estado.map(catalogoMapper::toEstadoDTO)
+                        .map(ResponseEntity::ok)
                         .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -94,7 +101,7 @@ public class EstadoController {
         @Valid @RequestBody Estado estado) {
         try {
             Estado estadoCreado = estadoService.crearEstado(estado);
-            return ResponseEntity.status(HttpStatus.CREATED).body(estadoCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(catalogoMapper.toEstadoDTO(estadoCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -111,7 +118,7 @@ public class EstadoController {
     public ResponseEntity<?> actualizarEstado(@PathVariable Integer id, @Valid @RequestBody Estado estado) {
         try {
             Estado estadoActualizado = estadoService.actualizarEstado(id, estado);
-            return ResponseEntity.ok(estadoActualizado);
+            return ResponseEntity.ok(catalogoMapper.toEstadoDTO(estadoActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -142,9 +149,9 @@ public class EstadoController {
      * GET /api/estados/buscar?texto={texto}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Estado>> buscarEstados(@RequestParam String texto) {
+    public ResponseEntity<List<EstadoDTO>> buscarEstados(@RequestParam String texto) {
         try {
-            List<Estado> estados = estadoService.buscarEstadosPorTexto(texto);
+            List<EstadoDTO> estados = estadoService.listarEstadosPorTexto(texto);
             return ResponseEntity.ok(estados);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
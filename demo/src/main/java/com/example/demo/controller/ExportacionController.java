@@ -0,0 +1,76 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.ExportacionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Controlador REST para exportaciones masivas
+ * Las respuestas se escriben en streaming mientras se leen de la base de datos
+ */
+@Tag(name = "Exportación", description = "API para exportar comandas con sus líneas en CSV o NDJSON")
+@Lazy
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*")
+public class ExportacionController {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Exportar comandas con sus líneas por rango de días
+     * GET /api/export/comandas?desde={desde}&hasta={hasta}&formato={csv|ndjson}
+     */
+    @GetMapping("/comandas")
+    public ResponseEntity<StreamingResponseBody> exportarComandas(
+            @RequestParam String desde,
+            @RequestParam String hasta,
+            @RequestParam(defaultValue = "csv") String formato) {
+        try {
+            LocalDate fechaDesde = LocalDate.parse(desde);
+            LocalDate fechaHasta = LocalDate.parse(hasta);
+            ExportacionService.Formato formatoSalida = ExportacionService.Formato.desdeCodigo(formato);
+            exportacionService.validarRango(fechaDesde, fechaHasta);
+
+            StreamingResponseBody cuerpo = salida ->
+                exportacionService.exportarComandas(fechaDesde, fechaHasta, formatoSalida, salida);
+
+            String archivo = "comandas_" + fechaDesde + "_" + fechaHasta + "." + formatoSalida.getExtension();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(formatoSalida.getTipoContenido()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"")
+                    .body(cuerpo);
+        } catch (DateTimeParseException e) {
+            return error(HttpStatus.BAD_REQUEST, "Formato de fecha inválido, use AAAA-MM-DD");
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor");
+        }
+    }
+
+    /**
+     * Respuesta de error en JSON; el tipo de retorno debe seguir siendo StreamingResponseBody
+     */
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String mensaje) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(salida -> objectMapper.writeValue(salida, Map.of("error", mensaje)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.PronosticoProductoDTO;
+import com.example.demo.service.PronosticoConsumoService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para el pronóstico de consumo y la reposición del inventario
+ */
+@Tag(name = "Inventario", description = "API de inventario: agotamiento previsto y cantidades sugeridas de reposición")
+@RestController
+@RequestMapping("/api/inventario")
+@CrossOrigin(origins = "*")
+public class InventarioController {
+
+    @Autowired
+    private PronosticoConsumoService pronosticoConsumoService;
+
+    /**
+     * Obtener el agotamiento previsto y la cantidad a reponer de cada producto activo
+     * GET /api/inventario/pronostico
+     */
+    @GetMapping("/pronostico")
+    public ResponseEntity<?> obtenerPronostico() {
+        try {
+            List<PronosticoProductoDTO> pronostico = pronosticoConsumoService.obtenerPronostico();
+            return ResponseEntity.ok(pronostico);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
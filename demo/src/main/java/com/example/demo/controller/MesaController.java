@@ -7,6 +7,7 @@ import com.example.demo.mapper.MesaMapper;
 import com.example.demo.service.MesaService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,7 +16,6 @@ import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Controlador REST para la gestión de mesas
@@ -40,11 +40,8 @@ public class MesaController {
     @GetMapping
     public ResponseEntity<List<MesaResponseDTO>> obtenerTodasLasMesas() {
         try {
-            List<Mesa> mesas = mesaService.obtenerTodasLasMesas();
-            List<MesaResponseDTO> mesasDTO = mesas.stream()
-                    .map(mesaMapper::toResponseDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(mesasDTO);
+            List<MesaResponseDTO> mesas = mesaService.listarMesas();
+            return ResponseEntity.ok(mesas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -55,10 +52,11 @@ public class MesaController {
      * GET /api/mesas/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Mesa> obtenerMesaPorId(@PathVariable Integer id) {
+    public ResponseEntity<MesaResponseDTO> obtenerMesaPorId(@PathVariable Integer id) {
         try {
             Optional<Mesa> mesa = mesaService.obtenerMesaPorId(id);
-            return mesa.map(ResponseEntity::ok)
+            return mesa.map(mesaMapper::toResponseDTO)
+                      .map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -70,9 +68,9 @@ public class MesaController {
      * GET /api/mesas/estado/{idEstado}
      */
     @GetMapping("/estado/{idEstado}")
-    public ResponseEntity<List<Mesa>> obtenerMesasPorEstado(@PathVariable Integer idEstado) {
+    public ResponseEntity<List<MesaResponseDTO>> obtenerMesasPorEstado(@PathVariable Integer idEstado) {
         try {
-            List<Mesa> mesas = mesaService.obtenerMesasPorEstado(idEstado);
+            List<MesaResponseDTO> mesas = mesaService.listarMesasPorEstado(idEstado);
             return ResponseEntity.ok(mesas);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -86,9 +84,9 @@ public class MesaController {
      * GET /api/mesas/disponibles
      */
     @GetMapping("/disponibles")
-    public ResponseEntity<List<Mesa>> obtenerMesasDisponibles() {
+    public ResponseEntity<List<MesaResponseDTO>> obtenerMesasDisponibles() {
         try {
-            List<Mesa> mesas = mesaService.obtenerMesasDisponibles();
+            List<MesaResponseDTO> mesas = mesaService.listarMesasDisponibles();
             return ResponseEntity.ok(mesas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -103,9 +101,12 @@ public class MesaController {
     public ResponseEntity<?> crearMesa(@Valid @RequestBody Mesa mesa) {
         try {
             Mesa mesaCreada = mesaService.crearMesa(mesa);
-            return ResponseEntity.status(HttpStatus.CREATED).body(mesaCreada);
+            return ResponseEntity.status(HttpStatus.CREATED).body(mesaMapper.toResponseDTO(mesaCreada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -128,9 +129,12 @@ public class MesaController {
             }
             
             Mesa mesaCreada = mesaService.crearMesaConDatos(capacidad, ubicacion, nombreEstado);
-            return ResponseEntity.status(HttpStatus.CREATED).body(mesaCreada);
+            return ResponseEntity.status(HttpStatus.CREATED).body(mesaMapper.toResponseDTO(mesaCreada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -145,9 +149,12 @@ public class MesaController {
     public ResponseEntity<?> actualizarMesa(@PathVariable Integer id, @Valid @RequestBody Mesa mesa) {
         try {
             Mesa mesaActualizada = mesaService.actualizarMesa(id, mesa);
-            return ResponseEntity.ok(mesaActualizada);
+            return ResponseEntity.ok(mesaMapper.toResponseDTO(mesaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -165,6 +172,9 @@ public class MesaController {
             return ResponseEntity.ok(Map.of("message", "Mesa eliminada exitosamente"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -179,9 +189,12 @@ public class MesaController {
     public ResponseEntity<?> cambiarEstadoMesa(@PathVariable Integer id, @PathVariable Integer idEstado) {
         try {
             Mesa mesaActualizada = mesaService.cambiarEstadoMesa(id, idEstado);
-            return ResponseEntity.ok(mesaActualizada);
+            return ResponseEntity.ok(mesaMapper.toResponseDTO(mesaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -189,16 +202,19 @@ public class MesaController {
     }
     
     /**
-     * Ocupar una mesa
-     * PUT /api/mesas/{id}/ocupar
+     * Ocupar una mesa, opcionalmente con los comensales del grupo
+     * PUT /api/mesas/{id}/ocupar?comensales={comensales}
      */
     @PutMapping("/{id}/ocupar")
-    public ResponseEntity<?> ocuparMesa(@PathVariable Integer id) {
+    public ResponseEntity<?> ocuparMesa(@PathVariable Integer id, @RequestParam(required = false) Integer comensales) {
         try {
-            Mesa mesaActualizada = mesaService.ocuparMesa(id);
-            return ResponseEntity.ok(mesaActualizada);
+            Mesa mesaActualizada = mesaService.ocuparMesa(id, comensales);
+            return ResponseEntity.ok(mesaMapper.toResponseDTO(mesaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -213,9 +229,12 @@ public class MesaController {
     public ResponseEntity<?> liberarMesa(@PathVariable Integer id) {
         try {
             Mesa mesaActualizada = mesaService.liberarMesa(id);
-            return ResponseEntity.ok(mesaActualizada);
+            return ResponseEntity.ok(mesaMapper.toResponseDTO(mesaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -230,9 +249,12 @@ public class MesaController {
     public ResponseEntity<?> reservarMesa(@PathVariable Integer id) {
         try {
             Mesa mesaActualizada = mesaService.reservarMesa(id);
-            return ResponseEntity.ok(mesaActualizada);
+            return ResponseEntity.ok(mesaMapper.toResponseDTO(mesaActualizada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -244,9 +266,9 @@ public class MesaController {
      * GET /api/mesas/buscar?ubicacion={ubicacion}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Mesa>> buscarMesasPorUbicacion(@RequestParam String ubicacion) {
+    public ResponseEntity<List<MesaResponseDTO>> buscarMesasPorUbicacion(@RequestParam String ubicacion) {
         try {
-            List<Mesa> mesas = mesaService.buscarMesasPorUbicacion(ubicacion);
+            List<MesaResponseDTO> mesas = mesaService.listarMesasPorUbicacion(ubicacion);
             return ResponseEntity.ok(mesas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -258,9 +280,9 @@ public class MesaController {
      * GET /api/mesas/capacidad/{capacidadMinima}
      */
     @GetMapping("/capacidad/{capacidadMinima}")
-    public ResponseEntity<List<Mesa>> buscarMesasPorCapacidadMinima(@PathVariable Integer capacidadMinima) {
+    public ResponseEntity<List<MesaResponseDTO>> buscarMesasPorCapacidadMinima(@PathVariable Integer capacidadMinima) {
         try {
-            List<Mesa> mesas = mesaService.buscarMesasPorCapacidadMinima(capacidadMinima);
+            List<MesaResponseDTO> mesas = mesaService.listarMesasPorCapacidadMinima(capacidadMinima);
             return ResponseEntity.ok(mesas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -272,9 +294,9 @@ public class MesaController {
      * GET /api/mesas/disponibles/capacidad/{capacidad}
      */
     @GetMapping("/disponibles/capacidad/{capacidad}")
-    public ResponseEntity<List<Mesa>> obtenerMesasDisponiblesPorCapacidad(@PathVariable Integer capacidad) {
+    public ResponseEntity<List<MesaResponseDTO>> obtenerMesasDisponiblesPorCapacidad(@PathVariable Integer capacidad) {
         try {
-            List<Mesa> mesas = mesaService.obtenerMesasDisponiblesPorCapacidad(capacidad);
+            List<MesaResponseDTO> mesas = mesaService.listarMesasDisponiblesPorCapacidad(capacidad);
             return ResponseEntity.ok(mesas);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
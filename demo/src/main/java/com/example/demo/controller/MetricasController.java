@@ -0,0 +1,85 @@
+package com.example.demo.controller;
+
+import com.example.demo.auditoria.EscritorAuditoria;
+import com.example.demo.concurrencia.ReintentoConflictosAspect;
+import com.example.demo.security.LimitadorPeticiones;
+import com.example.demo.security.ListaRevocacion;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.PasswordHasher;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST para métricas internas de la aplicación
+ */
+@Tag(name = "Métricas", description = "Métricas de funcionamiento interno (pools, colas, limitadores, conflictos de concurrencia, auditoría)")
+@Lazy
+@RestController
+@RequestMapping("/api/metricas")
+@CrossOrigin(origins = "*")
+public class MetricasController {
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
+    @Autowired
+    private ReintentoConflictosAspect reintentoConflictos;
+
+    @Autowired
+    private LimitadorPeticiones limitadorPeticiones;
+
+    @Autowired
+    private EscritorAuditoria escritorAuditoria;
+
+    /**
+     * Obtener métricas de autenticación: pool de hashing, limitador de login y lista de revocación
+     * GET /api/metricas/autenticacion
+     */
+    @GetMapping("/autenticacion")
+    public ResponseEntity<Map<String, Object>> obtenerMetricasAutenticacion() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("hashing", passwordHasher.obtenerEstadisticas());
+        metricas.put("login", loginThrottle.obtenerEstadisticas());
+        metricas.put("revocacion", listaRevocacion.obtenerEstadisticas());
+        return ResponseEntity.ok(metricas);
+    }
+
+    /**
+     * Obtener métricas de concurrencia: conflictos de versión, reintentos y presupuesto de reintentos
+     * GET /api/metricas/concurrencia
+     */
+    @GetMapping("/concurrencia")
+    public ResponseEntity<Map<String, Object>> obtenerMetricasConcurrencia() {
+        return ResponseEntity.ok(reintentoConflictos.obtenerEstadisticas());
+    }
+
+    /**
+     * Obtener métricas del límite de peticiones por usuario: permitidas, rechazadas (429) y rechazos por regla
+     * GET /api/metricas/limite-peticiones
+     */
+    @GetMapping("/limite-peticiones")
+    public ResponseEntity<Map<String, Object>> obtenerMetricasLimitePeticiones() {
+        return ResponseEntity.ok(limitadorPeticiones.obtenerEstadisticas());
+    }
+
+    /**
+     * Obtener métricas de la cola de auditoría: ocupación, eventos descartados por cola llena y lotes escritos
+     * GET /api/metricas/auditoria
+     */
+    @GetMapping("/auditoria")
+    public ResponseEntity<Map<String, Object>> obtenerMetricasAuditoria() {
+        return ResponseEntity.ok(escritorAuditoria.obtenerEstadisticas());
+    }
+}
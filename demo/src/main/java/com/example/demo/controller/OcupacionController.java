@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.OcupacionUbicacionDTO;
+import com.example.demo.service.OcupacionMesasService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para la ocupación de las mesas en vivo y la rotación del día
+ */
+@Tag(name = "Ocupación", description = "API de ocupación de mesas: asientos ocupados, tiempos de estancia y rotación por ubicación")
+@RestController
+@RequestMapping("/api/ocupacion")
+@CrossOrigin(origins = "*")
+public class OcupacionController {
+
+    @Autowired
+    private OcupacionMesasService ocupacionMesasService;
+
+    /**
+     * Obtener la ocupación actual y las métricas del día por ubicación
+     * GET /api/ocupacion
+     */
+    @GetMapping
+    public ResponseEntity<?> obtenerOcupacion() {
+        try {
+            List<OcupacionUbicacionDTO> ocupacion = ocupacionMesasService.obtenerOcupacion();
+            return ResponseEntity.ok(ocupacion);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
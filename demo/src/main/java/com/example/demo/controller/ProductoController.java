@@ -1,22 +1,28 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.request.ProductoCreateRequestDTO;
+import com.example.demo.dto.response.AlertaStockDTO;
 import com.example.demo.dto.response.ProductoResponseDTO;
+import com.example.demo.dto.response.ProductoTopDTO;
 import com.example.demo.entity.Producto;
 import com.example.demo.mapper.ProductoMapper;
+import com.example.demo.service.AlertasStockService;
+import com.example.demo.service.BestSellerService;
 import com.example.demo.service.ProductoService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Controlador REST para la gestión de productos
@@ -34,6 +40,12 @@ public class ProductoController {
     @Autowired
     private ProductoMapper productoMapper;
     
+    @Autowired
+    private BestSellerService bestSellerService;
+    
+    @Autowired
+    private AlertasStockService alertasStockService;
+    
     /**
      * Obtener todos los productos
      * GET /api/productos
@@ -41,19 +53,8 @@ public class ProductoController {
     @GetMapping
     public ResponseEntity<List<ProductoResponseDTO>> obtenerTodosLosProductos() {
         try {
-            List<Producto> productos = productoService.obtenerTodosLosProductos();
-            List<ProductoResponseDTO> productosDTO = productos.stream()
-                    .map(productoMapper::toResponseDTO)
-                    .collect(Collectors.toList());
-            
-            // Log para verificar qué se está enviando
+            List<ProductoResponseDTO> productosDTO = productoService.listarProductos();
             System.out.println("📤 Controller - Enviando " + productosDTO.size() + " productos");
-            for (ProductoResponseDTO dto : productosDTO) {
-                System.out.println("📤 Controller - Producto ID: " + dto.getIdProducto() + 
-                    ", Categoría: " + dto.getCategoria() + 
-                    ", idCategoria: " + dto.getIdCategoria());
-            }
-            
             return ResponseEntity.ok(productosDTO);
         } catch (Exception e) {
             e.printStackTrace();
@@ -61,6 +62,25 @@ public class ProductoController {
         }
     }
     
+    /**
+     * Obtener los productos más vendidos en una ventana de tiempo
+     * GET /api/productos/top?ventana={1h|hoy|7d|30d}&k={k}
+     */
+    @GetMapping("/top")
+    public ResponseEntity<?> obtenerProductosMasVendidos(
+            @RequestParam(defaultValue = "hoy") String ventana,
+            @RequestParam(defaultValue = "10") Integer k) {
+        try {
+            List<ProductoTopDTO> top = bestSellerService.obtenerTop(BestSellerService.Ventana.desdeCodigo(ventana), k);
+            return ResponseEntity.ok(top);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+    
     /**
      * Obtener producto por ID
      * GET /api/productos/{id}
@@ -81,9 +101,9 @@ public class ProductoController {
      * GET /api/productos/categoria/{idCategoria}
      */
     @GetMapping("/categoria/{idCategoria}")
-    public ResponseEntity<List<Producto>> obtenerProductosPorCategoria(@PathVariable Integer idCategoria) {
+    public ResponseEntity<List<ProductoResponseDTO>> obtenerProductosPorCategoria(@PathVariable Integer idCategoria) {
         try {
-            List<Producto> productos = productoService.obtenerProductosPorCategoria(idCategoria);
+            List<ProductoResponseDTO> productos = productoService.listarProductosPorCategoria(idCategoria);
             return ResponseEntity.ok(productos);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -97,9 +117,9 @@ public class ProductoController {
      * GET /api/productos/activos
      */
     @GetMapping("/activos")
-    public ResponseEntity<List<Producto>> obtenerProductosActivos() {
+    public ResponseEntity<List<ProductoResponseDTO>> obtenerProductosActivos() {
         try {
-            List<Producto> productos = productoService.obtenerProductosActivos();
+            List<ProductoResponseDTO> productos = productoService.listarProductosActivos();
             return ResponseEntity.ok(productos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -111,9 +131,9 @@ public class ProductoController {
      * GET /api/productos/inactivos
      */
     @GetMapping("/inactivos")
-    public ResponseEntity<List<Producto>> obtenerProductosInactivos() {
+    public ResponseEntity<List<ProductoResponseDTO>> obtenerProductosInactivos() {
         try {
-            List<Producto> productos = productoService.obtenerProductosInactivos();
+            List<ProductoResponseDTO> productos = productoService.listarProductosInactivos();
             return ResponseEntity.ok(productos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -128,9 +148,12 @@ public class ProductoController {
     public ResponseEntity<?> crearProducto(@Valid @RequestBody Producto producto) {
         try {
             Producto productoCreado = productoService.crearProducto(producto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(productoCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(productoMapper.toResponseDTO(productoCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -206,6 +229,9 @@ public class ProductoController {
             return ResponseEntity.badRequest().body(Map.of("error", "Error en el formato de los números: " + e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             e.printStackTrace(); // Log para debugging
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -221,9 +247,12 @@ public class ProductoController {
     public ResponseEntity<?> actualizarProducto(@PathVariable Integer id, @Valid @RequestBody Producto producto) {
         try {
             Producto productoActualizado = productoService.actualizarProducto(id, producto);
-            return ResponseEntity.ok(productoActualizado);
+            return ResponseEntity.ok(productoMapper.toResponseDTO(productoActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -241,6 +270,9 @@ public class ProductoController {
             return ResponseEntity.ok(Map.of("message", "Producto eliminado exitosamente"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -259,6 +291,9 @@ public class ProductoController {
             return ResponseEntity.ok(productoDTO);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -277,6 +312,9 @@ public class ProductoController {
             return ResponseEntity.ok(productoDTO);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -296,9 +334,37 @@ public class ProductoController {
             }
             
             Producto productoActualizado = productoService.actualizarStock(id, nuevoStock);
-            return ResponseEntity.ok(productoActualizado);
+            return ResponseEntity.ok(productoMapper.toResponseDTO(productoActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+    
+    /**
+     * Actualizar el umbral de reposición de un producto
+     * PUT /api/productos/{id}/umbral
+     */
+    @PutMapping("/{id}/umbral")
+    public ResponseEntity<?> actualizarUmbral(@PathVariable Integer id, @RequestBody Map<String, Integer> request) {
+        try {
+            Integer umbral = request.get("umbral");
+            if (umbral == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "El umbral es obligatorio"));
+            }
+            
+            Producto productoActualizado = productoService.actualizarUmbral(id, umbral);
+            return ResponseEntity.ok(productoMapper.toResponseDTO(productoActualizado));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -318,9 +384,12 @@ public class ProductoController {
             }
             
             Producto productoActualizado = productoService.reducirStock(id, cantidad);
-            return ResponseEntity.ok(productoActualizado);
+            return ResponseEntity.ok(productoMapper.toResponseDTO(productoActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -340,9 +409,12 @@ public class ProductoController {
             }
             
             Producto productoActualizado = productoService.aumentarStock(id, cantidad);
-            return ResponseEntity.ok(productoActualizado);
+            return ResponseEntity.ok(productoMapper.toResponseDTO(productoActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno del servidor"));
@@ -354,9 +426,9 @@ public class ProductoController {
      * GET /api/productos/buscar?nombre={nombre}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Producto>> buscarProductos(@RequestParam String nombre) {
+    public ResponseEntity<List<ProductoResponseDTO>> buscarProductos(@RequestParam String nombre) {
         try {
-            List<Producto> productos = productoService.buscarProductosPorNombre(nombre);
+            List<ProductoResponseDTO> productos = productoService.listarProductosPorNombre(nombre);
             return ResponseEntity.ok(productos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -368,11 +440,11 @@ public class ProductoController {
      * GET /api/productos/precio?minimo={minimo}&maximo={maximo}
      */
     @GetMapping("/precio")
-    public ResponseEntity<List<Producto>> buscarProductosPorPrecio(
+    public ResponseEntity<List<ProductoResponseDTO>> buscarProductosPorPrecio(
             @RequestParam BigDecimal minimo, 
             @RequestParam BigDecimal maximo) {
         try {
-            List<Producto> productos = productoService.buscarProductosPorRangoPrecio(minimo, maximo);
+            List<ProductoResponseDTO> productos = productoService.listarProductosPorRangoPrecio(minimo, maximo);
             return ResponseEntity.ok(productos);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -386,15 +458,33 @@ public class ProductoController {
      * GET /api/productos/stock-bajo/{stockMinimo}
      */
     @GetMapping("/stock-bajo/{stockMinimo}")
-    public ResponseEntity<List<Producto>> obtenerProductosConStockBajo(@PathVariable Integer stockMinimo) {
+    public ResponseEntity<List<ProductoResponseDTO>> obtenerProductosConStockBajo(@PathVariable Integer stockMinimo) {
         try {
-            List<Producto> productos = productoService.obtenerProductosConStockBajo(stockMinimo);
+            List<ProductoResponseDTO> productos = productoService.listarProductosConStockBajo(stockMinimo);
             return ResponseEntity.ok(productos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    /**
+     * Obtener los productos activos con stock igual o menor que su umbral de reposición
+     * GET /api/productos/bajo-umbral
+     */
+    @GetMapping("/bajo-umbral")
+    public ResponseEntity<List<AlertaStockDTO>> obtenerProductosBajoUmbral() {
+        return ResponseEntity.ok(alertasStockService.obtenerBajoUmbral());
+    }
+    
+    /**
+     * Recibir las alertas de stock en tiempo real (Server-Sent Events)
+     * GET /api/productos/alertas-stock
+     */
+    @GetMapping(value = "/alertas-stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirAlertasStock() {
+        return alertasStockService.suscribir();
+    }
+    
     /**
      * Verificar si existe un producto por nombre
      * GET /api/productos/existe/{nombre}
@@ -0,0 +1,132 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.request.ReservaRequestDTO;
+import com.example.demo.dto.response.MesaResponseDTO;
+import com.example.demo.dto.response.ReservaResponseDTO;
+import com.example.demo.entity.Reserva;
+import com.example.demo.mapper.ReservaMapper;
+import com.example.demo.service.ReservaService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para las reservas de mesa
+ * Expone endpoints para reservar franjas horarias y consultar la disponibilidad de mesas
+ */
+@Tag(name = "Reservas", description = "API para reservar mesas por franja horaria y buscar mesas disponibles")
+@RestController
+@RequestMapping("/api/reservas")
+@CrossOrigin(origins = "*")
+public class ReservaController {
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaMapper reservaMapper;
+
+    /**
+     * Listar las reservas vigentes que se solapan con un intervalo
+     * GET /api/reservas?desde={desde}&hasta={hasta}
+     */
+    @GetMapping
+    public ResponseEntity<?> listarReservas(@RequestParam String desde, @RequestParam String hasta) {
+        try {
+            List<ReservaResponseDTO> reservas = reservaService.listarReservas(LocalDateTime.parse(desde), LocalDateTime.parse(hasta));
+            return ResponseEntity.ok(reservas);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Listar las reservas pendientes de una mesa
+     * GET /api/reservas/mesa/{idMesa}
+     */
+    @GetMapping("/mesa/{idMesa}")
+    public ResponseEntity<?> listarReservasPorMesa(@PathVariable Integer idMesa) {
+        try {
+            List<ReservaResponseDTO> reservas = reservaService.listarReservasPorMesa(idMesa);
+            return ResponseEntity.ok(reservas);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Buscar mesas libres para un grupo en una franja horaria
+     * GET /api/reservas/disponibilidad?personas={personas}&inicio={inicio}&fin={fin}
+     */
+    @GetMapping("/disponibilidad")
+    public ResponseEntity<?> buscarMesasDisponibles(
+            @RequestParam Integer personas,
+            @RequestParam String inicio,
+            @RequestParam String fin) {
+        try {
+            List<MesaResponseDTO> mesas = reservaService.buscarMesasDisponibles(personas,
+                LocalDateTime.parse(inicio), LocalDateTime.parse(fin));
+            return ResponseEntity.ok(mesas);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Reservar una mesa
+     * POST /api/reservas
+     */
+    @PostMapping
+    public ResponseEntity<?> crearReserva(@Valid @RequestBody ReservaRequestDTO request) {
+        try {
+            Reserva reserva = reservaService.crearReserva(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservaMapper.toResponseDTO(reserva));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Cancelar una reserva
+     * DELETE /api/reservas/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelarReserva(@PathVariable Integer id) {
+        try {
+            Reserva reserva = reservaService.cancelarReserva(id);
+            return ResponseEntity.ok(reservaMapper.toResponseDTO(reserva));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "El registro fue modificado por otra operación al mismo tiempo. Vuelve a intentarlo"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
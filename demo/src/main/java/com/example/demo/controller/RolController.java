@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.RolDTO;
 import com.example.demo.entity.Rol;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.service.RolService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,14 +28,17 @@ public class RolController {
     @Autowired
     private RolService rolService;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todos los roles
      * GET /api/roles
      */
     @GetMapping
-    public ResponseEntity<List<Rol>> obtenerTodosLosRoles() {
+    public ResponseEntity<List<RolDTO>> obtenerTodosLosRoles() {
         try {
-            List<Rol> roles = rolService.obtenerRolesOrdenados();
+            List<RolDTO> roles = rolService.listarRolesOrdenados();
             return ResponseEntity.ok(roles);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -45,10 +50,11 @@ public class RolController {
      * GET /api/roles/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Rol> obtenerRolPorId(@PathVariable Integer id) {
+    public ResponseEntity<RolDTO> obtenerRolPorId(@PathVariable Integer id) {
         try {
             Optional<Rol> rol = rolService.obtenerRolPorId(id);
-            return rol.map(ResponseEntity::ok)
+            return rol.map(catalogoMapper::toRolDTO)
+                     .map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -60,10 +66,11 @@ public class RolController {
      * GET /api/roles/nombre/{nombre}
      */
     @GetMapping("/nombre/{nombre}")
-    public ResponseEntity<Rol> obtenerRolPorNombre(@PathVariable String nombre) {
+    public ResponseEntity<RolDTO> obtenerRolPorNombre(@PathVariable String nombre) {
         try {
             Optional<Rol> rol = rolService.obtenerRolPorNombre(nombre);
-            return rol.map(ResponseEntity::ok)
+            return rol.map(catalogoMapper::toRolDTO)
+                     .map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -78,7 +85,7 @@ public class RolController {
     public ResponseEntity<?> crearRol(@Valid @RequestBody Rol rol) {
         try {
             Rol rolCreado = rolService.crearRol(rol);
-            return ResponseEntity.status(HttpStatus.CREATED).body(rolCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(catalogoMapper.toRolDTO(rolCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -95,7 +102,7 @@ public class RolController {
     public ResponseEntity<?> actualizarRol(@PathVariable Integer id, @Valid @RequestBody Rol rol) {
         try {
             Rol rolActualizado = rolService.actualizarRol(id, rol);
-            return ResponseEntity.ok(rolActualizado);
+            return ResponseEntity.ok(catalogoMapper.toRolDTO(rolActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -126,9 +133,9 @@ public class RolController {
      * GET /api/roles/buscar?texto={texto}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Rol>> buscarRoles(@RequestParam String texto) {
+    public ResponseEntity<List<RolDTO>> buscarRoles(@RequestParam String texto) {
         try {
-            List<Rol> roles = rolService.buscarRolesPorTexto(texto);
+            List<RolDTO> roles = rolService.listarRolesPorTexto(texto);
             return ResponseEntity.ok(roles);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -0,0 +1,59 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.SincronizacionResponseDTO;
+import com.example.demo.service.SincronizacionService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controlador REST para la sincronización por diferencias de las tablets
+ * En lugar de repetir los GET completos de mesas, productos, comandas y usuarios, la tablet guarda
+ * el valor "hasta" de cada respuesta y lo envía como since en la siguiente llamada
+ */
+@Tag(name = "Sincronización", description = "API de sincronización por diferencias para las tablets de los meseros")
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SincronizacionController {
+
+    private static final String PREFIJO_ROL = "ROLE_";
+
+    @Autowired
+    private SincronizacionService sincronizacionService;
+
+    /**
+     * Obtener los cambios desde una versión (since=0 para la sincronización completa)
+     * GET /api/sync?since={version}
+     */
+    @GetMapping
+    public ResponseEntity<?> sincronizar(@RequestParam(defaultValue = "0") Long since, Authentication authentication) {
+        try {
+            SincronizacionResponseDTO cambios = sincronizacionService.sincronizar(since, obtenerRol(authentication));
+            return ResponseEntity.ok(cambios);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    private String obtenerRol(Authentication authentication) {
+        if (authentication == null) {
+            return "";
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authority.getAuthority().startsWith(PREFIJO_ROL)) {
+                return authority.getAuthority().substring(PREFIJO_ROL.length());
+            }
+        }
+        return "";
+    }
+}
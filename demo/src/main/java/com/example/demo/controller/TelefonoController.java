@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.TelefonoDTO;
 import com.example.demo.entity.Telefono;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.service.TelefonoService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,14 +28,17 @@ public class TelefonoController {
     @Autowired
     private TelefonoService telefonoService;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todos los teléfonos
      * GET /api/telefonos
      */
     @GetMapping
-    public ResponseEntity<List<Telefono>> obtenerTodosLosTelefonos() {
+    public ResponseEntity<List<TelefonoDTO>> obtenerTodosLosTelefonos() {
         try {
-            List<Telefono> telefonos = telefonoService.obtenerTodosLosTelefonos();
+            List<TelefonoDTO> telefonos = telefonoService.listarTelefonos();
             return ResponseEntity.ok(telefonos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -45,10 +50,11 @@ public class TelefonoController {
      * GET /api/telefonos/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Telefono> obtenerTelefonoPorId(@PathVariable Integer id) {
+    public ResponseEntity<TelefonoDTO> obtenerTelefonoPorId(@PathVariable Integer id) {
         try {
             Optional<Telefono> telefono = telefonoService.obtenerTelefonoPorId(id);
-            return telefono.map(ResponseEntity::ok)
+            return telefono.map(catalogoMapper::toTelefonoDTO)
+                          .map(ResponseEntity::ok)
                           .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -60,10 +66,11 @@ public class TelefonoController {
      * GET /api/telefonos/numero/{numero}
      */
     @GetMapping("/numero/{numero}")
-    public ResponseEntity<Telefono> obtenerTelefonoPorNumero(@PathVariable String numero) {
+    public ResponseEntity<TelefonoDTO> obtenerTelefonoPorNumero(@PathVariable String numero) {
         try {
             Optional<Telefono> telefono = telefonoService.obtenerTelefonoPorNumero(numero);
-            return telefono.map(ResponseEntity::ok)
+            return telefono.map(catalogoMapper::toTelefonoDTO)
+                          .map(ResponseEntity::ok)
                           .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -78,7 +85,7 @@ public class TelefonoController {
     public ResponseEntity<?> crearTelefono(@Valid @RequestBody Telefono telefono) {
         try {
             Telefono telefonoCreado = telefonoService.crearTelefono(telefono);
-            return ResponseEntity.status(HttpStatus.CREATED).body(telefonoCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(catalogoMapper.toTelefonoDTO(telefonoCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -100,7 +107,7 @@ public class TelefonoController {
             }
             
             Telefono telefonoCreado = telefonoService.crearTelefonoConNumero(numero);
-            return ResponseEntity.status(HttpStatus.CREATED).body(telefonoCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(catalogoMapper.toTelefonoDTO(telefonoCreado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -117,7 +124,7 @@ public class TelefonoController {
     public ResponseEntity<?> actualizarTelefono(@PathVariable Integer id, @Valid @RequestBody Telefono telefono) {
         try {
             Telefono telefonoActualizado = telefonoService.actualizarTelefono(id, telefono);
-            return ResponseEntity.ok(telefonoActualizado);
+            return ResponseEntity.ok(catalogoMapper.toTelefonoDTO(telefonoActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -148,9 +155,9 @@ public class TelefonoController {
      * GET /api/telefonos/buscar?numero={numero}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Telefono>> buscarTelefonos(@RequestParam String numero) {
+    public ResponseEntity<List<TelefonoDTO>> buscarTelefonos(@RequestParam String numero) {
         try {
-            List<Telefono> telefonos = telefonoService.buscarTelefonosPorNumero(numero);
+            List<TelefonoDTO> telefonos = telefonoService.listarTelefonosPorNumero(numero);
             return ResponseEntity.ok(telefonos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
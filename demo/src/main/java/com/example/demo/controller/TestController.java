@@ -1,8 +1,10 @@
 package com.example.demo.controller;
 
 import com.example.demo.entity.*;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,7 @@ import java.util.Map;
  * Controlador de prueba para verificar la conexión a la base de datos
  * y crear datos iniciales del sistema
  */
+@Lazy
 @RestController
 @RequestMapping("/api/test")
 @CrossOrigin(origins = "*")
@@ -52,6 +55,9 @@ public class TestController {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Endpoint para verificar la conexión a la base de datos
      */
@@ -257,7 +263,7 @@ public class TestController {
             
             response.put("status", "success");
             response.put("message", "Estado creado exitosamente");
-            response.put("estado", estado);
+            response.put("estado", catalogoMapper.toEstadoDTO(estado));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -275,12 +281,12 @@ public class TestController {
     public ResponseEntity<Map<String, Object>> obtenerDatos() {
         Map<String, Object> response = new HashMap<>();
         try {
-            response.put("estados", estadoRepository.findAll());
-            response.put("roles", rolRepository.findAll());
-            response.put("categorias", categoriaRepository.findAll());
-            response.put("usuarios", usuarioRepository.findAll());
-            response.put("mesas", mesaRepository.findAll());
-            response.put("productos", productoRepository.findAll());
+            response.put("estados", estadoRepository.findAllCatalogo());
+            response.put("roles", rolRepository.findAllCatalogo());
+            response.put("categorias", categoriaRepository.findAllCatalogo());
+            response.put("usuarios", usuarioRepository.findAllResumen());
+            response.put("mesas", mesaRepository.findAllResumen());
+            response.put("productos", productoRepository.findAllResumen());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
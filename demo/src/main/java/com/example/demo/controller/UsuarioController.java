@@ -1,7 +1,10 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.UsuarioResponseDTO;
 import com.example.demo.entity.Usuario;
 import com.example.demo.entity.UsuarioTelefono;
+import com.example.demo.mapper.CatalogoMapper;
+import com.example.demo.mapper.UsuarioMapper;
 import com.example.demo.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,14 +36,20 @@ public class UsuarioController {
     @Autowired
     private UsuarioService usuarioService;
     
+    @Autowired
+    private UsuarioMapper usuarioMapper;
+    
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todos los usuarios
      * GET /api/usuarios
      */
     @GetMapping
-    public ResponseEntity<List<Usuario>> obtenerTodosLosUsuarios() {
+    public ResponseEntity<List<UsuarioResponseDTO>> obtenerTodosLosUsuarios() {
         try {
-            List<Usuario> usuarios = usuarioService.obtenerTodosLosUsuarios();
+            List<UsuarioResponseDTO> usuarios = usuarioService.listarUsuarios();
             return ResponseEntity.ok(usuarios);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -52,10 +61,11 @@ public class UsuarioController {
      * GET /api/usuarios/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Usuario> obtenerUsuarioPorId(@PathVariable String id) {
+    public ResponseEntity<UsuarioResponseDTO> obtenerUsuarioPorId(@PathVariable String id) {
         try {
             Optional<Usuario> usuario = usuarioService.obtenerUsuarioPorId(id);
-            return usuario.map(ResponseEntity::ok)
+            return usuario.map(usuarioMapper::toResponseDTO)
+                         .map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -67,10 +77,11 @@ public class UsuarioController {
      * GET /api/usuarios/email/{email}
      */
     @GetMapping("/email/{email}")
-    public ResponseEntity<Usuario> obtenerUsuarioPorEmail(@PathVariable String email) {
+    public ResponseEntity<UsuarioResponseDTO> obtenerUsuarioPorEmail(@PathVariable String email) {
         try {
             Optional<Usuario> usuario = usuarioService.obtenerUsuarioPorEmail(email);
-            return usuario.map(ResponseEntity::ok)
+            return usuario.map(usuarioMapper::toResponseDTO)
+                         .map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -94,7 +105,7 @@ public class UsuarioController {
             
             Usuario usuarioCreado = usuarioService.crearUsuario(usuario);
             System.out.println("✅ Usuario creado exitosamente: " + usuarioCreado.getIdUsuario());
-            return ResponseEntity.status(HttpStatus.CREATED).body(usuarioCreado);
+            return ResponseEntity.status(HttpStatus.CREATED).body(usuarioMapper.toResponseDTO(usuarioCreado));
         } catch (IllegalArgumentException e) {
             System.out.println("❌ Error de validación: " + e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -114,7 +125,7 @@ public class UsuarioController {
     public ResponseEntity<?> actualizarUsuario(@PathVariable String id, @Valid @RequestBody Usuario usuario) {
         try {
             Usuario usuarioActualizado = usuarioService.actualizarUsuario(id, usuario);
-            return ResponseEntity.ok(usuarioActualizado);
+            return ResponseEntity.ok(usuarioMapper.toResponseDTO(usuarioActualizado));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -145,9 +156,9 @@ public class UsuarioController {
      * GET /api/usuarios/rol/{idRol}
      */
     @GetMapping("/rol/{idRol}")
-    public ResponseEntity<List<Usuario>> obtenerUsuariosPorRol(@PathVariable Integer idRol) {
+    public ResponseEntity<List<UsuarioResponseDTO>> obtenerUsuariosPorRol(@PathVariable Integer idRol) {
         try {
-            List<Usuario> usuarios = usuarioService.obtenerUsuariosPorRol(idRol);
+            List<UsuarioResponseDTO> usuarios = usuarioService.listarUsuariosPorRol(idRol);
             return ResponseEntity.ok(usuarios);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -161,9 +172,9 @@ public class UsuarioController {
      * GET /api/usuarios/buscar?nombre={nombre}
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Usuario>> buscarUsuarios(@RequestParam String nombre) {
+    public ResponseEntity<List<UsuarioResponseDTO>> buscarUsuarios(@RequestParam String nombre) {
         try {
-            List<Usuario> usuarios = usuarioService.buscarUsuariosPorNombre(nombre);
+            List<UsuarioResponseDTO> usuarios = usuarioService.listarUsuariosPorNombre(nombre);
             return ResponseEntity.ok(usuarios);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -214,7 +225,7 @@ public class UsuarioController {
             }
             
             UsuarioTelefono usuarioTelefono = usuarioService.agregarTelefonoAUsuario(id, numeroTelefono);
-            return ResponseEntity.ok(usuarioTelefono);
+            return ResponseEntity.ok(catalogoMapper.toTelefonoDTO(usuarioTelefono.getTelefono()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
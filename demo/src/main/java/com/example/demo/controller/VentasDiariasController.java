@@ -0,0 +1,66 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.projection.VentaDiariaResumen;
+import com.example.demo.service.VentasDiariasService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para los acumulados diarios de ventas
+ * Expone la consulta de acumulados y su reconstrucción (backfill)
+ */
+@Tag(name = "Ventas diarias", description = "API de acumulados de ventas por día, producto, categoría y mesero")
+@Lazy
+@RestController
+@RequestMapping("/api/ventas-diarias")
+@CrossOrigin(origins = "*")
+public class VentasDiariasController {
+
+    @Autowired
+    private VentasDiariasService ventasDiariasService;
+
+    /**
+     * Obtener acumulados por rango de días
+     * GET /api/ventas-diarias?desde={desde}&hasta={hasta}
+     */
+    @GetMapping
+    public ResponseEntity<?> obtenerVentasDiarias(@RequestParam String desde, @RequestParam String hasta) {
+        try {
+            List<VentaDiariaResumen> ventas = ventasDiariasService.obtenerVentasDiarias(LocalDate.parse(desde), LocalDate.parse(hasta));
+            return ResponseEntity.ok(ventas);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Reconstruir los acumulados de un rango de días desde las comandas
+     * POST /api/ventas-diarias/reconstruir?desde={desde}&hasta={hasta}
+     */
+    @PostMapping("/reconstruir")
+    public ResponseEntity<?> reconstruir(@RequestParam String desde, @RequestParam String hasta) {
+        try {
+            int acumulados = ventasDiariasService.reconstruir(LocalDate.parse(desde), LocalDate.parse(hasta));
+            return ResponseEntity.ok(Map.of(
+                "message", "Acumulados reconstruidos exitosamente",
+                "acumulados", acumulados
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+}
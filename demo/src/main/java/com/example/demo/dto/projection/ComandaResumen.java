@@ -0,0 +1,46 @@
+package com.example.demo.dto.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una comanda con las columnas de mesa, mesero, cocinero y estado que necesita
+ * ComandaResponseDTO, leída en una sola consulta sin cargar entidades en el contexto de persistencia
+ * Sirve tanto para comandas activas como archivadas (mismos alias en ambas consultas)
+ */
+public interface ComandaResumen {
+
+    Integer getIdComanda();
+
+    LocalDateTime getFecha();
+
+    Boolean getPagada();
+
+    Integer getIdMesa();
+
+    String getUbicacionMesa();
+
+    Integer getCapacidadMesa();
+
+    String getEstadoMesa();
+
+    String getIdMesero();
+
+    String getNombreMesero();
+
+    String getEmailMesero();
+
+    String getRolMesero();
+
+    // Null si la comanda aún no tiene cocinero asignado
+    String getIdCocinero();
+
+    String getNombreCocinero();
+
+    String getEmailCocinero();
+
+    String getRolCocinero();
+
+    Integer getIdEstado();
+
+    String getEstado();
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de una línea de comanda con el nombre del producto y del estado
+ */
+public interface DetalleComandaResumen {
+
+    Integer getIdDetalle();
+
+    Integer getIdComanda();
+
+    Integer getIdProducto();
+
+    String getNombreProducto();
+
+    Integer getCantidad();
+
+    BigDecimal getPrecioUnitario();
+
+    BigDecimal getSubtotal();
+
+    String getEstado();
+}
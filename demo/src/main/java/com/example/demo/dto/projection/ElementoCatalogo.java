@@ -0,0 +1,11 @@
+package com.example.demo.dto.projection;
+
+/**
+ * Proyección de las tablas de catálogo que solo tienen ID y nombre (estados, roles, categorías)
+ */
+public interface ElementoCatalogo {
+
+    Integer getId();
+
+    String getNombre();
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una línea de comanda abierta con los datos que necesita una estación de cocina
+ */
+public interface LineaEstacionResumen {
+
+    Integer getIdDetalle();
+
+    Integer getIdComanda();
+
+    Integer getIdMesa();
+
+    Integer getIdProducto();
+
+    String getNombreProducto();
+
+    Integer getIdCategoria();
+
+    Integer getCantidad();
+
+    LocalDateTime getFecha();
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto.projection;
+
+/**
+ * Proyección de una mesa con su estado
+ */
+public interface MesaResumen {
+
+    Integer getIdMesa();
+
+    String getUbicacion();
+
+    Integer getCapacidad();
+
+    Integer getIdEstado();
+
+    String getEstado();
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de un producto con su categoría
+ */
+public interface ProductoResumen {
+
+    Integer getIdProducto();
+
+    String getNombre();
+
+    BigDecimal getPrecio();
+
+    Integer getStock();
+
+    Boolean getEstado();
+
+    Integer getUmbralReposicion();
+
+    Integer getIdCategoria();
+
+    String getCategoria();
+}
@@ -0,0 +1,30 @@
+package com.example.demo.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con los agregados de un mesero en un rango de fechas (comandas activas y archivadas)
+ * Las ratios (ticket medio, artículos por comanda, tasa de cancelación) se derivan de estos totales
+ */
+public interface RendimientoMeseroResumen {
+
+    // Posición en el ranking por ingresos (RANK: los empates comparten posición)
+    Long getPosicion();
+
+    String getIdMesero();
+
+    String getNombreMesero();
+
+    Long getComandas();
+
+    Long getComandasVendidas();
+
+    Long getComandasCanceladas();
+
+    BigDecimal getIngresos();
+
+    Long getUnidades();
+
+    // Media de segundos entre la apertura y el cierre de las comandas vendidas con hora de cierre
+    Double getSegundosHastaCierre();
+}
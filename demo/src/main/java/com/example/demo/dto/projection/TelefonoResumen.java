@@ -0,0 +1,11 @@
+package com.example.demo.dto.projection;
+
+/**
+ * Proyección de un teléfono
+ */
+public interface TelefonoResumen {
+
+    Integer getIdTelefono();
+
+    String getNumero();
+}
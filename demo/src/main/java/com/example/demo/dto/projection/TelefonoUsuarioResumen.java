@@ -0,0 +1,11 @@
+package com.example.demo.dto.projection;
+
+/**
+ * Proyección de un teléfono asociado a un usuario
+ */
+public interface TelefonoUsuarioResumen {
+
+    String getIdUsuario();
+
+    String getNumero();
+}
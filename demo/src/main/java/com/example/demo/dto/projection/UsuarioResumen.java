@@ -0,0 +1,21 @@
+package com.example.demo.dto.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un usuario con su rol (sin contraseña)
+ */
+public interface UsuarioResumen {
+
+    String getIdUsuario();
+
+    String getNombre();
+
+    String getEmail();
+
+    LocalDateTime getFechaRegistro();
+
+    Integer getIdRol();
+
+    String getRol();
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proyección de un acumulado de ventas diarias
+ */
+public interface VentaDiariaResumen {
+
+    LocalDate getFecha();
+
+    Integer getIdProducto();
+
+    Integer getIdCategoria();
+
+    String getIdMesero();
+
+    Long getCantidad();
+
+    BigDecimal getTotal();
+}
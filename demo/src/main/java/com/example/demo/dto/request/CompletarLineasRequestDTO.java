@@ -0,0 +1,23 @@
+package com.example.demo.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para completar varias líneas de una estación de cocina
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Líneas de comanda que la estación da por terminadas")
+public class CompletarLineasRequestDTO {
+    
+    @Schema(description = "IDs de las líneas (detalles de comanda)", example = "[120, 121, 125]")
+    @NotEmpty(message = "Debe indicar al menos una línea")
+    private List<Integer> idsDetalle;
+}
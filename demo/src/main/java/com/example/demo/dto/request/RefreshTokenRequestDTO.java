@@ -0,0 +1,21 @@
+package com.example.demo.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para solicitud de renovación de token o cierre de sesión
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Refresh token recibido en el login o en la última renovación")
+public class RefreshTokenRequestDTO {
+    
+    @Schema(description = "Refresh token", example = "Jb3q0yZr6H1p8m4xL2sVw9aKc5tN7eQf0uXoRiYdGhA")
+    @NotBlank(message = "El refresh token es obligatorio")
+    private String refreshToken;
+}
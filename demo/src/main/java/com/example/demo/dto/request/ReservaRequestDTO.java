@@ -0,0 +1,48 @@
+package com.example.demo.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para reservar una mesa
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Datos para reservar una mesa en una franja horaria")
+public class ReservaRequestDTO {
+    
+    @Schema(description = "ID de la mesa", example = "3")
+    @NotNull(message = "La mesa es obligatoria")
+    private Integer idMesa;
+    
+    @Schema(description = "Nombre del cliente", example = "Laura Gómez")
+    @NotBlank(message = "El nombre del cliente es obligatorio")
+    @Size(max = 100, message = "El nombre del cliente no puede exceder 100 caracteres")
+    private String nombreCliente;
+    
+    @Schema(description = "Teléfono de contacto", example = "3001234567")
+    @Size(max = 15, message = "El teléfono no puede exceder 15 caracteres")
+    private String telefono;
+    
+    @Schema(description = "Número de comensales", example = "4")
+    @NotNull(message = "El número de personas es obligatorio")
+    @Min(value = 1, message = "La reserva debe ser al menos para 1 persona")
+    private Integer personas;
+    
+    @Schema(description = "Inicio de la reserva", example = "2025-06-20T20:00:00")
+    @NotNull(message = "El inicio es obligatorio")
+    private LocalDateTime inicio;
+    
+    @Schema(description = "Fin de la reserva (excluido)", example = "2025-06-20T22:00:00")
+    @NotNull(message = "El fin es obligatorio")
+    private LocalDateTime fin;
+}
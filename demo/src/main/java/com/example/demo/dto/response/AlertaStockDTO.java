@@ -0,0 +1,41 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de alerta de stock: producto que cruza (o está por debajo de) su umbral de reposición
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Alerta de stock de un producto respecto a su umbral de reposición")
+public class AlertaStockDTO {
+    
+    @Schema(description = "ID del producto", example = "1")
+    private Integer idProducto;
+    
+    @Schema(description = "Nombre del producto", example = "Hamburguesa Clásica")
+    private String nombre;
+    
+    @Schema(description = "Stock actual", example = "4")
+    private Integer stock;
+    
+    @Schema(description = "Umbral de reposición del producto", example = "10")
+    private Integer umbral;
+    
+    @Schema(description = "Stock menos umbral (0 o negativo = hay que reponer)", example = "-6")
+    private Integer margen;
+    
+    @Schema(description = "Tipo de alerta: bajo-umbral, restablecido o retirado", example = "bajo-umbral")
+    private String tipo;
+    
+    @Schema(description = "Momento en que se detectó el cruce del umbral")
+    private LocalDateTime fecha;
+}
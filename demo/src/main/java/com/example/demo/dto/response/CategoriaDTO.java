@@ -0,0 +1,24 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para categoría
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Información de categoría")
+public class CategoriaDTO {
+    
+    @Schema(description = "ID de la categoría", example = "2")
+    private Integer idCategoria;
+    
+    @Schema(description = "Nombre de la categoría", example = "Platos Fuertes")
+    private String nombre;
+}
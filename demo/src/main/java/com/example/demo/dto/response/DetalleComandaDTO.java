@@ -21,6 +21,12 @@ public class DetalleComandaDTO {
     @Schema(description = "ID del detalle", example = "1")
     private Long idDetalle;
     
+    @Schema(description = "ID de la comanda", example = "1")
+    private Long idComanda;
+    
+    @Schema(description = "ID del producto", example = "3")
+    private Long idProducto;
+    
     @Schema(description = "Nombre del producto", example = "Hamburguesa Clásica")
     private String nombreProducto;
     
@@ -0,0 +1,27 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un registro eliminado que la tablet debe borrar de su copia local
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Registro eliminado desde la última sincronización")
+public class EliminacionDTO {
+    
+    @Schema(description = "Entidad: Mesa, Producto, Comanda, DetalleComanda o Usuario", example = "Comanda")
+    private String entidad;
+    
+    @Schema(description = "ID del registro eliminado", example = "42")
+    private String id;
+    
+    @Schema(description = "Versión de cambio de la eliminación", example = "1718900000000000")
+    private Long versionCambio;
+}
@@ -0,0 +1,39 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de una estación de cocina con su cola y su rendimiento
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estación de cocina, categorías que atiende, cola pendiente y líneas completadas")
+public class EstacionCocinaDTO {
+    
+    @Schema(description = "Nombre de la estación", example = "bebidas")
+    private String nombre;
+    
+    @Schema(description = "IDs de las categorías que prepara (vacío en la estación por defecto)", example = "[3]")
+    private List<Integer> categorias;
+    
+    @Schema(description = "Líneas pendientes", example = "8")
+    private Integer lineasPendientes;
+    
+    @Schema(description = "Llegada de la línea pendiente más antigua")
+    private LocalDateTime pendienteDesde;
+    
+    @Schema(description = "Líneas completadas desde el arranque del nodo", example = "132")
+    private Long lineasCompletadas;
+    
+    @Schema(description = "Tiempo medio entre la llegada y la finalización de una línea, en segundos", example = "245.5")
+    private Double segundosMedioPreparacion;
+}
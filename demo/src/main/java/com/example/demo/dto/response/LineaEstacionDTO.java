@@ -0,0 +1,47 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de una línea de comanda pendiente en una estación de cocina
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Línea de comanda pendiente de preparar en una estación")
+public class LineaEstacionDTO {
+    
+    @Schema(description = "ID de la línea (detalle de comanda)", example = "120")
+    private Integer idDetalle;
+    
+    @Schema(description = "ID de la comanda", example = "45")
+    private Integer idComanda;
+    
+    @Schema(description = "ID de la mesa", example = "3")
+    private Integer idMesa;
+    
+    @Schema(description = "ID del producto", example = "7")
+    private Integer idProducto;
+    
+    @Schema(description = "Nombre del producto", example = "Limonada")
+    private String nombreProducto;
+    
+    @Schema(description = "ID de la categoría del producto", example = "2")
+    private Integer idCategoria;
+    
+    @Schema(description = "Unidades a preparar", example = "2")
+    private Integer cantidad;
+    
+    @Schema(description = "Fecha de la comanda")
+    private LocalDateTime fechaComanda;
+    
+    @Schema(description = "Momento en que la línea llegó a la estación")
+    private LocalDateTime fechaLlegada;
+}
@@ -36,5 +36,11 @@ public class LoginResponseDTO {
     
     @Schema(description = "Tiempo de expiración del token en milisegundos")
     private Long expiresIn;
+    
+    @Schema(description = "Refresh token de un solo uso para obtener un nuevo token en /api/auth/refresh")
+    private String refreshToken;
+    
+    @Schema(description = "Tiempo de expiración del refresh token en milisegundos")
+    private Long refreshExpiresIn;
 }
 
@@ -0,0 +1,57 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * DTO con la ocupación en vivo y la rotación del día de una ubicación
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ocupación en vivo y rotación del día de una ubicación")
+public class OcupacionUbicacionDTO {
+    
+    @Schema(description = "Ubicación", example = "Terraza")
+    private String ubicacion;
+    
+    @Schema(description = "Mesas de la ubicación", example = "8")
+    private Integer mesas;
+    
+    @Schema(description = "Mesas ocupadas ahora", example = "5")
+    private Integer mesasOcupadas;
+    
+    @Schema(description = "Asientos de la ubicación (suma de capacidades)", example = "32")
+    private Integer asientos;
+    
+    @Schema(description = "Comensales sentados ahora (la capacidad de la mesa si no se indicaron)", example = "17")
+    private Integer comensalesSentados;
+    
+    @Schema(description = "Porcentaje de asientos ocupados ahora", example = "53.13")
+    private Double utilizacion;
+    
+    @Schema(description = "Sesiones cerradas hoy", example = "21")
+    private Integer sesionesCerradas;
+    
+    @Schema(description = "Minutos medios que un grupo ocupa la mesa", example = "74.5")
+    private Double minutosMediosSentados;
+    
+    @Schema(description = "Minutos medios desde que se sienta el grupo hasta su primera comanda", example = "6.2")
+    private Double minutosHastaPrimeraComanda;
+    
+    @Schema(description = "Rotaciones por mesa en cada servicio del día", example = "{\"Almuerzo\": 1.75, \"Cena\": 0.88}")
+    private Map<String, Double> rotacionesPorMesa;
+    
+    @Schema(description = "Ingresos cobrados en las sesiones cerradas hoy", example = "2150000.00")
+    private BigDecimal ingresos;
+    
+    @Schema(description = "Ingresos por asiento-hora ocupado", example = "18250.00")
+    private BigDecimal ingresosPorAsientoHora;
+}
@@ -46,5 +46,8 @@ public class ProductoResponseDTO {
     
     @Schema(description = "Estado del producto (activo/inactivo)")
     private Boolean estado;
+    
+    @Schema(description = "Umbral de reposición: con stock igual o menor se genera una alerta", example = "10")
+    private Integer umbralReposicion;
 }
 
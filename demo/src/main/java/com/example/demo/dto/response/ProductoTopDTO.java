@@ -0,0 +1,27 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de producto más vendido en una ventana de tiempo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Producto más vendido con sus unidades en la ventana consultada")
+public class ProductoTopDTO {
+    
+    @Schema(description = "ID del producto", example = "1")
+    private Integer idProducto;
+    
+    @Schema(description = "Nombre del producto", example = "Hamburguesa Clásica")
+    private String nombre;
+    
+    @Schema(description = "Unidades vendidas en la ventana", example = "42")
+    private Long cantidadVendida;
+}
@@ -0,0 +1,47 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de pronóstico de consumo de un producto: cuándo se agotará su stock y cuánto conviene reponer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Pronóstico de agotamiento y reposición de un producto")
+public class PronosticoProductoDTO {
+
+    @Schema(description = "ID del producto", example = "1")
+    private Integer idProducto;
+
+    @Schema(description = "Nombre del producto", example = "Hamburguesa Clásica")
+    private String nombre;
+
+    @Schema(description = "Stock actual", example = "24")
+    private Integer stock;
+
+    @Schema(description = "Umbral de reposición del producto", example = "10")
+    private Integer umbral;
+
+    @Schema(description = "Unidades que se espera vender en las próximas 24 horas", example = "18.5")
+    private Double consumoPrevisto24h;
+
+    @Schema(description = "Momento previsto de agotamiento (null si no se agota dentro del horizonte)")
+    private LocalDateTime agotamiento;
+
+    @Schema(description = "Horas hasta el agotamiento previsto (null si no se agota dentro del horizonte)", example = "31.2")
+    private Double horasHastaAgotamiento;
+
+    @Schema(description = "Último momento para pedir teniendo en cuenta el plazo de entrega")
+    private LocalDateTime pedirAntesDe;
+
+    @Schema(description = "Unidades a pedir para cubrir el plazo de entrega y la cobertura configurada más el umbral", example = "120")
+    private Integer cantidadSugerida;
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de un cambio auditado
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cambio auditado sobre una entidad")
+public class RegistroAuditoriaDTO {
+    
+    @Schema(description = "ID del registro de auditoría", example = "1520")
+    private Long idRegistro;
+    
+    @Schema(description = "Fecha del cambio", example = "2024-06-20T21:15:03.120")
+    private LocalDateTime fecha;
+    
+    @Schema(description = "Usuario que hizo el cambio, o sistema para las tareas programadas", example = "1001")
+    private String usuario;
+    
+    @Schema(description = "Entidad modificada", example = "DetalleComanda")
+    private String entidad;
+    
+    @Schema(description = "ID del registro modificado", example = "87")
+    private String idEntidad;
+    
+    @Schema(description = "Operación: ALTA, CAMBIO o BAJA", example = "CAMBIO")
+    private String operacion;
+    
+    @Schema(description = "Atributos modificados antes del cambio, en JSON", example = "{\"precioUnitario\":\"12000\"}")
+    private String antes;
+    
+    @Schema(description = "Atributos modificados después del cambio, en JSON", example = "{\"precioUnitario\":\"10500\"}")
+    private String despues;
+}
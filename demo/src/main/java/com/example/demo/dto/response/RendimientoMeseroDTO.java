@@ -0,0 +1,53 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con el rendimiento de un mesero en un rango de fechas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rendimiento de un mesero: comandas, ingresos y tiempos")
+public class RendimientoMeseroDTO {
+    
+    @Schema(description = "Posición en el ranking por ingresos", example = "1")
+    private Long posicion;
+    
+    @Schema(description = "ID del mesero", example = "ME001")
+    private String idMesero;
+    
+    @Schema(description = "Nombre del mesero", example = "Laura Gómez")
+    private String nombreMesero;
+    
+    @Schema(description = "Comandas atendidas (vendidas, canceladas y abiertas)", example = "412")
+    private Long comandas;
+    
+    @Schema(description = "Comandas pagadas o completadas", example = "390")
+    private Long comandasVendidas;
+    
+    @Schema(description = "Comandas canceladas", example = "9")
+    private Long comandasCanceladas;
+    
+    @Schema(description = "Ingresos de las comandas vendidas", example = "18540000.00")
+    private BigDecimal ingresos;
+    
+    @Schema(description = "Ingreso medio por comanda vendida", example = "47538.46")
+    private BigDecimal ticketMedio;
+    
+    @Schema(description = "Artículos medios por comanda vendida", example = "3.85")
+    private Double articulosPorComanda;
+    
+    @Schema(description = "Porcentaje de comandas canceladas sobre las atendidas", example = "2.18")
+    private Double tasaCancelacion;
+    
+    @Schema(description = "Minutos medios desde la apertura hasta el cierre de las comandas vendidas", example = "52.4")
+    private Double minutosHastaCierre;
+}
@@ -0,0 +1,47 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de respuesta para reservas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Reserva de una mesa")
+public class ReservaResponseDTO {
+    
+    @Schema(description = "ID de la reserva", example = "12")
+    private Integer idReserva;
+    
+    @Schema(description = "ID de la mesa", example = "3")
+    private Integer idMesa;
+    
+    @Schema(description = "Ubicación de la mesa", example = "Terraza A1")
+    private String ubicacionMesa;
+    
+    @Schema(description = "Nombre del cliente", example = "Laura Gómez")
+    private String nombreCliente;
+    
+    @Schema(description = "Teléfono de contacto", example = "3001234567")
+    private String telefono;
+    
+    @Schema(description = "Número de comensales", example = "4")
+    private Integer personas;
+    
+    @Schema(description = "Inicio de la reserva")
+    private LocalDateTime inicio;
+    
+    @Schema(description = "Fin de la reserva (excluido)")
+    private LocalDateTime fin;
+    
+    @Schema(description = "Indica si la reserva fue cancelada")
+    private Boolean cancelada;
+}
@@ -0,0 +1,54 @@
+package com.example.demo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de la sincronización por diferencias de las tablets
+ * Solo incluye las listas de las entidades que puede ver el rol del usuario
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cambios desde una versión: registros nuevos o modificados y registros eliminados")
+public class SincronizacionResponseDTO {
+    
+    @Schema(description = "Versión desde la que se sincronizó (excluida)", example = "1718900000000000")
+    private Long desde;
+    
+    @Schema(description = "Versión hasta la que llega esta respuesta: es el since de la siguiente llamada", example = "1718900042000999")
+    private Long hasta;
+    
+    @Schema(description = "true si quedan cambios por enviar: repetir la llamada con since=hasta", example = "false")
+    private Boolean hayMas;
+    
+    @Schema(description = "true si since es anterior a la retención de eliminaciones: descartar la copia local y sincronizar con since=0",
+            example = "false")
+    private Boolean resincronizar;
+    
+    @Schema(description = "Mesas nuevas o modificadas")
+    private List<MesaResponseDTO> mesas;
+    
+    @Schema(description = "Productos nuevos o modificados")
+    private List<ProductoResponseDTO> productos;
+    
+    @Schema(description = "Comandas nuevas o modificadas, con todas sus líneas")
+    private List<ComandaResponseDTO> comandas;
+    
+    @Schema(description = "Líneas nuevas o modificadas de comandas que no vienen en 'comandas'")
+    private List<DetalleComandaDTO> detalles;
+    
+    @Schema(description = "Usuarios nuevos o modificados")
+    private List<UsuarioResponseDTO> usuarios;
+    
+    @Schema(description = "Registros eliminados; al eliminar una comanda se eliminan también sus líneas")
+    private List<EliminacionDTO> eliminados;
+}
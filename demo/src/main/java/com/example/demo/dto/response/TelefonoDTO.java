@@ -0,0 +1,24 @@
+package com.example.demo.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para teléfono
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Información de teléfono")
+public class TelefonoDTO {
+    
+    @Schema(description = "ID del teléfono", example = "1")
+    private Integer idTelefono;
+    
+    @Schema(description = "Número de teléfono", example = "3001234567")
+    private String numero;
+}
@@ -12,11 +12,24 @@ import java.util.List;
  * Basada en la tabla restaurante_comandas del MER
  */
 @Entity
-@Table(name = "restaurante_comandas")
-public class Comanda {
+@EntityListeners(VersionCambioListener.class)
+// Índices creados por db/migration/V4__indices_rendimiento.sql
+@Table(name = "restaurante_comandas", indexes = {
+    @Index(name = "idx_comandas_fecha", columnList = "fecha"),
+    @Index(name = "idx_comandas_mesa_estado_pagada", columnList = "mesa, estado, pagada"),
+    @Index(name = "idx_comandas_estado_fecha", columnList = "estado, fecha"),
+    @Index(name = "idx_comandas_cocinero_estado", columnList = "id_cocinero, estado"),
+    @Index(name = "idx_comandas_version_cambio", columnList = "version_cambio"),
+    @Index(name = "idx_comandas_mesero_fecha", columnList = "id_mesero, fecha")
+})
+public class Comanda implements Sincronizable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Generador de tabla con bloques de 50: los INSERT no necesitan el ID de vuelta y Hibernate puede agruparlos
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_comanda")
+    @TableGenerator(name = "secuencia_comanda", table = "restaurante_secuencias_id",
+                    pkColumnName = "entidad", valueColumnName = "siguiente_valor",
+                    pkColumnValue = "comanda", allocationSize = 50)
     @Column(name = "id_comanda")
     private Integer idComanda;
     
@@ -52,6 +65,27 @@ public class Comanda {
     @Column(name = "pagada", nullable = false)
     private Boolean pagada = false;
     
+    // Momento en que la comanda pasó a completada o cancelada (null mientras sigue abierta)
+    @Column(name = "fecha_cierre")
+    private LocalDateTime fechaCierre;
+    
+    // Indica si las líneas de la comanda ya están sumadas en restaurante_ventas_diarias
+    @JsonIgnore
+    @Column(name = "acumulada_ventas", nullable = false)
+    private Boolean acumuladaVentas = false;
+    
+    // Control de concurrencia optimista: Hibernate lo incrementa en cada UPDATE y rechaza escrituras
+    // hechas sobre una versión anterior (null mientras la entidad no se ha guardado)
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Versión de sincronización de la cabecera; los cambios en sus líneas llevan su propia versión
+    @JsonIgnore
+    @Column(name = "version_cambio", nullable = false)
+    private Long versionCambio;
+    
     // Constructores
     public Comanda() {
         this.fecha = LocalDateTime.now();
@@ -111,6 +145,13 @@ public class Comanda {
     
     public void setEstado(Estado estado) {
         this.estado = estado;
+        // La hora de cierre se fija la primera vez que se cierra y se borra si la comanda se reabre
+        boolean cerrada = estado != null && (estado.esCompletado() || estado.esCancelado());
+        if (!cerrada) {
+            this.fechaCierre = null;
+        } else if (this.fechaCierre == null) {
+            this.fechaCierre = LocalDateTime.now();
+        }
     }
     
     public List<DetalleComanda> getDetalleComandas() {
@@ -129,6 +170,40 @@ public class Comanda {
         this.pagada = pagada != null ? pagada : false;
     }
     
+    public LocalDateTime getFechaCierre() {
+        return fechaCierre;
+    }
+    
+    public void setFechaCierre(LocalDateTime fechaCierre) {
+        this.fechaCierre = fechaCierre;
+    }
+    
+    public Boolean getAcumuladaVentas() {
+        return acumuladaVentas != null ? acumuladaVentas : false;
+    }
+    
+    public void setAcumuladaVentas(Boolean acumuladaVentas) {
+        this.acumuladaVentas = acumuladaVentas != null ? acumuladaVentas : false;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @Override
+    public Long getVersionCambio() {
+        return versionCambio;
+    }
+    
+    @Override
+    public void setVersionCambio(Long versionCambio) {
+        this.versionCambio = versionCambio;
+    }
+    
     // Métodos de conveniencia
     public void agregarDetalleComanda(DetalleComanda detalleComanda) {
         detalleComandas.add(detalleComanda);
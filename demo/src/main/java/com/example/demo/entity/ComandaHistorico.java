@@ -0,0 +1,209 @@
+package com.example.demo.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entidad que representa una comanda archivada (pagada o cancelada y antigua)
+ * Conserva el ID original para que los reportes puedan unir datos activos e históricos
+ */
+@Entity
+@Table(name = "restaurante_comandas_historico",
+       indexes = {
+           @Index(name = "idx_comandas_historico_fecha", columnList = "fecha"),
+           @Index(name = "idx_comandas_historico_mesero_fecha", columnList = "id_mesero, fecha")
+       })
+public class ComandaHistorico implements Persistable<Integer> {
+
+    @Id
+    @Column(name = "id_comanda")
+    private Integer idComanda;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "mesa", nullable = false)
+    private Mesa mesa;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_mesero", nullable = false)
+    private Usuario mesero;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_cocinero")
+    private Usuario cocinero;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "estado", nullable = false)
+    private Estado estado;
+
+    @Column(name = "pagada", nullable = false)
+    private Boolean pagada = false;
+
+    // Total calculado al archivar, para sumar ventas sin leer las líneas
+    @Column(name = "total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(name = "fecha_cierre")
+    private LocalDateTime fechaCierre;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDateTime fechaArchivado;
+
+    @JsonIgnore
+    @OneToMany(mappedBy = "comanda", fetch = FetchType.LAZY)
+    private List<DetalleComandaHistorico> detalles = new ArrayList<>();
+
+    // Evita el SELECT previo de merge() al insertar con ID asignado
+    @Transient
+    private boolean nuevo = false;
+
+    // Constructores
+    public ComandaHistorico() {}
+
+    public ComandaHistorico(Comanda comanda, BigDecimal total) {
+        this.idComanda = comanda.getIdComanda();
+        this.fecha = comanda.getFecha();
+        this.mesa = comanda.getMesa();
+        this.mesero = comanda.getMesero();
+        this.cocinero = comanda.getCocinero();
+        this.estado = comanda.getEstado();
+        this.pagada = comanda.getPagada();
+        this.fechaCierre = comanda.getFechaCierre();
+        this.total = total;
+        this.fechaArchivado = LocalDateTime.now();
+        this.nuevo = true;
+    }
+
+    // Getters y Setters
+    public Integer getIdComanda() {
+        return idComanda;
+    }
+
+    public void setIdComanda(Integer idComanda) {
+        this.idComanda = idComanda;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+
+    public Mesa getMesa() {
+        return mesa;
+    }
+
+    public void setMesa(Mesa mesa) {
+        this.mesa = mesa;
+    }
+
+    public Usuario getMesero() {
+        return mesero;
+    }
+
+    public void setMesero(Usuario mesero) {
+        this.mesero = mesero;
+    }
+
+    public Usuario getCocinero() {
+        return cocinero;
+    }
+
+    public void setCocinero(Usuario cocinero) {
+        this.cocinero = cocinero;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public Boolean getPagada() {
+        return pagada;
+    }
+
+    public void setPagada(Boolean pagada) {
+        this.pagada = pagada;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public LocalDateTime getFechaCierre() {
+        return fechaCierre;
+    }
+
+    public void setFechaCierre(LocalDateTime fechaCierre) {
+        this.fechaCierre = fechaCierre;
+    }
+
+    public LocalDateTime getFechaArchivado() {
+        return fechaArchivado;
+    }
+
+    public void setFechaArchivado(LocalDateTime fechaArchivado) {
+        this.fechaArchivado = fechaArchivado;
+    }
+
+    public List<DetalleComandaHistorico> getDetalles() {
+        return detalles;
+    }
+
+    public void setDetalles(List<DetalleComandaHistorico> detalles) {
+        this.detalles = detalles;
+    }
+
+    @Override
+    public Integer getId() {
+        return idComanda;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarNoNuevo() {
+        this.nuevo = false;
+    }
+
+    // Método para reconstruir la comanda (no gestionada) a partir del histórico
+    public Comanda toComanda() {
+        Comanda comanda = new Comanda(mesa, mesero, estado);
+        comanda.setIdComanda(idComanda);
+        comanda.setFecha(fecha);
+        comanda.setCocinero(cocinero);
+        comanda.setPagada(pagada);
+        return comanda;
+    }
+
+    @Override
+    public String toString() {
+        return "ComandaHistorico{" +
+                "idComanda=" + idComanda +
+                ", fecha=" + fecha +
+                ", total=" + total +
+                ", fechaArchivado=" + fechaArchivado +
+                '}';
+    }
+}
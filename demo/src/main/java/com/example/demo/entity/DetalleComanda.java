@@ -1,5 +1,6 @@
 package com.example.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -10,11 +11,19 @@ import java.math.BigDecimal;
  * Basada en la tabla restaurante_detalle_comanda del MER
  */
 @Entity
-@Table(name = "restaurante_detalle_comanda")
-public class DetalleComanda {
+@EntityListeners(VersionCambioListener.class)
+@Table(name = "restaurante_detalle_comanda", indexes = {
+    @Index(name = "idx_detalle_comanda_comanda", columnList = "id_comanda"),
+    @Index(name = "idx_detalle_comanda_producto", columnList = "id_producto"),
+    @Index(name = "idx_detalle_comanda_version_cambio", columnList = "version_cambio")
+})
+public class DetalleComanda implements Sincronizable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_detalle_comanda")
+    @TableGenerator(name = "secuencia_detalle_comanda", table = "restaurante_secuencias_id",
+                    pkColumnName = "entidad", valueColumnName = "siguiente_valor",
+                    pkColumnValue = "detalle_comanda", allocationSize = 50)
     @Column(name = "id_detalle_comanda")
     private Integer idDetalleComanda;
     
@@ -48,6 +57,11 @@ public class DetalleComanda {
     @JoinColumn(name = "id_estado", nullable = false)
     private Estado estado;
     
+    // Versión de sincronización de la línea; la asigna VersionCambioListener
+    @JsonIgnore
+    @Column(name = "version_cambio", nullable = false)
+    private Long versionCambio;
+    
     // Constructores
     public DetalleComanda() {}
     
@@ -124,6 +138,16 @@ public class DetalleComanda {
         this.estado = estado;
     }
     
+    @Override
+    public Long getVersionCambio() {
+        return versionCambio;
+    }
+    
+    @Override
+    public void setVersionCambio(Long versionCambio) {
+        this.versionCambio = versionCambio;
+    }
+    
     // Método para calcular subtotal
     public void calcularSubtotal() {
         if (precioUnitario != null && cantidad != null) {
@@ -0,0 +1,153 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+
+/**
+ * Entidad que representa una línea de una comanda archivada
+ * Conserva el ID original del detalle
+ */
+@Entity
+@Table(name = "restaurante_detalle_comanda_historico",
+       indexes = @Index(name = "idx_detalle_historico_comanda", columnList = "id_comanda"))
+public class DetalleComandaHistorico implements Persistable<Integer> {
+
+    @Id
+    @Column(name = "id_detalle_comanda")
+    private Integer idDetalleComanda;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_comanda", nullable = false)
+    private ComandaHistorico comanda;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_producto", nullable = false)
+    private Producto producto;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    @Column(name = "precio_unitario", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precioUnitario;
+
+    @Column(name = "subtotal", nullable = false, precision = 10, scale = 2)
+    private BigDecimal subtotal;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "id_estado", nullable = false)
+    private Estado estado;
+
+    @Transient
+    private boolean nuevo = false;
+
+    // Constructores
+    public DetalleComandaHistorico() {}
+
+    public DetalleComandaHistorico(DetalleComanda detalle, ComandaHistorico comanda) {
+        this.idDetalleComanda = detalle.getIdDetalleComanda();
+        this.comanda = comanda;
+        this.producto = detalle.getProducto();
+        this.cantidad = detalle.getCantidad();
+        this.precioUnitario = detalle.getPrecioUnitario();
+        this.subtotal = detalle.getSubtotal();
+        this.estado = detalle.getEstado();
+        this.nuevo = true;
+    }
+
+    // Getters y Setters
+    public Integer getIdDetalleComanda() {
+        return idDetalleComanda;
+    }
+
+    public void setIdDetalleComanda(Integer idDetalleComanda) {
+        this.idDetalleComanda = idDetalleComanda;
+    }
+
+    public ComandaHistorico getComanda() {
+        return comanda;
+    }
+
+    public void setComanda(ComandaHistorico comanda) {
+        this.comanda = comanda;
+    }
+
+    public Producto getProducto() {
+        return producto;
+    }
+
+    public void setProducto(Producto producto) {
+        this.producto = producto;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getPrecioUnitario() {
+        return precioUnitario;
+    }
+
+    public void setPrecioUnitario(BigDecimal precioUnitario) {
+        this.precioUnitario = precioUnitario;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    @Override
+    public Integer getId() {
+        return idDetalleComanda;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarNoNuevo() {
+        this.nuevo = false;
+    }
+
+    // Método para reconstruir el detalle (no gestionado) dentro de una comanda reconstruida
+    public DetalleComanda toDetalleComanda(Comanda comanda) {
+        DetalleComanda detalle = new DetalleComanda();
+        detalle.setIdDetalleComanda(idDetalleComanda);
+        detalle.setComanda(comanda);
+        detalle.setProducto(producto);
+        detalle.setCantidad(cantidad);
+        detalle.setPrecioUnitario(precioUnitario);
+        detalle.setSubtotal(subtotal);
+        detalle.setEstado(estado);
+        return detalle;
+    }
+
+    @Override
+    public String toString() {
+        return "DetalleComandaHistorico{" +
+                "idDetalleComanda=" + idDetalleComanda +
+                ", cantidad=" + cantidad +
+                ", subtotal=" + subtotal +
+                '}';
+    }
+}
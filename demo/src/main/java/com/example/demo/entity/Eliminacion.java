@@ -0,0 +1,79 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa la eliminación de un registro sincronizable (lápida)
+ * Las tablets la reciben en GET /api/sync para borrar su copia; se conserva solo durante la ventana
+ * de retención, después de la cual un cliente tan desactualizado debe sincronizar desde cero
+ */
+@Entity
+@EntityListeners(VersionCambioListener.class)
+@Table(name = "restaurante_eliminaciones", indexes = {
+    @Index(name = "idx_eliminaciones_version", columnList = "version_cambio"),
+    @Index(name = "idx_eliminaciones_fecha", columnList = "fecha")
+})
+public class Eliminacion implements Sincronizable {
+
+    // Entidades sincronizables
+    public static final String MESA = "Mesa";
+    public static final String PRODUCTO = "Producto";
+    public static final String COMANDA = "Comanda";
+    public static final String DETALLE_COMANDA = "DetalleComanda";
+    public static final String USUARIO = "Usuario";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_eliminacion")
+    private Long idEliminacion;
+
+    @Column(name = "entidad", length = 30, nullable = false)
+    private String entidad;
+
+    @Column(name = "id_entidad", length = 50, nullable = false)
+    private String idEntidad;
+
+    @Column(name = "version_cambio", nullable = false)
+    private Long versionCambio;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    // Constructores
+    public Eliminacion() {}
+
+    public Eliminacion(String entidad, Object idEntidad) {
+        this.entidad = entidad;
+        this.idEntidad = String.valueOf(idEntidad);
+        this.fecha = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+    public Long getIdEliminacion() {
+        return idEliminacion;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public String getIdEntidad() {
+        return idEntidad;
+    }
+
+    @Override
+    public Long getVersionCambio() {
+        return versionCambio;
+    }
+
+    @Override
+    public void setVersionCambio(Long versionCambio) {
+        this.versionCambio = versionCambio;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Entidad que representa los estados del sistema (para mesas y comandas)
  * Basada en la tabla restaurante_estados del MER
@@ -12,6 +15,11 @@ import jakarta.validation.constraints.Size;
 @Table(name = "restaurante_estados")
 public class Estado {
     
+    // Variantes de nombre con las que se registran los estados finales de una comanda
+    public static final List<String> NOMBRES_COMPLETADO = List.of("Completado", "Completada", "COMPLETADO", "COMPLETADA", "completado");
+    public static final List<String> NOMBRES_CANCELADO = List.of("Cancelado", "Cancelada", "CANCELADO", "CANCELADA", "cancelado");
+    public static final List<String> NOMBRES_FINALES = Stream.concat(NOMBRES_COMPLETADO.stream(), NOMBRES_CANCELADO.stream()).toList();
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_estado")
@@ -46,6 +54,15 @@ public class Estado {
         this.nombre = nombre;
     }
     
+    // Métodos de conveniencia
+    public boolean esCompletado() {
+        return nombre != null && NOMBRES_COMPLETADO.stream().anyMatch(nombre::equalsIgnoreCase);
+    }
+    
+    public boolean esCancelado() {
+        return nombre != null && NOMBRES_CANCELADO.stream().anyMatch(nombre::equalsIgnoreCase);
+    }
+    
     @Override
     public String toString() {
         return "Estado{" +
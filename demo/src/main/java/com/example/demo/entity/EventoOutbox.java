@@ -0,0 +1,153 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa un evento de dominio pendiente de publicar (patrón outbox)
+ * Se inserta en la misma transacción que el cambio que lo origina, de modo que
+ * el evento existe si y solo si el cambio se confirmó
+ */
+@Entity
+@Table(name = "restaurante_outbox",
+       indexes = @Index(name = "idx_outbox_secuencia", columnList = "publicado, secuencia"))
+public class EventoOutbox {
+
+    // Tipos de evento
+    public static final String COMANDA_CREADA = "ComandaCreada";
+    public static final String ESTADO_CAMBIADO = "EstadoCambiado";
+    public static final String LINEA_AGREGADA = "LineaAgregada";
+    public static final String STOCK_AJUSTADO = "StockAjustado";
+    public static final String COMANDA_PAGADA = "ComandaPagada";
+
+    // Los consumidores deduplican por ID; el orden lo da la secuencia, porque los IDs se asignan al insertar
+    // y una transacción puede confirmarse después de otra que insertó más tarde
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long idEvento;
+
+    @Column(name = "tipo", length = 50, nullable = false)
+    private String tipo;
+
+    @Column(name = "agregado", length = 50, nullable = false)
+    private String agregado;
+
+    @Column(name = "id_agregado", length = 50, nullable = false)
+    private String idAgregado;
+
+    // Datos del evento en JSON
+    @Column(name = "payload", length = 4000, nullable = false)
+    private String payload;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    // Orden de confirmación: OutboxService la asigna justo antes del commit (null mientras tanto)
+    @Column(name = "secuencia")
+    private Long secuencia;
+
+    @Column(name = "publicado", nullable = false)
+    private Boolean publicado = false;
+
+    @Column(name = "fecha_publicacion")
+    private LocalDateTime fechaPublicacion;
+
+    // Constructores
+    public EventoOutbox() {}
+
+    public EventoOutbox(String tipo, String agregado, String idAgregado, String payload) {
+        this.tipo = tipo;
+        this.agregado = agregado;
+        this.idAgregado = idAgregado;
+        this.payload = payload;
+        this.fechaCreacion = LocalDateTime.now();
+        this.publicado = false;
+    }
+
+    // Getters y Setters
+    public Long getIdEvento() {
+        return idEvento;
+    }
+
+    public void setIdEvento(Long idEvento) {
+        this.idEvento = idEvento;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getAgregado() {
+        return agregado;
+    }
+
+    public void setAgregado(String agregado) {
+        this.agregado = agregado;
+    }
+
+    public String getIdAgregado() {
+        return idAgregado;
+    }
+
+    public void setIdAgregado(String idAgregado) {
+        this.idAgregado = idAgregado;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Long getSecuencia() {
+        return secuencia;
+    }
+
+    public void setSecuencia(Long secuencia) {
+        this.secuencia = secuencia;
+    }
+
+    public Boolean getPublicado() {
+        return publicado;
+    }
+
+    public void setPublicado(Boolean publicado) {
+        this.publicado = publicado;
+    }
+
+    public LocalDateTime getFechaPublicacion() {
+        return fechaPublicacion;
+    }
+
+    public void setFechaPublicacion(LocalDateTime fechaPublicacion) {
+        this.fechaPublicacion = fechaPublicacion;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoOutbox{" +
+                "idEvento=" + idEvento +
+                ", secuencia=" + secuencia +
+                ", tipo='" + tipo + '\'' +
+                ", agregado='" + agregado + '\'' +
+                ", idAgregado='" + idAgregado + '\'' +
+                ", publicado=" + publicado +
+                '}';
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que guarda la respuesta original de una petición con Idempotency-Key
+ * Permite compartir el registro de idempotencia entre varios nodos
+ */
+@Entity
+@Table(name = "restaurante_idempotencia")
+public class IdempotenciaRegistro implements Persistable<String> {
+
+    @Id
+    @Column(name = "clave", length = 300)
+    private String clave;
+
+    // Hash SHA-256 de método, ruta y cuerpo de la petición original
+    @Column(name = "huella", length = 64, nullable = false)
+    private String huella;
+
+    // Null mientras la petición original sigue en curso
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(name = "cuerpo", length = 1048576)
+    private byte[] cuerpo;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    // Permite que save() haga INSERT (y falle si la clave ya existe) en lugar de merge
+    @Transient
+    private boolean nuevo = false;
+
+    // Constructores
+    public IdempotenciaRegistro() {}
+
+    public IdempotenciaRegistro(String clave, String huella, LocalDateTime expiraEn) {
+        this.clave = clave;
+        this.huella = huella;
+        this.creadoEn = LocalDateTime.now();
+        this.expiraEn = expiraEn;
+        this.nuevo = true;
+    }
+
+    // Getters y Setters
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getHuella() {
+        return huella;
+    }
+
+    public void setHuella(String huella) {
+        this.huella = huella;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getCuerpo() {
+        return cuerpo;
+    }
+
+    public void setCuerpo(byte[] cuerpo) {
+        this.cuerpo = cuerpo;
+    }
+
+    public LocalDateTime getCreadoEn() {
+        return creadoEn;
+    }
+
+    public void setCreadoEn(LocalDateTime creadoEn) {
+        this.creadoEn = creadoEn;
+    }
+
+    public LocalDateTime getExpiraEn() {
+        return expiraEn;
+    }
+
+    public void setExpiraEn(LocalDateTime expiraEn) {
+        this.expiraEn = expiraEn;
+    }
+
+    @Override
+    public String getId() {
+        return clave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarNoNuevo() {
+        this.nuevo = false;
+    }
+
+    // Método para verificar si la petición original ya terminó
+    public boolean estaCompletado() {
+        return status != null;
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotenciaRegistro{" +
+                "clave='" + clave + '\'' +
+                ", status=" + status +
+                ", expiraEn=" + expiraEn +
+                '}';
+    }
+}
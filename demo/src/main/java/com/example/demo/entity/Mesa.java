@@ -13,8 +13,10 @@ import java.util.List;
  * Basada en la tabla restaurante_mesas del MER
  */
 @Entity
-@Table(name = "restaurante_mesas")
-public class Mesa {
+@EntityListeners(VersionCambioListener.class)
+@Table(name = "restaurante_mesas",
+       indexes = @Index(name = "idx_mesas_version_cambio", columnList = "version_cambio"))
+public class Mesa implements Sincronizable {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,6 +42,17 @@ public class Mesa {
     @OneToMany(mappedBy = "mesa", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comanda> comandas = new ArrayList<>();
     
+    // Bloqueo optimista: dos cambios de estado simultáneos sobre la misma mesa no se pisan
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Versión de sincronización: la asigna VersionCambioListener en cada alta o cambio de la mesa
+    @JsonIgnore
+    @Column(name = "version_cambio", nullable = false)
+    private Long versionCambio;
+    
     // Constructores
     public Mesa() {}
     
@@ -90,6 +103,24 @@ public class Mesa {
         this.comandas = comandas;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @Override
+    public Long getVersionCambio() {
+        return versionCambio;
+    }
+    
+    @Override
+    public void setVersionCambio(Long versionCambio) {
+        this.versionCambio = versionCambio;
+    }
+    
     // Métodos de conveniencia
     public void agregarComanda(Comanda comanda) {
         comandas.add(comanda);
@@ -15,11 +15,19 @@ import java.util.List;
  * Basada en la tabla restaurante_productos del MER
  */
 @Entity
-@Table(name = "restaurante_productos")
-public class Producto {
+@EntityListeners(VersionCambioListener.class)
+@Table(name = "restaurante_productos",
+       indexes = {
+           @Index(name = "idx_productos_estado_categoria", columnList = "estado, categoria"),
+           @Index(name = "idx_productos_version_cambio", columnList = "version_cambio")
+       })
+public class Producto implements Sincronizable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_producto")
+    @TableGenerator(name = "secuencia_producto", table = "restaurante_secuencias_id",
+                    pkColumnName = "entidad", valueColumnName = "siguiente_valor",
+                    pkColumnValue = "producto", allocationSize = 50)
     @Column(name = "id_producto")
     private Integer idProducto;
     
@@ -40,6 +48,11 @@ public class Producto {
     @Column(name = "estado", nullable = false)
     private Boolean estado = true;
     
+    // Con stock <= umbral el producto entra en las alertas de stock bajo
+    @Min(value = 0, message = "El umbral de reposición no puede ser negativo")
+    @Column(name = "umbral_reposicion", nullable = false)
+    private Integer umbralReposicion = 0;
+    
     // Relación Many-to-One con Categoria
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "categoria", nullable = false)
@@ -50,6 +63,17 @@ public class Producto {
     @OneToMany(mappedBy = "producto", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<DetalleComanda> detalleComandas = new ArrayList<>();
     
+    // Bloqueo optimista: los descuentos de stock de pedidos simultáneos no se pierden
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Versión de sincronización del producto (precio, stock, estado...); la asigna VersionCambioListener
+    @JsonIgnore
+    @Column(name = "version_cambio", nullable = false)
+    private Long versionCambio;
+    
     // Constructores
     public Producto() {}
     
@@ -102,6 +126,14 @@ public class Producto {
         this.estado = estado;
     }
     
+    public Integer getUmbralReposicion() {
+        return umbralReposicion;
+    }
+    
+    public void setUmbralReposicion(Integer umbralReposicion) {
+        this.umbralReposicion = umbralReposicion;
+    }
+    
     public Categoria getCategoria() {
         return categoria;
     }
@@ -118,6 +150,24 @@ public class Producto {
         this.detalleComandas = detalleComandas;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @Override
+    public Long getVersionCambio() {
+        return versionCambio;
+    }
+    
+    @Override
+    public void setVersionCambio(Long versionCambio) {
+        this.versionCambio = versionCambio;
+    }
+    
     // Métodos de conveniencia
     public void agregarDetalleComanda(DetalleComanda detalleComanda) {
         detalleComandas.add(detalleComanda);
@@ -0,0 +1,134 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa un refresh token emitido a un usuario
+ * Solo se guarda el hash SHA-256 del token; cada uso lo rota por uno nuevo de la misma familia,
+ * y presentar un token ya usado revoca la familia completa (posible robo del token)
+ */
+@Entity
+@Table(name = "restaurante_refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_usuario", columnList = "id_usuario"),
+    @Index(name = "idx_refresh_tokens_familia", columnList = "familia")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_refresh_token")
+    private Long idRefreshToken;
+
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
+
+    @Column(name = "id_usuario", length = 20, nullable = false)
+    private String idUsuario;
+
+    // Todos los tokens obtenidos por rotación desde un mismo login comparten familia
+    @Column(name = "familia", length = 36, nullable = false)
+    private String familia;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    // true cuando ya se cambió por un token nuevo
+    @Column(name = "usado", nullable = false)
+    private Boolean usado = false;
+
+    @Column(name = "revocado", nullable = false)
+    private Boolean revocado = false;
+
+    // Constructores
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, String idUsuario, String familia, LocalDateTime fechaExpiracion) {
+        this.tokenHash = tokenHash;
+        this.idUsuario = idUsuario;
+        this.familia = familia;
+        this.fechaCreacion = LocalDateTime.now();
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    // Getters y Setters
+    public Long getIdRefreshToken() {
+        return idRefreshToken;
+    }
+
+    public void setIdRefreshToken(Long idRefreshToken) {
+        this.idRefreshToken = idRefreshToken;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getIdUsuario() {
+        return idUsuario;
+    }
+
+    public void setIdUsuario(String idUsuario) {
+        this.idUsuario = idUsuario;
+    }
+
+    public String getFamilia() {
+        return familia;
+    }
+
+    public void setFamilia(String familia) {
+        this.familia = familia;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getFechaExpiracion() {
+        return fechaExpiracion;
+    }
+
+    public void setFechaExpiracion(LocalDateTime fechaExpiracion) {
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    public Boolean getUsado() {
+        return usado;
+    }
+
+    public void setUsado(Boolean usado) {
+        this.usado = usado;
+    }
+
+    public Boolean getRevocado() {
+        return revocado;
+    }
+
+    public void setRevocado(Boolean revocado) {
+        this.revocado = revocado;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+                "idRefreshToken=" + idRefreshToken +
+                ", idUsuario='" + idUsuario + '\'' +
+                ", familia='" + familia + '\'' +
+                ", fechaExpiracion=" + fechaExpiracion +
+                ", usado=" + usado +
+                ", revocado=" + revocado +
+                '}';
+    }
+}
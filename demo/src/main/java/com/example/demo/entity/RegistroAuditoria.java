@@ -0,0 +1,87 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa un cambio auditado sobre una entidad de negocio
+ * Las filas las inserta EscritorAuditoria por JDBC en lotes; JPA solo se usa para consultarlas
+ */
+@Entity
+@Table(name = "restaurante_auditoria", indexes = {
+    @Index(name = "idx_auditoria_entidad", columnList = "entidad, id_entidad, fecha"),
+    @Index(name = "idx_auditoria_usuario", columnList = "usuario, fecha"),
+    @Index(name = "idx_auditoria_fecha", columnList = "fecha")
+})
+public class RegistroAuditoria {
+
+    // Operaciones
+    public static final String ALTA = "ALTA";
+    public static final String CAMBIO = "CAMBIO";
+    public static final String BAJA = "BAJA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_registro")
+    private Long idRegistro;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    // ID del usuario autenticado que hizo el cambio, o "sistema" para las tareas programadas
+    @Column(name = "usuario", length = 50, nullable = false)
+    private String usuario;
+
+    @Column(name = "entidad", length = 50, nullable = false)
+    private String entidad;
+
+    @Column(name = "id_entidad", length = 50, nullable = false)
+    private String idEntidad;
+
+    @Column(name = "operacion", length = 10, nullable = false)
+    private String operacion;
+
+    // Valores de los atributos modificados en JSON, antes y después del cambio
+    @Column(name = "antes", length = 4000)
+    private String antes;
+
+    @Column(name = "despues", length = 4000)
+    private String despues;
+
+    // Constructores
+    public RegistroAuditoria() {}
+
+    // Getters
+    public Long getIdRegistro() {
+        return idRegistro;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public String getIdEntidad() {
+        return idEntidad;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public String getAntes() {
+        return antes;
+    }
+
+    public String getDespues() {
+        return despues;
+    }
+}
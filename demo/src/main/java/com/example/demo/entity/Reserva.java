@@ -0,0 +1,129 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa la reserva de una mesa para una franja horaria [inicio, fin)
+ */
+@Entity
+@Table(name = "restaurante_reservas", indexes = {
+    @Index(name = "idx_reservas_mesa_inicio", columnList = "id_mesa, inicio"),
+    @Index(name = "idx_reservas_fin", columnList = "fin")
+})
+public class Reserva {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_reserva")
+    private Integer idReserva;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_mesa", nullable = false)
+    private Mesa mesa;
+
+    @Column(name = "nombre_cliente", length = 100, nullable = false)
+    private String nombreCliente;
+
+    @Column(name = "telefono", length = 15)
+    private String telefono;
+
+    @Column(name = "personas", nullable = false)
+    private Integer personas;
+
+    @Column(name = "inicio", nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(name = "fin", nullable = false)
+    private LocalDateTime fin;
+
+    @Column(name = "cancelada", nullable = false)
+    private Boolean cancelada = false;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    public Reserva() {}
+
+    public Reserva(Mesa mesa, String nombreCliente, Integer personas, LocalDateTime inicio, LocalDateTime fin) {
+        this.mesa = mesa;
+        this.nombreCliente = nombreCliente;
+        this.personas = personas;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.fechaCreacion = LocalDateTime.now();
+    }
+
+    public Integer getIdReserva() {
+        return idReserva;
+    }
+
+    public void setIdReserva(Integer idReserva) {
+        this.idReserva = idReserva;
+    }
+
+    public Mesa getMesa() {
+        return mesa;
+    }
+
+    public void setMesa(Mesa mesa) {
+        this.mesa = mesa;
+    }
+
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+
+    public void setNombreCliente(String nombreCliente) {
+        this.nombreCliente = nombreCliente;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    public void setTelefono(String telefono) {
+        this.telefono = telefono;
+    }
+
+    public Integer getPersonas() {
+        return personas;
+    }
+
+    public void setPersonas(Integer personas) {
+        this.personas = personas;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    public void setFin(LocalDateTime fin) {
+        this.fin = fin;
+    }
+
+    public Boolean getCancelada() {
+        return cancelada;
+    }
+
+    public void setCancelada(Boolean cancelada) {
+        this.cancelada = cancelada;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+}
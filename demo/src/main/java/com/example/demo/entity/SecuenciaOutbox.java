@@ -0,0 +1,48 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entidad con el contador que numera los eventos de la outbox al confirmarse
+ * Tiene una sola fila (id_contador = 1); EventoOutboxRepository la avanza con una sentencia nativa
+ */
+@Entity
+@Table(name = "restaurante_outbox_secuencia")
+public class SecuenciaOutbox {
+
+    @Id
+    @Column(name = "id_contador")
+    private Integer idContador;
+
+    // Última secuencia asignada a un evento
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+
+    // Constructores
+    public SecuenciaOutbox() {}
+
+    // Getters y Setters
+    public Integer getIdContador() {
+        return idContador;
+    }
+
+    public void setIdContador(Integer idContador) {
+        this.idContador = idContador;
+    }
+
+    public Long getUltimoValor() {
+        return ultimoValor;
+    }
+
+    public void setUltimoValor(Long ultimoValor) {
+        this.ultimoValor = ultimoValor;
+    }
+
+    @Override
+    public String toString() {
+        return "SecuenciaOutbox{" +
+                "idContador=" + idContador +
+                ", ultimoValor=" + ultimoValor +
+                '}';
+    }
+}
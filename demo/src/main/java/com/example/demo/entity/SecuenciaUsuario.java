@@ -0,0 +1,74 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Entidad que representa la secuencia de IDs de usuario de un prefijo de rol (ADMIN, MESERO...)
+ * Guarda el primer número del siguiente bloque que se entregará a un nodo (asignación hi/lo)
+ */
+@Entity
+@Table(name = "restaurante_secuencias_usuario")
+public class SecuenciaUsuario implements Persistable<String> {
+
+    @Id
+    @Column(name = "prefijo", length = 10)
+    private String prefijo;
+
+    @Column(name = "siguiente_valor", nullable = false)
+    private Long siguienteValor;
+
+    // Fuerza INSERT (y no merge) al crear la secuencia, para detectar la creación concurrente en otro nodo
+    @Transient
+    private boolean nuevo = false;
+
+    // Constructores
+    public SecuenciaUsuario() {}
+
+    public SecuenciaUsuario(String prefijo, Long siguienteValor) {
+        this.prefijo = prefijo;
+        this.siguienteValor = siguienteValor;
+        this.nuevo = true;
+    }
+
+    // Getters y Setters
+    public String getPrefijo() {
+        return prefijo;
+    }
+
+    public void setPrefijo(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public Long getSiguienteValor() {
+        return siguienteValor;
+    }
+
+    public void setSiguienteValor(Long siguienteValor) {
+        this.siguienteValor = siguienteValor;
+    }
+
+    @Override
+    public String getId() {
+        return prefijo;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarNoNuevo() {
+        this.nuevo = false;
+    }
+
+    @Override
+    public String toString() {
+        return "SecuenciaUsuario{" +
+                "prefijo='" + prefijo + '\'' +
+                ", siguienteValor=" + siguienteValor +
+                '}';
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una sesión de ocupación de una mesa: apertura, primera comanda, cuenta y liberación
+ * La ubicación y la capacidad se copian de la mesa al abrir la sesión
+ */
+@Entity
+@Table(name = "restaurante_sesiones_mesa", indexes = {
+    @Index(name = "idx_sesiones_mesa_mesa_apertura", columnList = "id_mesa, apertura"),
+    @Index(name = "idx_sesiones_mesa_liberacion", columnList = "liberacion")
+})
+public class SesionMesa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_sesion")
+    private Long idSesion;
+
+    @Column(name = "id_mesa", nullable = false)
+    private Integer idMesa;
+
+    @Column(name = "ubicacion", length = 50, nullable = false)
+    private String ubicacion;
+
+    @Column(name = "capacidad", nullable = false)
+    private Integer capacidad;
+
+    // Comensales indicados al sentar al grupo (null si no se indicaron)
+    @Column(name = "comensales")
+    private Integer comensales;
+
+    @Column(name = "apertura", nullable = false)
+    private LocalDateTime apertura;
+
+    @Column(name = "primera_comanda")
+    private LocalDateTime primeraComanda;
+
+    // Primer cobro de la sesión
+    @Column(name = "cuenta")
+    private LocalDateTime cuenta;
+
+    @Column(name = "liberacion")
+    private LocalDateTime liberacion;
+
+    @Column(name = "ingresos", nullable = false, precision = 12, scale = 2)
+    private BigDecimal ingresos = BigDecimal.ZERO;
+
+    public SesionMesa() {}
+
+    public SesionMesa(Mesa mesa, Integer comensales, LocalDateTime apertura) {
+        this.idMesa = mesa.getIdMesa();
+        this.ubicacion = mesa.getUbicacion();
+        this.capacidad = mesa.getCapacidad();
+        this.comensales = comensales;
+        this.apertura = apertura;
+    }
+
+    public Long getIdSesion() {
+        return idSesion;
+    }
+
+    public void setIdSesion(Long idSesion) {
+        this.idSesion = idSesion;
+    }
+
+    public Integer getIdMesa() {
+        return idMesa;
+    }
+
+    public void setIdMesa(Integer idMesa) {
+        this.idMesa = idMesa;
+    }
+
+    public String getUbicacion() {
+        return ubicacion;
+    }
+
+    public void setUbicacion(String ubicacion) {
+        this.ubicacion = ubicacion;
+    }
+
+    public Integer getCapacidad() {
+        return capacidad;
+    }
+
+    public void setCapacidad(Integer capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    public Integer getComensales() {
+        return comensales;
+    }
+
+    public void setComensales(Integer comensales) {
+        this.comensales = comensales;
+    }
+
+    public LocalDateTime getApertura() {
+        return apertura;
+    }
+
+    public void setApertura(LocalDateTime apertura) {
+        this.apertura = apertura;
+    }
+
+    public LocalDateTime getPrimeraComanda() {
+        return primeraComanda;
+    }
+
+    public void setPrimeraComanda(LocalDateTime primeraComanda) {
+        this.primeraComanda = primeraComanda;
+    }
+
+    public LocalDateTime getCuenta() {
+        return cuenta;
+    }
+
+    public void setCuenta(LocalDateTime cuenta) {
+        this.cuenta = cuenta;
+    }
+
+    public LocalDateTime getLiberacion() {
+        return liberacion;
+    }
+
+    public void setLiberacion(LocalDateTime liberacion) {
+        this.liberacion = liberacion;
+    }
+
+    public BigDecimal getIngresos() {
+        return ingresos;
+    }
+
+    public void setIngresos(BigDecimal ingresos) {
+        this.ingresos = ingresos;
+    }
+}
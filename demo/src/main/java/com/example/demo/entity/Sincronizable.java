@@ -0,0 +1,12 @@
+package com.example.demo.entity;
+
+/**
+ * Entidad que las tablets sincronizan por diferencias (GET /api/sync)
+ * VersionCambioListener le asigna una versión de cambio nueva cada vez que se inserta o modifica
+ */
+public interface Sincronizable {
+
+    Long getVersionCambio();
+
+    void setVersionCambio(Long versionCambio);
+}
@@ -0,0 +1,74 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa una revocación de access tokens JWT
+ * La clave es "jti:<id del token>" para un token concreto (logout) o "usuario:<id>" para
+ * todos los tokens de un usuario emitidos hasta la fecha de revocación
+ * El registro deja de hacer falta cuando expira el último token al que afecta
+ */
+@Entity
+@Table(name = "restaurante_tokens_revocados", indexes = {
+    @Index(name = "idx_tokens_revocados_revocacion", columnList = "fecha_revocacion")
+})
+public class TokenRevocado {
+
+    public static final String PREFIJO_TOKEN = "jti:";
+    public static final String PREFIJO_USUARIO = "usuario:";
+
+    @Id
+    @Column(name = "clave", length = 64)
+    private String clave;
+
+    @Column(name = "fecha_revocacion", nullable = false)
+    private LocalDateTime fechaRevocacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    // Constructores
+    public TokenRevocado() {}
+
+    public TokenRevocado(String clave, LocalDateTime fechaRevocacion, LocalDateTime fechaExpiracion) {
+        this.clave = clave;
+        this.fechaRevocacion = fechaRevocacion;
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    // Getters y Setters
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public LocalDateTime getFechaRevocacion() {
+        return fechaRevocacion;
+    }
+
+    public void setFechaRevocacion(LocalDateTime fechaRevocacion) {
+        this.fechaRevocacion = fechaRevocacion;
+    }
+
+    public LocalDateTime getFechaExpiracion() {
+        return fechaExpiracion;
+    }
+
+    public void setFechaExpiracion(LocalDateTime fechaExpiracion) {
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenRevocado{" +
+                "clave='" + clave + '\'' +
+                ", fechaRevocacion=" + fechaRevocacion +
+                ", fechaExpiracion=" + fechaExpiracion +
+                '}';
+    }
+}
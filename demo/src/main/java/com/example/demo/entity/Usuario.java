@@ -15,8 +15,10 @@ import java.util.List;
  * Basada en la tabla restaurante_usuarios del MER
  */
 @Entity
-@Table(name = "restaurante_usuarios")
-public class Usuario {
+@EntityListeners(VersionCambioListener.class)
+@Table(name = "restaurante_usuarios",
+       indexes = @Index(name = "idx_usuarios_version_cambio", columnList = "version_cambio"))
+public class Usuario implements Sincronizable {
     
     @Id
     @Size(max = 20, message = "El ID del usuario no puede exceder 20 caracteres")
@@ -63,6 +65,11 @@ public class Usuario {
     @OneToMany(mappedBy = "cocinero", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comanda> comandasCocinero = new ArrayList<>();
     
+    // Versión de sincronización del usuario; la asigna VersionCambioListener
+    @JsonIgnore
+    @Column(name = "version_cambio", nullable = false)
+    private Long versionCambio;
+    
     // Constructores
     public Usuario() {
         this.fechaRegistro = LocalDateTime.now();
@@ -150,6 +157,16 @@ public class Usuario {
         this.comandasCocinero = comandasCocinero;
     }
     
+    @Override
+    public Long getVersionCambio() {
+        return versionCambio;
+    }
+    
+    @Override
+    public void setVersionCambio(Long versionCambio) {
+        this.versionCambio = versionCambio;
+    }
+    
     // Métodos de conveniencia
     public void agregarTelefono(Telefono telefono) {
         UsuarioTelefono usuarioTelefono = new UsuarioTelefono(this, telefono);
@@ -0,0 +1,122 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entidad que representa el acumulado de ventas de un día
+ * por producto, categoría y mesero (tabla de resumen para reportes)
+ */
+@Entity
+@Table(name = "restaurante_ventas_diarias",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ventas_diarias_clave",
+                                             columnNames = {"fecha", "id_producto", "id_categoria", "id_mesero"}))
+public class VentaDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_venta_diaria")
+    private Long idVentaDiaria;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "id_producto", nullable = false)
+    private Integer idProducto;
+
+    @Column(name = "id_categoria", nullable = false)
+    private Integer idCategoria;
+
+    @Column(name = "id_mesero", length = 20, nullable = false)
+    private String idMesero;
+
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad = 0L;
+
+    @Column(name = "total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // Constructores
+    public VentaDiaria() {}
+
+    public VentaDiaria(LocalDate fecha, Integer idProducto, Integer idCategoria, String idMesero,
+                       Long cantidad, BigDecimal total) {
+        this.fecha = fecha;
+        this.idProducto = idProducto;
+        this.idCategoria = idCategoria;
+        this.idMesero = idMesero;
+        this.cantidad = cantidad;
+        this.total = total;
+    }
+
+    // Getters y Setters
+    public Long getIdVentaDiaria() {
+        return idVentaDiaria;
+    }
+
+    public void setIdVentaDiaria(Long idVentaDiaria) {
+        this.idVentaDiaria = idVentaDiaria;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public Integer getIdProducto() {
+        return idProducto;
+    }
+
+    public void setIdProducto(Integer idProducto) {
+        this.idProducto = idProducto;
+    }
+
+    public Integer getIdCategoria() {
+        return idCategoria;
+    }
+
+    public void setIdCategoria(Integer idCategoria) {
+        this.idCategoria = idCategoria;
+    }
+
+    public String getIdMesero() {
+        return idMesero;
+    }
+
+    public void setIdMesero(String idMesero) {
+        this.idMesero = idMesero;
+    }
+
+    public Long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    @Override
+    public String toString() {
+        return "VentaDiaria{" +
+                "fecha=" + fecha +
+                ", idProducto=" + idProducto +
+                ", idCategoria=" + idCategoria +
+                ", idMesero='" + idMesero + '\'' +
+                ", cantidad=" + cantidad +
+                ", total=" + total +
+                '}';
+    }
+}
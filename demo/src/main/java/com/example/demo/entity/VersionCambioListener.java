@@ -0,0 +1,46 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sella las entidades sincronizables con una versión de cambio creciente al insertarlas o modificarlas
+ * La versión es el instante en milisegundos multiplicado por 1000 más un contador: crece siempre dentro
+ * de un nodo, y entre nodos sigue el orden del reloj sin compartir ningún contador en la base de datos
+ * (que serializaría todas las escrituras). Las versiones de un instante se calculan con versionEn
+ * Este sello provisional se sustituye al confirmar la transacción (SelloVersionCambio)
+ */
+public class VersionCambioListener {
+
+    private static final long POR_MILISEGUNDO = 1000;
+
+    private static final AtomicLong ultima = new AtomicLong();
+
+    @PrePersist
+    @PreUpdate
+    public void sellar(Object entidad) {
+        if (entidad instanceof Sincronizable sincronizable) {
+            sincronizable.setVersionCambio(siguienteVersion());
+        }
+    }
+
+    /**
+     * Siguiente versión de cambio de este nodo
+     * @return versión mayor que todas las entregadas antes y no menor que la del instante actual
+     */
+    public static long siguienteVersion() {
+        long minima = versionEn(System.currentTimeMillis());
+        return ultima.updateAndGet(anterior -> Math.max(anterior + 1, minima));
+    }
+
+    /**
+     * Primera versión que puede tener un cambio hecho en un instante
+     * @param epochMilli instante en milisegundos desde epoch
+     * @return versión de cambio correspondiente
+     */
+    public static long versionEn(long epochMilli) {
+        return epochMilli * POR_MILISEGUNDO;
+    }
+}
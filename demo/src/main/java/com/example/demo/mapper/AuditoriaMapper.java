@@ -0,0 +1,32 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.response.RegistroAuditoriaDTO;
+import com.example.demo.entity.RegistroAuditoria;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para convertir RegistroAuditoria Entity a DTO
+ */
+@Component
+public class AuditoriaMapper {
+    
+    /**
+     * Convierte RegistroAuditoria entity a RegistroAuditoriaDTO
+     */
+    public RegistroAuditoriaDTO toDTO(RegistroAuditoria registro) {
+        if (registro == null) {
+            return null;
+        }
+        
+        return RegistroAuditoriaDTO.builder()
+                .idRegistro(registro.getIdRegistro())
+                .fecha(registro.getFecha())
+                .usuario(registro.getUsuario())
+                .entidad(registro.getEntidad())
+                .idEntidad(registro.getIdEntidad())
+                .operacion(registro.getOperacion())
+                .antes(registro.getAntes())
+                .despues(registro.getDespues())
+                .build();
+    }
+}
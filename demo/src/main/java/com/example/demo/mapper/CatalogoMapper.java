@@ -0,0 +1,134 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.projection.ElementoCatalogo;
+import com.example.demo.dto.projection.TelefonoResumen;
+import com.example.demo.dto.response.CategoriaDTO;
+import com.example.demo.dto.response.EstadoDTO;
+import com.example.demo.dto.response.RolDTO;
+import com.example.demo.dto.response.TelefonoDTO;
+import com.example.demo.entity.Categoria;
+import com.example.demo.entity.Estado;
+import com.example.demo.entity.Rol;
+import com.example.demo.entity.Telefono;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para convertir las entidades de catálogo (Estado, Rol, Categoria, Telefono) y sus proyecciones a DTOs
+ */
+@Component
+public class CatalogoMapper {
+
+    /**
+     * Convierte Estado entity a EstadoDTO
+     */
+    public EstadoDTO toEstadoDTO(Estado estado) {
+        if (estado == null) {
+            return null;
+        }
+
+        return EstadoDTO.builder()
+                .idEstado(estado.getIdEstado() != null ? estado.getIdEstado().longValue() : null)
+                .nombre(estado.getNombre())
+                .descripcion(null) // Estado entity no tiene descripción
+                .build();
+    }
+
+    /**
+     * Convierte una proyección de estado a EstadoDTO
+     */
+    public EstadoDTO toEstadoDTO(ElementoCatalogo estado) {
+        if (estado == null) {
+            return null;
+        }
+
+        return EstadoDTO.builder()
+                .idEstado(estado.getId() != null ? estado.getId().longValue() : null)
+                .nombre(estado.getNombre())
+                .build();
+    }
+
+    /**
+     * Convierte Rol entity a RolDTO
+     */
+    public RolDTO toRolDTO(Rol rol) {
+        if (rol == null) {
+            return null;
+        }
+
+        return RolDTO.builder()
+                .idRol(rol.getIdRol() != null ? rol.getIdRol().longValue() : null)
+                .nombre(rol.getNombre())
+                .descripcion(null) // Rol entity no tiene descripción
+                .build();
+    }
+
+    /**
+     * Convierte una proyección de rol a RolDTO
+     */
+    public RolDTO toRolDTO(ElementoCatalogo rol) {
+        if (rol == null) {
+            return null;
+        }
+
+        return RolDTO.builder()
+                .idRol(rol.getId() != null ? rol.getId().longValue() : null)
+                .nombre(rol.getNombre())
+                .build();
+    }
+
+    /**
+     * Convierte Categoria entity a CategoriaDTO
+     */
+    public CategoriaDTO toCategoriaDTO(Categoria categoria) {
+        if (categoria == null) {
+            return null;
+        }
+
+        return CategoriaDTO.builder()
+                .idCategoria(categoria.getIdCategoria())
+                .nombre(categoria.getNombre())
+                .build();
+    }
+
+    /**
+     * Convierte una proyección de categoría a CategoriaDTO
+     */
+    public CategoriaDTO toCategoriaDTO(ElementoCatalogo categoria) {
+        if (categoria == null) {
+            return null;
+        }
+
+        return CategoriaDTO.builder()
+                .idCategoria(categoria.getId())
+                .nombre(categoria.getNombre())
+                .build();
+    }
+
+    /**
+     * Convierte Telefono entity a TelefonoDTO
+     */
+    public TelefonoDTO toTelefonoDTO(Telefono telefono) {
+        if (telefono == null) {
+            return null;
+        }
+
+        return TelefonoDTO.builder()
+                .idTelefono(telefono.getIdTelefono())
+                .numero(telefono.getNumero())
+                .build();
+    }
+
+    /**
+     * Convierte una proyección de teléfono a TelefonoDTO
+     */
+    public TelefonoDTO toTelefonoDTO(TelefonoResumen telefono) {
+        if (telefono == null) {
+            return null;
+        }
+
+        return TelefonoDTO.builder()
+                .idTelefono(telefono.getIdTelefono())
+                .numero(telefono.getNumero())
+                .build();
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.demo.mapper;
 
+import com.example.demo.dto.projection.ComandaResumen;
+import com.example.demo.dto.projection.DetalleComandaResumen;
 import com.example.demo.dto.response.*;
 import com.example.demo.entity.Comanda;
 import com.example.demo.entity.DetalleComanda;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +44,94 @@ public class ComandaMapper {
                 .build();
     }
     
+    /**
+     * Convierte una proyección de comanda y sus líneas a ComandaResponseDTO
+     * El total se calcula sumando los subtotales de las líneas, igual que Comanda.calcularTotal()
+     */
+    public ComandaResponseDTO toResponseDTO(ComandaResumen comanda, List<DetalleComandaResumen> detalles) {
+        if (comanda == null) {
+            return null;
+        }
+        
+        List<DetalleComandaDTO> productos = detalles.stream()
+                .map(this::toDetalleComandaDTO)
+                .collect(Collectors.toList());
+        
+        return ComandaResponseDTO.builder()
+                .idComanda(comanda.getIdComanda() != null ? comanda.getIdComanda().longValue() : null)
+                .fecha(comanda.getFecha())
+                .mesa(comanda.getIdMesa() != null ? MesaSimpleDTO.builder()
+                        .idMesa(comanda.getIdMesa().longValue())
+                        .ubicacion(comanda.getUbicacionMesa())
+                        .capacidad(comanda.getCapacidadMesa())
+                        .estado(comanda.getEstadoMesa())
+                        .build() : null)
+                .mesero(comanda.getIdMesero() != null ? UsuarioSimpleDTO.builder()
+                        .idUsuario(comanda.getIdMesero())
+                        .nombre(comanda.getNombreMesero())
+                        .email(comanda.getEmailMesero())
+                        .rol(comanda.getRolMesero())
+                        .build() : null)
+                .cocinero(comanda.getIdCocinero() != null ? UsuarioSimpleDTO.builder()
+                        .idUsuario(comanda.getIdCocinero())
+                        .nombre(comanda.getNombreCocinero())
+                        .email(comanda.getEmailCocinero())
+                        .rol(comanda.getRolCocinero())
+                        .build() : null)
+                .estado(comanda.getIdEstado() != null ? EstadoDTO.builder()
+                        .idEstado(comanda.getIdEstado().longValue())
+                        .nombre(comanda.getEstado())
+                        .build() : null)
+                .productos(productos)
+                .total(productos.stream()
+                        .filter(detalle -> detalle.getSubtotal() != null)
+                        .mapToDouble(detalle -> detalle.getSubtotal().doubleValue())
+                        .sum())
+                .build();
+    }
+    
+    /**
+     * Convierte DetalleComanda entity a DetalleComandaDTO
+     */
+    public DetalleComandaDTO toDetalleComandaDTO(DetalleComanda detalle) {
+        if (detalle == null) {
+            return null;
+        }
+        
+        return DetalleComandaDTO.builder()
+                .idDetalle(detalle.getIdDetalleComanda() != null ? detalle.getIdDetalleComanda().longValue() : null)
+                .idComanda(detalle.getComanda() != null && detalle.getComanda().getIdComanda() != null ?
+                    detalle.getComanda().getIdComanda().longValue() : null)
+                .idProducto(detalle.getProducto() != null && detalle.getProducto().getIdProducto() != null ?
+                    detalle.getProducto().getIdProducto().longValue() : null)
+                .nombreProducto(detalle.getProducto() != null ? detalle.getProducto().getNombre() : null)
+                .cantidad(detalle.getCantidad())
+                .precioUnitario(detalle.getPrecioUnitario())
+                .subtotal(detalle.getSubtotal())
+                .estado(detalle.getEstado() != null ? detalle.getEstado().getNombre() : null)
+                .build();
+    }
+    
+    /**
+     * Convierte una proyección de línea de comanda a DetalleComandaDTO
+     */
+    public DetalleComandaDTO toDetalleComandaDTO(DetalleComandaResumen detalle) {
+        if (detalle == null) {
+            return null;
+        }
+        
+        return DetalleComandaDTO.builder()
+                .idDetalle(detalle.getIdDetalle() != null ? detalle.getIdDetalle().longValue() : null)
+                .idComanda(detalle.getIdComanda() != null ? detalle.getIdComanda().longValue() : null)
+                .idProducto(detalle.getIdProducto() != null ? detalle.getIdProducto().longValue() : null)
+                .nombreProducto(detalle.getNombreProducto())
+                .cantidad(detalle.getCantidad())
+                .precioUnitario(detalle.getPrecioUnitario())
+                .subtotal(detalle.getSubtotal())
+                .estado(detalle.getEstado())
+                .build();
+    }
+    
     /**
      * Convierte Mesa entity a MesaSimpleDTO
      */
@@ -71,23 +162,4 @@ public class ComandaMapper {
                 .descripcion(null) // Estado entity no tiene descripción
                 .build();
     }
-    
-    /**
-     * Convierte DetalleComanda entity a DetalleComandaDTO
-     */
-    private DetalleComandaDTO toDetalleComandaDTO(DetalleComanda detalle) {
-        if (detalle == null) {
-            return null;
-        }
-        
-        return DetalleComandaDTO.builder()
-                .idDetalle(detalle.getIdDetalleComanda() != null ? detalle.getIdDetalleComanda().longValue() : null)
-                .nombreProducto(detalle.getProducto() != null ? detalle.getProducto().getNombre() : null)
-                .cantidad(detalle.getCantidad())
-                .precioUnitario(detalle.getPrecioUnitario())
-                .subtotal(detalle.getSubtotal())
-                .estado(detalle.getEstado() != null ? detalle.getEstado().getNombre() : null)
-                .build();
-    }
 }
-
@@ -1,5 +1,6 @@
 package com.example.demo.mapper;
 
+import com.example.demo.dto.projection.MesaResumen;
 import com.example.demo.dto.response.EstadoDTO;
 import com.example.demo.dto.response.MesaResponseDTO;
 import com.example.demo.dto.response.MesaSimpleDTO;
@@ -28,6 +29,25 @@ public class MesaMapper {
                 .build();
     }
     
+    /**
+     * Convierte una proyección de mesa a MesaResponseDTO
+     */
+    public MesaResponseDTO toResponseDTO(MesaResumen mesa) {
+        if (mesa == null) {
+            return null;
+        }
+        
+        return MesaResponseDTO.builder()
+                .idMesa(mesa.getIdMesa() != null ? mesa.getIdMesa().longValue() : null)
+                .ubicacion(mesa.getUbicacion())
+                .capacidad(mesa.getCapacidad())
+                .estado(mesa.getIdEstado() != null ? EstadoDTO.builder()
+                        .idEstado(mesa.getIdEstado().longValue())
+                        .nombre(mesa.getEstado())
+                        .build() : null)
+                .build();
+    }
+    
     /**
      * Convierte Mesa entity a MesaSimpleDTO
      */
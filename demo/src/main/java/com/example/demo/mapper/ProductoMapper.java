@@ -1,5 +1,6 @@
 package com.example.demo.mapper;
 
+import com.example.demo.dto.projection.ProductoResumen;
 import com.example.demo.dto.response.ProductoResponseDTO;
 import com.example.demo.entity.Producto;
 import org.springframework.stereotype.Component;
@@ -42,11 +43,33 @@ public class ProductoMapper {
                 .idCategoria(idCategoria)
                 .disponible(producto.getStock() != null && producto.getStock() > 0)
                 .estado(producto.getEstado())
+                .umbralReposicion(producto.getUmbralReposicion())
                 .build();
         
         System.out.println("🔍 Mapper - DTO creado con categoria: " + dto.getCategoria() + ", idCategoria: " + dto.getIdCategoria());
         
         return dto;
     }
+    
+    /**
+     * Convierte una proyección de producto a ProductoResponseDTO
+     */
+    public ProductoResponseDTO toResponseDTO(ProductoResumen producto) {
+        if (producto == null) {
+            return null;
+        }
+        
+        return ProductoResponseDTO.builder()
+                .idProducto(producto.getIdProducto() != null ? producto.getIdProducto().longValue() : null)
+                .nombre(producto.getNombre())
+                .descripcion(null) // Producto entity no tiene descripción
+                .precio(producto.getPrecio())
+                .stock(producto.getStock())
+                .categoria(producto.getCategoria())
+                .idCategoria(producto.getIdCategoria())
+                .disponible(producto.getStock() != null && producto.getStock() > 0)
+                .estado(producto.getEstado())
+                .umbralReposicion(producto.getUmbralReposicion())
+                .build();
+    }
 }
-
@@ -0,0 +1,33 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.response.ReservaResponseDTO;
+import com.example.demo.entity.Reserva;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para convertir Reserva Entity a DTO
+ */
+@Component
+public class ReservaMapper {
+    
+    /**
+     * Convierte Reserva entity a ReservaResponseDTO
+     */
+    public ReservaResponseDTO toResponseDTO(Reserva reserva) {
+        if (reserva == null) {
+            return null;
+        }
+        
+        return ReservaResponseDTO.builder()
+                .idReserva(reserva.getIdReserva())
+                .idMesa(reserva.getMesa() != null ? reserva.getMesa().getIdMesa() : null)
+                .ubicacionMesa(reserva.getMesa() != null ? reserva.getMesa().getUbicacion() : null)
+                .nombreCliente(reserva.getNombreCliente())
+                .telefono(reserva.getTelefono())
+                .personas(reserva.getPersonas())
+                .inicio(reserva.getInicio())
+                .fin(reserva.getFin())
+                .cancelada(reserva.getCancelada())
+                .build();
+    }
+}
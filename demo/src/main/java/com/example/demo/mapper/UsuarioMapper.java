@@ -1,5 +1,6 @@
 package com.example.demo.mapper;
 
+import com.example.demo.dto.projection.UsuarioResumen;
 import com.example.demo.dto.response.RolDTO;
 import com.example.demo.dto.response.UsuarioResponseDTO;
 import com.example.demo.dto.response.UsuarioSimpleDTO;
@@ -7,6 +8,7 @@ import com.example.demo.entity.Usuario;
 import com.example.demo.entity.UsuarioTelefono;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +39,27 @@ public class UsuarioMapper {
                 .build();
     }
     
+    /**
+     * Convierte una proyección de usuario y sus números de teléfono a UsuarioResponseDTO
+     */
+    public UsuarioResponseDTO toResponseDTO(UsuarioResumen usuario, List<String> telefonos) {
+        if (usuario == null) {
+            return null;
+        }
+        
+        return UsuarioResponseDTO.builder()
+                .idUsuario(usuario.getIdUsuario())
+                .nombre(usuario.getNombre())
+                .email(usuario.getEmail())
+                .fechaRegistro(usuario.getFechaRegistro())
+                .rol(usuario.getIdRol() != null ? RolDTO.builder()
+                        .idRol(usuario.getIdRol().longValue())
+                        .nombre(usuario.getRol())
+                        .build() : null)
+                .telefonos(telefonos)
+                .build();
+    }
+    
     /**
      * Convierte Usuario entity a UsuarioSimpleDTO
      */
@@ -0,0 +1,71 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.EventoOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destino que añade los eventos a un fichero NDJSON (un evento JSON por línea)
+ * Se activa con outbox.sink=archivo; la ruta se configura con outbox.archivo
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "archivo")
+public class ArchivoOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${outbox.archivo:outbox/eventos.ndjson}")
+    private String archivo;
+
+    @Override
+    public String getNombre() {
+        return "archivo";
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> eventos) throws IOException {
+        StringBuilder lineas = new StringBuilder();
+        for (EventoOutbox evento : eventos) {
+            Map<String, Object> linea = new LinkedHashMap<>();
+            linea.put("idEvento", evento.getIdEvento());
+            linea.put("secuencia", evento.getSecuencia());
+            linea.put("tipo", evento.getTipo());
+            linea.put("agregado", evento.getAgregado());
+            linea.put("idAgregado", evento.getIdAgregado());
+            linea.put("fecha", evento.getFechaCreacion().toString());
+            linea.put("datos", objectMapper.readTree(evento.getPayload()));
+            lineas.append(objectMapper.writeValueAsString(linea)).append('\n');
+        }
+
+        Path ruta = Paths.get(archivo);
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+
+        // El lote solo se confirma en la outbox después de forzarlo a disco
+        ByteBuffer buffer = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.EventoOutbox;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Destino en memoria para tests: conserva los eventos recibidos en orden
+ * Se activa con outbox.sink=memoria
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memoria")
+public class MemoriaOutboxSink implements OutboxSink {
+
+    private final List<EventoOutbox> eventos = new ArrayList<>();
+
+    @Override
+    public String getNombre() {
+        return "memoria";
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoOutbox> lote) {
+        eventos.addAll(lote);
+    }
+
+    /**
+     * Obtener los eventos recibidos hasta ahora
+     * @return copia de la lista de eventos
+     */
+    public synchronized List<EventoOutbox> getEventos() {
+        return new ArrayList<>(eventos);
+    }
+
+    /**
+     * Vaciar los eventos recibidos
+     */
+    public synchronized void limpiar() {
+        eventos.clear();
+    }
+}
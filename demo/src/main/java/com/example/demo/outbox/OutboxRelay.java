@@ -0,0 +1,119 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.EventoOutbox;
+import com.example.demo.repository.EventoOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Publica los eventos de la outbox en lotes ordenados por secuencia de confirmación hacia los OutboxSink configurados
+ * Un lote solo se marca como publicado cuando todos los destinos lo aceptaron; si alguno
+ * falla, el relay se detiene y reintenta ese mismo lote en la siguiente ejecución, de modo
+ * que nunca se salta un evento (entrega al menos una vez, en el orden en que se confirmaron)
+ * Con varios nodos debe habilitarse en uno solo (outbox.relay.habilitado)
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired(required = false)
+    private List<OutboxSink> sinks = new ArrayList<>();
+
+    @Value("${outbox.relay.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${outbox.relay.tamano-lote:100}")
+    private int tamanoLote;
+
+    @Value("${outbox.retencion-horas:72}")
+    private long retencionHoras;
+
+    private final AtomicLong eventosPublicados = new AtomicLong();
+    private final AtomicLong lotesPublicados = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private volatile Long ultimaSecuenciaPublicada;
+
+    /**
+     * Publicar todos los eventos pendientes, lote a lote
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.intervalo-ms:1000}")
+    public void publicarPendientes() {
+        if (!habilitado || sinks.isEmpty()) {
+            return;
+        }
+        int publicados;
+        do {
+            publicados = publicarLote();
+        } while (publicados == tamanoLote);
+    }
+
+    /**
+     * Publicar el siguiente lote de eventos pendientes
+     * @return número de eventos publicados (0 si no había pendientes o el lote falló)
+     */
+    public int publicarLote() {
+        List<EventoOutbox> lote = eventoOutboxRepository.findPendientes(PageRequest.of(0, tamanoLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publicar(lote);
+            } catch (Exception e) {
+                lotesFallidos.incrementAndGet();
+                System.out.println("⚠️ Outbox - Error al publicar en '" + sink.getNombre() + "' desde el evento " +
+                                   lote.get(0).getIdEvento() + ": " + e.getMessage());
+                return 0;
+            }
+        }
+
+        List<Long> ids = lote.stream().map(EventoOutbox::getIdEvento).collect(Collectors.toList());
+        eventoOutboxRepository.marcarPublicados(ids, LocalDateTime.now());
+
+        eventosPublicados.addAndGet(lote.size());
+        lotesPublicados.incrementAndGet();
+        ultimaSecuenciaPublicada = lote.get(lote.size() - 1).getSecuencia();
+        return lote.size();
+    }
+
+    /**
+     * Eliminar los eventos publicados que superan el tiempo de retención
+     */
+    @Scheduled(cron = "${outbox.purga-cron:0 30 4 * * *}")
+    public void purgarPublicados() {
+        int eliminados = eventoOutboxRepository.eliminarPublicadosAntesDe(LocalDateTime.now().minusHours(retencionHoras));
+        if (eliminados > 0) {
+            System.out.println("✅ Outbox - Eliminados " + eliminados + " evento(s) publicados");
+        }
+    }
+
+    /**
+     * Obtener estadísticas del relay
+     * @return mapa con contadores de publicación
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("habilitado", habilitado);
+        estadisticas.put("sinks", sinks.stream().map(OutboxSink::getNombre).collect(Collectors.toList()));
+        estadisticas.put("pendientes", eventoOutboxRepository.countByPublicadoFalse());
+        estadisticas.put("eventosPublicados", eventosPublicados.get());
+        estadisticas.put("lotesPublicados", lotesPublicados.get());
+        estadisticas.put("lotesFallidos", lotesFallidos.get());
+        estadisticas.put("ultimaSecuenciaPublicada", ultimaSecuenciaPublicada);
+        return estadisticas;
+    }
+}
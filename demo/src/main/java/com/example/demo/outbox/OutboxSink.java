@@ -0,0 +1,26 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.EventoOutbox;
+
+import java.util.List;
+
+/**
+ * Destino al que OutboxRelay entrega los eventos de dominio
+ * Cada implementación recibe los lotes en orden de ID. Si lanza una excepción el
+ * lote se reintenta completo, por lo que los consumidores deben deduplicar por idEvento
+ */
+public interface OutboxSink {
+
+    /**
+     * Nombre del destino, usado en logs y estadísticas
+     * @return nombre del destino
+     */
+    String getNombre();
+
+    /**
+     * Publicar un lote de eventos
+     * @param eventos eventos ordenados por idEvento
+     * @throws Exception si el lote no pudo entregarse
+     */
+    void publicar(List<EventoOutbox> eventos) throws Exception;
+}
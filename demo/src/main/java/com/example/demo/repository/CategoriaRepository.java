@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.ElementoCatalogo;
 import com.example.demo.entity.Categoria;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -49,4 +50,19 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Integer> {
      */
     @Query("SELECT DISTINCT c FROM Categoria c JOIN c.productos p WHERE p.estado = true")
     List<Categoria> findCategoriasConProductosActivos();
+    
+    /**
+     * Obtener todas las categorías ordenadas por nombre como proyección
+     * @return List<ElementoCatalogo>
+     */
+    @Query("SELECT c.idCategoria AS id, c.nombre AS nombre FROM Categoria c ORDER BY c.nombre")
+    List<ElementoCatalogo> findAllCatalogo();
+    
+    /**
+     * Buscar categorías cuyo nombre contiene un texto como proyección
+     * @param nombre texto a buscar
+     * @return List<ElementoCatalogo>
+     */
+    @Query("SELECT c.idCategoria AS id, c.nombre AS nombre FROM Categoria c WHERE c.nombre LIKE %?1% ORDER BY c.nombre")
+    List<ElementoCatalogo> findCatalogoByNombreContaining(String nombre);
 }
@@ -0,0 +1,48 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.projection.ComandaResumen;
+import com.example.demo.entity.ComandaHistorico;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad ComandaHistorico
+ * Proporciona las consultas de reportes sobre comandas archivadas
+ */
+@Repository
+public interface ComandaHistoricoRepository extends JpaRepository<ComandaHistorico, Integer> {
+
+    /**
+     * Buscar comandas archivadas por rango de fechas
+     * @param fechaInicio fecha de inicio
+     * @param fechaFin fecha de fin
+     * @return List<ComandaHistorico>
+     */
+    List<ComandaHistorico> findByFechaBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    /**
+     * Sumar el total de las comandas archivadas no canceladas en un intervalo
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @return total vendido archivado
+     */
+    @Query("SELECT COALESCE(SUM(c.total), 0) FROM ComandaHistorico c " +
+           "WHERE c.fecha >= ?1 AND c.fecha < ?2 AND c.estado.nombre NOT IN ?3")
+    BigDecimal sumarVentasEntre(LocalDateTime desde, LocalDateTime hasta, List<String> estadosCancelados);
+
+    /**
+     * Obtener el resumen de las comandas archivadas de un rango de fechas
+     * @param fechaInicio fecha de inicio
+     * @param fechaFin fecha de fin
+     * @return List<ComandaResumen>
+     */
+    @Query("SELECT " + ComandaRepository.COLUMNAS_RESUMEN + "FROM ComandaHistorico c " + ComandaRepository.JOINS_RESUMEN +
+           "WHERE c.fecha BETWEEN ?1 AND ?2 ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findResumenByRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+}
@@ -1,15 +1,20 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.ComandaResumen;
+import com.example.demo.dto.projection.RendimientoMeseroResumen;
 import com.example.demo.entity.Comanda;
 import com.example.demo.entity.Estado;
 import com.example.demo.entity.Mesa;
 import com.example.demo.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +24,26 @@ import java.util.List;
 @Repository
 public interface ComandaRepository extends JpaRepository<Comanda, Integer> {
     
+    /**
+     * Columnas de ComandaResumen; los alias coinciden con los getters de la proyección
+     * Las usan también las consultas del histórico, que tiene los mismos atributos
+     */
+    String COLUMNAS_RESUMEN = "c.idComanda AS idComanda, c.fecha AS fecha, c.pagada AS pagada, " +
+           "m.idMesa AS idMesa, m.ubicacion AS ubicacionMesa, m.capacidad AS capacidadMesa, em.nombre AS estadoMesa, " +
+           "me.idUsuario AS idMesero, me.nombre AS nombreMesero, me.email AS emailMesero, rme.nombre AS rolMesero, " +
+           "co.idUsuario AS idCocinero, co.nombre AS nombreCocinero, co.email AS emailCocinero, rco.nombre AS rolCocinero, " +
+           "e.idEstado AS idEstado, e.nombre AS estado ";
+    
+    /**
+     * Joins de ComandaResumen sobre el alias c (LEFT para no perder comandas sin cocinero)
+     */
+    String JOINS_RESUMEN = "LEFT JOIN c.mesa m LEFT JOIN m.estado em " +
+           "LEFT JOIN c.mesero me LEFT JOIN me.rol rme " +
+           "LEFT JOIN c.cocinero co LEFT JOIN co.rol rco " +
+           "LEFT JOIN c.estado e ";
+    
+    String SELECT_RESUMEN = "SELECT " + COLUMNAS_RESUMEN + "FROM Comanda c " + JOINS_RESUMEN;
+    
     /**
      * Buscar comandas por mesa
      * @param mesa mesa de la comanda
@@ -105,7 +130,7 @@ public interface ComandaRepository extends JpaRepository<Comanda, Integer> {
      * Buscar comandas del día actual
      * @return List<Comanda>
      */
-    @Query("SELECT c FROM Comanda c WHERE DATE(c.fecha) = CURRENT_DATE ORDER BY c.fecha DESC")
+    @Query("SELECT c FROM Comanda c WHERE CAST(c.fecha AS LocalDate) = CURRENT_DATE ORDER BY c.fecha DESC")
     List<Comanda> findComandasDelDia();
     
     /**
@@ -152,4 +177,163 @@ public interface ComandaRepository extends JpaRepository<Comanda, Integer> {
      * @return List<Comanda>
      */
     List<Comanda> findByMesaAndEstado(Mesa mesa, Estado estado);
+    
+    /**
+     * Buscar IDs de comandas archivables: anteriores a una fecha y pagadas o canceladas
+     * @param fechaLimite fecha límite
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @param pageable tamaño del lote
+     * @return List<Integer> con los IDs ordenados
+     */
+    @Query("SELECT c.idComanda FROM Comanda c WHERE c.fecha < ?1 AND (c.pagada = true OR c.estado.nombre IN ?2) ORDER BY c.idComanda")
+    List<Integer> findIdsArchivables(LocalDateTime fechaLimite, List<String> estadosCancelados, Pageable pageable);
+    
+    /**
+     * Buscar comandas con sus detalles cargados
+     * @param ids IDs de las comandas
+     * @return List<Comanda>
+     */
+    @Query("SELECT DISTINCT c FROM Comanda c LEFT JOIN FETCH c.detalleComandas WHERE c.idComanda IN ?1")
+    List<Comanda> findConDetallesByIds(List<Integer> ids);
+    
+    /**
+     * Eliminar comandas por ID (sus detalles deben eliminarse antes)
+     * @param ids IDs de las comandas
+     * @return número de comandas eliminadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comanda c WHERE c.idComanda IN ?1")
+    int eliminarPorIds(List<Integer> ids);
+    
+    /**
+     * Desmarcar como acumuladas en ventas las comandas de un intervalo
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @return número de comandas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Comanda c SET c.acumuladaVentas = false WHERE c.fecha >= ?1 AND c.fecha < ?2")
+    int desmarcarAcumuladasVentas(LocalDateTime desde, LocalDateTime hasta);
+    
+    /**
+     * Marcar como acumuladas en ventas las comandas cerradas (completadas o pagadas, no canceladas) de un intervalo
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @param estadosCompletados nombres de estado que cuentan como completada
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @return número de comandas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Comanda c SET c.acumuladaVentas = true WHERE c.fecha >= ?1 AND c.fecha < ?2 " +
+           "AND (c.pagada = true OR c.estado.idEstado IN (SELECT e.idEstado FROM Estado e WHERE e.nombre IN ?3)) " +
+           "AND c.estado.idEstado NOT IN (SELECT e2.idEstado FROM Estado e2 WHERE e2.nombre IN ?4)")
+    int marcarAcumuladasVentas(LocalDateTime desde, LocalDateTime hasta,
+                               List<String> estadosCompletados, List<String> estadosCancelados);
+    
+    /**
+     * Obtener el resumen de todas las comandas
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findAllResumen();
+    
+    /**
+     * Obtener el resumen de las comandas de una mesa
+     * @param idMesa ID de la mesa
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE m.idMesa = ?1 ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findResumenByMesaId(Integer idMesa);
+    
+    /**
+     * Obtener el resumen de las comandas de un mesero
+     * @param idMesero ID del mesero
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE me.idUsuario = ?1 ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findResumenByMeseroId(String idMesero);
+    
+    /**
+     * Obtener el resumen de las comandas de un cocinero
+     * @param idCocinero ID del cocinero
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE co.idUsuario = ?1 ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findResumenByCocineroId(String idCocinero);
+    
+    /**
+     * Obtener el resumen de las comandas de un estado, las más antiguas primero (orden de la cola de cocina)
+     * @param idEstado ID del estado
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE e.idEstado = ?1 ORDER BY c.fecha ASC, c.idComanda ASC")
+    List<ComandaResumen> findResumenByEstadoId(Integer idEstado);
+    
+    /**
+     * Obtener el resumen de las comandas de un rango de fechas
+     * @param fechaInicio fecha de inicio
+     * @param fechaFin fecha de fin
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.fecha BETWEEN ?1 AND ?2 ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findResumenByRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    
+    /**
+     * IDs de las comandas modificadas en un rango de versiones de cambio (sincronización de tablets)
+     * @param desde versión de cambio excluida
+     * @param hasta versión de cambio incluida
+     * @param pageable máximo de resultados
+     * @return List<Object[]> con [idComanda, versionCambio] en orden de versión
+     */
+    @Query("SELECT c.idComanda, c.versionCambio FROM Comanda c WHERE c.versionCambio > ?1 AND c.versionCambio <= ?2 ORDER BY c.versionCambio")
+    List<Object[]> findCambios(Long desde, Long hasta, Pageable pageable);
+    
+    /**
+     * Obtener varias comandas por ID como proyección
+     * @param ids IDs de las comandas
+     * @return List<ComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.idComanda IN ?1 ORDER BY c.fecha DESC, c.idComanda DESC")
+    List<ComandaResumen> findResumenByIds(Collection<Integer> ids);
+    
+    /**
+     * Agregados por mesero de las comandas activas y archivadas de un rango, con su posición por ingresos
+     * SQL nativo limitado a lo que comparten MySQL 8 y H2 (tablas derivadas, UNION ALL, RANK() OVER,
+     * TIMESTAMPDIFF): una sola consulta resuelve el ranking de todo el personal
+     * @param desde fecha inicial (incluida)
+     * @param hasta fecha final (excluida)
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @param estadosCompletados nombres de estado que cuentan como completada
+     * @return List<RendimientoMeseroResumen> ordenados por posición
+     */
+    @Query(value = "SELECT RANK() OVER (ORDER BY COALESCE(SUM(CASE WHEN t.vendida = 1 THEN t.total END), 0) DESC) AS posicion, " +
+           "t.id_mesero AS idMesero, u.nombre AS nombreMesero, COUNT(*) AS comandas, " +
+           "SUM(t.vendida) AS comandasVendidas, SUM(t.cancelada) AS comandasCanceladas, " +
+           "COALESCE(SUM(CASE WHEN t.vendida = 1 THEN t.total END), 0) AS ingresos, " +
+           "COALESCE(SUM(CASE WHEN t.vendida = 1 THEN t.unidades END), 0) AS unidades, " +
+           "AVG(CASE WHEN t.vendida = 1 AND t.fecha_cierre IS NOT NULL " +
+           "THEN TIMESTAMPDIFF(SECOND, t.fecha, t.fecha_cierre) END) AS segundosHastaCierre " +
+           "FROM (" +
+           "SELECT c.id_mesero, c.fecha, c.fecha_cierre, " +
+           "CASE WHEN e.nombre IN (?3) THEN 1 ELSE 0 END AS cancelada, " +
+           "CASE WHEN e.nombre NOT IN (?3) AND (c.pagada = TRUE OR e.nombre IN (?4)) THEN 1 ELSE 0 END AS vendida, " +
+           "(SELECT SUM(d.subtotal) FROM restaurante_detalle_comanda d WHERE d.id_comanda = c.id_comanda) AS total, " +
+           "(SELECT SUM(d.cantidad) FROM restaurante_detalle_comanda d WHERE d.id_comanda = c.id_comanda) AS unidades " +
+           "FROM restaurante_comandas c JOIN restaurante_estados e ON e.id_estado = c.estado " +
+           "WHERE c.fecha >= ?1 AND c.fecha < ?2 " +
+           "UNION ALL " +
+           "SELECT h.id_mesero, h.fecha, h.fecha_cierre, " +
+           "CASE WHEN e.nombre IN (?3) THEN 1 ELSE 0 END, " +
+           "CASE WHEN e.nombre NOT IN (?3) THEN 1 ELSE 0 END, " +
+           "h.total, " +
+           "(SELECT SUM(d.cantidad) FROM restaurante_detalle_comanda_historico d WHERE d.id_comanda = h.id_comanda) " +
+           "FROM restaurante_comandas_historico h JOIN restaurante_estados e ON e.id_estado = h.estado " +
+           "WHERE h.fecha >= ?1 AND h.fecha < ?2" +
+           ") t JOIN restaurante_usuarios u ON u.id_usuario = t.id_mesero " +
+           "GROUP BY t.id_mesero, u.nombre " +
+           "ORDER BY posicion, t.id_mesero",
+           nativeQuery = true)
+    List<RendimientoMeseroResumen> agruparRendimientoMeseros(LocalDateTime desde, LocalDateTime hasta,
+                                                             List<String> estadosCancelados,
+                                                             List<String> estadosCompletados);
 }
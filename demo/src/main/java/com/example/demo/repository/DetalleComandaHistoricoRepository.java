@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.projection.DetalleComandaResumen;
+import com.example.demo.entity.DetalleComandaHistorico;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad DetalleComandaHistorico
+ * Proporciona la carga de líneas archivadas por comanda
+ */
+@Repository
+public interface DetalleComandaHistoricoRepository extends JpaRepository<DetalleComandaHistorico, Integer> {
+
+    /**
+     * Buscar las líneas archivadas de varias comandas
+     * @param idsComanda IDs de las comandas
+     * @return List<DetalleComandaHistorico>
+     */
+    @Query("SELECT d FROM DetalleComandaHistorico d WHERE d.comanda.idComanda IN ?1 ORDER BY d.idDetalleComanda")
+    List<DetalleComandaHistorico> findByIdsComanda(Collection<Integer> idsComanda);
+
+    /**
+     * Agrupar las ventas archivadas no canceladas por día, producto, categoría y mesero
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @return List<Object[]> con [fecha, idProducto, idCategoria, idMesero, cantidad, total]
+     */
+    @Query("SELECT CAST(d.comanda.fecha AS LocalDate), d.producto.idProducto, d.producto.categoria.idCategoria, " +
+           "d.comanda.mesero.idUsuario, SUM(d.cantidad), SUM(d.subtotal) " +
+           "FROM DetalleComandaHistorico d " +
+           "WHERE d.comanda.fecha >= ?1 AND d.comanda.fecha < ?2 AND d.comanda.estado.nombre NOT IN ?3 " +
+           "GROUP BY CAST(d.comanda.fecha AS LocalDate), d.producto.idProducto, d.producto.categoria.idCategoria, " +
+           "d.comanda.mesero.idUsuario")
+    List<Object[]> agruparVentasPorDia(LocalDateTime desde, LocalDateTime hasta, List<String> estadosCancelados);
+
+    /**
+     * Obtener las líneas archivadas de varias comandas como proyección
+     * @param idsComanda IDs de las comandas
+     * @return List<DetalleComandaResumen>
+     */
+    @Query("SELECT " + DetalleComandaRepository.COLUMNAS_RESUMEN + "FROM DetalleComandaHistorico d " +
+           DetalleComandaRepository.JOINS_RESUMEN +
+           "WHERE d.comanda.idComanda IN ?1 ORDER BY d.comanda.idComanda, d.idDetalleComanda")
+    List<DetalleComandaResumen> findResumenByIdsComanda(Collection<Integer> idsComanda);
+}
@@ -1,15 +1,21 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.DetalleComandaResumen;
+import com.example.demo.dto.projection.LineaEstacionResumen;
 import com.example.demo.entity.Comanda;
 import com.example.demo.entity.DetalleComanda;
 import com.example.demo.entity.Estado;
 import com.example.demo.entity.Producto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,21 @@ import java.util.Optional;
 @Repository
 public interface DetalleComandaRepository extends JpaRepository<DetalleComanda, Integer> {
     
+    /**
+     * Columnas de DetalleComandaResumen; los alias coinciden con los getters de la proyección
+     * Las usan también las consultas del histórico, que tiene los mismos atributos
+     */
+    String COLUMNAS_RESUMEN = "d.idDetalleComanda AS idDetalle, d.comanda.idComanda AS idComanda, " +
+           "p.idProducto AS idProducto, p.nombre AS nombreProducto, d.cantidad AS cantidad, " +
+           "d.precioUnitario AS precioUnitario, d.subtotal AS subtotal, e.nombre AS estado ";
+    
+    /**
+     * Joins de DetalleComandaResumen sobre el alias d
+     */
+    String JOINS_RESUMEN = "LEFT JOIN d.producto p LEFT JOIN d.estado e ";
+    
+    String SELECT_RESUMEN = "SELECT " + COLUMNAS_RESUMEN + "FROM DetalleComanda d " + JOINS_RESUMEN;
+    
     /**
      * Buscar detalles por comanda
      * @param comanda comanda del detalle
@@ -103,28 +124,171 @@ public interface DetalleComandaRepository extends JpaRepository<DetalleComanda,
     
     /**
      * Buscar productos más vendidos (por cantidad total)
-     * @param limite número máximo de resultados
-     * @return List<Object[]> con [producto, cantidadTotal]
+     * @param pageable número máximo de resultados (PageRequest.of(0, limite))
+     * @return List<Object[]> con [idProducto, nombre, precio, cantidadTotal]
      */
-    @Query("SELECT d.producto, SUM(d.cantidad) as cantidadTotal " +
+    @Query("SELECT d.producto.idProducto, d.producto.nombre, d.producto.precio, SUM(d.cantidad) " +
            "FROM DetalleComanda d " +
-           "GROUP BY d.producto " +
-           "ORDER BY cantidadTotal DESC")
-    List<Object[]> findProductosMasVendidos(@Param("limite") Integer limite);
+           "GROUP BY d.producto.idProducto, d.producto.nombre, d.producto.precio " +
+           "ORDER BY SUM(d.cantidad) DESC, d.producto.idProducto")
+    List<Object[]> findProductosMasVendidos(Pageable pageable);
     
     /**
      * Buscar productos más vendidos en un rango de fechas
-     * @param fechaInicio fecha de inicio
-     * @param fechaFin fecha de fin
-     * @param limite número máximo de resultados
-     * @return List<Object[]> con [producto, cantidadTotal]
+     * @param fechaInicio inicio del intervalo (incluido)
+     * @param fechaFin fin del intervalo (excluido)
+     * @param pageable número máximo de resultados (PageRequest.of(0, limite))
+     * @return List<Object[]> con [idProducto, nombre, precio, cantidadTotal]
+     */
+    @Query("SELECT d.producto.idProducto, d.producto.nombre, d.producto.precio, SUM(d.cantidad) " +
+           "FROM DetalleComanda d " +
+           "WHERE d.comanda.fecha >= :fechaInicio AND d.comanda.fecha < :fechaFin " +
+           "GROUP BY d.producto.idProducto, d.producto.nombre, d.producto.precio " +
+           "ORDER BY SUM(d.cantidad) DESC, d.producto.idProducto")
+    List<Object[]> findProductosMasVendidosPorFecha(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                                   @Param("fechaFin") LocalDateTime fechaFin,
+                                                   Pageable pageable);
+    
+    /**
+     * Obtener las unidades vendidas por producto y fecha de comanda desde un instante
+     * Se usa para cargar los contadores en memoria de productos más vendidos
+     * @param desde fecha de comanda mínima (incluida)
+     * @return List<Object[]> con [idProducto, fechaComanda, cantidad]
+     */
+    @Query("SELECT d.producto.idProducto, d.comanda.fecha, SUM(d.cantidad) " +
+           "FROM DetalleComanda d " +
+           "WHERE d.comanda.fecha >= ?1 " +
+           "GROUP BY d.producto.idProducto, d.comanda.fecha")
+    List<Object[]> findCantidadesPorProductoDesde(LocalDateTime desde);
+    
+    /**
+     * Eliminar los detalles de varias comandas
+     * @param idsComanda IDs de las comandas
+     * @return número de detalles eliminados
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM DetalleComanda d WHERE d.comanda.idComanda IN ?1")
+    int eliminarPorIdsComanda(List<Integer> idsComanda);
+    
+    /**
+     * Sumar el importe de las líneas de una comanda
+     * @param idComanda ID de la comanda
+     * @return total de la comanda
+     */
+    @Query("SELECT COALESCE(SUM(d.subtotal), 0) FROM DetalleComanda d WHERE d.comanda.idComanda = ?1")
+    BigDecimal sumarSubtotalPorComanda(Integer idComanda);
+    
+    /**
+     * Sumar las ventas de comandas cerradas (completadas o pagadas, no canceladas) en un intervalo
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @param estadosCompletados nombres de estado que cuentan como completada
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @return total vendido
+     */
+    @Query("SELECT COALESCE(SUM(d.subtotal), 0) FROM DetalleComanda d " +
+           "WHERE d.comanda.fecha >= ?1 AND d.comanda.fecha < ?2 " +
+           "AND (d.comanda.pagada = true OR d.comanda.estado.nombre IN ?3) " +
+           "AND d.comanda.estado.nombre NOT IN ?4")
+    BigDecimal sumarVentasCerradas(LocalDateTime desde, LocalDateTime hasta,
+                                   List<String> estadosCompletados, List<String> estadosCancelados);
+    
+    /**
+     * Agrupar las ventas de comandas cerradas por día, producto, categoría y mesero
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @param estadosCompletados nombres de estado que cuentan como completada
+     * @param estadosCancelados nombres de estado que cuentan como cancelada
+     * @return List<Object[]> con [fecha, idProducto, idCategoria, idMesero, cantidad, total]
      */
-    @Query("SELECT d.producto, SUM(d.cantidad) as cantidadTotal " +
+    @Query("SELECT CAST(d.comanda.fecha AS LocalDate), d.producto.idProducto, d.producto.categoria.idCategoria, " +
+           "d.comanda.mesero.idUsuario, SUM(d.cantidad), SUM(d.subtotal) " +
            "FROM DetalleComanda d " +
-           "WHERE d.comanda.fecha BETWEEN :fechaInicio AND :fechaFin " +
-           "GROUP BY d.producto " +
-           "ORDER BY cantidadTotal DESC")
-    List<Object[]> findProductosMasVendidosPorFecha(@Param("fechaInicio") String fechaInicio, 
-                                                   @Param("fechaFin") String fechaFin, 
-                                                   @Param("limite") Integer limite);
+           "WHERE d.comanda.fecha >= ?1 AND d.comanda.fecha < ?2 " +
+           "AND (d.comanda.pagada = true OR d.comanda.estado.nombre IN ?3) " +
+           "AND d.comanda.estado.nombre NOT IN ?4 " +
+           "GROUP BY CAST(d.comanda.fecha AS LocalDate), d.producto.idProducto, d.producto.categoria.idCategoria, " +
+           "d.comanda.mesero.idUsuario")
+    List<Object[]> agruparVentasCerradasPorDia(LocalDateTime desde, LocalDateTime hasta,
+                                               List<String> estadosCompletados, List<String> estadosCancelados);
+    
+    /**
+     * Obtener todas las líneas de comanda como proyección
+     * @return List<DetalleComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY d.comanda.idComanda, d.idDetalleComanda")
+    List<DetalleComandaResumen> findAllResumen();
+    
+    /**
+     * Obtener las líneas de varias comandas como proyección
+     * @param idsComanda IDs de las comandas
+     * @return List<DetalleComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE d.comanda.idComanda IN ?1 ORDER BY d.comanda.idComanda, d.idDetalleComanda")
+    List<DetalleComandaResumen> findResumenByIdsComanda(Collection<Integer> idsComanda);
+    
+    /**
+     * Obtener varias líneas por ID como proyección
+     * @param ids IDs de las líneas
+     * @return List<DetalleComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE d.idDetalleComanda IN ?1 ORDER BY d.comanda.idComanda, d.idDetalleComanda")
+    List<DetalleComandaResumen> findResumenByIds(Collection<Integer> ids);
+    
+    /**
+     * Obtener las líneas de un producto como proyección
+     * @param idProducto ID del producto
+     * @return List<DetalleComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.idProducto = ?1 ORDER BY d.comanda.idComanda, d.idDetalleComanda")
+    List<DetalleComandaResumen> findResumenByProductoId(Integer idProducto);
+    
+    /**
+     * Obtener las líneas de un estado como proyección
+     * @param idEstado ID del estado
+     * @return List<DetalleComandaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE e.idEstado = ?1 ORDER BY d.comanda.idComanda, d.idDetalleComanda")
+    List<DetalleComandaResumen> findResumenByEstadoId(Integer idEstado);
+    
+    /**
+     * Obtener las líneas abiertas (ni la línea ni su comanda están en un estado final) para las estaciones de cocina
+     * @param estadosFinales nombres de estado que cierran una línea o una comanda
+     * @return List<LineaEstacionResumen> en orden de llegada
+     */
+    @Query("SELECT d.idDetalleComanda AS idDetalle, c.idComanda AS idComanda, c.mesa.idMesa AS idMesa, " +
+           "p.idProducto AS idProducto, p.nombre AS nombreProducto, p.categoria.idCategoria AS idCategoria, " +
+           "d.cantidad AS cantidad, c.fecha AS fecha " +
+           "FROM DetalleComanda d JOIN d.comanda c JOIN d.producto p " +
+           "WHERE d.estado.nombre NOT IN ?1 AND c.estado.nombre NOT IN ?1 " +
+           "ORDER BY d.idDetalleComanda")
+    List<LineaEstacionResumen> findLineasAbiertas(Collection<String> estadosFinales);
+    
+    /**
+     * Contar las líneas de una comanda cuyo estado está entre los indicados
+     * @param idComanda ID de la comanda
+     * @param nombresEstado nombres de estado
+     * @return número de líneas
+     */
+    @Query("SELECT COUNT(d) FROM DetalleComanda d WHERE d.comanda.idComanda = ?1 AND d.estado.nombre IN ?2")
+    long contarPorComandaYEstados(Integer idComanda, Collection<String> nombresEstado);
+    
+    /**
+     * Contar las líneas de una comanda cuyo estado no está entre los indicados
+     * @param idComanda ID de la comanda
+     * @param nombresEstado nombres de estado
+     * @return número de líneas
+     */
+    @Query("SELECT COUNT(d) FROM DetalleComanda d WHERE d.comanda.idComanda = ?1 AND d.estado.nombre NOT IN ?2")
+    long contarPorComandaExcluyendoEstados(Integer idComanda, Collection<String> nombresEstado);
+    
+    /**
+     * IDs de las líneas de comanda modificadas en un rango de versiones de cambio (sincronización de tablets)
+     * @param desde versión de cambio excluida
+     * @param hasta versión de cambio incluida
+     * @param pageable máximo de resultados
+     * @return List<Object[]> con [idDetalleComanda, versionCambio] en orden de versión
+     */
+    @Query("SELECT d.idDetalleComanda, d.versionCambio FROM DetalleComanda d WHERE d.versionCambio > ?1 AND d.versionCambio <= ?2 ORDER BY d.versionCambio")
+    List<Object[]> findCambios(Long desde, Long hasta, Pageable pageable);
 }
@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Eliminacion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para las lápidas de registros eliminados
+ */
+@Repository
+public interface EliminacionRepository extends JpaRepository<Eliminacion, Long> {
+
+    /**
+     * Lápidas de las entidades indicadas en un rango de versiones de cambio
+     * @param entidades entidades que puede ver el cliente
+     * @param desde versión de cambio excluida
+     * @param hasta versión de cambio incluida
+     * @param pageable máximo de resultados
+     * @return List<Eliminacion> en orden de versión
+     */
+    @Query("SELECT e FROM Eliminacion e WHERE e.entidad IN ?1 AND e.versionCambio > ?2 AND e.versionCambio <= ?3 " +
+           "ORDER BY e.versionCambio")
+    List<Eliminacion> findCambios(Collection<String> entidades, Long desde, Long hasta, Pageable pageable);
+
+    /**
+     * Eliminar las lápidas anteriores a una fecha (fin de la ventana de retención)
+     * @param fecha fecha límite
+     * @return número de lápidas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Eliminacion e WHERE e.fecha < ?1")
+    int eliminarAnterioresA(LocalDateTime fecha);
+}
@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.ElementoCatalogo;
 import com.example.demo.entity.Estado;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -42,4 +43,19 @@ public interface EstadoRepository extends JpaRepository<Estado, Integer> {
      */
     @Query("SELECT e FROM Estado e WHERE e.nombre LIKE %?1%")
     List<Estado> findByNombreContaining(String nombre);
+    
+    /**
+     * Obtener todos los estados ordenados por nombre como proyección
+     * @return List<ElementoCatalogo>
+     */
+    @Query("SELECT e.idEstado AS id, e.nombre AS nombre FROM Estado e ORDER BY e.nombre")
+    List<ElementoCatalogo> findAllCatalogo();
+    
+    /**
+     * Buscar estados cuyo nombre contiene un texto como proyección
+     * @param nombre texto a buscar
+     * @return List<ElementoCatalogo>
+     */
+    @Query("SELECT e.idEstado AS id, e.nombre AS nombre FROM Estado e WHERE e.nombre LIKE %?1% ORDER BY e.nombre")
+    List<ElementoCatalogo> findCatalogoByNombreContaining(String nombre);
 }
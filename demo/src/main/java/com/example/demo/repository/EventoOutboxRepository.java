@@ -0,0 +1,94 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.EventoOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad EventoOutbox
+ * Proporciona la lectura ordenada de eventos pendientes, su numeración al confirmar y su marcado como publicados
+ */
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /**
+     * Buscar eventos pendientes en orden de confirmación
+     * @param pageable tamaño del lote
+     * @return Lista de eventos pendientes ordenados por secuencia
+     */
+    @Query("SELECT e FROM EventoOutbox e WHERE e.publicado = false AND e.secuencia IS NOT NULL ORDER BY e.secuencia ASC")
+    List<EventoOutbox> findPendientes(Pageable pageable);
+
+    /**
+     * Avanzar el contador de secuencia de la outbox
+     * Bloquea su fila hasta que termina la transacción: las que registran eventos se confirman de una en una
+     * @return número de filas actualizadas
+     */
+    @Modifying
+    @Query(value = "UPDATE restaurante_outbox_secuencia SET ultimo_valor = ultimo_valor + 1 WHERE id_contador = 1",
+           nativeQuery = true)
+    int avanzarSecuencia();
+
+    /**
+     * Leer el valor actual del contador de secuencia de la outbox
+     * @return último valor asignado
+     */
+    @Query(value = "SELECT ultimo_valor FROM restaurante_outbox_secuencia WHERE id_contador = 1", nativeQuery = true)
+    Long leerSecuencia();
+
+    /**
+     * Asignar la secuencia a un evento
+     * @param idEvento ID del evento
+     * @param secuencia secuencia asignada
+     * @return número de eventos actualizados
+     */
+    @Modifying
+    @Query("UPDATE EventoOutbox e SET e.secuencia = ?2 WHERE e.idEvento = ?1")
+    int asignarSecuencia(Long idEvento, Long secuencia);
+
+    /**
+     * Crear la fila del contador de secuencia de la outbox si no existe
+     * @return número de filas insertadas
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO restaurante_outbox_secuencia (id_contador, ultimo_valor) " +
+                   "SELECT 1, COALESCE((SELECT MAX(secuencia) FROM restaurante_outbox), 0) FROM (SELECT 1) uno " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM restaurante_outbox_secuencia WHERE id_contador = 1)",
+           nativeQuery = true)
+    int crearSecuenciaSiFalta();
+
+    /**
+     * Contar eventos pendientes de publicar
+     * @return número de eventos pendientes
+     */
+    long countByPublicadoFalse();
+
+    /**
+     * Marcar un lote de eventos como publicados
+     * @param ids IDs de los eventos
+     * @param fecha fecha de publicación
+     * @return número de eventos actualizados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventoOutbox e SET e.publicado = true, e.fechaPublicacion = ?2 WHERE e.idEvento IN ?1")
+    int marcarPublicados(List<Long> ids, LocalDateTime fecha);
+
+    /**
+     * Eliminar eventos ya publicados antes de una fecha
+     * @param fecha fecha límite de publicación
+     * @return número de eventos eliminados
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventoOutbox e WHERE e.publicado = true AND e.fechaPublicacion < ?1")
+    int eliminarPublicadosAntesDe(LocalDateTime fecha);
+}
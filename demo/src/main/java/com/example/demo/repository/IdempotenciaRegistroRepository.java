@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.IdempotenciaRegistro;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio para la entidad IdempotenciaRegistro
+ * Proporciona operaciones CRUD y limpieza de registros expirados
+ */
+@Repository
+public interface IdempotenciaRegistroRepository extends JpaRepository<IdempotenciaRegistro, String> {
+
+    /**
+     * Eliminar registros expirados
+     * @param fecha fecha límite
+     * @return número de registros eliminados
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotenciaRegistro r WHERE r.expiraEn < ?1")
+    int eliminarExpirados(LocalDateTime fecha);
+}
@@ -1,12 +1,17 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.MesaResumen;
 import com.example.demo.entity.Estado;
 import com.example.demo.entity.Mesa;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +22,12 @@ import java.util.Optional;
 @Repository
 public interface MesaRepository extends JpaRepository<Mesa, Integer> {
     
+    /**
+     * Consulta base de MesaResumen; los alias coinciden con los getters de la proyección
+     */
+    String SELECT_RESUMEN = "SELECT m.idMesa AS idMesa, m.ubicacion AS ubicacion, m.capacidad AS capacidad, " +
+           "e.idEstado AS idEstado, e.nombre AS estado FROM Mesa m LEFT JOIN m.estado e ";
+    
     /**
      * Buscar mesas por estado
      * @param estado estado de la mesa
@@ -36,21 +47,21 @@ public interface MesaRepository extends JpaRepository<Mesa, Integer> {
      * Obtener mesas disponibles
      * @return List<Mesa>
      */
-    @Query("SELECT m FROM Mesa m WHERE m.estado.nombre = 'Disponible' ORDER BY m.idMesa")
+    @Query("SELECT m FROM Mesa m WHERE UPPER(m.estado.nombre) = 'DISPONIBLE' ORDER BY m.idMesa")
     List<Mesa> findMesasDisponibles();
     
     /**
      * Obtener mesas ocupadas
      * @return List<Mesa>
      */
-    @Query("SELECT m FROM Mesa m WHERE m.estado.nombre = 'Ocupada' ORDER BY m.idMesa")
+    @Query("SELECT m FROM Mesa m WHERE UPPER(m.estado.nombre) = 'OCUPADA' ORDER BY m.idMesa")
     List<Mesa> findMesasOcupadas();
     
     /**
      * Obtener mesas reservadas
      * @return List<Mesa>
      */
-    @Query("SELECT m FROM Mesa m WHERE m.estado.nombre = 'Reservada' ORDER BY m.idMesa")
+    @Query("SELECT m FROM Mesa m WHERE UPPER(m.estado.nombre) = 'RESERVADA' ORDER BY m.idMesa")
     List<Mesa> findMesasReservadas();
     
     /**
@@ -58,7 +69,7 @@ public interface MesaRepository extends JpaRepository<Mesa, Integer> {
      * @param capacidad capacidad mínima requerida
      * @return List<Mesa>
      */
-    @Query("SELECT m FROM Mesa m WHERE m.capacidad >= ?1 AND m.estado.nombre = 'Disponible' ORDER BY m.capacidad")
+    @Query("SELECT m FROM Mesa m WHERE m.capacidad >= ?1 AND UPPER(m.estado.nombre) = 'DISPONIBLE' ORDER BY m.capacidad")
     List<Mesa> findMesasDisponiblesPorCapacidad(Integer capacidad);
     
     /**
@@ -121,6 +132,75 @@ public interface MesaRepository extends JpaRepository<Mesa, Integer> {
      * Contar mesas disponibles
      * @return número de mesas disponibles
      */
-    @Query("SELECT COUNT(m) FROM Mesa m WHERE m.estado.nombre = 'Disponible'")
+    @Query("SELECT COUNT(m) FROM Mesa m WHERE UPPER(m.estado.nombre) = 'DISPONIBLE'")
     long countMesasDisponibles();
+    
+    /**
+     * Obtener todas las mesas como proyección
+     * @return List<MesaResumen>
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY m.idMesa")
+    List<MesaResumen> findAllResumen();
+    
+    /**
+     * Obtener las mesas de un estado como proyección
+     * @param idEstado ID del estado
+     * @return List<MesaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE e.idEstado = ?1 ORDER BY m.idMesa")
+    List<MesaResumen> findResumenByEstadoId(Integer idEstado);
+    
+    /**
+     * Buscar mesas por ubicación (búsqueda parcial sin distinguir mayúsculas) como proyección
+     * @param ubicacion ubicación o parte de ella
+     * @return List<MesaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE LOWER(m.ubicacion) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY m.idMesa")
+    List<MesaResumen> findResumenByUbicacion(String ubicacion);
+    
+    /**
+     * Buscar mesas con capacidad mínima como proyección
+     * @param capacidad capacidad mínima
+     * @return List<MesaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE m.capacidad >= ?1 ORDER BY m.capacidad, m.idMesa")
+    List<MesaResumen> findResumenByCapacidadMinima(Integer capacidad);
+    
+    /**
+     * Buscar mesas de un estado con capacidad mínima como proyección
+     * @param idEstado ID del estado
+     * @param capacidad capacidad mínima
+     * @return List<MesaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE e.idEstado = ?1 AND m.capacidad >= ?2 ORDER BY m.capacidad, m.idMesa")
+    List<MesaResumen> findResumenByEstadoIdYCapacidadMinima(Integer idEstado, Integer capacidad);
+    
+    /**
+     * Buscar una mesa para reservarla o abrir su sesión de ocupación: su versión se incrementa al confirmar
+     * la transacción, así dos reservas o aperturas simultáneas de la misma mesa (o una reserva y un cambio de estado)
+     * entran en conflicto
+     * @param idMesa ID de la mesa
+     * @return Optional<Mesa>
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT m FROM Mesa m WHERE m.idMesa = ?1")
+    Optional<Mesa> findByIdParaReservar(Integer idMesa);
+    
+    /**
+     * IDs de las mesas modificadas en un rango de versiones de cambio (sincronización de tablets)
+     * @param desde versión de cambio excluida
+     * @param hasta versión de cambio incluida
+     * @param pageable máximo de resultados
+     * @return List<Object[]> con [idMesa, versionCambio] en orden de versión
+     */
+    @Query("SELECT m.idMesa, m.versionCambio FROM Mesa m WHERE m.versionCambio > ?1 AND m.versionCambio <= ?2 ORDER BY m.versionCambio")
+    List<Object[]> findCambios(Long desde, Long hasta, Pageable pageable);
+    
+    /**
+     * Obtener varias mesas por ID como proyección
+     * @param ids IDs de las mesas
+     * @return List<MesaResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE m.idMesa IN ?1 ORDER BY m.idMesa")
+    List<MesaResumen> findResumenByIds(Collection<Integer> ids);
 }
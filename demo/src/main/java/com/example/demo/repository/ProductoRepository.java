@@ -1,13 +1,16 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.ProductoResumen;
 import com.example.demo.entity.Categoria;
 import com.example.demo.entity.Producto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,14 @@ import java.util.Optional;
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Integer> {
     
+    /**
+     * Consulta base de ProductoResumen; los alias coinciden con los getters de la proyección
+     */
+    String SELECT_RESUMEN = "SELECT p.idProducto AS idProducto, p.nombre AS nombre, p.precio AS precio, " +
+           "p.stock AS stock, p.estado AS estado, p.umbralReposicion AS umbralReposicion, " +
+           "c.idCategoria AS idCategoria, c.nombre AS categoria " +
+           "FROM Producto p LEFT JOIN p.categoria c ";
+    
     /**
      * Buscar producto por nombre
      * @param nombre nombre del producto
@@ -152,4 +163,77 @@ public interface ProductoRepository extends JpaRepository<Producto, Integer> {
      * @return número de productos activos
      */
     long countByEstadoTrue();
+    
+    /**
+     * Obtener todos los productos como proyección
+     * @return List<ProductoResumen>
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY p.idProducto")
+    List<ProductoResumen> findAllResumen();
+    
+    /**
+     * Obtener los productos de una categoría como proyección
+     * @param idCategoria ID de la categoría
+     * @return List<ProductoResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE c.idCategoria = ?1 ORDER BY p.idProducto")
+    List<ProductoResumen> findResumenByCategoriaId(Integer idCategoria);
+    
+    /**
+     * Obtener los productos activos o inactivos como proyección
+     * @param estado true para activos, false para inactivos
+     * @return List<ProductoResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.estado = ?1 ORDER BY p.idProducto")
+    List<ProductoResumen> findResumenByEstado(Boolean estado);
+    
+    /**
+     * Buscar productos por nombre (búsqueda parcial sin distinguir mayúsculas) como proyección
+     * @param nombre nombre o parte del nombre
+     * @return List<ProductoResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY p.idProducto")
+    List<ProductoResumen> findResumenByNombre(String nombre);
+    
+    /**
+     * Buscar productos por rango de precio como proyección
+     * @param precioMinimo precio mínimo
+     * @param precioMaximo precio máximo
+     * @return List<ProductoResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.precio BETWEEN ?1 AND ?2 ORDER BY p.precio, p.idProducto")
+    List<ProductoResumen> findResumenByRangoPrecio(BigDecimal precioMinimo, BigDecimal precioMaximo);
+    
+    /**
+     * Obtener los productos con stock menor a un valor como proyección
+     * @param stock stock límite (excluido)
+     * @return List<ProductoResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.stock < ?1 ORDER BY p.stock, p.idProducto")
+    List<ProductoResumen> findResumenByStockMenorQue(Integer stock);
+    
+    /**
+     * Obtener varios productos por ID como proyección
+     * @param ids IDs de los productos
+     * @return List<ProductoResumen> ordenada por stock
+     */
+    @Query(SELECT_RESUMEN + "WHERE p.idProducto IN ?1 ORDER BY p.stock, p.idProducto")
+    List<ProductoResumen> findResumenByIds(Collection<Integer> ids);
+    
+    /**
+     * Obtener el nivel de stock de todos los productos (carga del índice de alertas de stock)
+     * @return List<Object[]> con [idProducto, nombre, stock, umbralReposicion, estado, version]
+     */
+    @Query("SELECT p.idProducto, p.nombre, p.stock, p.umbralReposicion, p.estado, p.version FROM Producto p")
+    List<Object[]> findNivelesStock();
+    
+    /**
+     * IDs de los productos modificados en un rango de versiones de cambio (sincronización de tablets)
+     * @param desde versión de cambio excluida
+     * @param hasta versión de cambio incluida
+     * @param pageable máximo de resultados
+     * @return List<Object[]> con [idProducto, versionCambio] en orden de versión
+     */
+    @Query("SELECT p.idProducto, p.versionCambio FROM Producto p WHERE p.versionCambio > ?1 AND p.versionCambio <= ?2 ORDER BY p.versionCambio")
+    List<Object[]> findCambios(Long desde, Long hasta, Pageable pageable);
 }
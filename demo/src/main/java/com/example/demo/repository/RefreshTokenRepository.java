@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad RefreshToken
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Buscar un refresh token por su hash bloqueando la fila, para que dos rotaciones
+     * simultáneas del mismo token no puedan tener éxito ambas
+     * @param tokenHash hash SHA-256 del token
+     * @return Optional<RefreshToken>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.tokenHash = ?1")
+    Optional<RefreshToken> findParaRotar(String tokenHash);
+
+    /**
+     * Buscar un refresh token por su hash
+     * @param tokenHash hash SHA-256 del token
+     * @return Optional<RefreshToken>
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revocar todos los tokens de una familia
+     * @param familia familia de tokens
+     * @return número de tokens revocados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revocado = true WHERE r.familia = ?1 AND r.revocado = false")
+    int revocarFamilia(String familia);
+
+    /**
+     * Revocar todos los tokens de un usuario
+     * @param idUsuario ID del usuario
+     * @return número de tokens revocados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revocado = true WHERE r.idUsuario = ?1 AND r.revocado = false")
+    int revocarPorUsuario(String idUsuario);
+
+    /**
+     * Eliminar tokens expirados
+     * @param fecha fecha límite
+     * @return número de tokens eliminados
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.fechaExpiracion < ?1")
+    int eliminarExpirados(LocalDateTime fecha);
+}
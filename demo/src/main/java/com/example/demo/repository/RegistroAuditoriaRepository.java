@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RegistroAuditoria;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para consultar el registro de auditoría (las filas las inserta EscritorAuditoria)
+ */
+@Repository
+public interface RegistroAuditoriaRepository extends JpaRepository<RegistroAuditoria, Long> {
+
+    /**
+     * Buscar registros de auditoría; los filtros nulos no se aplican
+     * @param entidad nombre de la entidad
+     * @param idEntidad ID del registro auditado
+     * @param usuario ID del usuario que hizo el cambio
+     * @param desde fecha inicial incluida
+     * @param hasta fecha final excluida
+     * @param pageable página de resultados
+     * @return List<RegistroAuditoria> del más reciente al más antiguo
+     */
+    @Query("SELECT r FROM RegistroAuditoria r WHERE (?1 IS NULL OR r.entidad = ?1) " +
+           "AND (?2 IS NULL OR r.idEntidad = ?2) AND (?3 IS NULL OR r.usuario = ?3) " +
+           "AND (?4 IS NULL OR r.fecha >= ?4) AND (?5 IS NULL OR r.fecha < ?5) " +
+           "ORDER BY r.fecha DESC, r.idRegistro DESC")
+    List<RegistroAuditoria> buscar(String entidad, String idEntidad, String usuario,
+                                   LocalDateTime desde, LocalDateTime hasta, Pageable pageable);
+}
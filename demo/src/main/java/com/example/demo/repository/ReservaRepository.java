@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Reserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad Reserva
+ */
+@Repository
+public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
+
+    /**
+     * Reservas vigentes que terminan después de una fecha (carga de la agenda en memoria)
+     * @param fecha fecha límite
+     * @return List<Reserva> con la mesa cargada
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.mesa WHERE r.cancelada = false AND r.fin > ?1 ORDER BY r.inicio")
+    List<Reserva> findVigentesDesde(LocalDateTime fecha);
+
+    /**
+     * Reservas vigentes que se solapan con un intervalo
+     * @param inicio inicio del intervalo
+     * @param fin fin del intervalo (excluido)
+     * @return List<Reserva> ordenada por inicio
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.mesa WHERE r.cancelada = false AND r.inicio < ?2 AND r.fin > ?1 ORDER BY r.inicio")
+    List<Reserva> findVigentesEntre(LocalDateTime inicio, LocalDateTime fin);
+
+    /**
+     * Reservas vigentes de una mesa desde una fecha
+     * @param idMesa ID de la mesa
+     * @param fecha fecha límite
+     * @return List<Reserva> ordenada por inicio
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.mesa WHERE r.mesa.idMesa = ?1 AND r.cancelada = false AND r.fin > ?2 ORDER BY r.inicio")
+    List<Reserva> findVigentesPorMesa(Integer idMesa, LocalDateTime fecha);
+
+    /**
+     * Verificar si una mesa tiene alguna reserva vigente que se solape con un intervalo
+     * @param idMesa ID de la mesa
+     * @param inicio inicio del intervalo
+     * @param fin fin del intervalo (excluido)
+     * @return true si hay solapamiento
+     */
+    @Query("SELECT COUNT(r) > 0 FROM Reserva r WHERE r.mesa.idMesa = ?1 AND r.cancelada = false AND r.inicio < ?3 AND r.fin > ?2")
+    boolean existeSolapada(Integer idMesa, LocalDateTime inicio, LocalDateTime fin);
+}
@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.ElementoCatalogo;
 import com.example.demo.entity.Rol;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -42,4 +43,19 @@ public interface RolRepository extends JpaRepository<Rol, Integer> {
      */
     @Query("SELECT r FROM Rol r WHERE r.nombre LIKE %?1%")
     List<Rol> findByNombreContaining(String nombre);
+    
+    /**
+     * Obtener todos los roles ordenados por nombre como proyección
+     * @return List<ElementoCatalogo>
+     */
+    @Query("SELECT r.idRol AS id, r.nombre AS nombre FROM Rol r ORDER BY r.nombre")
+    List<ElementoCatalogo> findAllCatalogo();
+    
+    /**
+     * Buscar roles cuyo nombre contiene un texto como proyección
+     * @param nombre texto a buscar
+     * @return List<ElementoCatalogo>
+     */
+    @Query("SELECT r.idRol AS id, r.nombre AS nombre FROM Rol r WHERE r.nombre LIKE %?1% ORDER BY r.nombre")
+    List<ElementoCatalogo> findCatalogoByNombreContaining(String nombre);
 }
@@ -0,0 +1,26 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.SecuenciaUsuario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad SecuenciaUsuario
+ */
+@Repository
+public interface SecuenciaUsuarioRepository extends JpaRepository<SecuenciaUsuario, String> {
+
+    /**
+     * Buscar la secuencia de un prefijo bloqueando la fila hasta el fin de la transacción
+     * @param prefijo prefijo del rol
+     * @return Optional<SecuenciaUsuario>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SecuenciaUsuario s WHERE s.prefijo = ?1")
+    Optional<SecuenciaUsuario> findParaActualizar(String prefijo);
+}
@@ -0,0 +1,36 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.SesionMesa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para las sesiones de ocupación de las mesas
+ */
+@Repository
+public interface SesionMesaRepository extends JpaRepository<SesionMesa, Long> {
+
+    /**
+     * Sesiones abiertas (mesas ocupadas)
+     * @return List<SesionMesa>
+     */
+    List<SesionMesa> findByLiberacionIsNull();
+
+    /**
+     * Sesión abierta de una mesa
+     * @param idMesa ID de la mesa
+     * @return Optional<SesionMesa> con la más reciente si hubiera varias
+     */
+    Optional<SesionMesa> findFirstByIdMesaAndLiberacionIsNullOrderByAperturaDesc(Integer idMesa);
+
+    /**
+     * Sesiones cerradas desde una fecha
+     * @param desde fecha inicial (incluida)
+     * @return List<SesionMesa> en orden de liberación
+     */
+    List<SesionMesa> findByLiberacionGreaterThanEqualOrderByLiberacionAsc(LocalDateTime desde);
+}
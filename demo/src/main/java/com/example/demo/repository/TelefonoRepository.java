@@ -1,7 +1,9 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.TelefonoResumen;
 import com.example.demo.entity.Telefono;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -34,4 +36,19 @@ public interface TelefonoRepository extends JpaRepository<Telefono, Integer> {
      * @return List<Telefono>
      */
     List<Telefono> findByNumeroContaining(String numero);
+    
+    /**
+     * Obtener todos los teléfonos como proyección
+     * @return List<TelefonoResumen>
+     */
+    @Query("SELECT t.idTelefono AS idTelefono, t.numero AS numero FROM Telefono t ORDER BY t.idTelefono")
+    List<TelefonoResumen> findAllResumen();
+    
+    /**
+     * Buscar teléfonos cuyo número contiene un texto como proyección
+     * @param numero número o parte del número
+     * @return List<TelefonoResumen>
+     */
+    @Query("SELECT t.idTelefono AS idTelefono, t.numero AS numero FROM Telefono t WHERE t.numero LIKE %?1% ORDER BY t.idTelefono")
+    List<TelefonoResumen> findResumenByNumeroContaining(String numero);
 }
@@ -0,0 +1,44 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TokenRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad TokenRevocado
+ */
+@Repository
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    /**
+     * Obtener las revocaciones que aún afectan a algún token sin expirar
+     * @param fecha fecha actual
+     * @return lista de revocaciones vigentes
+     */
+    @Query("SELECT t FROM TokenRevocado t WHERE t.fechaExpiracion >= ?1")
+    List<TokenRevocado> findVigentes(LocalDateTime fecha);
+
+    /**
+     * Obtener las revocaciones registradas desde una fecha (sincronización entre nodos)
+     * @param fecha fecha desde la que buscar
+     * @return lista de revocaciones
+     */
+    @Query("SELECT t FROM TokenRevocado t WHERE t.fechaRevocacion >= ?1")
+    List<TokenRevocado> findRevocadosDesde(LocalDateTime fecha);
+
+    /**
+     * Eliminar revocaciones que ya no afectan a ningún token
+     * @param fecha fecha límite
+     * @return número de registros eliminados
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocado t WHERE t.fechaExpiracion < ?1")
+    int eliminarExpirados(LocalDateTime fecha);
+}
@@ -1,12 +1,17 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.UsuarioResumen;
 import com.example.demo.entity.Rol;
 import com.example.demo.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +22,12 @@ import java.util.Optional;
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, String> {
     
+    /**
+     * Consulta base de UsuarioResumen (sin contraseña); los alias coinciden con los getters de la proyección
+     */
+    String SELECT_RESUMEN = "SELECT u.idUsuario AS idUsuario, u.nombre AS nombre, u.email AS email, " +
+           "u.fechaRegistro AS fechaRegistro, r.idRol AS idRol, r.nombre AS rol FROM Usuario u LEFT JOIN u.rol r ";
+    
     /**
      * Buscar usuario por email
      * @param email email del usuario
@@ -85,13 +96,74 @@ public interface UsuarioRepository extends JpaRepository<Usuario, String> {
      * Buscar meseros activos
      * @return List<Usuario>
      */
-    @Query("SELECT u FROM Usuario u WHERE u.rol.nombre = 'Mesero' ORDER BY u.nombre")
+    @Query("SELECT u FROM Usuario u WHERE UPPER(u.rol.nombre) = 'MESERO' ORDER BY u.nombre")
     List<Usuario> findMeseros();
     
     /**
      * Buscar cocineros activos
      * @return List<Usuario>
      */
-    @Query("SELECT u FROM Usuario u WHERE u.rol.nombre = 'Cocinero' ORDER BY u.nombre")
+    @Query("SELECT u FROM Usuario u WHERE UPPER(u.rol.nombre) = 'COCINERO' ORDER BY u.nombre")
     List<Usuario> findCocineros();
+    
+    /**
+     * Obtener los IDs de usuario que empiezan por un prefijo
+     * @param patron patrón LIKE (ej: MESERO%)
+     * @return List<String> con los IDs
+     */
+    @Query("SELECT u.idUsuario FROM Usuario u WHERE u.idUsuario LIKE ?1")
+    List<String> findIdsPorPatron(String patron);
+    
+    /**
+     * Reemplazar el hash de contraseña de un usuario (rehash al coste de BCrypt actual)
+     * @param idUsuario ID del usuario
+     * @param password nuevo hash de la contraseña
+     * @return número de usuarios actualizados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.password = ?2 WHERE u.idUsuario = ?1")
+    int actualizarPassword(String idUsuario, String password);
+    
+    /**
+     * Obtener todos los usuarios como proyección
+     * @return List<UsuarioResumen>
+     */
+    @Query(SELECT_RESUMEN + "ORDER BY u.idUsuario")
+    List<UsuarioResumen> findAllResumen();
+    
+    
+    /**
+     * Obtener los usuarios de un rol como proyección
+     * @param idRol ID del rol
+     * @return List<UsuarioResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE r.idRol = ?1 ORDER BY u.idUsuario")
+    List<UsuarioResumen> findResumenByRolId(Integer idRol);
+    
+    /**
+     * Buscar usuarios por nombre (búsqueda parcial sin distinguir mayúsculas) como proyección
+     * @param nombre nombre o parte del nombre
+     * @return List<UsuarioResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE LOWER(u.nombre) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY u.idUsuario")
+    List<UsuarioResumen> findResumenByNombre(String nombre);
+    
+    /**
+     * IDs de los usuarios modificados en un rango de versiones de cambio (sincronización de tablets)
+     * @param desde versión de cambio excluida
+     * @param hasta versión de cambio incluida
+     * @param pageable máximo de resultados
+     * @return List<Object[]> con [idUsuario, versionCambio] en orden de versión
+     */
+    @Query("SELECT u.idUsuario, u.versionCambio FROM Usuario u WHERE u.versionCambio > ?1 AND u.versionCambio <= ?2 ORDER BY u.versionCambio")
+    List<Object[]> findCambios(Long desde, Long hasta, Pageable pageable);
+    
+    /**
+     * Obtener varios usuarios por ID como proyección
+     * @param ids IDs de los usuarios
+     * @return List<UsuarioResumen>
+     */
+    @Query(SELECT_RESUMEN + "WHERE u.idUsuario IN ?1 ORDER BY u.idUsuario")
+    List<UsuarioResumen> findResumenByIds(Collection<String> ids);
 }
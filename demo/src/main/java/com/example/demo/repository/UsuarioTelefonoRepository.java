@@ -1,11 +1,14 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.TelefonoUsuarioResumen;
 import com.example.demo.entity.Telefono;
 import com.example.demo.entity.Usuario;
 import com.example.demo.entity.UsuarioTelefono;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,4 +48,13 @@ public interface UsuarioTelefonoRepository extends JpaRepository<UsuarioTelefono
      * @return true si existe, false si no
      */
     boolean existsByUsuarioAndTelefono(Usuario usuario, Telefono telefono);
+    
+    /**
+     * Obtener los números de teléfono de varios usuarios
+     * @param idsUsuario IDs de los usuarios
+     * @return List<TelefonoUsuarioResumen>
+     */
+    @Query("SELECT ut.usuario.idUsuario AS idUsuario, t.numero AS numero FROM UsuarioTelefono ut JOIN ut.telefono t " +
+           "WHERE ut.usuario.idUsuario IN ?1 ORDER BY ut.idUsuariosTelefonos")
+    List<TelefonoUsuarioResumen> findNumerosByIdsUsuario(Collection<String> idsUsuario);
 }
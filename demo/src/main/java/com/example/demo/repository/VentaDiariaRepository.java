@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.projection.VentaDiariaResumen;
+import com.example.demo.entity.VentaDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad VentaDiaria
+ * Proporciona la suma atómica a los acumulados y las consultas de reportes
+ */
+@Repository
+public interface VentaDiariaRepository extends JpaRepository<VentaDiaria, Long> {
+
+    /**
+     * Sumar cantidad y total al acumulado de la clave, creándolo si no existe
+     * Un único INSERT ... ON DUPLICATE KEY UPDATE: dos transacciones que crean a la vez el primer
+     * acumulado del día no chocan con uk_ventas_diarias_clave, la segunda suma sobre la fila de la primera
+     * @return filas afectadas (1 si se insertó, 2 si se sumó a uno existente)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO restaurante_ventas_diarias (fecha, id_producto, id_categoria, id_mesero, cantidad, total) " +
+           "VALUES (?1, ?2, ?3, ?4, ?5, ?6) " +
+           "ON DUPLICATE KEY UPDATE cantidad = cantidad + VALUES(cantidad), total = total + VALUES(total)",
+           nativeQuery = true)
+    int acumular(LocalDate fecha, Integer idProducto, Integer idCategoria, String idMesero,
+                 Long cantidad, BigDecimal total);
+
+    /**
+     * Sumar el total de ventas de un rango de días
+     * @param desde primer día (incluido)
+     * @param hasta último día (incluido)
+     * @return total de ventas
+     */
+    @Query("SELECT COALESCE(SUM(v.total), 0) FROM VentaDiaria v WHERE v.fecha BETWEEN ?1 AND ?2")
+    BigDecimal sumarTotalPorRangoDias(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Buscar acumulados por rango de días
+     * @param desde primer día (incluido)
+     * @param hasta último día (incluido)
+     * @return List<VentaDiariaResumen>
+     */
+    List<VentaDiariaResumen> findResumenByFechaBetweenOrderByFechaAsc(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Eliminar los acumulados de un rango de días
+     * @param desde primer día (incluido)
+     * @param hasta último día (incluido)
+     * @return número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM VentaDiaria v WHERE v.fecha BETWEEN ?1 AND ?2")
+    int eliminarPorRangoDias(LocalDate desde, LocalDate hasta);
+}
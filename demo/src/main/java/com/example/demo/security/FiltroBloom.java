@@ -0,0 +1,95 @@
+package com.example.demo.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre cadenas: responde "seguro que no está" o "puede que esté"
+ * No admite borrados; para olvidar elementos se construye uno nuevo
+ * Las lecturas no bloquean y las escrituras concurrentes no pierden bits
+ */
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int numeroBits;
+    private final int numeroHashes;
+
+    /**
+     * Crear un filtro dimensionado para una capacidad y tasa de falsos positivos
+     * @param capacidad número de elementos esperados
+     * @param falsosPositivos probabilidad de falso positivo aceptada (ej: 0.01)
+     */
+    public FiltroBloom(int capacidad, double falsosPositivos) {
+        int n = Math.max(1, capacidad);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsosPositivos) / (ln2 * ln2));
+        this.numeroBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / n * ln2));
+        this.bits = new AtomicLongArray((numeroBits + 63) / 64);
+    }
+
+    /**
+     * Añadir un elemento
+     * @param elemento cadena a añadir
+     */
+    public void agregar(String elemento) {
+        long hash = hash64(elemento);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            int bit = indice(h1 + i * h2);
+            long mascara = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(bit >>> 6);
+            } while ((actual & mascara) == 0 && !bits.compareAndSet(bit >>> 6, actual, actual | mascara));
+        }
+    }
+
+    /**
+     * Comprobar si un elemento puede estar en el filtro
+     * @param elemento cadena a comprobar
+     * @return false si seguro que no se añadió; true si puede haberse añadido
+     */
+    public boolean puedeContener(String elemento) {
+        long hash = hash64(elemento);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            int bit = indice(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getNumeroBits() {
+        return numeroBits;
+    }
+
+    public int getNumeroHashes() {
+        return numeroHashes;
+    }
+
+    private int indice(int combinado) {
+        return (combinado & Integer.MAX_VALUE) % numeroBits;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres (sin copiar la cadena) con mezcla final (fmix64 de MurmurHash3)
+     * Las dos mitades del resultado se combinan como h1 + i*h2 (Kirsch-Mitzenmacher)
+     */
+    private static long hash64(String elemento) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < elemento.length(); i++) {
+            h ^= elemento.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.demo.security;
+
+import com.example.demo.service.IdempotenciaService;
+import com.example.demo.service.IdempotenciaService.RespuestaAlmacenada;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Filtro que hace idempotentes las peticiones de escritura sobre comandas,
+ * detalles y pagos cuando el cliente envía la cabecera Idempotency-Key.
+ * Un reintento con la misma clave devuelve la respuesta original sin volver
+ * a ejecutar la transacción.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_REPLAYED = "Idempotent-Replayed";
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    /**
+     * Solo se aplica a métodos de escritura con cabecera sobre las rutas de comandas y detalles
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean escritura = "POST".equals(method) || "PUT".equals(method) ||
+                            "PATCH".equals(method) || "DELETE".equals(method);
+        String path = request.getRequestURI();
+        boolean rutaProtegida = path.startsWith("/api/comandas") || path.startsWith("/api/detalle-comandas");
+        return !escritura || !rutaProtegida || request.getHeader(HEADER_IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // Sin autenticación la cadena de seguridad rechazará la petición; no se registra nada
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER_IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > LONGITUD_MAXIMA_CLAVE) {
+            escribirError(response, HttpServletResponse.SC_BAD_REQUEST,
+                "La cabecera Idempotency-Key debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+            return;
+        }
+
+        byte[] cuerpo = StreamUtils.copyToByteArray(request.getInputStream());
+        HttpServletRequest requestCacheada = new CuerpoCacheadoRequest(request, cuerpo);
+
+        String clave = obtenerUsuario() + ":" + idempotencyKey;
+        String huella = calcularHuella(request, cuerpo);
+
+        RespuestaAlmacenada previa = idempotenciaService.buscar(clave).orElse(null);
+        if (previa == null && !idempotenciaService.reservar(clave, huella)) {
+            // Puede haber terminado justo entre la búsqueda y la reserva
+            previa = idempotenciaService.buscar(clave).orElse(null);
+            if (previa == null) {
+                escribirError(response, HttpServletResponse.SC_CONFLICT,
+                    "Ya hay una petición en curso con la misma Idempotency-Key");
+                return;
+            }
+        }
+
+        if (previa != null) {
+            if (!previa.getHuella().equals(huella)) {
+                escribirError(response, 422,
+                    "La Idempotency-Key ya se usó con una petición distinta");
+                return;
+            }
+            response.setStatus(previa.getStatus());
+            if (previa.getContentType() != null) {
+                response.setContentType(previa.getContentType());
+            }
+            response.setHeader(HEADER_REPLAYED, "true");
+            response.getOutputStream().write(previa.getCuerpo());
+            return;
+        }
+
+        ContentCachingResponseWrapper responseCacheada = new ContentCachingResponseWrapper(response);
+        boolean guardada = false;
+        try {
+            filterChain.doFilter(requestCacheada, responseCacheada);
+
+            // Los errores 5xx, los rechazos de acceso y los fallos pasajeros no se guardan para que el cliente pueda reintentar
+            if (esRespuestaDefinitiva(responseCacheada.getStatus())) {
+                idempotenciaService.guardar(clave, huella, responseCacheada.getStatus(),
+                    responseCacheada.getContentType(), responseCacheada.getContentAsByteArray());
+                guardada = true;
+            }
+        } finally {
+            if (!guardada) {
+                idempotenciaService.liberar(clave);
+            }
+            responseCacheada.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Indica si la respuesta es el resultado definitivo de la operación
+     * Un 409 (conflicto de concurrencia), un 408 o un 425 dependen del momento: repetir la petición puede salir bien,
+     * así que la clave se libera en lugar de reproducir ese error hasta que caduque
+     */
+    private boolean esRespuestaDefinitiva(int status) {
+        return status < 500 &&
+               status != HttpServletResponse.SC_UNAUTHORIZED &&
+               status != HttpServletResponse.SC_FORBIDDEN &&
+               status != HttpServletResponse.SC_REQUEST_TIMEOUT &&
+               status != HttpServletResponse.SC_CONFLICT &&
+               status != 425 &&
+               status != 429;
+    }
+
+    /**
+     * Obtiene el usuario autenticado para que las claves de distintos usuarios no colisionen
+     */
+    private String obtenerUsuario() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName() != null ? authentication.getName() : "anonimo";
+    }
+
+    /**
+     * Calcula el hash SHA-256 de método, ruta, query y cuerpo de la petición
+     */
+    private String calcularHuella(HttpServletRequest request, byte[] cuerpo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(cuerpo);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private void escribirError(HttpServletResponse response, int status, String mensaje) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + mensaje + "\"}");
+    }
+
+    /**
+     * Request que permite leer el cuerpo de nuevo después de calcular la huella
+     */
+    private static class CuerpoCacheadoRequest extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoCacheadoRequest(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), java.nio.charset.Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return cuerpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return cuerpo.length;
+        }
+    }
+}
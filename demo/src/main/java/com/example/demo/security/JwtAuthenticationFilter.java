@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +15,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.function.Function;
 
 /**
  * Filtro para interceptar todas las peticiones y validar el token JWT
@@ -24,12 +26,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+    
     /**
      * Saltar el filtro para endpoints públicos
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/revoke/")) {
+            return false;
+        }
         return path.startsWith("/api/auth/") ||
                path.startsWith("/api-docs/") ||
                path.startsWith("/swagger-ui/") ||
@@ -99,7 +107,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 System.out.println("🔍 Token válido: " + tokenValido);
                 
                 if (tokenValido) {
-                    String rol = jwtUtil.extractRol(jwt);
+                    // Revocación (logout o baja del usuario): filtro de Bloom en memoria, sin consultar la base de datos
+                    Claims claims = jwtUtil.extractClaim(jwt, Function.identity());
+                    if (listaRevocacion.estaRevocado(claims.getId(), userId, claims.getIssuedAt().getTime())) {
+                        System.out.println("❌ Token REVOCADO para usuario: " + userId);
+                        logger.warn("❌ Token revocado para usuario: " + userId + " en ruta: " + request.getRequestURI());
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.setContentType("application/json");
+                        response.setCharacterEncoding("UTF-8");
+                        response.getWriter().write("{\"error\":\"Token revocado. Por favor, inicia sesión nuevamente.\"}");
+                        return;
+                    }
+                    
+                    String rol = claims.get("rol", String.class);
                     System.out.println("🔍 Rol extraído: " + rol);
                     
                     UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
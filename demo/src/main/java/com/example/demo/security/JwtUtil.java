@@ -12,6 +12,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -23,7 +24,7 @@ public class JwtUtil {
     @Value("${jwt.secret:miClaveSecretaSuperSeguraParaElRestaurante2025MinimoDe256BitsParaHS256}")
     private String secret;
     
-    @Value("${jwt.expiration:86400000}") // 24 horas en milisegundos
+    @Value("${jwt.expiration:900000}") // 15 minutos en milisegundos; la sesión se renueva con el refresh token
     private Long expiration;
     
     private SecretKey getSigningKey() {
@@ -43,6 +44,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userId)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -70,6 +72,20 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("rol", String.class));
     }
     
+    /**
+     * Extrae el identificador único del token (jti), usado para revocarlo
+     */
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+    
+    /**
+     * Extrae la fecha de emisión
+     */
+    public Date extractIssuedAt(String token) {
+        return extractClaim(token, Claims::getIssuedAt);
+    }
+    
     /**
      * Extrae la fecha de expiración
      */
@@ -0,0 +1,197 @@
+package com.example.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita las peticiones de cada usuario autenticado por grupo de rutas con cubetas de tokens
+ * Las reglas (rate-limit.limites) dan a cada rol y patrón de ruta una ráfaga máxima y un ritmo sostenido;
+ * cada usuario tiene una cubeta por regla, así un cliente que repite en bucle una ruta cara solo agota
+ * su propia cubeta y no frena la toma de comandas del resto
+ */
+@Component
+public class LimitadorPeticiones {
+
+    private static final String CUALQUIER_ROL = "*";
+
+    @Value("${rate-limit.habilitado:true}")
+    private boolean habilitado = true;
+
+    // Formato: rol:patron=rafaga/porMinuto;... (rol * = cualquiera), por ejemplo *:/api/dashboard/**=5/12
+    @Value("${rate-limit.limites:}")
+    private String configuracion = "";
+
+    private final AntPathMatcher rutas = new AntPathMatcher();
+    private final List<Regla> reglas = new ArrayList<>();
+    private final ConcurrentHashMap<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+    private final LongAdder permitidas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    /**
+     * Leer las reglas configuradas
+     * @throws IllegalArgumentException si alguna regla no es válida
+     */
+    @PostConstruct
+    public void iniciar() {
+        reglas.clear();
+        cubetas.clear();
+        for (String definicion : configuracion.split(";")) {
+            if (definicion.isBlank()) {
+                continue;
+            }
+            int igual = definicion.lastIndexOf('=');
+            int dosPuntos = definicion.indexOf(':');
+            String[] limite = igual > 0 ? definicion.substring(igual + 1).split("/") : new String[0];
+            if (dosPuntos <= 0 || dosPuntos > igual || limite.length != 2) {
+                throw new IllegalArgumentException("Límite de peticiones no válido: '" + definicion + "'. Formato: rol:patron=rafaga/porMinuto");
+            }
+            int rafaga = Integer.parseInt(limite[0].trim());
+            int porMinuto = Integer.parseInt(limite[1].trim());
+            if (rafaga < 1 || porMinuto < 1) {
+                throw new IllegalArgumentException("La ráfaga y el ritmo deben ser mayores que 0: '" + definicion + "'");
+            }
+            reglas.add(new Regla(reglas.size(), definicion.substring(0, dosPuntos).trim().toUpperCase(Locale.ROOT),
+                definicion.substring(dosPuntos + 1, igual).trim(), rafaga, porMinuto));
+        }
+        System.out.println("✅ Límite de peticiones - " + reglas.size() + " regla(s)" + (habilitado ? "" : " (deshabilitado)"));
+    }
+
+    /**
+     * Consumir un token de la cubeta del usuario para la ruta
+     * @param usuario ID del usuario autenticado
+     * @param rol rol del usuario (sin el prefijo ROLE_)
+     * @param ruta ruta de la petición
+     * @return 0 si la petición puede continuar, o nanosegundos que faltan para el siguiente token
+     */
+    public long consumir(String usuario, String rol, String ruta) {
+        return consumir(usuario, rol, ruta, System.nanoTime());
+    }
+
+    long consumir(String usuario, String rol, String ruta, long ahora) {
+        Regla regla = habilitado ? buscarRegla(rol, ruta) : null;
+        if (regla == null) {
+            return 0;
+        }
+        long espera = cubetas.computeIfAbsent(usuario + "|" + regla.id, clave -> new Cubeta(ahora)).consumir(regla, ahora);
+        if (espera > 0) {
+            rechazadas.increment();
+            regla.rechazadas.increment();
+        } else {
+            permitidas.increment();
+        }
+        return espera;
+    }
+
+    /**
+     * Eliminar las cubetas llenas: equivalen a un usuario sin actividad reciente
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.purga-ms:60000}")
+    public void purgar() {
+        long ahora = System.nanoTime();
+        cubetas.values().removeIf(cubeta -> cubeta.llena(ahora));
+    }
+
+    /**
+     * Obtener métricas del limitador de peticiones
+     * @return mapa con peticiones permitidas, rechazadas, cubetas activas y rechazos por regla
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        Map<String, Long> porRegla = new LinkedHashMap<>();
+        for (Regla regla : reglas) {
+            porRegla.put(regla.rol + ":" + regla.patron, regla.rechazadas.sum());
+        }
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("habilitado", habilitado);
+        estadisticas.put("permitidas", permitidas.sum());
+        estadisticas.put("rechazadas", rechazadas.sum());
+        estadisticas.put("cubetasActivas", cubetas.size());
+        estadisticas.put("rechazadasPorRegla", porRegla);
+        return estadisticas;
+    }
+
+    /**
+     * Regla del rol del usuario para la ruta; si no hay, la primera regla genérica (*) que coincida
+     */
+    private Regla buscarRegla(String rol, String ruta) {
+        Regla generica = null;
+        for (Regla regla : reglas) {
+            if (!rutas.match(regla.patron, ruta)) {
+                continue;
+            }
+            if (regla.rol.equalsIgnoreCase(rol)) {
+                return regla;
+            }
+            if (generica == null && CUALQUIER_ROL.equals(regla.rol)) {
+                generica = regla;
+            }
+        }
+        return generica;
+    }
+
+    /**
+     * Límite de un rol sobre un patrón de rutas
+     */
+    private static final class Regla {
+
+        private final int id;
+        private final String rol;
+        private final String patron;
+        // Nanosegundos que tarda en reponerse un token, y adelanto máximo que permite la ráfaga
+        private final long intervalo;
+        private final long tolerancia;
+        private final LongAdder rechazadas = new LongAdder();
+
+        private Regla(int id, String rol, String patron, int rafaga, int porMinuto) {
+            this.id = id;
+            this.rol = rol;
+            this.patron = patron;
+            this.intervalo = TimeUnit.MINUTES.toNanos(1) / porMinuto;
+            this.tolerancia = (rafaga - 1) * intervalo;
+        }
+    }
+
+    /**
+     * Cubeta de tokens sin bloqueos: en lugar de guardar los tokens que quedan guarda el instante en que
+     * la cubeta volvería a estar llena (teórico), y cada petición lo adelanta un intervalo con compareAndSet.
+     * La petición se rechaza si ese instante queda más lejos que la ráfaga permitida
+     */
+    private static final class Cubeta {
+
+        private final AtomicLong llenaEn;
+
+        private Cubeta(long ahora) {
+            this.llenaEn = new AtomicLong(ahora);
+        }
+
+        private long consumir(Regla regla, long ahora) {
+            while (true) {
+                long actual = llenaEn.get();
+                long desde = actual - ahora > 0 ? actual : ahora;
+                long exceso = desde - ahora - regla.tolerancia;
+                if (exceso > 0) {
+                    return exceso;
+                }
+                if (llenaEn.compareAndSet(actual, desde + regla.intervalo)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean llena(long ahora) {
+            return llenaEn.get() - ahora <= 0;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.security;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.entity.TokenRevocado;
+import com.example.demo.repository.TokenRevocadoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lista de access tokens revocados consultada por JwtAuthenticationFilter en cada petición
+ * Un filtro de Bloom descarta en nanosegundos los tokens no revocados (casi todos) y solo los
+ * positivos se confirman en el conjunto exacto en memoria, así que no hay consulta a la base de datos
+ * La tabla restaurante_tokens_revocados es la fuente de verdad: se carga al arrancar, se sincroniza
+ * periódicamente (revocaciones hechas en otros nodos) y se purga cuando los tokens afectados expiran
+ */
+@Component
+public class ListaRevocacion {
+
+    @Autowired
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${revocacion.capacidad:10000}")
+    private int capacidad = 10000;
+
+    @Value("${revocacion.falsos-positivos:0.01}")
+    private double falsosPositivos = 0.01;
+
+    // Margen al sincronizar para no perder revocaciones confirmadas mientras se consultaba
+    @Value("${revocacion.margen-sincronizacion-ms:5000}")
+    private long margenSincronizacionMs = 5000;
+
+    private final ConcurrentHashMap<String, Revocacion> exactas = new ConcurrentHashMap<>();
+    private volatile FiltroBloom filtro;
+    private volatile long ultimaSincronizacion;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder positivosFiltro = new LongAdder();
+    private final LongAdder falsosPositivosDetectados = new LongAdder();
+    private final LongAdder tokensRechazados = new LongAdder();
+
+    @PostConstruct
+    public void cargar() {
+        filtro = new FiltroBloom(capacidad, falsosPositivos);
+        long inicio = System.currentTimeMillis();
+        try {
+            int cargadas = 0;
+            for (TokenRevocado revocado : tokenRevocadoRepository.findVigentes(LocalDateTime.now())) {
+                registrar(revocado);
+                cargadas++;
+            }
+            ultimaSincronizacion = inicio;
+            System.out.println("✅ Revocación de tokens - " + cargadas + " revocación(es) vigente(s) cargada(s)");
+        } catch (Exception e) {
+            System.out.println("⚠️ Revocación de tokens - No se pudo cargar la lista: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Comprobar si un access token está revocado
+     * @param tokenId jti del token (null en tokens emitidos antes de existir la revocación)
+     * @param idUsuario ID del usuario del token
+     * @param emitidoMs fecha de emisión del token en milisegundos
+     * @return true si el token no debe aceptarse
+     */
+    public boolean estaRevocado(String tokenId, String idUsuario, long emitidoMs) {
+        consultas.increment();
+        FiltroBloom actual = filtro;
+        boolean revocado = false;
+        if (tokenId != null) {
+            revocado = confirmar(actual, TokenRevocado.PREFIJO_TOKEN + tokenId, Long.MAX_VALUE);
+        }
+        if (!revocado && idUsuario != null) {
+            revocado = confirmar(actual, TokenRevocado.PREFIJO_USUARIO + idUsuario, emitidoMs);
+        }
+        if (revocado) {
+            tokensRechazados.increment();
+        }
+        return revocado;
+    }
+
+    /**
+     * Revocar un access token concreto (logout)
+     * @param tokenId jti del token
+     * @param expiraMs fecha de expiración del token en milisegundos
+     */
+    public void revocarToken(String tokenId, long expiraMs) {
+        guardar(TokenRevocado.PREFIJO_TOKEN + tokenId, System.currentTimeMillis(), expiraMs);
+    }
+
+    /**
+     * Revocar todos los access tokens de un usuario emitidos hasta ahora
+     * @param idUsuario ID del usuario
+     */
+    public void revocarUsuario(String idUsuario) {
+        long ahora = System.currentTimeMillis();
+        // Ningún token emitido antes de ahora sobrevive más allá de su duración máxima
+        guardar(TokenRevocado.PREFIJO_USUARIO + idUsuario, ahora, ahora + jwtUtil.getExpirationTime());
+    }
+
+    /**
+     * Incorporar las revocaciones hechas en otros nodos
+     */
+    @Scheduled(fixedDelayString = "${revocacion.sincronizar-ms:5000}")
+    public void sincronizar() {
+        long inicio = System.currentTimeMillis();
+        try {
+            LocalDateTime desde = aFecha(ultimaSincronizacion - margenSincronizacionMs);
+            for (TokenRevocado revocado : tokenRevocadoRepository.findRevocadosDesde(desde)) {
+                registrar(revocado);
+            }
+            ultimaSincronizacion = inicio;
+        } catch (Exception e) {
+            System.out.println("⚠️ Revocación de tokens - Error al sincronizar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Olvidar las revocaciones cuyos tokens ya expiraron y reconstruir el filtro de Bloom,
+     * que no admite borrados y si no se llenaría de elementos obsoletos
+     */
+    @Scheduled(fixedDelayString = "${revocacion.purga-ms:600000}")
+    public void purgar() {
+        long ahora = System.currentTimeMillis();
+        synchronized (this) {
+            exactas.values().removeIf(revocacion -> revocacion.expiraMs < ahora);
+            FiltroBloom nuevo = new FiltroBloom(Math.max(capacidad, exactas.size() * 2), falsosPositivos);
+            exactas.keySet().forEach(nuevo::agregar);
+            filtro = nuevo;
+        }
+        try {
+            tokenRevocadoRepository.eliminarExpirados(aFecha(ahora));
+        } catch (Exception e) {
+            System.out.println("⚠️ Revocación de tokens - Error al purgar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtener métricas de la lista de revocación
+     * @return mapa con tamaño, consultas y aciertos del filtro de Bloom
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        FiltroBloom actual = filtro;
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("revocacionesVigentes", exactas.size());
+        estadisticas.put("bitsFiltro", actual.getNumeroBits());
+        estadisticas.put("hashesFiltro", actual.getNumeroHashes());
+        estadisticas.put("consultas", consultas.sum());
+        estadisticas.put("positivosFiltro", positivosFiltro.sum());
+        estadisticas.put("falsosPositivos", falsosPositivosDetectados.sum());
+        estadisticas.put("tokensRechazados", tokensRechazados.sum());
+        return estadisticas;
+    }
+
+    /**
+     * Confirmar en el conjunto exacto una clave que el filtro de Bloom no descarta
+     * @param limiteEmisionMs el token está revocado si se emitió a más tardar en la fecha de revocación;
+     *                        Long.MAX_VALUE para revocar la clave sin mirar la fecha
+     */
+    private boolean confirmar(FiltroBloom actual, String clave, long limiteEmisionMs) {
+        if (!actual.puedeContener(clave)) {
+            return false;
+        }
+        positivosFiltro.increment();
+        Revocacion revocacion = exactas.get(clave);
+        if (revocacion == null) {
+            falsosPositivosDetectados.increment();
+            return false;
+        }
+        // iat tiene precisión de segundos: un token del mismo segundo que la revocación también se rechaza
+        return limiteEmisionMs == Long.MAX_VALUE || limiteEmisionMs <= revocacion.revocadaMs;
+    }
+
+    private void guardar(String clave, long revocadaMs, long expiraMs) {
+        TokenRevocado revocado = new TokenRevocado(clave, aFecha(revocadaMs), aFecha(expiraMs));
+        tokenRevocadoRepository.save(revocado);
+        // En memoria solo cuando la fila queda confirmada: los demás nodos la leen de la tabla al sincronizar
+        TrasTransaccion.alConfirmar(() -> registrar(revocado));
+    }
+
+    private synchronized void registrar(TokenRevocado revocado) {
+        Revocacion nueva = new Revocacion(aMilis(revocado.getFechaRevocacion()), aMilis(revocado.getFechaExpiracion()));
+        // Primero el conjunto exacto: un positivo del filtro siempre encuentra la entrada
+        exactas.merge(revocado.getClave(), nueva, (anterior, actual) -> actual.revocadaMs >= anterior.revocadaMs ? actual : anterior);
+        filtro.agregar(revocado.getClave());
+    }
+
+    private static LocalDateTime aFecha(long milis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(milis), ZoneId.systemDefault());
+    }
+
+    private static long aMilis(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Revocación en memoria: fecha de revocación y fecha a partir de la cual ya no afecta a ningún token
+     */
+    private static final class Revocacion {
+
+        private final long revocadaMs;
+        private final long expiraMs;
+
+        Revocacion(long revocadaMs, long expiraMs) {
+            this.revocadaMs = revocadaMs;
+            this.expiraMs = expiraMs;
+        }
+    }
+}
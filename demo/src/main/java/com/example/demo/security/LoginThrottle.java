@@ -0,0 +1,153 @@
+package com.example.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita los intentos de login por cuenta antes de llegar a BCrypt
+ * Tras login.throttle.max-fallos fallos dentro de la ventana la cuenta queda bloqueada un tiempo
+ * que se duplica con cada bloqueo consecutivo, y nunca se verifican más de
+ * login.throttle.max-concurrentes contraseñas a la vez para la misma cuenta
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${login.throttle.max-fallos:5}")
+    private int maxFallos = 5;
+
+    @Value("${login.throttle.ventana-segundos:900}")
+    private long ventanaSegundos = 900;
+
+    @Value("${login.throttle.bloqueo-inicial-segundos:30}")
+    private long bloqueoInicialSegundos = 30;
+
+    @Value("${login.throttle.bloqueo-maximo-segundos:900}")
+    private long bloqueoMaximoSegundos = 900;
+
+    @Value("${login.throttle.max-concurrentes:2}")
+    private int maxConcurrentes = 2;
+
+    private final ConcurrentHashMap<String, EstadoCuenta> cuentas = new ConcurrentHashMap<>();
+    private final AtomicLong intentosRechazados = new AtomicLong();
+
+    /**
+     * Registrar el inicio de un intento de login
+     * Si se permite, debe cerrarse siempre con finalizarIntento
+     * @param cuenta identificador de la cuenta (email)
+     * @return 0 si el intento puede continuar, o segundos que debe esperar el cliente
+     */
+    public long iniciarIntento(String cuenta) {
+        long ahora = System.currentTimeMillis();
+        long[] espera = {0};
+        cuentas.compute(normalizar(cuenta), (clave, estado) -> {
+            if (estado == null) {
+                estado = new EstadoCuenta(ahora);
+            }
+            estado.ultimoAcceso = ahora;
+            if (estado.bloqueadoHasta > ahora) {
+                espera[0] = Math.max(1, (estado.bloqueadoHasta - ahora + 999) / 1000);
+            } else if (estado.enCurso >= maxConcurrentes) {
+                espera[0] = 1;
+            } else {
+                estado.enCurso++;
+            }
+            return estado;
+        });
+        if (espera[0] > 0) {
+            intentosRechazados.incrementAndGet();
+        }
+        return espera[0];
+    }
+
+    /**
+     * Registrar el resultado de un intento iniciado con iniciarIntento
+     * @param cuenta identificador de la cuenta (email)
+     * @param exito true si las credenciales eran correctas
+     */
+    public void finalizarIntento(String cuenta, boolean exito) {
+        long ahora = System.currentTimeMillis();
+        cuentas.computeIfPresent(normalizar(cuenta), (clave, estado) -> {
+            estado.enCurso = Math.max(0, estado.enCurso - 1);
+            if (exito) {
+                // Un login correcto limpia el historial de la cuenta
+                return estado.enCurso == 0 ? null : estado.reiniciar();
+            }
+            if (ahora - estado.inicioVentana > ventanaSegundos * 1000) {
+                estado.inicioVentana = ahora;
+                estado.fallos = 0;
+            }
+            estado.fallos++;
+            if (estado.fallos >= maxFallos) {
+                estado.bloqueos++;
+                long duracion = Math.min(bloqueoInicialSegundos << Math.min(estado.bloqueos - 1, 20), bloqueoMaximoSegundos);
+                estado.bloqueadoHasta = ahora + duracion * 1000;
+                estado.fallos = 0;
+                System.out.println("⚠️ Login - Cuenta " + clave + " bloqueada " + duracion + "s tras " + maxFallos + " fallos");
+            }
+            return estado;
+        });
+    }
+
+    /**
+     * Eliminar las cuentas sin actividad reciente ni bloqueo vigente
+     */
+    @Scheduled(fixedDelayString = "${login.throttle.purga-ms:60000}")
+    public void purgar() {
+        long ahora = System.currentTimeMillis();
+        cuentas.entrySet().removeIf(entrada -> {
+            EstadoCuenta estado = entrada.getValue();
+            return estado.enCurso == 0
+                && estado.bloqueadoHasta <= ahora
+                && ahora - estado.ultimoAcceso > ventanaSegundos * 1000;
+        });
+    }
+
+    /**
+     * Obtener métricas del limitador de login
+     * @return mapa con cuentas seguidas, bloqueadas e intentos rechazados
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        long ahora = System.currentTimeMillis();
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("cuentasSeguidas", cuentas.size());
+        estadisticas.put("cuentasBloqueadas", cuentas.values().stream().filter(e -> e.bloqueadoHasta > ahora).count());
+        estadisticas.put("intentosRechazados", intentosRechazados.get());
+        return estadisticas;
+    }
+
+    private String normalizar(String cuenta) {
+        return cuenta == null ? "" : cuenta.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Estado de una cuenta; solo se modifica dentro de compute sobre el mapa
+     */
+    private static final class EstadoCuenta {
+
+        private int enCurso;
+        private int fallos;
+        private int bloqueos;
+        private long inicioVentana;
+        private long bloqueadoHasta;
+        private long ultimoAcceso;
+
+        EstadoCuenta(long ahora) {
+            this.inicioVentana = ahora;
+            this.ultimoAcceso = ahora;
+        }
+
+        EstadoCuenta reiniciar() {
+            fallos = 0;
+            bloqueos = 0;
+            bloqueadoHasta = 0;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta el hashing y la verificación de contraseñas (BCrypt) en un pool de hilos acotado
+ * Así una ráfaga de logins ocupa como mucho hashing.hilos núcleos y no los hilos de Tomcat
+ * que atienden comandas; si la cola (hashing.cola) está llena la tarea se rechaza de inmediato
+ * con RejectedExecutionException en lugar de acumular espera
+ */
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // 0 = la mitad de los núcleos disponibles (mínimo 1)
+    @Value("${hashing.hilos:0}")
+    private int hilos;
+
+    @Value("${hashing.cola:64}")
+    private int capacidadCola;
+
+    @Value("${hashing.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong tareasCompletadas = new AtomicLong();
+    private final AtomicLong tareasRechazadas = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong ejecucionTotalNanos = new AtomicLong();
+    private final AtomicInteger colaMaxima = new AtomicInteger();
+
+    @PostConstruct
+    public void iniciar() {
+        int numeroHilos = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(numeroHilos, numeroHilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "hashing-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        System.out.println("✅ Hashing de contraseñas - " + numeroHilos + " hilo(s), cola de " + capacidadCola);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+
+    /**
+     * Codificar una contraseña en el pool de hashing
+     * @param password contraseña en claro
+     * @return futuro con el hash
+     */
+    public CompletableFuture<String> codificar(String password) {
+        return ejecutar(() -> passwordEncoder.encode(password));
+    }
+
+    /**
+     * Verificar una contraseña contra su hash en el pool de hashing
+     * @param password contraseña en claro
+     * @param hash hash almacenado
+     * @return futuro con true si coinciden
+     */
+    public CompletableFuture<Boolean> verificar(String password, String hash) {
+        return ejecutar(() -> passwordEncoder.matches(password, hash));
+    }
+
+    /**
+     * Codificar una contraseña esperando el resultado (para servicios síncronos)
+     * @param password contraseña en claro
+     * @return hash de la contraseña
+     * @throws RejectedExecutionException si el pool está saturado o no responde a tiempo
+     */
+    public String codificarYEsperar(String password) {
+        try {
+            return codificar(password).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Hashing interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Indica si un hash se generó con un coste menor al configurado y debe regenerarse
+     * @param hash hash almacenado
+     * @return true si conviene rehacer el hash
+     */
+    public boolean necesitaRehash(String hash) {
+        return passwordEncoder.upgradeEncoding(hash);
+    }
+
+    /**
+     * Obtener métricas del pool de hashing
+     * @return mapa con tamaño de cola, hilos activos y tiempos medios
+     */
+    public Map<String, Object> obtenerEstadisticas() {
+        long completadas = tareasCompletadas.get();
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("hilos", executor.getMaximumPoolSize());
+        estadisticas.put("hilosActivos", executor.getActiveCount());
+        estadisticas.put("capacidadCola", capacidadCola);
+        estadisticas.put("enCola", executor.getQueue().size());
+        estadisticas.put("colaMaxima", colaMaxima.get());
+        estadisticas.put("tareasCompletadas", completadas);
+        estadisticas.put("tareasRechazadas", tareasRechazadas.get());
+        estadisticas.put("esperaMediaMs", completadas > 0 ? esperaTotalNanos.get() / completadas / 1_000_000.0 : 0.0);
+        estadisticas.put("ejecucionMediaMs", completadas > 0 ? ejecucionTotalNanos.get() / completadas / 1_000_000.0 : 0.0);
+        return estadisticas;
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        long encolada = System.nanoTime();
+        CompletableFuture<T> futuro;
+        try {
+            futuro = CompletableFuture.supplyAsync(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return tarea.get();
+                } finally {
+                    long fin = System.nanoTime();
+                    esperaTotalNanos.addAndGet(inicio - encolada);
+                    ejecucionTotalNanos.addAndGet(fin - inicio);
+                    tareasCompletadas.incrementAndGet();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            tareasRechazadas.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Servicio de autenticación saturado"));
+        }
+        colaMaxima.accumulateAndGet(executor.getQueue().size(), Math::max);
+
+        return futuro.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+            .exceptionallyCompose(error -> {
+                Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (causa instanceof TimeoutException) {
+                    tareasRechazadas.incrementAndGet();
+                    return CompletableFuture.failedFuture(new RejectedExecutionException("Servicio de autenticación saturado"));
+                }
+                return CompletableFuture.failedFuture(causa);
+            });
+    }
+}
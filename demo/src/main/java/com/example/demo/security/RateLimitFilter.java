@@ -0,0 +1,64 @@
+package com.example.demo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro que aplica los límites de peticiones por usuario y grupo de rutas
+ * Va justo después de JwtAuthenticationFilter (necesita el usuario y su rol) y antes de que la petición
+ * llegue a la base de datos; si la cubeta está vacía responde 429 con Retry-After
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PREFIJO_ROL = "ROLE_";
+
+    @Autowired
+    private LimitadorPeticiones limitadorPeticiones;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // Las peticiones sin autenticar las rechaza la cadena de seguridad (y el login tiene su propio límite)
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long espera = limitadorPeticiones.consumir(authentication.getName(), obtenerRol(authentication), request.getRequestURI());
+        if (espera > 0) {
+            long segundos = Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\":\"Demasiadas peticiones. Vuelve a intentarlo en " + segundos + " s\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String obtenerRol(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authority.getAuthority().startsWith(PREFIJO_ROL)) {
+                return authority.getAuthority().substring(PREFIJO_ROL.length());
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.demo.service;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.dto.response.AlertaStockDTO;
+import com.example.demo.entity.Producto;
+import com.example.demo.repository.ProductoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servicio de alertas de stock bajo
+ * Mantiene en memoria el nivel de stock de cada producto en dos índices ordenados: por margen
+ * (stock menos umbral de reposición, solo productos activos) y por stock. Las vistas de stock bajo
+ * recorren solo el principio del índice, sin consultar la tabla de productos. Cada cambio de stock
+ * confirmado actualiza los índices y, si el producto cruza su umbral, se avisa a los suscriptores
+ * del canal SSE (el encargado de compras). Cada instancia solo avisa de los cambios que confirma ella misma
+ * Los cambios se aplican por versión del producto: si dos transacciones confirman casi a la vez, un nivel
+ * más antiguo que llegue tarde no pisa al más reciente. Los avisos se envían desde un hilo propio, para que
+ * un cliente lento no retrase la transacción que los provoca
+ */
+@Service
+public class AlertasStockService {
+
+    public static final String BAJO_UMBRAL = "bajo-umbral";
+    public static final String RESTABLECIDO = "restablecido";
+    public static final String RETIRADO = "retirado";
+
+    private static final Comparator<Nivel> POR_MARGEN = Comparator.comparingInt((Nivel n) -> n.margen()).thenComparing(n -> n.idProducto);
+    private static final Comparator<Nivel> POR_STOCK = Comparator.comparingInt((Nivel n) -> n.stock).thenComparing(n -> n.idProducto);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Value("${stock.alertas.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    private final Map<Integer, Nivel> niveles = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Nivel> porMargen = new ConcurrentSkipListSet<>(POR_MARGEN);
+    private final ConcurrentSkipListSet<Nivel> porStock = new ConcurrentSkipListSet<>(POR_STOCK);
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+    private volatile boolean cargado = false;
+
+    // Un solo hilo: los suscriptores reciben los avisos en el orden en que se produjeron
+    private final ExecutorService envios = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "alertas-stock");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Cargar el nivel de stock de todos los productos
+     * Si la carga falla, las consultas de stock bajo siguen resolviéndose en la base de datos
+     */
+    @PostConstruct
+    public void iniciar() {
+        try {
+            List<Object[]> filas = productoRepository.findNivelesStock();
+            synchronized (this) {
+                niveles.clear();
+                porMargen.clear();
+                porStock.clear();
+                for (Object[] fila : filas) {
+                    aplicar(new Nivel((Integer) fila[0], (String) fila[1], (Integer) fila[2],
+                        fila[3] != null ? (Integer) fila[3] : 0, Boolean.TRUE.equals(fila[4]), (Long) fila[5]));
+                }
+            }
+            cargado = true;
+            System.out.println("✅ Alertas de stock - " + filas.size() + " producto(s), " + obtenerBajoUmbral().size() + " bajo umbral");
+        } catch (Exception e) {
+            System.out.println("⚠️ Alertas de stock - No se pudo cargar el stock de los productos: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        envios.shutdown();
+    }
+
+    /**
+     * Registrar el stock y el umbral actuales de un producto; los índices y los avisos esperan a que se confirme el cambio
+     * @param producto producto ya guardado
+     */
+    public void registrarStock(Producto producto) {
+        // El nivel se toma al confirmar: la versión del producto se incrementa al hacer flush
+        TrasTransaccion.alConfirmar(() -> publicar(aplicar(new Nivel(producto.getIdProducto(), producto.getNombre(),
+            producto.getStock(), producto.getUmbralReposicion() != null ? producto.getUmbralReposicion() : 0,
+            Boolean.TRUE.equals(producto.getEstado()), producto.getVersion()))));
+    }
+
+    /**
+     * Retirar un producto eliminado de los índices
+     * @param idProducto ID del producto
+     */
+    public void retirar(Integer idProducto) {
+        TrasTransaccion.alConfirmar(() -> publicar(quitar(idProducto)));
+    }
+
+    /**
+     * Obtener los productos activos con stock igual o menor que su umbral, empezando por los de menor margen
+     * @return Lista de alertas vigentes
+     */
+    public List<AlertaStockDTO> obtenerBajoUmbral() {
+        List<AlertaStockDTO> alertas = new ArrayList<>();
+        for (Nivel nivel : porMargen) {
+            if (nivel.margen() > 0) {
+                break;
+            }
+            alertas.add(aDTO(nivel, BAJO_UMBRAL, null));
+        }
+        return alertas;
+    }
+
+    /**
+     * Obtener los IDs de los productos con stock menor que un límite, ordenados por stock
+     * @param limite stock límite (excluido)
+     * @return IDs de los productos, o vacío si el índice no está cargado y hay que consultar la base de datos
+     */
+    public Optional<List<Integer>> obtenerIdsConStockMenorQue(int limite) {
+        if (!cargado) {
+            return Optional.empty();
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Nivel nivel : porStock.headSet(new Nivel(Integer.MIN_VALUE, null, limite, 0, false, null))) {
+            ids.add(nivel.idProducto);
+        }
+        return Optional.of(ids);
+    }
+
+    /**
+     * Obtener el nivel de stock de los productos activos, empezando por los de menor margen
+     * @return niveles de stock, o vacío si el índice no está cargado y hay que consultar la base de datos
+     */
+    public Optional<List<AlertaStockDTO>> obtenerNivelesActivos() {
+        if (!cargado) {
+            return Optional.empty();
+        }
+        List<AlertaStockDTO> activos = new ArrayList<>();
+        for (Nivel nivel : porMargen) {
+            activos.add(aDTO(nivel, null, null));
+        }
+        return Optional.of(activos);
+    }
+
+    /**
+     * Suscribirse al canal de alertas. Lo primero que recibe el suscriptor es un evento "estado" con las
+     * alertas vigentes; después, un evento por cada cruce de umbral
+     * @return emisor SSE del suscriptor
+     */
+    public SseEmitter suscribir() {
+        SseEmitter emisor = new SseEmitter(timeoutMs);
+        emisor.onCompletion(() -> suscriptores.remove(emisor));
+        emisor.onTimeout(emisor::complete);
+        emisor.onError(e -> suscriptores.remove(emisor));
+        suscriptores.add(emisor);
+        try {
+            emisor.send(SseEmitter.event().name("estado").data(obtenerBajoUmbral()));
+        } catch (IOException e) {
+            suscriptores.remove(emisor);
+            emisor.completeWithError(e);
+        }
+        return emisor;
+    }
+
+    /**
+     * Mantener vivas las conexiones SSE a través de proxies que cortan las conexiones inactivas
+     */
+    @Scheduled(fixedDelayString = "${stock.alertas.heartbeat-ms:25000}")
+    public void enviarLatido() {
+        envios.execute(() -> {
+            for (SseEmitter emisor : suscriptores) {
+                enviar(emisor, SseEmitter.event().comment("latido"));
+            }
+        });
+    }
+
+    private synchronized AlertaStockDTO aplicar(Nivel nuevo) {
+        Nivel anterior = niveles.get(nuevo.idProducto);
+        if (anterior != null && anterior.esPosteriorA(nuevo)) {
+            // Otra transacción que confirmó después ya aplicó un nivel más reciente
+            return null;
+        }
+        niveles.put(nuevo.idProducto, nuevo);
+        if (anterior != null) {
+            porMargen.remove(anterior);
+            porStock.remove(anterior);
+        }
+        porStock.add(nuevo);
+        if (nuevo.activo) {
+            porMargen.add(nuevo);
+        }
+        boolean estabaBajo = anterior != null && anterior.bajoUmbral();
+        if (!estabaBajo && nuevo.bajoUmbral()) {
+            return aDTO(nuevo, BAJO_UMBRAL, LocalDateTime.now());
+        }
+        if (estabaBajo && !nuevo.bajoUmbral()) {
+            // Un producto desactivado deja de alertar aunque no se haya repuesto
+            return aDTO(nuevo, nuevo.activo ? RESTABLECIDO : RETIRADO, LocalDateTime.now());
+        }
+        return null;
+    }
+
+    private synchronized AlertaStockDTO quitar(Integer idProducto) {
+        Nivel anterior = niveles.remove(idProducto);
+        if (anterior == null) {
+            return null;
+        }
+        porMargen.remove(anterior);
+        porStock.remove(anterior);
+        return anterior.bajoUmbral() ? aDTO(anterior, RETIRADO, LocalDateTime.now()) : null;
+    }
+
+    private void publicar(AlertaStockDTO alerta) {
+        if (alerta == null) {
+            return;
+        }
+        System.out.println("📦 Alertas de stock - " + alerta.getTipo() + ": " + alerta.getNombre()
+            + " (stock " + alerta.getStock() + ", umbral " + alerta.getUmbral() + ")");
+        envios.execute(() -> {
+            for (SseEmitter emisor : suscriptores) {
+                enviar(emisor, SseEmitter.event().name(alerta.getTipo()).data(alerta));
+            }
+        });
+    }
+
+    private void enviar(SseEmitter emisor, SseEmitter.SseEventBuilder evento) {
+        try {
+            emisor.send(evento);
+        } catch (Exception e) {
+            // Cliente desconectado: se descarta sin afectar al resto de suscriptores
+            suscriptores.remove(emisor);
+            emisor.completeWithError(e);
+        }
+    }
+
+    private static AlertaStockDTO aDTO(Nivel nivel, String tipo, LocalDateTime fecha) {
+        return AlertaStockDTO.builder()
+            .idProducto(nivel.idProducto)
+            .nombre(nivel.nombre)
+            .stock(nivel.stock)
+            .umbral(nivel.umbral)
+            .margen(nivel.margen())
+            .tipo(tipo)
+            .fecha(fecha)
+            .build();
+    }
+
+    /**
+     * Nivel de stock de un producto en el momento de su último cambio (inmutable: cada cambio crea uno nuevo)
+     */
+    private static final class Nivel {
+
+        private final Integer idProducto;
+        private final String nombre;
+        private final int stock;
+        private final int umbral;
+        private final boolean activo;
+        private final Long version;
+
+        private Nivel(Integer idProducto, String nombre, int stock, int umbral, boolean activo, Long version) {
+            this.idProducto = idProducto;
+            this.nombre = nombre;
+            this.stock = stock;
+            this.umbral = umbral;
+            this.activo = activo;
+            this.version = version;
+        }
+
+        private boolean esPosteriorA(Nivel otro) {
+            return version != null && otro.version != null && version > otro.version;
+        }
+
+        private int margen() {
+            return stock - umbral;
+        }
+
+        private boolean bajoUmbral() {
+            return activo && stock <= umbral;
+        }
+    }
+}
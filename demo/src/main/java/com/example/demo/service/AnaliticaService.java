@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.RendimientoMeseroResumen;
+import com.example.demo.dto.response.RendimientoMeseroDTO;
+import com.example.demo.entity.Estado;
+import com.example.demo.repository.ComandaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de analíticas de rendimiento del personal
+ * Los agregados se calculan en la base de datos con una sola consulta; aquí solo se derivan las ratios
+ */
+@Service
+@Transactional(readOnly = true)
+public class AnaliticaService {
+
+    @Autowired
+    private ComandaRepository comandaRepository;
+
+    @Value("${analiticas.max-dias:366}")
+    private int maxDias = 366;
+
+    /**
+     * Obtener el rendimiento de los meseros en un rango de días, ordenados por ingresos
+     * @param desde primer día (incluido)
+     * @param hasta último día (incluido)
+     * @return List<RendimientoMeseroDTO> con los meseros que atendieron alguna comanda
+     * @throws IllegalArgumentException si el rango no es válido
+     */
+    public List<RendimientoMeseroDTO> obtenerRendimientoMeseros(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        if (desde.plusDays(maxDias).isBefore(hasta.plusDays(1))) {
+            throw new IllegalArgumentException("El rango no puede superar " + maxDias + " días");
+        }
+
+        return comandaRepository.agruparRendimientoMeseros(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay(),
+                Estado.NOMBRES_CANCELADO, Estado.NOMBRES_COMPLETADO)
+            .stream()
+            .map(this::toDTO)
+            .collect(Collectors.toList());
+    }
+
+    private RendimientoMeseroDTO toDTO(RendimientoMeseroResumen resumen) {
+        long comandas = valor(resumen.getComandas());
+        long vendidas = valor(resumen.getComandasVendidas());
+        long canceladas = valor(resumen.getComandasCanceladas());
+        long unidades = valor(resumen.getUnidades());
+        BigDecimal ingresos = resumen.getIngresos() != null ? resumen.getIngresos() : BigDecimal.ZERO;
+
+        return RendimientoMeseroDTO.builder()
+                .posicion(resumen.getPosicion())
+                .idMesero(resumen.getIdMesero())
+                .nombreMesero(resumen.getNombreMesero())
+                .comandas(comandas)
+                .comandasVendidas(vendidas)
+                .comandasCanceladas(canceladas)
+                .ingresos(ingresos)
+                .ticketMedio(vendidas > 0 ? ingresos.divide(BigDecimal.valueOf(vendidas), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO)
+                .articulosPorComanda(vendidas > 0 ? redondear((double) unidades / vendidas) : 0.0)
+                .tasaCancelacion(comandas > 0 ? redondear(100.0 * canceladas / comandas) : 0.0)
+                .minutosHastaCierre(resumen.getSegundosHastaCierre() != null ? redondear(resumen.getSegundosHastaCierre() / 60) : null)
+                .build();
+    }
+
+    private static long valor(Long numero) {
+        return numero != null ? numero : 0L;
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
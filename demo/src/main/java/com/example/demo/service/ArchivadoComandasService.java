@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.*;
+import com.example.demo.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio para el archivado de comandas cerradas
+ * Mueve las comandas pagadas o canceladas con más de N días, junto con sus líneas,
+ * a las tablas históricas en lotes de una transacción cada uno, y ofrece las consultas
+ * de reportes sobre esos datos archivados
+ */
+@Service
+public class ArchivadoComandasService {
+
+    @Autowired
+    private ComandaRepository comandaRepository;
+
+    @Autowired
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Autowired
+    private ComandaHistoricoRepository comandaHistoricoRepository;
+
+    @Autowired
+    private DetalleComandaHistoricoRepository detalleComandaHistoricoRepository;
+
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${archivado.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${archivado.dias:90}")
+    private int dias;
+
+    @Value("${archivado.tamano-lote:500}")
+    private int tamanoLote;
+
+    /**
+     * Tarea programada que archiva las comandas cerradas más antiguas que archivado.dias
+     */
+    @Scheduled(cron = "${archivado.cron:0 0 3 * * *}")
+    public void archivarProgramado() {
+        if (!habilitado) {
+            return;
+        }
+        int archivadas = archivarComandas(dias);
+        System.out.println("✅ Archivado - " + archivadas + " comanda(s) movidas a histórico");
+    }
+
+    /**
+     * Archivar las comandas pagadas o canceladas anteriores a un número de días
+     * @param diasAntiguedad antigüedad mínima en días
+     * @return número de comandas archivadas
+     */
+    public int archivarComandas(int diasAntiguedad) {
+        if (diasAntiguedad < 1) {
+            throw new IllegalArgumentException("La antigüedad mínima para archivar debe ser de al menos 1 día");
+        }
+        LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasAntiguedad);
+
+        int total = 0;
+        int archivadas;
+        do {
+            archivadas = transactionTemplate.execute(status -> archivarLote(fechaLimite));
+            total += archivadas;
+        } while (archivadas == tamanoLote);
+        return total;
+    }
+
+    /**
+     * Copiar un lote de comandas y sus líneas al histórico y eliminarlas de las tablas activas
+     * Debe ejecutarse dentro de una transacción
+     * @param fechaLimite fecha límite de archivado
+     * @return número de comandas archivadas en el lote
+     */
+    private int archivarLote(LocalDateTime fechaLimite) {
+        List<Integer> ids = comandaRepository.findIdsArchivables(fechaLimite, Estado.NOMBRES_CANCELADO,
+            PageRequest.of(0, tamanoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Comanda> comandas = comandaRepository.findConDetallesByIds(ids);
+        List<ComandaHistorico> historicos = new ArrayList<>(comandas.size());
+        List<DetalleComandaHistorico> detallesHistoricos = new ArrayList<>();
+
+        for (Comanda comanda : comandas) {
+            BigDecimal total = comanda.getDetalleComandas().stream()
+                .map(DetalleComanda::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            ComandaHistorico historico = new ComandaHistorico(comanda, total);
+            historicos.add(historico);
+            for (DetalleComanda detalle : comanda.getDetalleComandas()) {
+                detallesHistoricos.add(new DetalleComandaHistorico(detalle, historico));
+            }
+        }
+
+        comandaHistoricoRepository.saveAll(historicos);
+        detalleComandaHistoricoRepository.saveAll(detallesHistoricos);
+
+        detalleComandaRepository.eliminarPorIdsComanda(ids);
+        comandaRepository.eliminarPorIds(ids);
+        // Para las tablets las comandas archivadas dejan de existir
+        eliminacionRepository.saveAll(ids.stream().map(id -> new Eliminacion(Eliminacion.COMANDA, id)).toList());
+        return ids.size();
+    }
+
+    /**
+     * Obtener comandas archivadas por rango de fechas, reconstruidas con sus líneas
+     * Las comandas devueltas no están gestionadas por JPA y son de solo lectura
+     * @param fechaInicio fecha de inicio
+     * @param fechaFin fecha de fin
+     * @return Lista de comandas archivadas en ese rango
+     */
+    @Transactional(readOnly = true)
+    public List<Comanda> obtenerComandasArchivadasPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        List<ComandaHistorico> historicos = comandaHistoricoRepository.findByFechaBetween(fechaInicio, fechaFin);
+        if (historicos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, List<DetalleComandaHistorico>> detallesPorComanda = detalleComandaHistoricoRepository
+            .findByIdsComanda(historicos.stream().map(ComandaHistorico::getIdComanda).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.groupingBy(d -> d.getComanda().getIdComanda()));
+
+        List<Comanda> comandas = new ArrayList<>(historicos.size());
+        for (ComandaHistorico historico : historicos) {
+            Comanda comanda = historico.toComanda();
+            for (DetalleComandaHistorico detalle : detallesPorComanda.getOrDefault(historico.getIdComanda(), List.of())) {
+                comanda.getDetalleComandas().add(detalle.toDetalleComanda(comanda));
+            }
+            comandas.add(comanda);
+        }
+        return comandas;
+    }
+
+    /**
+     * Contar las comandas archivadas
+     * @return número de comandas en el histórico
+     */
+    @Transactional(readOnly = true)
+    public long contarComandasArchivadas() {
+        return comandaHistoricoRepository.count();
+    }
+}
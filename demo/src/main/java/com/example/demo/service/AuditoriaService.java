@@ -0,0 +1,63 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.RegistroAuditoriaDTO;
+import com.example.demo.mapper.AuditoriaMapper;
+import com.example.demo.repository.RegistroAuditoriaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de consulta del registro de auditoría
+ */
+@Service
+@Transactional(readOnly = true)
+public class AuditoriaService {
+
+    @Autowired
+    private RegistroAuditoriaRepository registroAuditoriaRepository;
+
+    @Autowired
+    private AuditoriaMapper auditoriaMapper;
+
+    @Value("${auditoria.consulta-maxima:200}")
+    private int tamanoMaximo = 200;
+
+    /**
+     * Buscar cambios auditados
+     * @param entidad nombre de la entidad (opcional)
+     * @param idEntidad ID del registro (opcional, requiere la entidad)
+     * @param usuario ID del usuario que hizo el cambio (opcional)
+     * @param desde fecha inicial incluida (opcional)
+     * @param hasta fecha final excluida (opcional)
+     * @param pagina número de página, desde 0
+     * @param tamano registros por página
+     * @return List<RegistroAuditoriaDTO> del más reciente al más antiguo
+     */
+    public List<RegistroAuditoriaDTO> buscar(String entidad, String idEntidad, String usuario,
+                                             LocalDateTime desde, LocalDateTime hasta, int pagina, int tamano) {
+        if (idEntidad != null && entidad == null) {
+            throw new IllegalArgumentException("Para filtrar por ID hay que indicar la entidad");
+        }
+        if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la final");
+        }
+        if (pagina < 0) {
+            throw new IllegalArgumentException("La página no puede ser negativa");
+        }
+        if (tamano < 1 || tamano > tamanoMaximo) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + tamanoMaximo);
+        }
+
+        return registroAuditoriaRepository.buscar(entidad, idEntidad, usuario, desde, hasta, PageRequest.of(pagina, tamano))
+            .stream()
+            .map(auditoriaMapper::toDTO)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.demo.service;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.dto.response.ProductoTopDTO;
+import com.example.demo.entity.Comanda;
+import com.example.demo.entity.Producto;
+import com.example.demo.repository.DetalleComandaRepository;
+import com.example.demo.repository.ProductoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de productos más vendidos (top-K) por ventana de tiempo
+ * Mantiene en memoria contadores de unidades por producto en cubetas de un minuto (última hora)
+ * y de una hora (hasta 30 días), que se cargan desde la base de datos al arrancar y se actualizan
+ * al confirmar cada alta o cambio de línea. Si los contadores están deshabilitados o no se
+ * pudieron cargar, la consulta se resuelve en la base de datos con LIMIT
+ * Los contadores son locales a cada instancia: con varios nodos debe usarse best-sellers.memoria.habilitado=false
+ */
+@Service
+public class BestSellerService {
+
+    /**
+     * Ventanas de tiempo soportadas
+     */
+    public enum Ventana {
+        HORA("1h"),
+        HOY("hoy"),
+        SIETE_DIAS("7d"),
+        TREINTA_DIAS("30d");
+
+        private final String codigo;
+
+        Ventana(String codigo) {
+            this.codigo = codigo;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        /**
+         * Obtener la ventana a partir de su código (1h, hoy, 7d, 30d)
+         * @param codigo código de la ventana
+         * @return ventana correspondiente
+         * @throws IllegalArgumentException si el código no es válido
+         */
+        public static Ventana desdeCodigo(String codigo) {
+            for (Ventana ventana : values()) {
+                if (ventana.codigo.equalsIgnoreCase(codigo)) {
+                    return ventana;
+                }
+            }
+            throw new IllegalArgumentException("Ventana no válida: " + codigo + ". Valores permitidos: 1h, hoy, 7d, 30d");
+        }
+    }
+
+    public static final int K_MAXIMO = 100;
+
+    private static final long SEGUNDOS_MINUTO = 60L;
+    private static final long SEGUNDOS_HORA = 3_600L;
+    private static final int DIAS_RETENIDOS = 30;
+
+    @Autowired
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Value("${best-sellers.memoria.habilitado:true}")
+    private boolean memoriaHabilitada = true;
+
+    private final Contadores porMinuto = new Contadores(SEGUNDOS_MINUTO, 60);
+    private final Contadores porHora = new Contadores(SEGUNDOS_HORA, DIAS_RETENIDOS * 24);
+
+    private volatile boolean cargado = false;
+
+    /**
+     * Cargar los contadores con las ventas de los últimos 30 días
+     * Si la carga falla, el top-K se sigue calculando con consultas
+     */
+    @PostConstruct
+    public void cargarContadores() {
+        if (!memoriaHabilitada) {
+            return;
+        }
+        try {
+            LocalDateTime desde = LocalDateTime.now().minusDays(DIAS_RETENIDOS);
+            List<Object[]> filas = detalleComandaRepository.findCantidadesPorProductoDesde(desde);
+            for (Object[] fila : filas) {
+                sumar((LocalDateTime) fila[1], (Integer) fila[0], ((Number) fila[2]).longValue());
+            }
+            cargado = true;
+            System.out.println("✅ Productos más vendidos - Contadores cargados con " + filas.size() + " registro(s)");
+        } catch (Exception e) {
+            System.out.println("⚠️ Productos más vendidos - No se pudieron cargar los contadores, se usará la base de datos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registrar unidades vendidas (o devueltas, si es negativo) de un producto
+     * Se cuenta cuando se confirma la línea, así una venta revertida nunca entra en el ranking. Como en la
+     * carga inicial y en la consulta a la base de datos, la venta cuenta en la fecha de su comanda
+     * @param comanda comanda de la línea
+     * @param idProducto ID del producto
+     * @param cantidad variación de unidades
+     */
+    public void registrarVenta(Comanda comanda, Integer idProducto, int cantidad) {
+        if (!memoriaHabilitada || cantidad == 0) {
+            return;
+        }
+        LocalDateTime fecha = comanda.getFecha() != null ? comanda.getFecha() : LocalDateTime.now();
+        TrasTransaccion.alConfirmar(() -> sumar(fecha, idProducto, cantidad));
+    }
+
+    /**
+     * Obtener los K productos más vendidos en una ventana de tiempo
+     * @param ventana ventana de tiempo
+     * @param k número de productos (1..100)
+     * @return Lista ordenada de mayor a menor cantidad vendida
+     */
+    public List<ProductoTopDTO> obtenerTop(Ventana ventana, int k) {
+        if (k < 1 || k > K_MAXIMO) {
+            throw new IllegalArgumentException("k debe estar entre 1 y " + K_MAXIMO);
+        }
+        if (!memoriaHabilitada || !cargado) {
+            return obtenerTopDesdeBaseDeDatos(ventana, k);
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Integer, Long> cantidades = new HashMap<>();
+        switch (ventana) {
+            case HORA:
+                porMinuto.acumular(porMinuto.clave(ahora) - 59, porMinuto.clave(ahora), cantidades);
+                break;
+            case HOY:
+                porHora.acumular(porHora.clave(LocalDate.now().atStartOfDay()), porHora.clave(ahora), cantidades);
+                break;
+            case SIETE_DIAS:
+                porHora.acumular(porHora.clave(ahora) - (7 * 24 - 1), porHora.clave(ahora), cantidades);
+                break;
+            default:
+                porHora.acumular(porHora.clave(ahora) - (DIAS_RETENIDOS * 24 - 1), porHora.clave(ahora), cantidades);
+        }
+
+        List<Map.Entry<Integer, Long>> top = seleccionarTop(cantidades, k);
+        Map<Integer, Producto> productos = productoRepository.findAllById(
+                top.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(Producto::getIdProducto, Function.identity()));
+
+        List<ProductoTopDTO> resultado = new ArrayList<>(top.size());
+        for (Map.Entry<Integer, Long> entrada : top) {
+            Producto producto = productos.get(entrada.getKey());
+            resultado.add(new ProductoTopDTO(entrada.getKey(), producto != null ? producto.getNombre() : null, entrada.getValue()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Resolver el top-K en la base de datos con LIMIT
+     */
+    private List<ProductoTopDTO> obtenerTopDesdeBaseDeDatos(Ventana ventana, int k) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime desde;
+        switch (ventana) {
+            case HORA:
+                desde = ahora.minusHours(1);
+                break;
+            case HOY:
+                desde = LocalDate.now().atStartOfDay();
+                break;
+            case SIETE_DIAS:
+                desde = ahora.minusDays(7);
+                break;
+            default:
+                desde = ahora.minusDays(DIAS_RETENIDOS);
+        }
+        return detalleComandaRepository.findProductosMasVendidosPorFecha(desde, ahora.plusMinutes(1), PageRequest.of(0, k))
+            .stream()
+            .map(fila -> new ProductoTopDTO((Integer) fila[0], (String) fila[1], ((Number) fila[3]).longValue()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Seleccionar las K entradas con mayor cantidad con un montículo de tamaño K
+     */
+    private List<Map.Entry<Integer, Long>> seleccionarTop(Map<Integer, Long> cantidades, int k) {
+        Comparator<Map.Entry<Integer, Long>> orden = Map.Entry.<Integer, Long>comparingByValue()
+            .thenComparing(Map.Entry.<Integer, Long>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Integer, Long>> monticulo = new PriorityQueue<>(k + 1, orden);
+        for (Map.Entry<Integer, Long> entrada : cantidades.entrySet()) {
+            if (entrada.getValue() <= 0) {
+                continue;
+            }
+            monticulo.offer(entrada);
+            if (monticulo.size() > k) {
+                monticulo.poll();
+            }
+        }
+        List<Map.Entry<Integer, Long>> top = new ArrayList<>(monticulo);
+        top.sort(orden.reversed());
+        return top;
+    }
+
+    private void sumar(LocalDateTime instante, Integer idProducto, long cantidad) {
+        porMinuto.sumar(instante, idProducto, cantidad);
+        porHora.sumar(instante, idProducto, cantidad);
+    }
+
+    /**
+     * Anillo de cubetas de duración fija; cada cubeta acumula unidades por producto
+     * Una cubeta se reemplaza cuando el anillo da la vuelta, descartando los datos más antiguos
+     */
+    private static final class Contadores {
+
+        private final long duracionSegundos;
+        private final AtomicReferenceArray<Cubeta> cubetas;
+
+        Contadores(long duracionSegundos, int numeroCubetas) {
+            this.duracionSegundos = duracionSegundos;
+            this.cubetas = new AtomicReferenceArray<>(numeroCubetas);
+        }
+
+        long clave(LocalDateTime instante) {
+            return Math.floorDiv(instante.toEpochSecond(ZoneOffset.UTC), duracionSegundos);
+        }
+
+        void sumar(LocalDateTime instante, Integer idProducto, long cantidad) {
+            long clave = clave(instante);
+            int indice = (int) Math.floorMod(clave, (long) cubetas.length());
+            Cubeta cubeta = cubetas.get(indice);
+            while (cubeta == null || cubeta.clave < clave) {
+                Cubeta nueva = new Cubeta(clave);
+                if (cubetas.compareAndSet(indice, cubeta, nueva)) {
+                    cubeta = nueva;
+                } else {
+                    cubeta = cubetas.get(indice);
+                }
+            }
+            // Instante anterior a lo que retiene el anillo
+            if (cubeta.clave != clave) {
+                return;
+            }
+            cubeta.cantidades.computeIfAbsent(idProducto, id -> new LongAdder()).add(cantidad);
+        }
+
+        void acumular(long desdeClave, long hastaClave, Map<Integer, Long> destino) {
+            for (int i = 0; i < cubetas.length(); i++) {
+                Cubeta cubeta = cubetas.get(i);
+                if (cubeta != null && cubeta.clave >= desdeClave && cubeta.clave <= hastaClave) {
+                    cubeta.cantidades.forEach((idProducto, cantidad) -> destino.merge(idProducto, cantidad.sum(), Long::sum));
+                }
+            }
+        }
+    }
+
+    private static final class Cubeta {
+
+        private final long clave;
+        private final ConcurrentHashMap<Integer, LongAdder> cantidades = new ConcurrentHashMap<>();
+
+        Cubeta(long clave) {
+            this.clave = clave;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.response.CategoriaDTO;
 import com.example.demo.entity.Categoria;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.repository.CategoriaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -8,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de categorías de productos
@@ -20,6 +23,9 @@ public class CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todas las categorías
      * @return Lista de todas las categorías
@@ -139,22 +145,26 @@ public class CategoriaService {
     }
     
     /**
-     * Buscar categorías que contengan el texto dado
-     * @param texto texto a buscar
-     * @return Lista de categorías que coinciden
+     * Listar todas las categorías ordenadas por nombre como DTO
+     * @return Lista de categorías ordenada alfabéticamente
      */
     @Transactional(readOnly = true)
-    public List<Categoria> buscarCategoriasPorTexto(String texto) {
-        return categoriaRepository.findByNombreContaining(texto);
+    public List<CategoriaDTO> listarCategoriasOrdenadas() {
+        return categoriaRepository.findAllCatalogo().stream()
+            .map(catalogoMapper::toCategoriaDTO)
+            .collect(Collectors.toList());
     }
     
     /**
-     * Obtener todas las categorías ordenadas por nombre
-     * @return Lista de categorías ordenada alfabéticamente
+     * Buscar categorías por texto como DTO
+     * @param texto texto a buscar
+     * @return Lista de categorías que coinciden
      */
     @Transactional(readOnly = true)
-    public List<Categoria> obtenerCategoriasOrdenadas() {
-        return categoriaRepository.findAllByOrderByNombreAsc();
+    public List<CategoriaDTO> listarCategoriasPorTexto(String texto) {
+        return categoriaRepository.findCatalogoByNombreContaining(texto).stream()
+            .map(catalogoMapper::toCategoriaDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -1,14 +1,26 @@
 package com.example.demo.service;
 
+import com.example.demo.concurrencia.ReintentarConflicto;
+import com.example.demo.dto.projection.ComandaResumen;
+import com.example.demo.dto.projection.DetalleComandaResumen;
+import com.example.demo.dto.response.ComandaResponseDTO;
 import com.example.demo.entity.*;
+import com.example.demo.mapper.ComandaMapper;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Servicio para la gestión de comandas
@@ -33,14 +45,35 @@ public class ComandaService {
     @Autowired
     private DetalleComandaRepository detalleComandaRepository;
     
-    /**
-     * Obtener todas las comandas
-     * @return Lista de todas las comandas
-     */
-    @Transactional(readOnly = true)
-    public List<Comanda> obtenerTodasLasComandas() {
-        return comandaRepository.findAll();
-    }
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private VentasDiariasService ventasDiariasService;
+    
+    @Autowired
+    private ComandaHistoricoRepository comandaHistoricoRepository;
+    
+    @Autowired
+    private DetalleComandaHistoricoRepository detalleComandaHistoricoRepository;
+    
+    @Autowired
+    private ComandaMapper comandaMapper;
+    
+    @Autowired
+    private EstacionesCocinaService estacionesCocinaService;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+    
+    @Autowired
+    private OcupacionMesasService ocupacionMesasService;
+    
+    // Máximo de IDs por consulta IN al cargar las líneas de un listado
+    private static final int LOTE_DETALLES = 1000;
     
     /**
      * Obtener comanda por ID
@@ -66,63 +99,127 @@ public class ComandaService {
     }
     
     /**
-     * Obtener comandas por mesero
+     * Listar todas las comandas como DTO
+     * Lee solo las columnas de la respuesta (proyección) y las líneas en una consulta por lote
+     * @return Lista de comandas
+     */
+    @Transactional(readOnly = true)
+    public List<ComandaResponseDTO> listarComandas() {
+        return armarComandas(comandaRepository.findAllResumen(), this::cargarDetalles);
+    }
+    
+    /**
+     * Listar las comandas de una mesa como DTO
+     * @param idMesa ID de la mesa
+     * @return Lista de comandas de esa mesa
+     */
+    @Transactional(readOnly = true)
+    public List<ComandaResponseDTO> listarComandasPorMesa(Integer idMesa) {
+        if (!mesaRepository.existsById(idMesa)) {
+            throw new IllegalArgumentException("Mesa no encontrada con ID: " + idMesa);
+        }
+        return armarComandas(comandaRepository.findResumenByMesaId(idMesa), this::cargarDetalles);
+    }
+    
+    /**
+     * Listar las comandas de un mesero como DTO
      * @param idMesero ID del mesero
      * @return Lista de comandas del mesero
      */
     @Transactional(readOnly = true)
-    public List<Comanda> obtenerComandasPorMesero(String idMesero) {
-        Usuario mesero = usuarioRepository.findById(idMesero)
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + idMesero));
-        
-        return comandaRepository.findByMesero(mesero);
+    public List<ComandaResponseDTO> listarComandasPorMesero(String idMesero) {
+        if (!usuarioRepository.existsById(idMesero)) {
+            throw new IllegalArgumentException("Usuario no encontrado con ID: " + idMesero);
+        }
+        return armarComandas(comandaRepository.findResumenByMeseroId(idMesero), this::cargarDetalles);
     }
     
     /**
-     * Obtener comandas por cocinero
+     * Listar las comandas de un cocinero como DTO
      * @param idCocinero ID del cocinero
      * @return Lista de comandas del cocinero
      */
     @Transactional(readOnly = true)
-    public List<Comanda> obtenerComandasPorCocinero(String idCocinero) {
-        Usuario cocinero = usuarioRepository.findById(idCocinero)
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + idCocinero));
-        
-        return comandaRepository.findByCocinero(cocinero);
+    public List<ComandaResponseDTO> listarComandasPorCocinero(String idCocinero) {
+        if (!usuarioRepository.existsById(idCocinero)) {
+            throw new IllegalArgumentException("Usuario no encontrado con ID: " + idCocinero);
+        }
+        return armarComandas(comandaRepository.findResumenByCocineroId(idCocinero), this::cargarDetalles);
     }
     
     /**
-     * Obtener comandas por estado
+     * Listar las comandas de un estado como DTO
      * @param idEstado ID del estado
      * @return Lista de comandas con ese estado
      */
     @Transactional(readOnly = true)
-    public List<Comanda> obtenerComandasPorEstado(Integer idEstado) {
-        Estado estado = estadoRepository.findById(idEstado)
-            .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
-        
-        return comandaRepository.findByEstado(estado);
+    public List<ComandaResponseDTO> listarComandasPorEstado(Integer idEstado) {
+        if (!estadoRepository.existsById(idEstado)) {
+            throw new IllegalArgumentException("Estado no encontrado con ID: " + idEstado);
+        }
+        return armarComandas(comandaRepository.findResumenByEstadoId(idEstado), this::cargarDetalles);
     }
     
     /**
-     * Obtener comandas pendientes
+     * Listar las comandas pendientes como DTO
      * @return Lista de comandas pendientes
      */
     @Transactional(readOnly = true)
-    public List<Comanda> obtenerComandasPendientes() {
+    public List<ComandaResponseDTO> listarComandasPendientes() {
         Estado estadoPendiente = estadoRepository.findByNombre("PENDIENTE")
             .orElseThrow(() -> new IllegalArgumentException("Estado 'PENDIENTE' no encontrado"));
         
-        return comandaRepository.findByEstado(estadoPendiente);
+        return armarComandas(comandaRepository.findResumenByEstadoId(estadoPendiente.getIdEstado()), this::cargarDetalles);
     }
     
     /**
-     * Obtener comandas en preparación
+     * Listar las comandas en preparación como DTO
      * @return Lista de comandas en preparación
      */
     @Transactional(readOnly = true)
-    public List<Comanda> obtenerComandasEnPreparacion() {
-        // Buscar estado "En Preparacion" - intentar diferentes variaciones
+    public List<ComandaResponseDTO> listarComandasEnPreparacion() {
+        Estado estadoPreparacion = buscarEstadoPreparacion();
+        return armarComandas(comandaRepository.findResumenByEstadoId(estadoPreparacion.getIdEstado()), this::cargarDetalles);
+    }
+    
+    /**
+     * Listar las comandas de un rango de fechas como DTO, incluidas las archivadas en el histórico
+     * @param fechaInicio fecha de inicio
+     * @param fechaFin fecha de fin
+     * @return Lista de comandas en ese rango
+     */
+    @Transactional(readOnly = true)
+    public List<ComandaResponseDTO> listarComandasPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        
+        List<ComandaResponseDTO> comandas = armarComandas(
+            comandaRepository.findResumenByRangoFechas(fechaInicio, fechaFin), this::cargarDetalles);
+        comandas.addAll(armarComandas(
+            comandaHistoricoRepository.findResumenByRangoFechas(fechaInicio, fechaFin), this::cargarDetallesArchivados));
+        return comandas;
+    }
+    
+    /**
+     * Listar varias comandas por ID como DTO (las que no existen se omiten)
+     * @param ids IDs de las comandas
+     * @return Lista de comandas
+     */
+    @Transactional(readOnly = true)
+    public List<ComandaResponseDTO> listarComandasPorIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return armarComandas(comandaRepository.findResumenByIds(ids), this::cargarDetalles);
+    }
+    
+    /**
+     * Buscar el estado "En Preparacion" probando las variantes de nombre usadas en la base de datos
+     * @return Estado de preparación
+     * @throws IllegalArgumentException si no existe ninguna variante
+     */
+    private Estado buscarEstadoPreparacion() {
         Estado estadoPreparacion = estadoRepository.findByNombre("En Preparacion")
             .orElse(estadoRepository.findByNombre("EN PREPARACION")
                 .orElse(estadoRepository.findByNombre("PREPARACION")
@@ -130,7 +227,45 @@ public class ComandaService {
                         .orElseThrow(() -> new IllegalArgumentException("Estado 'En Preparacion' no encontrado. Verifica que exista en la base de datos.")))));
         
         System.out.println("✅ Estado 'En Preparacion' encontrado: " + estadoPreparacion.getNombre() + " (ID: " + estadoPreparacion.getIdEstado() + ")");
-        return comandaRepository.findByEstado(estadoPreparacion);
+        return estadoPreparacion;
+    }
+    
+    /**
+     * Combinar las proyecciones de comanda con sus líneas, cargadas por lotes de IDs
+     * @param comandas proyecciones en el orden de la respuesta
+     * @param cargarDetalles consulta de líneas por IDs de comanda
+     * @return Lista de DTOs en el mismo orden
+     */
+    private List<ComandaResponseDTO> armarComandas(List<ComandaResumen> comandas,
+                                                   Function<Collection<Integer>, List<DetalleComandaResumen>> cargarDetalles) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (ComandaResumen comanda : comandas) {
+            ids.add(comanda.getIdComanda());
+        }
+        
+        Map<Integer, List<DetalleComandaResumen>> detallesPorComanda = new HashMap<>();
+        List<Integer> pendientes = new ArrayList<>(ids);
+        for (int desde = 0; desde < pendientes.size(); desde += LOTE_DETALLES) {
+            List<Integer> lote = pendientes.subList(desde, Math.min(desde + LOTE_DETALLES, pendientes.size()));
+            for (DetalleComandaResumen detalle : cargarDetalles.apply(lote)) {
+                detallesPorComanda.computeIfAbsent(detalle.getIdComanda(), id -> new ArrayList<>()).add(detalle);
+            }
+        }
+        
+        List<ComandaResponseDTO> resultado = new ArrayList<>(comandas.size());
+        for (ComandaResumen comanda : comandas) {
+            resultado.add(comandaMapper.toResponseDTO(comanda,
+                detallesPorComanda.getOrDefault(comanda.getIdComanda(), List.of())));
+        }
+        return resultado;
+    }
+    
+    private List<DetalleComandaResumen> cargarDetalles(Collection<Integer> idsComanda) {
+        return detalleComandaRepository.findResumenByIdsComanda(idsComanda);
+    }
+    
+    private List<DetalleComandaResumen> cargarDetallesArchivados(Collection<Integer> idsComanda) {
+        return detalleComandaHistoricoRepository.findResumenByIdsComanda(idsComanda);
     }
     
     /**
@@ -139,6 +274,7 @@ public class ComandaService {
      * @return Comanda creada
      * @throws IllegalArgumentException si los datos son inválidos
      */
+    @ReintentarConflicto
     public Comanda crearComanda(Comanda comanda) {
         System.out.println("🔍 crearComanda - Iniciando creación de comanda");
         System.out.println("🔍 Comanda recibida - Mesa: " + (comanda.getMesa() != null ? comanda.getMesa().getIdMesa() : "null"));
@@ -164,7 +300,13 @@ public class ComandaService {
             System.out.println("❌ Error al validar mesa: " + e.getMessage());
             throw e;
         }
-        
+
+        // Si la comanda ocupa una mesa libre, que no choque con una reserva próxima
+        String estadoMesa = mesa.getEstado() != null ? mesa.getEstado().getNombre() : null;
+        if (!"Ocupado".equalsIgnoreCase(estadoMesa) && !"Ocupada".equalsIgnoreCase(estadoMesa)) {
+            reservaService.validarOcupacion(mesa.getIdMesa(), LocalDateTime.now());
+        }
+
         // Validar que el mesero exista
         Usuario mesero = null;
         try {
@@ -218,6 +360,8 @@ public class ComandaService {
         try {
             Comanda comandaGuardada = comandaRepository.save(comanda);
             System.out.println("✅ Comanda guardada exitosamente con ID: " + comandaGuardada.getIdComanda());
+            outboxService.comandaCreada(comandaGuardada);
+            ventasDiariasService.sincronizarComanda(comandaGuardada);
             
             // Cambiar automáticamente la mesa a "Ocupada" si no lo está ya
             try {
@@ -239,6 +383,7 @@ public class ComandaService {
                 } else {
                     System.out.println("ℹ️ Mesa ya está en estado 'Ocupado', no se cambia");
                 }
+                ocupacionMesasService.comandaCreada(mesa);
             } catch (Exception e) {
                 System.out.println("⚠️ Error al cambiar estado de la mesa automáticamente: " + e.getMessage());
                 // No lanzamos la excepción, solo registramos el error
@@ -260,6 +405,7 @@ public class ComandaService {
      * @return Comanda actualizada
      * @throws IllegalArgumentException si la comanda no existe o hay conflictos
      */
+    @ReintentarConflicto
     public Comanda actualizarComanda(Integer id, Comanda comanda) {
         Comanda comandaExistente = comandaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + id));
@@ -286,6 +432,8 @@ public class ComandaService {
         Estado estado = estadoRepository.findById(comanda.getEstado().getIdEstado())
             .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + comanda.getEstado().getIdEstado()));
         
+        Estado estadoAnterior = comandaExistente.getEstado();
+        
         // Actualizar datos
         comandaExistente.setMesa(mesa);
         comandaExistente.setMesero(mesero);
@@ -293,7 +441,12 @@ public class ComandaService {
         comandaExistente.setEstado(estado);
         comandaExistente.setFecha(comanda.getFecha());
         
-        return comandaRepository.save(comandaExistente);
+        Comanda comandaActualizada = comandaRepository.save(comandaExistente);
+        if (estadoAnterior == null || !estadoAnterior.getIdEstado().equals(estado.getIdEstado())) {
+            outboxService.estadoCambiado(comandaActualizada, estadoAnterior);
+        }
+        ventasDiariasService.sincronizarComanda(comandaActualizada);
+        return comandaActualizada;
     }
     
     /**
@@ -305,12 +458,17 @@ public class ComandaService {
         Comanda comanda = comandaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + id));
         
+        // Restar de los acumulados de ventas si ya estaba contabilizada
+        ventasDiariasService.retirarComanda(comanda);
+        
         // Eliminar detalles de comanda primero
         List<DetalleComanda> detalles = detalleComandaRepository.findByComanda(comanda);
         detalleComandaRepository.deleteAll(detalles);
         
-        // Eliminar la comanda
+        // Eliminar la comanda (las tablets borran sus líneas con ella)
         comandaRepository.delete(comanda);
+        eliminacionRepository.save(new Eliminacion(Eliminacion.COMANDA, id));
+        estacionesCocinaService.retirarComanda(id);
     }
     
     /**
@@ -319,6 +477,7 @@ public class ComandaService {
      * @param idEstado ID del nuevo estado
      * @return Comanda actualizada
      */
+    @ReintentarConflicto
     public Comanda cambiarEstadoComanda(Integer idComanda, Integer idEstado) {
         Comanda comanda = comandaRepository.findById(idComanda)
             .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + idComanda));
@@ -326,9 +485,22 @@ public class ComandaService {
         Estado nuevoEstado = estadoRepository.findById(idEstado)
             .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
         
+        Estado estadoAnterior = comanda.getEstado();
         comanda.setEstado(nuevoEstado);
         
-        return comandaRepository.save(comanda);
+        Comanda comandaActualizada = comandaRepository.save(comanda);
+        if (estadoAnterior == null || !estadoAnterior.getIdEstado().equals(nuevoEstado.getIdEstado())) {
+            outboxService.estadoCambiado(comandaActualizada, estadoAnterior);
+        }
+        ventasDiariasService.sincronizarComanda(comandaActualizada);
+        
+        // Una comanda cerrada sale de las estaciones de cocina; si se reabre, sus líneas abiertas vuelven
+        if (nuevoEstado.esCompletado() || nuevoEstado.esCancelado()) {
+            estacionesCocinaService.retirarComanda(idComanda);
+        } else if (estadoAnterior != null && (estadoAnterior.esCompletado() || estadoAnterior.esCancelado())) {
+            detalleComandaRepository.findByComandaId(idComanda).forEach(estacionesCocinaService::registrarLinea);
+        }
+        return comandaActualizada;
     }
     
     /**
@@ -337,6 +509,7 @@ public class ComandaService {
      * @param idCocinero ID del cocinero
      * @return Comanda actualizada
      */
+    @ReintentarConflicto
     public Comanda asignarCocinero(Integer idComanda, String idCocinero) {
         Comanda comanda = comandaRepository.findById(idComanda)
             .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + idComanda));
@@ -354,6 +527,7 @@ public class ComandaService {
      * @param id ID de la comanda
      * @return Comanda actualizada
      */
+    @ReintentarConflicto
     public Comanda marcarComandaComoPendiente(Integer id) {
         // Buscar estado "Pendiente" - intentar diferentes variaciones
         Estado estadoPendiente = estadoRepository.findByNombre("Pendiente")
@@ -371,6 +545,7 @@ public class ComandaService {
      * @param idCocinero ID del cocinero
      * @return Comanda actualizada
      */
+    @ReintentarConflicto
     public Comanda marcarComandaComoEnPreparacion(Integer id, String idCocinero) {
         System.out.println("🔍 marcarComandaComoEnPreparacion - idComanda: " + id + ", idCocinero: " + idCocinero);
         
@@ -400,6 +575,7 @@ public class ComandaService {
      * @param id ID de la comanda
      * @return Comanda actualizada
      */
+    @ReintentarConflicto
     public Comanda marcarComandaComoCompletada(Integer id) {
         // Buscar estado "Completado" - intentar diferentes variaciones
         Estado estadoCompletada = estadoRepository.findByNombre("Completado")
@@ -416,6 +592,7 @@ public class ComandaService {
      * @param id ID de la comanda
      * @return Comanda actualizada
      */
+    @ReintentarConflicto
     public Comanda marcarComandaComoCancelada(Integer id) {
         // Buscar estado "Cancelado" - intentar diferentes variaciones
         Estado estadoCancelada = estadoRepository.findByNombre("Cancelado")
@@ -427,21 +604,6 @@ public class ComandaService {
         return cambiarEstadoComanda(id, estadoCancelada.getIdEstado());
     }
     
-    /**
-     * Obtener comandas por rango de fechas
-     * @param fechaInicio fecha de inicio
-     * @param fechaFin fecha de fin
-     * @return Lista de comandas en ese rango
-     */
-    @Transactional(readOnly = true)
-    public List<Comanda> obtenerComandasPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        if (fechaInicio.isAfter(fechaFin)) {
-            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
-        }
-        
-        return comandaRepository.findByFechaBetween(fechaInicio, fechaFin);
-    }
-    
     /**
      * Contar el total de comandas
      * @return número total de comandas
@@ -466,16 +628,15 @@ public class ComandaService {
     
     /**
      * Obtener total de ventas por rango de fechas
+     * Solo cuentan las comandas completadas o pagadas (no canceladas); los días cerrados
+     * se leen de los acumulados de restaurante_ventas_diarias
      * @param fechaInicio fecha de inicio
      * @param fechaFin fecha de fin
      * @return total de ventas
      */
     @Transactional(readOnly = true)
     public Double obtenerTotalVentasPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        List<Comanda> comandas = obtenerComandasPorRangoFechas(fechaInicio, fechaFin);
-        return comandas.stream()
-                .mapToDouble(Comanda::calcularTotal)
-                .sum();
+        return ventasDiariasService.obtenerTotalVentas(fechaInicio, fechaFin).doubleValue();
     }
     
     /**
@@ -509,6 +670,7 @@ public class ComandaService {
      * @return Número de comandas finalizadas
      */
     @Transactional
+    @ReintentarConflicto
     public int finalizarTodasComandasMesa(Integer idMesa) {
         Mesa mesa = mesaRepository.findById(idMesa)
             .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + idMesa));
@@ -536,8 +698,12 @@ public class ComandaService {
         // Marcar todas como completadas
         int contador = 0;
         for (Comanda comanda : comandasAFinalizar) {
+            Estado estadoAnterior = comanda.getEstado();
             comanda.setEstado(estadoCompletado);
             comandaRepository.save(comanda);
+            outboxService.estadoCambiado(comanda, estadoAnterior);
+            ventasDiariasService.sincronizarComanda(comanda);
+            estacionesCocinaService.retirarComanda(comanda.getIdComanda());
             contador++;
         }
         
@@ -634,13 +800,23 @@ public class ComandaService {
      * @return Comanda actualizada
      */
     @Transactional
+    @ReintentarConflicto
     public Comanda marcarComandaComoPagada(Integer idComanda) {
         Comanda comanda = comandaRepository.findById(idComanda)
             .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + idComanda));
         
+        if (comanda.estaPagada()) {
+            return comanda;
+        }
+        
         comanda.setPagada(true);
         System.out.println("✅ Comanda " + idComanda + " marcada como pagada");
-        return comandaRepository.save(comanda);
+        Comanda comandaPagada = comandaRepository.save(comanda);
+        outboxService.comandaPagada(comandaPagada);
+        ventasDiariasService.sincronizarComanda(comandaPagada);
+        ocupacionMesasService.cuentaCobrada(comandaPagada.getMesa().getIdMesa(),
+            detalleComandaRepository.sumarSubtotalPorComanda(idComanda));
+        return comandaPagada;
     }
     
     /**
@@ -649,6 +825,7 @@ public class ComandaService {
      * @return Número de comandas marcadas como pagadas
      */
     @Transactional
+    @ReintentarConflicto
     public int marcarTodasComandasPagadas(Integer idMesa) {
         Mesa mesa = mesaRepository.findById(idMesa)
             .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + idMesa));
@@ -669,6 +846,9 @@ public class ComandaService {
         for (Comanda comanda : comandasAPagar) {
             comanda.setPagada(true);
             comandaRepository.save(comanda);
+            outboxService.comandaPagada(comanda);
+            ventasDiariasService.sincronizarComanda(comanda);
+            ocupacionMesasService.cuentaCobrada(idMesa, detalleComandaRepository.sumarSubtotalPorComanda(comanda.getIdComanda()));
             contador++;
         }
         
@@ -701,6 +881,7 @@ public class ComandaService {
      * @param idMesero ID del mesero
      * @return Comanda creada
      */
+    @ReintentarConflicto
     public Comanda crearComandaConDatos(Integer idMesa, String idMesero) {
         System.out.println("🔍 crearComandaConDatos - idMesa: " + idMesa + ", idMesero: " + idMesero);
         
@@ -1,14 +1,21 @@
 package com.example.demo.service;
 
+import com.example.demo.concurrencia.ReintentarConflicto;
+import com.example.demo.dto.response.DetalleComandaDTO;
 import com.example.demo.entity.*;
+import com.example.demo.mapper.ComandaMapper;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de detalles de comanda
@@ -30,13 +37,42 @@ public class DetalleComandaService {
     @Autowired
     private EstadoRepository estadoRepository;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private VentasDiariasService ventasDiariasService;
+    
+    @Autowired
+    private BestSellerService bestSellerService;
+    
+    @Autowired
+    private ComandaMapper comandaMapper;
+    
+    @Autowired
+    private EstacionesCocinaService estacionesCocinaService;
+    
+    @Autowired
+    private ComandaService comandaService;
+    
+    @Autowired
+    private AlertasStockService alertasStockService;
+    
+    @Autowired
+    private PronosticoConsumoService pronosticoConsumoService;
+    
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+    
     /**
-     * Obtener todos los detalles de comanda
+     * Listar todos los detalles de comanda
      * @return Lista de todos los detalles
      */
     @Transactional(readOnly = true)
-    public List<DetalleComanda> obtenerTodosLosDetalles() {
-        return detalleComandaRepository.findAll();
+    public List<DetalleComandaDTO> listarDetalles() {
+        return detalleComandaRepository.findAllResumen().stream()
+            .map(comandaMapper::toDetalleComandaDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -55,11 +91,14 @@ public class DetalleComandaService {
      * @return Lista de detalles de esa comanda
      */
     @Transactional(readOnly = true)
-    public List<DetalleComanda> obtenerDetallesPorComanda(Integer idComanda) {
-        Comanda comanda = comandaRepository.findById(idComanda)
-            .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + idComanda));
+    public List<DetalleComandaDTO> listarDetallesPorComanda(Integer idComanda) {
+        if (!comandaRepository.existsById(idComanda)) {
+            throw new IllegalArgumentException("Comanda no encontrada con ID: " + idComanda);
+        }
         
-        return detalleComandaRepository.findByComanda(comanda);
+        return detalleComandaRepository.findResumenByIdsComanda(List.of(idComanda)).stream()
+            .map(comandaMapper::toDetalleComandaDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -68,11 +107,14 @@ public class DetalleComandaService {
      * @return Lista de detalles de ese producto
      */
     @Transactional(readOnly = true)
-    public List<DetalleComanda> obtenerDetallesPorProducto(Integer idProducto) {
-        Producto producto = productoRepository.findById(idProducto)
-            .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + idProducto));
+    public List<DetalleComandaDTO> listarDetallesPorProducto(Integer idProducto) {
+        if (!productoRepository.existsById(idProducto)) {
+            throw new IllegalArgumentException("Producto no encontrado con ID: " + idProducto);
+        }
         
-        return detalleComandaRepository.findByProducto(producto);
+        return detalleComandaRepository.findResumenByProductoId(idProducto).stream()
+            .map(comandaMapper::toDetalleComandaDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -81,6 +123,7 @@ public class DetalleComandaService {
      * @return DetalleComanda creado
      * @throws IllegalArgumentException si los datos son inválidos
      */
+    @ReintentarConflicto
     public DetalleComanda crearDetalle(DetalleComanda detalle) {
         // Validaciones básicas
         validarDatosDetalle(detalle);
@@ -116,16 +159,25 @@ public class DetalleComandaService {
             // Si ya existe, actualizar la cantidad
             DetalleComanda existente = detalleExistente.get();
             int nuevaCantidad = existente.getCantidad() + detalle.getCantidad();
-            
-            // Validar stock total
-            if (producto.getStock() < nuevaCantidad) {
-                throw new IllegalArgumentException("No hay stock suficiente para la cantidad total. Stock disponible: " + producto.getStock());
-            }
+            BigDecimal subtotalAnterior = existente.getSubtotal();
             
             existente.setCantidad(nuevaCantidad);
             existente.calcularSubtotal();
+            ventasDiariasService.ajustarLinea(comanda, producto, detalle.getCantidad(),
+                existente.getSubtotal().subtract(subtotalAnterior));
             
-            return detalleComandaRepository.save(existente);
+            // La cantidad previa ya descontó su stock; solo se descuentan las unidades nuevas
+            producto.setStock(producto.getStock() - detalle.getCantidad());
+            productoRepository.save(producto);
+            
+            DetalleComanda detalleActualizado = detalleComandaRepository.save(existente);
+            estacionesCocinaService.registrarLinea(detalleActualizado);
+            outboxService.lineaAgregada(detalleActualizado, detalle.getCantidad());
+            bestSellerService.registrarVenta(comanda, producto.getIdProducto(), detalle.getCantidad());
+            pronosticoConsumoService.registrarConsumo(producto.getIdProducto(), detalle.getCantidad());
+            outboxService.stockAjustado(producto, -detalle.getCantidad(), "LINEA_AGREGADA");
+            alertasStockService.registrarStock(producto);
+            return detalleActualizado;
         }
         
         // Calcular subtotal
@@ -139,7 +191,15 @@ public class DetalleComandaService {
         producto.setStock(producto.getStock() - detalle.getCantidad());
         productoRepository.save(producto);
         
-        return detalleComandaRepository.save(detalle);
+        DetalleComanda detalleCreado = detalleComandaRepository.save(detalle);
+        estacionesCocinaService.registrarLinea(detalleCreado);
+        ventasDiariasService.ajustarLinea(comanda, producto, detalleCreado.getCantidad(), detalleCreado.getSubtotal());
+        outboxService.lineaAgregada(detalleCreado, detalleCreado.getCantidad());
+        bestSellerService.registrarVenta(comanda, producto.getIdProducto(), detalleCreado.getCantidad());
+        pronosticoConsumoService.registrarConsumo(producto.getIdProducto(), detalleCreado.getCantidad());
+        outboxService.stockAjustado(producto, -detalleCreado.getCantidad(), "LINEA_AGREGADA");
+        alertasStockService.registrarStock(producto);
+        return detalleCreado;
     }
     
     /**
@@ -149,6 +209,7 @@ public class DetalleComandaService {
      * @return DetalleComanda actualizado
      * @throws IllegalArgumentException si el detalle no existe o hay conflictos
      */
+    @ReintentarConflicto
     public DetalleComanda actualizarDetalle(Integer id, DetalleComanda detalle) {
         DetalleComanda detalleExistente = detalleComandaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Detalle no encontrado con ID: " + id));
@@ -180,6 +241,16 @@ public class DetalleComandaService {
         // Actualizar stock del producto
         producto.setStock(producto.getStock() - diferenciaCantidad);
         productoRepository.save(producto);
+        outboxService.stockAjustado(producto, -diferenciaCantidad, "LINEA_ACTUALIZADA");
+        alertasStockService.registrarStock(producto);
+        
+        // La línea puede cambiar de comanda o producto: se resta la versión anterior y se suma la nueva
+        ventasDiariasService.ajustarLinea(detalleExistente.getComanda(), detalleExistente.getProducto(),
+            -detalleExistente.getCantidad(), detalleExistente.getSubtotal().negate());
+        bestSellerService.registrarVenta(detalleExistente.getComanda(), detalleExistente.getProducto().getIdProducto(), -detalleExistente.getCantidad());
+        pronosticoConsumoService.registrarConsumo(detalleExistente.getProducto().getIdProducto(), -detalleExistente.getCantidad());
+        bestSellerService.registrarVenta(comanda, producto.getIdProducto(), detalle.getCantidad());
+        pronosticoConsumoService.registrarConsumo(producto.getIdProducto(), detalle.getCantidad());
         
         // Actualizar datos del detalle
         detalleExistente.setCantidad(detalle.getCantidad());
@@ -187,7 +258,10 @@ public class DetalleComandaService {
         detalleExistente.setProducto(producto);
         detalleExistente.calcularSubtotal();
         
-        return detalleComandaRepository.save(detalleExistente);
+        ventasDiariasService.ajustarLinea(comanda, producto, detalleExistente.getCantidad(), detalleExistente.getSubtotal());
+        DetalleComanda detalleActualizado = detalleComandaRepository.save(detalleExistente);
+        estacionesCocinaService.registrarLinea(detalleActualizado);
+        return detalleActualizado;
     }
     
     /**
@@ -195,6 +269,7 @@ public class DetalleComandaService {
      * @param id ID del detalle a eliminar
      * @throws IllegalArgumentException si el detalle no existe
      */
+    @ReintentarConflicto
     public void eliminarDetalle(Integer id) {
         DetalleComanda detalle = detalleComandaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Detalle no encontrado con ID: " + id));
@@ -203,9 +278,16 @@ public class DetalleComandaService {
         Producto producto = detalle.getProducto();
         producto.setStock(producto.getStock() + detalle.getCantidad());
         productoRepository.save(producto);
+        outboxService.stockAjustado(producto, detalle.getCantidad(), "LINEA_ELIMINADA");
+        alertasStockService.registrarStock(producto);
+        ventasDiariasService.ajustarLinea(detalle.getComanda(), producto, -detalle.getCantidad(), detalle.getSubtotal().negate());
+        bestSellerService.registrarVenta(detalle.getComanda(), producto.getIdProducto(), -detalle.getCantidad());
+        pronosticoConsumoService.registrarConsumo(producto.getIdProducto(), -detalle.getCantidad());
         
         // Eliminar el detalle
         detalleComandaRepository.delete(detalle);
+        eliminacionRepository.save(new Eliminacion(Eliminacion.DETALLE_COMANDA, id));
+        estacionesCocinaService.retirarLineas(List.of(id), false);
     }
     
     /**
@@ -214,6 +296,7 @@ public class DetalleComandaService {
      * @param nuevaCantidad nueva cantidad
      * @return DetalleComanda actualizado
      */
+    @ReintentarConflicto
     public DetalleComanda actualizarCantidad(Integer id, Integer nuevaCantidad) {
         DetalleComanda detalle = detalleComandaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Detalle no encontrado con ID: " + id));
@@ -233,12 +316,21 @@ public class DetalleComandaService {
         // Actualizar stock del producto
         producto.setStock(producto.getStock() - diferenciaCantidad);
         productoRepository.save(producto);
+        outboxService.stockAjustado(producto, -diferenciaCantidad, "LINEA_ACTUALIZADA");
+        alertasStockService.registrarStock(producto);
         
         // Actualizar cantidad del detalle
+        BigDecimal subtotalAnterior = detalle.getSubtotal();
         detalle.setCantidad(nuevaCantidad);
         detalle.calcularSubtotal();
-        
-        return detalleComandaRepository.save(detalle);
+        ventasDiariasService.ajustarLinea(detalle.getComanda(), producto, diferenciaCantidad,
+            detalle.getSubtotal().subtract(subtotalAnterior));
+        bestSellerService.registrarVenta(detalle.getComanda(), producto.getIdProducto(), diferenciaCantidad);
+        pronosticoConsumoService.registrarConsumo(producto.getIdProducto(), diferenciaCantidad);
+        
+        DetalleComanda detalleActualizado = detalleComandaRepository.save(detalle);
+        estacionesCocinaService.registrarLinea(detalleActualizado);
+        return detalleActualizado;
     }
     
     /**
@@ -316,11 +408,14 @@ public class DetalleComandaService {
     /**
      * Obtener productos más vendidos
      * @param limite número máximo de productos a retornar
-     * @return Lista de productos con sus cantidades vendidas
+     * @return Lista de [idProducto, nombre, precio, cantidadTotal]
      */
     @Transactional(readOnly = true)
     public List<Object[]> obtenerProductosMasVendidos(Integer limite) {
-        return detalleComandaRepository.findProductosMasVendidos(limite);
+        if (limite == null || limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0");
+        }
+        return detalleComandaRepository.findProductosMasVendidos(PageRequest.of(0, limite));
     }
     
     /**
@@ -329,11 +424,14 @@ public class DetalleComandaService {
      * @return Lista de detalles con ese estado
      */
     @Transactional(readOnly = true)
-    public List<DetalleComanda> obtenerDetallesPorEstado(Integer idEstado) {
-        Estado estado = estadoRepository.findById(idEstado)
-            .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
+    public List<DetalleComandaDTO> listarDetallesPorEstado(Integer idEstado) {
+        if (!estadoRepository.existsById(idEstado)) {
+            throw new IllegalArgumentException("Estado no encontrado con ID: " + idEstado);
+        }
         
-        return detalleComandaRepository.findByEstado(estado);
+        return detalleComandaRepository.findResumenByEstadoId(idEstado).stream()
+            .map(comandaMapper::toDetalleComandaDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -344,6 +442,7 @@ public class DetalleComandaService {
      * @param precioUnitario precio unitario del producto
      * @return DetalleComanda creado
      */
+    @ReintentarConflicto
     public DetalleComanda crearDetalleConDatos(Integer idComanda, Integer idProducto, Integer cantidad, BigDecimal precioUnitario) {
         Comanda comanda = comandaRepository.findById(idComanda)
             .orElseThrow(() -> new IllegalArgumentException("Comanda no encontrada con ID: " + idComanda));
@@ -371,6 +470,7 @@ public class DetalleComandaService {
      * @param idEstado ID del nuevo estado
      * @return DetalleComanda actualizado
      */
+    @ReintentarConflicto
     public DetalleComanda cambiarEstadoDetalle(Integer id, Integer idEstado) {
         DetalleComanda detalle = detalleComandaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Detalle no encontrado con ID: " + id));
@@ -379,7 +479,10 @@ public class DetalleComandaService {
             .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
         
         detalle.setEstado(estado);
-        return detalleComandaRepository.save(detalle);
+        DetalleComanda detalleActualizado = detalleComandaRepository.save(detalle);
+        estacionesCocinaService.registrarLinea(detalleActualizado);
+        completarComandaSiTerminada(detalleActualizado.getComanda());
+        return detalleActualizado;
     }
     
     /**
@@ -416,13 +519,53 @@ public class DetalleComandaService {
      * @return DetalleComanda actualizado
      */
     public DetalleComanda marcarDetalleComoCompletado(Integer id) {
-        // Buscar estado "Completado" - intentar diferentes variaciones
-        Estado estadoCompletado = estadoRepository.findByNombre("Completado")
-            .orElse(estadoRepository.findByNombre("COMPLETADO")
-                .orElse(estadoRepository.findByNombre("completado")
-                    .orElseThrow(() -> new IllegalArgumentException("Estado 'Completado' no encontrado. Verifica que exista en la base de datos."))));
+        return cambiarEstadoDetalle(id, buscarEstadoCompletado().getIdEstado());
+    }
+    
+    /**
+     * Completar varias líneas de una estación de cocina
+     * Las líneas que ya estaban completadas o canceladas se ignoran; las comandas que quedan sin líneas
+     * abiertas pasan a completadas
+     * @param estacion nombre de la estación
+     * @param idsDetalle IDs de las líneas
+     * @return IDs de las comandas completadas al terminar sus líneas
+     * @throws IllegalArgumentException si la estación o alguna línea no existen, o una línea es de otra estación
+     */
+    @ReintentarConflicto
+    public List<Integer> completarLineasEstacion(String estacion, List<Integer> idsDetalle) {
+        estacionesCocinaService.validarEstacion(estacion);
+        
+        List<Integer> ids = idsDetalle.stream().distinct().collect(Collectors.toList());
+        List<DetalleComanda> detalles = detalleComandaRepository.findAllById(ids);
+        if (detalles.size() != ids.size()) {
+            List<Integer> encontrados = detalles.stream().map(DetalleComanda::getIdDetalleComanda).collect(Collectors.toList());
+            List<Integer> faltantes = ids.stream().filter(id -> !encontrados.contains(id)).collect(Collectors.toList());
+            throw new IllegalArgumentException("Detalles no encontrados con ID: " + faltantes);
+        }
+        for (DetalleComanda detalle : detalles) {
+            String estacionLinea = estacionesCocinaService.obtenerEstacionDeCategoria(detalle.getProducto().getCategoria().getIdCategoria());
+            if (!estacionLinea.equalsIgnoreCase(estacion)) {
+                throw new IllegalArgumentException("El detalle " + detalle.getIdDetalleComanda() + " corresponde a la estación " + estacionLinea);
+            }
+        }
         
-        return cambiarEstadoDetalle(id, estadoCompletado.getIdEstado());
+        Estado estadoCompletado = buscarEstadoCompletado();
+        Map<Integer, Comanda> comandas = new LinkedHashMap<>();
+        for (DetalleComanda detalle : detalles) {
+            Estado estadoAnterior = detalle.getEstado();
+            if (estadoAnterior != null && (estadoAnterior.esCompletado() || estadoAnterior.esCancelado())) {
+                continue;
+            }
+            detalle.setEstado(estadoCompletado);
+            estacionesCocinaService.registrarLinea(detalle);
+            comandas.putIfAbsent(detalle.getComanda().getIdComanda(), detalle.getComanda());
+        }
+        detalleComandaRepository.saveAll(detalles);
+        
+        return comandas.values().stream()
+            .filter(this::completarComandaSiTerminada)
+            .map(Comanda::getIdComanda)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -454,8 +597,11 @@ public class DetalleComandaService {
             throw new IllegalArgumentException("El precio debe ser mayor a 0");
         }
         
+        BigDecimal subtotalAnterior = detalle.getSubtotal();
         detalle.setPrecioUnitario(nuevoPrecio);
         detalle.calcularSubtotal();
+        ventasDiariasService.ajustarLinea(detalle.getComanda(), detalle.getProducto(), 0,
+            detalle.getSubtotal().subtract(subtotalAnterior));
         
         return detalleComandaRepository.save(detalle);
     }
@@ -504,6 +650,33 @@ public class DetalleComandaService {
         return detalleComandaRepository.countByEstado(estado);
     }
     
+    /**
+     * Pasar la comanda a completada cuando ya no tiene líneas abiertas y al menos una se completó
+     * @param comanda comanda de las líneas modificadas
+     * @return true si la comanda se completó
+     */
+    private boolean completarComandaSiTerminada(Comanda comanda) {
+        Estado estado = comanda.getEstado();
+        if (estado != null && (estado.esCompletado() || estado.esCancelado())) {
+            return false;
+        }
+        Integer idComanda = comanda.getIdComanda();
+        if (detalleComandaRepository.contarPorComandaExcluyendoEstados(idComanda, Estado.NOMBRES_FINALES) > 0
+                || detalleComandaRepository.contarPorComandaYEstados(idComanda, Estado.NOMBRES_COMPLETADO) == 0) {
+            return false;
+        }
+        comandaService.marcarComandaComoCompletada(idComanda);
+        return true;
+    }
+    
+    private Estado buscarEstadoCompletado() {
+        // Buscar estado "Completado" - intentar diferentes variaciones
+        return estadoRepository.findByNombre("Completado")
+            .orElse(estadoRepository.findByNombre("COMPLETADO")
+                .orElse(estadoRepository.findByNombre("completado")
+                    .orElseThrow(() -> new IllegalArgumentException("Estado 'Completado' no encontrado. Verifica que exista en la base de datos."))));
+    }
+    
     /**
      * Validar los datos básicos de un detalle
      * @param detalle detalle a validar
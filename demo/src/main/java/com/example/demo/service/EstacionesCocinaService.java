@@ -0,0 +1,265 @@
+package com.example.demo.service;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.dto.projection.LineaEstacionResumen;
+import com.example.demo.dto.response.EstacionCocinaDTO;
+import com.example.demo.dto.response.LineaEstacionDTO;
+import com.example.demo.entity.DetalleComanda;
+import com.example.demo.entity.Estado;
+import com.example.demo.repository.DetalleComandaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servicio de estaciones de cocina (bebidas, postres, platos calientes...)
+ * Cada estación prepara las categorías configuradas en cocina.estaciones; las líneas de categorías sin
+ * estación van a la estación por defecto. Las colas de líneas pendientes se mantienen en memoria: se cargan
+ * desde la base de datos al arrancar y se actualizan al confirmar cada alta, cambio o cierre de línea.
+ * Con varias instancias, cada una ve en sus colas solo las líneas que ha cargado o registrado ella
+ */
+@Service
+public class EstacionesCocinaService {
+
+    @Autowired
+    private DetalleComandaRepository detalleComandaRepository;
+
+    // Formato: nombre:idCategoria,idCategoria;nombre:idCategoria (por ejemplo bebidas:3;calientes:1,2)
+    @Value("${cocina.estaciones:}")
+    private String configuracion = "";
+
+    @Value("${cocina.estacion-por-defecto:general}")
+    private String estacionPorDefecto = "general";
+
+    private final Map<String, Estacion> estaciones = new LinkedHashMap<>();
+    private final Map<Integer, Estacion> estacionPorCategoria = new HashMap<>();
+    private final Map<Integer, Estacion> estacionPorDetalle = new ConcurrentHashMap<>();
+
+    /**
+     * Crear las estaciones configuradas y cargar las líneas abiertas
+     * Una configuración inválida impide arrancar; un fallo al cargar las líneas deja las colas vacías
+     * @throws IllegalArgumentException si la configuración no es válida
+     */
+    @PostConstruct
+    public void iniciar() {
+        configurarEstaciones();
+        try {
+            List<LineaEstacionResumen> lineas = detalleComandaRepository.findLineasAbiertas(Estado.NOMBRES_FINALES);
+            for (LineaEstacionResumen linea : lineas) {
+                agregar(LineaEstacionDTO.builder()
+                    .idDetalle(linea.getIdDetalle())
+                    .idComanda(linea.getIdComanda())
+                    .idMesa(linea.getIdMesa())
+                    .idProducto(linea.getIdProducto())
+                    .nombreProducto(linea.getNombreProducto())
+                    .idCategoria(linea.getIdCategoria())
+                    .cantidad(linea.getCantidad())
+                    .fechaComanda(linea.getFecha())
+                    .fechaLlegada(linea.getFecha())
+                    .build());
+            }
+            System.out.println("✅ Estaciones de cocina - " + estaciones.keySet() + " con " + lineas.size() + " línea(s) pendiente(s)");
+        } catch (Exception e) {
+            System.out.println("⚠️ Estaciones de cocina - No se pudieron cargar las líneas pendientes: " + e.getMessage());
+        }
+    }
+
+    private void configurarEstaciones() {
+        estaciones.clear();
+        estacionPorCategoria.clear();
+        estacionPorDetalle.clear();
+        for (String definicion : configuracion.split(";")) {
+            if (definicion.isBlank()) {
+                continue;
+            }
+            String[] partes = definicion.split(":");
+            if (partes.length != 2 || partes[0].isBlank()) {
+                throw new IllegalArgumentException("Estación de cocina no válida: '" + definicion + "'. Formato: nombre:idCategoria,idCategoria");
+            }
+            Estacion estacion = new Estacion(partes[0].trim().toLowerCase());
+            for (String idCategoria : partes[1].split(",")) {
+                Integer categoria = Integer.valueOf(idCategoria.trim());
+                Estacion anterior = estacionPorCategoria.putIfAbsent(categoria, estacion);
+                if (anterior != null) {
+                    throw new IllegalArgumentException("La categoría " + categoria + " está asignada a las estaciones "
+                        + anterior.nombre + " y " + estacion.nombre);
+                }
+                estacion.categorias.add(categoria);
+            }
+            estaciones.put(estacion.nombre, estacion);
+        }
+        estaciones.putIfAbsent(estacionPorDefecto.toLowerCase(), new Estacion(estacionPorDefecto.toLowerCase()));
+    }
+
+    /**
+     * Registrar el estado actual de una línea: la añade (o actualiza) en la cola de su estación si está abierta,
+     * o la retira si su estado es final. Una línea revertida no llega a aparecer en la cola
+     * @param detalle línea de comanda ya guardada
+     */
+    public void registrarLinea(DetalleComanda detalle) {
+        Integer idDetalle = detalle.getIdDetalleComanda();
+        Estado estado = detalle.getEstado();
+        Estado estadoComanda = detalle.getComanda().getEstado();
+        if (esFinal(estado) || esFinal(estadoComanda)) {
+            boolean completada = estado != null && estado.esCompletado();
+            TrasTransaccion.alConfirmar(() -> retirar(idDetalle, completada));
+            return;
+        }
+        LineaEstacionDTO linea = LineaEstacionDTO.builder()
+            .idDetalle(idDetalle)
+            .idComanda(detalle.getComanda().getIdComanda())
+            .idMesa(detalle.getComanda().getMesa().getIdMesa())
+            .idProducto(detalle.getProducto().getIdProducto())
+            .nombreProducto(detalle.getProducto().getNombre())
+            .idCategoria(detalle.getProducto().getCategoria().getIdCategoria())
+            .cantidad(detalle.getCantidad())
+            .fechaComanda(detalle.getComanda().getFecha())
+            .fechaLlegada(LocalDateTime.now())
+            .build();
+        TrasTransaccion.alConfirmar(() -> agregar(linea));
+    }
+
+    /**
+     * Retirar líneas de las colas (por ejemplo, al eliminarlas)
+     * @param idsDetalle IDs de las líneas
+     * @param completadas true si se retiran por estar terminadas (cuentan en el rendimiento de la estación)
+     */
+    public void retirarLineas(Collection<Integer> idsDetalle, boolean completadas) {
+        List<Integer> ids = List.copyOf(idsDetalle);
+        TrasTransaccion.alConfirmar(() -> ids.forEach(id -> retirar(id, completadas)));
+    }
+
+    /**
+     * Retirar todas las líneas de una comanda cerrada o eliminada
+     * @param idComanda ID de la comanda
+     */
+    public void retirarComanda(Integer idComanda) {
+        TrasTransaccion.alConfirmar(() -> {
+            for (Estacion estacion : estaciones.values()) {
+                estacion.pendientes.values().removeIf(linea -> {
+                    if (linea.getIdComanda().equals(idComanda)) {
+                        estacionPorDetalle.remove(linea.getIdDetalle());
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        });
+    }
+
+    /**
+     * Obtener el nombre de la estación que prepara una categoría
+     * @param idCategoria ID de la categoría
+     * @return nombre de la estación (la estación por defecto si la categoría no está asignada)
+     */
+    public String obtenerEstacionDeCategoria(Integer idCategoria) {
+        return estacionDe(idCategoria).nombre;
+    }
+
+    /**
+     * Obtener las líneas pendientes de una estación en orden de llegada
+     * @param nombre nombre de la estación
+     * @return Lista de líneas pendientes
+     * @throws IllegalArgumentException si la estación no existe
+     */
+    public List<LineaEstacionDTO> obtenerPendientes(String nombre) {
+        return new ArrayList<>(buscarEstacion(nombre).pendientes.values());
+    }
+
+    /**
+     * Obtener las estaciones con su cola y sus líneas completadas
+     * @return Lista de estaciones en el orden de la configuración
+     */
+    public List<EstacionCocinaDTO> obtenerEstaciones() {
+        List<EstacionCocinaDTO> resultado = new ArrayList<>();
+        for (Estacion estacion : estaciones.values()) {
+            long completadas = estacion.completadas.sum();
+            LocalDateTime pendienteDesde = estacion.pendientes.values().stream()
+                .map(LineaEstacionDTO::getFechaLlegada)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+            resultado.add(EstacionCocinaDTO.builder()
+                .nombre(estacion.nombre)
+                .categorias(List.copyOf(estacion.categorias))
+                .lineasPendientes(estacion.pendientes.size())
+                .pendienteDesde(pendienteDesde)
+                .lineasCompletadas(completadas)
+                .segundosMedioPreparacion(completadas == 0 ? null : estacion.milisegundosPreparacion.sum() / 1000.0 / completadas)
+                .build());
+        }
+        return resultado;
+    }
+
+    /**
+     * Verificar que una estación existe
+     * @param nombre nombre de la estación
+     * @throws IllegalArgumentException si la estación no existe
+     */
+    public void validarEstacion(String nombre) {
+        buscarEstacion(nombre);
+    }
+
+    private Estacion buscarEstacion(String nombre) {
+        Estacion estacion = nombre == null ? null : estaciones.get(nombre.toLowerCase());
+        if (estacion == null) {
+            throw new IllegalArgumentException("Estación no encontrada: " + nombre + ". Estaciones: " + estaciones.keySet());
+        }
+        return estacion;
+    }
+
+    private Estacion estacionDe(Integer idCategoria) {
+        Estacion estacion = estacionPorCategoria.get(idCategoria);
+        return estacion != null ? estacion : estaciones.get(estacionPorDefecto.toLowerCase());
+    }
+
+    private void agregar(LineaEstacionDTO linea) {
+        Estacion estacion = estacionDe(linea.getIdCategoria());
+        Estacion anterior = estacionPorDetalle.put(linea.getIdDetalle(), estacion);
+        LineaEstacionDTO existente = anterior != null ? anterior.pendientes.remove(linea.getIdDetalle()) : null;
+        if (existente != null) {
+            // Un cambio de cantidad o de producto no reinicia la espera de la línea
+            linea.setFechaLlegada(existente.getFechaLlegada());
+        }
+        estacion.pendientes.put(linea.getIdDetalle(), linea);
+    }
+
+    private void retirar(Integer idDetalle, boolean completada) {
+        Estacion estacion = estacionPorDetalle.remove(idDetalle);
+        if (estacion == null) {
+            return;
+        }
+        LineaEstacionDTO linea = estacion.pendientes.remove(idDetalle);
+        if (completada && linea != null) {
+            estacion.completadas.increment();
+            estacion.milisegundosPreparacion.add(Duration.between(linea.getFechaLlegada(), LocalDateTime.now()).toMillis());
+        }
+    }
+
+    private static boolean esFinal(Estado estado) {
+        return estado != null && (estado.esCompletado() || estado.esCancelado());
+    }
+
+    /**
+     * Estación con su cola de líneas pendientes (ordenadas por ID de línea, que crece con la llegada)
+     */
+    private static final class Estacion {
+
+        private final String nombre;
+        private final List<Integer> categorias = new ArrayList<>();
+        private final ConcurrentSkipListMap<Integer, LineaEstacionDTO> pendientes = new ConcurrentSkipListMap<>();
+        private final LongAdder completadas = new LongAdder();
+        private final LongAdder milisegundosPreparacion = new LongAdder();
+
+        private Estacion(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+}
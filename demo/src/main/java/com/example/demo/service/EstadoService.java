@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.response.EstadoDTO;
 import com.example.demo.entity.Estado;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.repository.EstadoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -8,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de estados del sistema
@@ -20,6 +23,9 @@ public class EstadoService {
     @Autowired
     private EstadoRepository estadoRepository;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todos los estados
      * @return Lista de todos los estados
@@ -127,22 +133,26 @@ public class EstadoService {
     }
     
     /**
-     * Buscar estados que contengan el texto dado
-     * @param texto texto a buscar
-     * @return Lista de estados que coinciden
+     * Listar todos los estados ordenados por nombre como DTO
+     * @return Lista de estados ordenada alfabéticamente
      */
     @Transactional(readOnly = true)
-    public List<Estado> buscarEstadosPorTexto(String texto) {
-        return estadoRepository.findByNombreContaining(texto.toUpperCase());
+    public List<EstadoDTO> listarEstadosOrdenados() {
+        return estadoRepository.findAllCatalogo().stream()
+            .map(catalogoMapper::toEstadoDTO)
+            .collect(Collectors.toList());
     }
     
     /**
-     * Obtener todos los estados ordenados por nombre
-     * @return Lista de estados ordenada alfabéticamente
+     * Buscar estados por texto como DTO
+     * @param texto texto a buscar
+     * @return Lista de estados que coinciden
      */
     @Transactional(readOnly = true)
-    public List<Estado> obtenerEstadosOrdenados() {
-        return estadoRepository.findAllByOrderByNombreAsc();
+    public List<EstadoDTO> listarEstadosPorTexto(String texto) {
+        return estadoRepository.findCatalogoByNombreContaining(texto.toUpperCase()).stream()
+            .map(catalogoMapper::toEstadoDTO)
+            .collect(Collectors.toList());
     }
     
     /**
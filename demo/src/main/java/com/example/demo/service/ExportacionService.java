@@ -0,0 +1,283 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio de exportación de comandas con sus líneas (CSV o NDJSON)
+ * Recorre las comandas archivadas y las activas con un cursor de solo avance y escribe cada fila
+ * en la salida a medida que se lee, de modo que la memoria usada no depende del tamaño del rango
+ */
+@Lazy
+@Service
+public class ExportacionService {
+
+    /**
+     * Formatos de exportación soportados
+     */
+    public enum Formato {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String tipoContenido;
+        private final String extension;
+
+        Formato(String tipoContenido, String extension) {
+            this.tipoContenido = tipoContenido;
+            this.extension = extension;
+        }
+
+        public String getTipoContenido() {
+            return tipoContenido;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Obtener el formato a partir de su nombre (csv, ndjson)
+         * @param codigo nombre del formato
+         * @return formato correspondiente
+         * @throws IllegalArgumentException si el formato no es válido
+         */
+        public static Formato desdeCodigo(String codigo) {
+            for (Formato formato : values()) {
+                if (formato.extension.equalsIgnoreCase(codigo)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("Formato no válido: " + codigo + ". Valores permitidos: csv, ndjson");
+        }
+    }
+
+    private static final String CONSULTA_ARCHIVADAS =
+        "SELECT c.idComanda, c.fecha, m.idMesa, u.idUsuario, u.nombre, e.nombre, c.pagada, " +
+        "d.idDetalleComanda, p.idProducto, p.nombre, d.cantidad, d.precioUnitario, d.subtotal " +
+        "FROM ComandaHistorico c LEFT JOIN c.mesa m LEFT JOIN c.mesero u LEFT JOIN c.estado e " +
+        "LEFT JOIN c.detalles d LEFT JOIN d.producto p " +
+        "WHERE c.fecha >= ?1 AND c.fecha < ?2 " +
+        "ORDER BY c.idComanda, d.idDetalleComanda";
+
+    private static final String CONSULTA_ACTIVAS =
+        "SELECT c.idComanda, c.fecha, m.idMesa, u.idUsuario, u.nombre, e.nombre, c.pagada, " +
+        "d.idDetalleComanda, p.idProducto, p.nombre, d.cantidad, d.precioUnitario, d.subtotal " +
+        "FROM Comanda c LEFT JOIN c.mesa m LEFT JOIN c.mesero u LEFT JOIN c.estado e " +
+        "LEFT JOIN c.detalleComandas d LEFT JOIN d.producto p " +
+        "WHERE c.fecha >= ?1 AND c.fecha < ?2 " +
+        "ORDER BY c.idComanda, d.idDetalleComanda";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // En MySQL solo se respeta con useCursorFetch=true en la URL; si no, el driver carga todo el resultado
+    @Value("${exportacion.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    @Value("${exportacion.limpiar-cada:5000}")
+    private int limpiarCada = 5000;
+
+    /**
+     * Exportar las comandas de un rango de días con sus líneas
+     * Incluye primero las comandas archivadas y después las activas
+     * @param desde primer día (incluido)
+     * @param hasta último día (incluido)
+     * @param formato formato de salida
+     * @param salida flujo donde se escribe el resultado
+     * @return número de filas leídas
+     * @throws IOException si falla la escritura (p. ej. el cliente cerró la conexión)
+     */
+    @Transactional(readOnly = true)
+    public long exportarComandas(LocalDate desde, LocalDate hasta, Formato formato, OutputStream salida) throws IOException {
+        validarRango(desde, hasta);
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 64 * 1024);
+        Escritor escritor = formato == Formato.CSV ? new EscritorCsv(writer) : new EscritorNdjson(writer, objectMapper);
+
+        long filas = recorrer(CONSULTA_ARCHIVADAS, inicio, fin, true, escritor);
+        filas += recorrer(CONSULTA_ACTIVAS, inicio, fin, false, escritor);
+        escritor.terminar();
+        writer.flush();
+
+        System.out.println("✅ Exportación - " + filas + " fila(s) de comandas del " + desde + " al " + hasta +
+                           " en " + formato.getExtension());
+        return filas;
+    }
+
+    /**
+     * Validar un rango de días de exportación
+     * @param desde primer día
+     * @param hasta último día
+     * @throws IllegalArgumentException si el rango no es válido
+     */
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas desde y hasta son obligatorias");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+    }
+
+    /**
+     * Recorrer una consulta con un cursor de solo avance, escribiendo cada fila
+     */
+    @SuppressWarnings("unchecked")
+    private long recorrer(String jpql, LocalDateTime inicio, LocalDateTime fin, boolean archivada,
+                          Escritor escritor) throws IOException {
+        Query<Object[]> consulta = entityManager.createQuery(jpql, Object[].class).unwrap(Query.class);
+        consulta.setParameter(1, inicio)
+            .setParameter(2, fin)
+            .setFetchSize(fetchSize)
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.IGNORE);
+
+        long filas = 0;
+        try (ScrollableResults<Object[]> resultados = consulta.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (resultados.next()) {
+                escritor.escribir(resultados.get(), archivada);
+                if (++filas % limpiarCada == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Escritor de filas [idComanda, fecha, idMesa, idMesero, mesero, estado, pagada,
+     * idDetalle, idProducto, producto, cantidad, precioUnitario, subtotal]
+     */
+    private interface Escritor {
+
+        void escribir(Object[] fila, boolean archivada) throws IOException;
+
+        void terminar() throws IOException;
+    }
+
+    /**
+     * Una fila CSV por línea de comanda (las comandas sin líneas salen con las columnas de línea vacías)
+     */
+    private static final class EscritorCsv implements Escritor {
+
+        private final Writer writer;
+
+        EscritorCsv(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id_comanda,fecha,id_mesa,id_mesero,mesero,estado,pagada,archivada," +
+                         "id_detalle,id_producto,producto,cantidad,precio_unitario,subtotal\n");
+        }
+
+        @Override
+        public void escribir(Object[] fila, boolean archivada) throws IOException {
+            for (int i = 0; i < fila.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(celda(fila[i]));
+                if (i == 6) {
+                    writer.write(',');
+                    writer.write(String.valueOf(archivada));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void terminar() {
+        }
+
+        private String celda(Object valor) {
+            if (valor == null) {
+                return "";
+            }
+            String texto = valor.toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                return "\"" + texto.replace("\"", "\"\"") + "\"";
+            }
+            return texto;
+        }
+    }
+
+    /**
+     * Un objeto JSON por comanda con sus líneas anidadas
+     * Las filas llegan ordenadas por comanda, así que solo se retiene la comanda en curso
+     */
+    private static final class EscritorNdjson implements Escritor {
+
+        private final Writer writer;
+        private final ObjectMapper objectMapper;
+        private Map<String, Object> comanda;
+        private List<Map<String, Object>> lineas;
+
+        EscritorNdjson(Writer writer, ObjectMapper objectMapper) {
+            this.writer = writer;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void escribir(Object[] fila, boolean archivada) throws IOException {
+            if (comanda == null || !comanda.get("idComanda").equals(fila[0]) || !comanda.get("archivada").equals(archivada)) {
+                terminar();
+                comanda = new LinkedHashMap<>();
+                comanda.put("idComanda", fila[0]);
+                comanda.put("fecha", fila[1] != null ? fila[1].toString() : null);
+                comanda.put("idMesa", fila[2]);
+                comanda.put("idMesero", fila[3]);
+                comanda.put("mesero", fila[4]);
+                comanda.put("estado", fila[5]);
+                comanda.put("pagada", fila[6]);
+                comanda.put("archivada", archivada);
+                lineas = new ArrayList<>();
+                comanda.put("lineas", lineas);
+            }
+            if (fila[7] != null) {
+                Map<String, Object> linea = new LinkedHashMap<>();
+                linea.put("idDetalle", fila[7]);
+                linea.put("idProducto", fila[8]);
+                linea.put("producto", fila[9]);
+                linea.put("cantidad", fila[10]);
+                linea.put("precioUnitario", fila[11]);
+                linea.put("subtotal", fila[12]);
+                lineas.add(linea);
+            }
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            if (comanda != null) {
+                writer.write(objectMapper.writeValueAsString(comanda));
+                writer.write('\n');
+                comanda = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.IdempotenciaRegistro;
+import com.example.demo.repository.IdempotenciaRegistroRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que almacena las respuestas de peticiones con Idempotency-Key
+ * Mantiene un almacén en memoria acotado por tamaño y TTL y, opcionalmente,
+ * una tabla compartida (restaurante_idempotencia) para despliegues con varios nodos
+ */
+@Service
+public class IdempotenciaService {
+
+    @Autowired
+    private IdempotenciaRegistroRepository idempotenciaRegistroRepository;
+
+    @Value("${idempotency.ttl-segundos:86400}")
+    private long ttlSegundos;
+
+    @Value("${idempotency.max-entradas:10000}")
+    private int maxEntradas;
+
+    @Value("${idempotency.persistente:false}")
+    private boolean persistente;
+
+    // Respuestas completadas, en orden de inserción para descartar las más antiguas
+    private final Map<String, RespuestaAlmacenada> respuestas = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RespuestaAlmacenada> eldest) {
+            return size() > maxEntradas;
+        }
+    };
+
+    // Claves cuya petición original sigue ejecutándose en este nodo
+    private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Buscar la respuesta almacenada para una clave
+     * @param clave clave de idempotencia (usuario + Idempotency-Key)
+     * @return Optional con la respuesta original si existe y no ha expirado
+     */
+    public Optional<RespuestaAlmacenada> buscar(String clave) {
+        LocalDateTime ahora = LocalDateTime.now();
+        synchronized (respuestas) {
+            RespuestaAlmacenada respuesta = respuestas.get(clave);
+            if (respuesta != null) {
+                if (respuesta.getExpiraEn().isAfter(ahora)) {
+                    return Optional.of(respuesta);
+                }
+                respuestas.remove(clave);
+            }
+        }
+
+        if (!persistente) {
+            return Optional.empty();
+        }
+
+        Optional<RespuestaAlmacenada> desdeBd = idempotenciaRegistroRepository.findById(clave)
+            .filter(IdempotenciaRegistro::estaCompletado)
+            .filter(r -> r.getExpiraEn().isAfter(ahora))
+            .map(r -> new RespuestaAlmacenada(r.getHuella(), r.getStatus(), r.getContentType(), r.getCuerpo(), r.getExpiraEn()));
+        desdeBd.ifPresent(r -> {
+            synchronized (respuestas) {
+                respuestas.put(clave, r);
+            }
+        });
+        return desdeBd;
+    }
+
+    /**
+     * Reservar una clave antes de ejecutar la petición original
+     * @param clave clave de idempotencia
+     * @param huella hash de la petición
+     * @return true si la reserva se obtuvo, false si otra petición con la misma clave está en curso
+     */
+    public boolean reservar(String clave, String huella) {
+        if (!enCurso.add(clave)) {
+            return false;
+        }
+
+        if (persistente) {
+            try {
+                idempotenciaRegistroRepository.saveAndFlush(
+                    new IdempotenciaRegistro(clave, huella, LocalDateTime.now().plusSeconds(ttlSegundos)));
+            } catch (DataIntegrityViolationException e) {
+                // Otro nodo ya registró esta clave
+                enCurso.remove(clave);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Guardar la respuesta de la petición original y liberar la reserva
+     * @param clave clave de idempotencia
+     * @param huella hash de la petición
+     * @param status código HTTP de la respuesta
+     * @param contentType tipo de contenido de la respuesta
+     * @param cuerpo cuerpo de la respuesta
+     */
+    public void guardar(String clave, String huella, int status, String contentType, byte[] cuerpo) {
+        LocalDateTime expiraEn = LocalDateTime.now().plusSeconds(ttlSegundos);
+        RespuestaAlmacenada respuesta = new RespuestaAlmacenada(huella, status, contentType, cuerpo, expiraEn);
+
+        synchronized (respuestas) {
+            respuestas.put(clave, respuesta);
+        }
+
+        try {
+            if (persistente) {
+                IdempotenciaRegistro registro = idempotenciaRegistroRepository.findById(clave)
+                    .orElseGet(() -> new IdempotenciaRegistro(clave, huella, expiraEn));
+                registro.setStatus(status);
+                registro.setContentType(contentType);
+                registro.setCuerpo(cuerpo);
+                registro.setExpiraEn(expiraEn);
+                idempotenciaRegistroRepository.save(registro);
+            }
+        } finally {
+            enCurso.remove(clave);
+        }
+    }
+
+    /**
+     * Liberar una reserva sin guardar respuesta (la petición falló y puede reintentarse)
+     * @param clave clave de idempotencia
+     */
+    public void liberar(String clave) {
+        try {
+            if (persistente) {
+                idempotenciaRegistroRepository.findById(clave)
+                    .filter(r -> !r.estaCompletado())
+                    .ifPresent(idempotenciaRegistroRepository::delete);
+            }
+        } finally {
+            enCurso.remove(clave);
+        }
+    }
+
+    /**
+     * Eliminar las respuestas expiradas de memoria y de la base de datos
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purga-ms:600000}")
+    public void purgarExpirados() {
+        LocalDateTime ahora = LocalDateTime.now();
+        synchronized (respuestas) {
+            respuestas.values().removeIf(r -> !r.getExpiraEn().isAfter(ahora));
+        }
+        if (persistente) {
+            idempotenciaRegistroRepository.eliminarExpirados(ahora);
+        }
+    }
+
+    /**
+     * Número de respuestas almacenadas en memoria
+     * @return tamaño del almacén en memoria
+     */
+    public int contarEntradas() {
+        synchronized (respuestas) {
+            return respuestas.size();
+        }
+    }
+
+    /**
+     * Respuesta original asociada a una clave de idempotencia
+     */
+    public static class RespuestaAlmacenada {
+
+        private final String huella;
+        private final int status;
+        private final String contentType;
+        private final byte[] cuerpo;
+        private final LocalDateTime expiraEn;
+
+        public RespuestaAlmacenada(String huella, int status, String contentType, byte[] cuerpo, LocalDateTime expiraEn) {
+            this.huella = huella;
+            this.status = status;
+            this.contentType = contentType;
+            this.cuerpo = cuerpo != null ? cuerpo : new byte[0];
+            this.expiraEn = expiraEn;
+        }
+
+        public String getHuella() {
+            return huella;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getCuerpo() {
+            return cuerpo;
+        }
+
+        public LocalDateTime getExpiraEn() {
+            return expiraEn;
+        }
+    }
+}
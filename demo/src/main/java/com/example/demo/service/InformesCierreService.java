@@ -0,0 +1,322 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Estado;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Servicio de los informes de cierre (Z del día, ventas por producto y por mesero, cancelaciones)
+ * Pensado para el modo batch (perfil batch): cada día se calcula en una tarea de un ForkJoinPool que
+ * recorre sus comandas archivadas y activas con una sesión sin estado y un cursor de solo avance, sin
+ * llenar ningún contexto de persistencia, y reemplaza las filas de ese día en las tablas de informes
+ */
+@Lazy
+@Service
+public class InformesCierreService {
+
+    private static final String CONSULTA_ARCHIVADAS =
+        "SELECT c.idComanda, u.idUsuario, e.nombre, c.pagada, p.idProducto, d.cantidad, d.subtotal " +
+        "FROM ComandaHistorico c LEFT JOIN c.mesero u LEFT JOIN c.estado e " +
+        "LEFT JOIN c.detalles d LEFT JOIN d.producto p " +
+        "WHERE c.fecha >= ?1 AND c.fecha < ?2 " +
+        "ORDER BY c.idComanda";
+
+    private static final String CONSULTA_ACTIVAS =
+        "SELECT c.idComanda, u.idUsuario, e.nombre, c.pagada, p.idProducto, d.cantidad, d.subtotal " +
+        "FROM Comanda c LEFT JOIN c.mesero u LEFT JOIN c.estado e " +
+        "LEFT JOIN c.detalleComandas d LEFT JOIN d.producto p " +
+        "WHERE c.fecha >= ?1 AND c.fecha < ?2 " +
+        "ORDER BY c.idComanda";
+
+    private static final String[] TABLAS = {
+        "restaurante_informe_z", "restaurante_informe_producto", "restaurante_informe_mesero"
+    };
+
+    private static final String INSERT_Z = "INSERT INTO restaurante_informe_z (fecha, comandas_vendidas, " +
+        "comandas_canceladas, comandas_abiertas, unidades_vendidas, total_ventas, total_cancelado, fecha_generacion) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PRODUCTO = "INSERT INTO restaurante_informe_producto " +
+        "(fecha, id_producto, cantidad, total) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_MESERO = "INSERT INTO restaurante_informe_mesero (fecha, id_mesero, " +
+        "comandas_vendidas, total_ventas, comandas_canceladas, total_cancelado) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Días que se calculan a la vez; cada uno usa su propia conexión mientras recorre las comandas
+    @Value("${informes.paralelismo:4}")
+    private int paralelismo = 4;
+
+    // En MySQL solo se respeta con useCursorFetch=true en la URL; si no, el driver carga todo el resultado
+    @Value("${informes.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    @Value("${informes.max-dias:366}")
+    private int maxDias = 366;
+
+    /**
+     * Generar los informes de cierre de un rango de días
+     * @param desde primer día (incluido)
+     * @param hasta último día (incluido)
+     * @return informe Z de cada día, en orden de fecha
+     * @throws IllegalArgumentException si el rango no es válido
+     */
+    public List<InformeDia> generar(LocalDate desde, LocalDate hasta) throws InterruptedException {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas desde y hasta son obligatorias");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        if (desde.plusDays(maxDias).isBefore(hasta.plusDays(1))) {
+            throw new IllegalArgumentException("El rango no puede superar " + maxDias + " días");
+        }
+
+        List<Callable<InformeDia>> tareas = new ArrayList<>();
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            LocalDate fecha = dia;
+            tareas.add(() -> procesarDia(fecha));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(paralelismo, tareas.size())));
+        try {
+            List<InformeDia> informes = new ArrayList<>(tareas.size());
+            for (Future<InformeDia> resultado : pool.invokeAll(tareas)) {
+                try {
+                    informes.add(resultado.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Error al generar los informes: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            System.out.println("✅ Informes de cierre generados del " + desde + " al " + hasta + ": " + informes.size() + " día(s)");
+            return informes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Calcular y guardar los informes de un día
+     */
+    InformeDia procesarDia(LocalDate dia) {
+        LocalDateTime inicio = dia.atStartOfDay();
+        LocalDateTime fin = dia.plusDays(1).atStartOfDay();
+        InformeDia informe = new InformeDia(dia);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (StatelessSession sesion = sessionFactory.openStatelessSession()) {
+            recorrer(sesion, CONSULTA_ARCHIVADAS, inicio, fin, true, informe);
+            recorrer(sesion, CONSULTA_ACTIVAS, inicio, fin, false, informe);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> guardar(informe));
+        return informe;
+    }
+
+    private void recorrer(StatelessSession sesion, String hql, LocalDateTime inicio, LocalDateTime fin,
+                          boolean archivada, InformeDia informe) {
+        try (ScrollableResults<Object[]> resultados = sesion.createQuery(hql, Object[].class)
+                .setParameter(1, inicio)
+                .setParameter(2, fin)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (resultados.next()) {
+                informe.registrar(resultados.get(), archivada);
+            }
+        }
+    }
+
+    private void guardar(InformeDia informe) {
+        Date fecha = Date.valueOf(informe.fecha);
+        for (String tabla : TABLAS) {
+            jdbcTemplate.update("DELETE FROM " + tabla + " WHERE fecha = ?", fecha);
+        }
+
+        jdbcTemplate.update(INSERT_Z, fecha, informe.comandasVendidas, informe.comandasCanceladas,
+            informe.comandasAbiertas, informe.unidadesVendidas, informe.totalVentas, informe.totalCancelado,
+            Timestamp.valueOf(LocalDateTime.now()));
+
+        List<Object[]> productos = new ArrayList<>(informe.porProducto.size());
+        informe.porProducto.forEach((idProducto, ventas) ->
+            productos.add(new Object[]{fecha, idProducto, ventas.cantidad, ventas.total}));
+        jdbcTemplate.batchUpdate(INSERT_PRODUCTO, productos);
+
+        List<Object[]> meseros = new ArrayList<>(informe.porMesero.size());
+        informe.porMesero.forEach((idMesero, ventas) -> meseros.add(new Object[]{
+            fecha, idMesero, ventas.comandasVendidas, ventas.totalVentas, ventas.comandasCanceladas, ventas.totalCancelado}));
+        jdbcTemplate.batchUpdate(INSERT_MESERO, meseros);
+    }
+
+    /**
+     * Acumulados de un día, calculados a partir de las filas [idComanda, idMesero, estado, pagada,
+     * idProducto, cantidad, subtotal] ordenadas por comanda (una fila por línea)
+     * Cuentan como venta las comandas archivadas no canceladas y las activas pagadas o completadas,
+     * con el mismo criterio que los acumulados diarios de ventas
+     */
+    public static final class InformeDia {
+
+        private enum Tipo { VENDIDA, CANCELADA, ABIERTA }
+
+        private final LocalDate fecha;
+        private int comandasVendidas;
+        private int comandasCanceladas;
+        private int comandasAbiertas;
+        private long unidadesVendidas;
+        private BigDecimal totalVentas = BigDecimal.ZERO;
+        private BigDecimal totalCancelado = BigDecimal.ZERO;
+        private final Map<Integer, VentasProducto> porProducto = new HashMap<>();
+        private final Map<String, VentasMesero> porMesero = new HashMap<>();
+
+        private Integer comandaActual;
+        private boolean archivadaActual;
+        private Tipo tipoActual;
+        private VentasMesero meseroActual;
+
+        InformeDia(LocalDate fecha) {
+            this.fecha = fecha;
+        }
+
+        void registrar(Object[] fila, boolean archivada) {
+            Integer idComanda = (Integer) fila[0];
+            if (!idComanda.equals(comandaActual) || archivada != archivadaActual) {
+                empezarComanda(idComanda, (String) fila[1], (String) fila[2], (Boolean) fila[3], archivada);
+            }
+            if (fila[4] == null || tipoActual == Tipo.ABIERTA) {
+                return;
+            }
+            int cantidad = fila[5] != null ? ((Number) fila[5]).intValue() : 0;
+            BigDecimal subtotal = fila[6] != null ? (BigDecimal) fila[6] : BigDecimal.ZERO;
+
+            if (tipoActual == Tipo.CANCELADA) {
+                totalCancelado = totalCancelado.add(subtotal);
+                if (meseroActual != null) {
+                    meseroActual.totalCancelado = meseroActual.totalCancelado.add(subtotal);
+                }
+                return;
+            }
+            unidadesVendidas += cantidad;
+            totalVentas = totalVentas.add(subtotal);
+            VentasProducto producto = porProducto.computeIfAbsent((Integer) fila[4], id -> new VentasProducto());
+            producto.cantidad += cantidad;
+            producto.total = producto.total.add(subtotal);
+            if (meseroActual != null) {
+                meseroActual.totalVentas = meseroActual.totalVentas.add(subtotal);
+            }
+        }
+
+        private void empezarComanda(Integer idComanda, String idMesero, String estado, Boolean pagada, boolean archivada) {
+            comandaActual = idComanda;
+            archivadaActual = archivada;
+            tipoActual = clasificar(estado, Boolean.TRUE.equals(pagada), archivada);
+            meseroActual = idMesero != null && tipoActual != Tipo.ABIERTA
+                ? porMesero.computeIfAbsent(idMesero, id -> new VentasMesero())
+                : null;
+
+            switch (tipoActual) {
+                case VENDIDA -> {
+                    comandasVendidas++;
+                    if (meseroActual != null) {
+                        meseroActual.comandasVendidas++;
+                    }
+                }
+                case CANCELADA -> {
+                    comandasCanceladas++;
+                    if (meseroActual != null) {
+                        meseroActual.comandasCanceladas++;
+                    }
+                }
+                case ABIERTA -> comandasAbiertas++;
+            }
+        }
+
+        private static Tipo clasificar(String estado, boolean pagada, boolean archivada) {
+            if (estado != null && Estado.NOMBRES_CANCELADO.stream().anyMatch(estado::equalsIgnoreCase)) {
+                return Tipo.CANCELADA;
+            }
+            if (archivada || pagada || (estado != null && Estado.NOMBRES_COMPLETADO.stream().anyMatch(estado::equalsIgnoreCase))) {
+                return Tipo.VENDIDA;
+            }
+            return Tipo.ABIERTA;
+        }
+
+        public LocalDate getFecha() {
+            return fecha;
+        }
+
+        public int getComandasVendidas() {
+            return comandasVendidas;
+        }
+
+        public int getComandasCanceladas() {
+            return comandasCanceladas;
+        }
+
+        public int getComandasAbiertas() {
+            return comandasAbiertas;
+        }
+
+        public long getUnidadesVendidas() {
+            return unidadesVendidas;
+        }
+
+        public BigDecimal getTotalVentas() {
+            return totalVentas;
+        }
+
+        public BigDecimal getTotalCancelado() {
+            return totalCancelado;
+        }
+
+        int productos() {
+            return porProducto.size();
+        }
+
+        int meseros() {
+            return porMesero.size();
+        }
+    }
+
+    private static final class VentasProducto {
+        private long cantidad;
+        private BigDecimal total = BigDecimal.ZERO;
+    }
+
+    private static final class VentasMesero {
+        private int comandasVendidas;
+        private BigDecimal totalVentas = BigDecimal.ZERO;
+        private int comandasCanceladas;
+        private BigDecimal totalCancelado = BigDecimal.ZERO;
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.demo.service;
 
+import com.example.demo.concurrencia.ReintentarConflicto;
+import com.example.demo.dto.projection.MesaResumen;
+import com.example.demo.dto.response.MesaResponseDTO;
 import com.example.demo.entity.*;
+import com.example.demo.mapper.MesaMapper;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de mesas
@@ -23,13 +29,34 @@ public class MesaService {
     @Autowired
     private EstadoRepository estadoRepository;
     
+    @Autowired
+    private MesaMapper mesaMapper;
+    
+    @Autowired
+    private ReservaService reservaService;
+    
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+    
+    @Autowired
+    private OcupacionMesasService ocupacionMesasService;
+    
     /**
      * Obtener todas las mesas
      * @return Lista de todas las mesas
      */
     @Transactional(readOnly = true)
     public List<Mesa> obtenerTodasLasMesas() {
-        return mesaRepository.findAll();
+        return mesaRepository.findAllByOrderByIdMesaAsc();
+    }
+    
+    /**
+     * Listar todas las mesas como DTO
+     * @return Lista de todas las mesas
+     */
+    @Transactional(readOnly = true)
+    public List<MesaResponseDTO> listarMesas() {
+        return aDTO(mesaRepository.findAllResumen());
     }
     
     /**
@@ -43,16 +70,17 @@ public class MesaService {
     }
     
     /**
-     * Obtener mesas por estado
+     * Listar mesas por estado
      * @param idEstado ID del estado
      * @return Lista de mesas con ese estado
      */
     @Transactional(readOnly = true)
-    public List<Mesa> obtenerMesasPorEstado(Integer idEstado) {
-        Estado estado = estadoRepository.findById(idEstado)
-            .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
+    public List<MesaResponseDTO> listarMesasPorEstado(Integer idEstado) {
+        if (!estadoRepository.existsById(idEstado)) {
+            throw new IllegalArgumentException("Estado no encontrado con ID: " + idEstado);
+        }
         
-        return mesaRepository.findByEstado(estado);
+        return aDTO(mesaRepository.findResumenByEstadoId(idEstado));
     }
     
     /**
@@ -67,6 +95,18 @@ public class MesaService {
         return mesaRepository.findByEstado(estadoDisponible);
     }
     
+    /**
+     * Listar mesas disponibles como DTO
+     * @return Lista de mesas disponibles
+     */
+    @Transactional(readOnly = true)
+    public List<MesaResponseDTO> listarMesasDisponibles() {
+        Estado estadoDisponible = estadoRepository.findByNombre("DISPONIBLE")
+            .orElseThrow(() -> new IllegalArgumentException("Estado 'DISPONIBLE' no encontrado"));
+        
+        return aDTO(mesaRepository.findResumenByEstadoId(estadoDisponible.getIdEstado()));
+    }
+    
     /**
      * Crear una nueva mesa
      * @param mesa mesa a crear
@@ -93,6 +133,7 @@ public class MesaService {
      * @return Mesa actualizada
      * @throws IllegalArgumentException si la mesa no existe o hay conflictos
      */
+    @ReintentarConflicto
     public Mesa actualizarMesa(Integer id, Mesa mesa) {
         Mesa mesaExistente = mesaRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + id));
@@ -125,6 +166,7 @@ public class MesaService {
         // TODO: Validar que la mesa no esté siendo usada por comandas
         // Por ahora solo eliminamos
         mesaRepository.delete(mesa);
+        eliminacionRepository.save(new Eliminacion(Eliminacion.MESA, id));
     }
     
     /**
@@ -133,16 +175,9 @@ public class MesaService {
      * @param idEstado ID del nuevo estado
      * @return Mesa actualizada
      */
+    @ReintentarConflicto
     public Mesa cambiarEstadoMesa(Integer idMesa, Integer idEstado) {
-        Mesa mesa = mesaRepository.findById(idMesa)
-            .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + idMesa));
-        
-        Estado nuevoEstado = estadoRepository.findById(idEstado)
-            .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
-        
-        mesa.setEstado(nuevoEstado);
-        
-        return mesaRepository.save(mesa);
+        return actualizarEstado(idMesa, idEstado, null);
     }
     
     /**
@@ -150,11 +185,49 @@ public class MesaService {
      * @param idMesa ID de la mesa
      * @return Mesa actualizada
      */
+    @ReintentarConflicto
     public Mesa ocuparMesa(Integer idMesa) {
+        return ocuparMesa(idMesa, null);
+    }
+    
+    /**
+     * Ocupar una mesa indicando los comensales del grupo
+     * @param idMesa ID de la mesa
+     * @param comensales comensales (opcional; si la mesa ya estaba ocupada solo se actualizan)
+     * @return Mesa actualizada
+     */
+    @ReintentarConflicto
+    public Mesa ocuparMesa(Integer idMesa, Integer comensales) {
+        // Un cliente sin reserva no puede quedarse con una mesa reservada para dentro de poco
+        reservaService.validarOcupacion(idMesa, LocalDateTime.now());
+        
         Estado estadoOcupada = estadoRepository.findByNombre("OCUPADO")
             .orElseThrow(() -> new IllegalArgumentException("Estado 'OCUPADO' no encontrado"));
         
-        return cambiarEstadoMesa(idMesa, estadoOcupada.getIdEstado());
+        return actualizarEstado(idMesa, estadoOcupada.getIdEstado(), comensales);
+    }
+    
+    /**
+     * Cambiar el estado de una mesa abriendo o cerrando su sesión de ocupación
+     */
+    private Mesa actualizarEstado(Integer idMesa, Integer idEstado, Integer comensales) {
+        Mesa mesa = mesaRepository.findById(idMesa)
+            .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + idMesa));
+        
+        Estado nuevoEstado = estadoRepository.findById(idEstado)
+            .orElseThrow(() -> new IllegalArgumentException("Estado no encontrado con ID: " + idEstado));
+        
+        boolean estabaOcupada = OcupacionMesasService.estaOcupada(mesa.getEstado());
+        mesa.setEstado(nuevoEstado);
+        Mesa mesaActualizada = mesaRepository.save(mesa);
+        
+        boolean quedaOcupada = OcupacionMesasService.estaOcupada(nuevoEstado);
+        if (quedaOcupada && (!estabaOcupada || comensales != null)) {
+            ocupacionMesasService.mesaOcupada(mesaActualizada, comensales);
+        } else if (estabaOcupada && !quedaOcupada) {
+            ocupacionMesasService.mesaLiberada(idMesa);
+        }
+        return mesaActualizada;
     }
     
     /**
@@ -162,12 +235,13 @@ public class MesaService {
      * @param idMesa ID de la mesa
      * @return Mesa actualizada
      */
+    @ReintentarConflicto
     public Mesa liberarMesa(Integer idMesa) {
         // Buscar estado "Disponible" - intentar diferentes variaciones
         Estado estadoDisponible = estadoRepository.findByNombre("Disponible")
-            .orElse(estadoRepository.findByNombre("DISPONIBLE")
-                .orElse(estadoRepository.findByNombre("disponible")
-                    .orElseThrow(() -> new IllegalArgumentException("Estado 'Disponible' no encontrado. Verifica que exista en la base de datos."))));
+            .or(() -> estadoRepository.findByNombre("DISPONIBLE"))
+            .or(() -> estadoRepository.findByNombre("disponible"))
+            .orElseThrow(() -> new IllegalArgumentException("Estado 'Disponible' no encontrado. Verifica que exista en la base de datos."));
         
         return cambiarEstadoMesa(idMesa, estadoDisponible.getIdEstado());
     }
@@ -177,6 +251,7 @@ public class MesaService {
      * @param idMesa ID de la mesa
      * @return Mesa actualizada
      */
+    @ReintentarConflicto
     public Mesa reservarMesa(Integer idMesa) {
         Estado estadoReservada = estadoRepository.findByNombre("RESERVADA")
             .orElseThrow(() -> new IllegalArgumentException("Estado 'RESERVADA' no encontrado"));
@@ -185,36 +260,36 @@ public class MesaService {
     }
     
     /**
-     * Buscar mesas por ubicación
+     * Listar mesas por ubicación
      * @param ubicacion ubicación a buscar
      * @return Lista de mesas en esa ubicación
      */
     @Transactional(readOnly = true)
-    public List<Mesa> buscarMesasPorUbicacion(String ubicacion) {
-        return mesaRepository.findByUbicacionContainingIgnoreCase(ubicacion);
+    public List<MesaResponseDTO> listarMesasPorUbicacion(String ubicacion) {
+        return aDTO(mesaRepository.findResumenByUbicacion(ubicacion));
     }
     
     /**
-     * Buscar mesas por capacidad mínima
+     * Listar mesas por capacidad mínima
      * @param capacidadMinima capacidad mínima requerida
      * @return Lista de mesas con esa capacidad o mayor
      */
     @Transactional(readOnly = true)
-    public List<Mesa> buscarMesasPorCapacidadMinima(Integer capacidadMinima) {
-        return mesaRepository.findByCapacidadGreaterThanEqual(capacidadMinima);
+    public List<MesaResponseDTO> listarMesasPorCapacidadMinima(Integer capacidadMinima) {
+        return aDTO(mesaRepository.findResumenByCapacidadMinima(capacidadMinima));
     }
     
     /**
-     * Obtener mesas disponibles por capacidad
+     * Listar mesas disponibles por capacidad
      * @param capacidad capacidad requerida
      * @return Lista de mesas disponibles con esa capacidad o mayor
      */
     @Transactional(readOnly = true)
-    public List<Mesa> obtenerMesasDisponiblesPorCapacidad(Integer capacidad) {
+    public List<MesaResponseDTO> listarMesasDisponiblesPorCapacidad(Integer capacidad) {
         Estado estadoDisponible = estadoRepository.findByNombre("DISPONIBLE")
             .orElseThrow(() -> new IllegalArgumentException("Estado 'DISPONIBLE' no encontrado"));
         
-        return mesaRepository.findByEstadoAndCapacidadGreaterThanEqual(estadoDisponible, capacidad);
+        return aDTO(mesaRepository.findResumenByEstadoIdYCapacidadMinima(estadoDisponible.getIdEstado(), capacidad));
     }
     
     /**
@@ -284,4 +359,11 @@ public class MesaService {
         
         return crearMesa(mesa);
     }
+    
+    /**
+     * Convertir proyecciones de mesa a DTO
+     */
+    private List<MesaResponseDTO> aDTO(List<MesaResumen> mesas) {
+        return mesas.stream().map(mesaMapper::toResponseDTO).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,408 @@
+package com.example.demo.service;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.dto.projection.MesaResumen;
+import com.example.demo.dto.response.OcupacionUbicacionDTO;
+import com.example.demo.entity.Estado;
+import com.example.demo.entity.Mesa;
+import com.example.demo.entity.SesionMesa;
+import com.example.demo.repository.MesaRepository;
+import com.example.demo.repository.SesionMesaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de sesiones de ocupación de las mesas y métricas de rotación
+ * Cada vez que una mesa se ocupa se abre una sesión (apertura, primera comanda, cuenta, liberación y
+ * comensales) que se guarda en restaurante_sesiones_mesa dentro de la misma transacción. En memoria se
+ * mantienen las sesiones abiertas y los acumulados del día por ubicación, actualizados al confirmar cada
+ * cambio, de modo que la ocupación en vivo se responde sin consultar las comandas
+ */
+@Service
+@Transactional
+public class OcupacionMesasService {
+
+    static final String FUERA_DE_SERVICIO = "Fuera de servicio";
+
+    @Autowired
+    private SesionMesaRepository sesionMesaRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    // Servicios del día en formato Nombre=HH:mm-HH:mm separados por ';' (la sesión cuenta en el servicio en que se abrió)
+    @Value("${ocupacion.servicios:Almuerzo=12:00-16:30;Cena=19:00-23:59}")
+    private String configuracionServicios = "";
+
+    // Sesiones abiertas por ID de mesa
+    private final Map<Integer, SesionAbierta> abiertas = new ConcurrentHashMap<>();
+
+    private List<Servicio> servicios = List.of();
+
+    // Acumulados de las sesiones cerradas hoy, por ubicación (protegidos por el monitor del servicio)
+    private LocalDate dia = LocalDate.now();
+    private final Map<String, AcumuladoUbicacion> acumulados = new HashMap<>();
+
+    /**
+     * Cargar las sesiones abiertas y las cerradas hoy
+     * Si la carga falla se arranca sin ellas: las sesiones abiertas se recuperan de la base de datos
+     * cuando su mesa vuelve a cambiar, pero las métricas del día solo cuentan las que se cierren después
+     * @throws IllegalArgumentException si ocupacion.servicios no es válido
+     */
+    @PostConstruct
+    public void iniciar() {
+        servicios = leerServicios(configuracionServicios);
+        try {
+            for (SesionMesa sesion : sesionMesaRepository.findByLiberacionIsNull()) {
+                abiertas.put(sesion.getIdMesa(), new SesionAbierta(sesion));
+            }
+            synchronized (this) {
+                dia = LocalDate.now();
+                acumulados.clear();
+                for (SesionMesa sesion : sesionMesaRepository.findByLiberacionGreaterThanEqualOrderByLiberacionAsc(dia.atStartOfDay())) {
+                    acumular(new SesionAbierta(sesion), sesion.getLiberacion());
+                }
+            }
+            System.out.println("✅ Ocupación - " + abiertas.size() + " mesa(s) ocupada(s), servicios: " +
+                               servicios.stream().map(servicio -> servicio.nombre).collect(Collectors.joining(", ")));
+        } catch (Exception e) {
+            System.out.println("⚠️ Ocupación - No se pudieron cargar las sesiones, las métricas del día empiezan vacías: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si un estado de mesa es de ocupada
+     */
+    static boolean estaOcupada(Estado estado) {
+        return estado != null && ("Ocupado".equalsIgnoreCase(estado.getNombre()) || "Ocupada".equalsIgnoreCase(estado.getNombre()));
+    }
+
+    /**
+     * Abrir la sesión de una mesa que pasa a ocupada, o completar sus comensales si ya estaba abierta
+     * @param mesa mesa ocupada
+     * @param comensales comensales del grupo (opcional)
+     * @throws IllegalArgumentException si los comensales no son válidos
+     */
+    public void mesaOcupada(Mesa mesa, Integer comensales) {
+        if (comensales != null && comensales < 1) {
+            throw new IllegalArgumentException("El número de comensales debe ser mayor que 0");
+        }
+        SesionAbierta abierta = buscarAbierta(mesa.getIdMesa());
+        if (abierta == null) {
+            abrir(mesa, new SesionMesa(mesa, comensales, LocalDateTime.now()));
+            return;
+        }
+        if (comensales == null) {
+            return;
+        }
+        sesionMesaRepository.findById(abierta.idSesion).ifPresent(sesion -> {
+            sesion.setComensales(comensales);
+            sesionMesaRepository.save(sesion);
+            TrasTransaccion.alConfirmar(() -> {
+                synchronized (this) {
+                    abierta.comensales = comensales;
+                }
+            });
+        });
+    }
+
+    /**
+     * Registrar una comanda nueva en la sesión de su mesa (abre la sesión si la mesa no tenía)
+     * @param mesa mesa de la comanda
+     */
+    public void comandaCreada(Mesa mesa) {
+        LocalDateTime ahora = LocalDateTime.now();
+        SesionAbierta abierta = buscarAbierta(mesa.getIdMesa());
+        if (abierta == null) {
+            SesionMesa nueva = new SesionMesa(mesa, null, ahora);
+            nueva.setPrimeraComanda(ahora);
+            abrir(mesa, nueva);
+            return;
+        }
+        if (abierta.primeraComanda != null) {
+            return;
+        }
+        sesionMesaRepository.findById(abierta.idSesion).ifPresent(sesion -> {
+            sesion.setPrimeraComanda(ahora);
+            sesionMesaRepository.save(sesion);
+            TrasTransaccion.alConfirmar(() -> {
+                synchronized (this) {
+                    if (abierta.primeraComanda == null) {
+                        abierta.primeraComanda = ahora;
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Registrar el cobro de una comanda en la sesión de su mesa
+     * @param idMesa ID de la mesa
+     * @param importe importe cobrado
+     */
+    public void cuentaCobrada(Integer idMesa, BigDecimal importe) {
+        SesionAbierta abierta = buscarAbierta(idMesa);
+        if (abierta == null || importe == null) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        sesionMesaRepository.findById(abierta.idSesion).ifPresent(sesion -> {
+            if (sesion.getCuenta() == null) {
+                sesion.setCuenta(ahora);
+            }
+            sesion.setIngresos(sesion.getIngresos().add(importe));
+            sesionMesaRepository.save(sesion);
+            TrasTransaccion.alConfirmar(() -> {
+                synchronized (this) {
+                    abierta.ingresos = abierta.ingresos.add(importe);
+                }
+            });
+        });
+    }
+
+    /**
+     * Cerrar la sesión de una mesa que se libera y sumarla a los acumulados del día
+     * @param idMesa ID de la mesa
+     */
+    public void mesaLiberada(Integer idMesa) {
+        SesionAbierta abierta = buscarAbierta(idMesa);
+        if (abierta == null) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        sesionMesaRepository.findById(abierta.idSesion).ifPresent(sesion -> {
+            sesion.setLiberacion(ahora);
+            sesionMesaRepository.save(sesion);
+        });
+        TrasTransaccion.alConfirmar(() -> {
+            if (abiertas.remove(idMesa, abierta)) {
+                synchronized (this) {
+                    acumular(abierta, ahora);
+                }
+            }
+        });
+    }
+
+    /**
+     * Obtener la ocupación en vivo y las métricas de rotación del día por ubicación
+     * @return List<OcupacionUbicacionDTO> ordenada por ubicación
+     */
+    @Transactional(readOnly = true)
+    public List<OcupacionUbicacionDTO> obtenerOcupacion() {
+        Map<String, List<MesaResumen>> mesasPorUbicacion = mesaRepository.findAllResumen().stream()
+            .collect(Collectors.groupingBy(MesaResumen::getUbicacion, TreeMap::new, Collectors.toList()));
+
+        List<OcupacionUbicacionDTO> ocupacion = new ArrayList<>();
+        synchronized (this) {
+            reiniciarSiCambioElDia(LocalDate.now());
+            Set<String> ubicaciones = new TreeSet<>(mesasPorUbicacion.keySet());
+            ubicaciones.addAll(acumulados.keySet());
+            for (String ubicacion : ubicaciones) {
+                ocupacion.add(aDTO(ubicacion, mesasPorUbicacion.getOrDefault(ubicacion, List.of()), acumulados.get(ubicacion)));
+            }
+        }
+        return ocupacion;
+    }
+
+    /**
+     * Sesión abierta de una mesa; si no está en memoria (la abrió otra instancia o falló la carga) se busca en la base de datos
+     */
+    private SesionAbierta buscarAbierta(Integer idMesa) {
+        SesionAbierta abierta = abiertas.get(idMesa);
+        if (abierta != null) {
+            return abierta;
+        }
+        // La sesión ya está confirmada, así que puede pasar a memoria sin esperar a esta transacción
+        return sesionMesaRepository.findFirstByIdMesaAndLiberacionIsNullOrderByAperturaDesc(idMesa)
+            .map(sesion -> abiertas.computeIfAbsent(idMesa, id -> new SesionAbierta(sesion)))
+            .orElse(null);
+    }
+
+    /**
+     * Guardar la sesión nueva de una mesa. La versión de la mesa se incrementa al confirmar, de modo que dos
+     * aperturas simultáneas de la misma mesa entran en conflicto y la que se reintenta encuentra la sesión de la otra
+     */
+    private void abrir(Mesa mesa, SesionMesa nueva) {
+        mesaRepository.findByIdParaReservar(mesa.getIdMesa());
+        SesionMesa sesion = sesionMesaRepository.save(nueva);
+        TrasTransaccion.alConfirmar(() -> abiertas.put(mesa.getIdMesa(), new SesionAbierta(sesion)));
+    }
+
+    private OcupacionUbicacionDTO aDTO(String ubicacion, List<MesaResumen> mesas, AcumuladoUbicacion acumulado) {
+        int asientos = mesas.stream().mapToInt(mesa -> mesa.getCapacidad() != null ? mesa.getCapacidad() : 0).sum();
+        int mesasOcupadas = 0;
+        int comensalesSentados = 0;
+        for (SesionAbierta abierta : abiertas.values()) {
+            if (abierta.ubicacion.equals(ubicacion)) {
+                mesasOcupadas++;
+                comensalesSentados += abierta.personas();
+            }
+        }
+
+        OcupacionUbicacionDTO.OcupacionUbicacionDTOBuilder dto = OcupacionUbicacionDTO.builder()
+                .ubicacion(ubicacion)
+                .mesas(mesas.size())
+                .mesasOcupadas(mesasOcupadas)
+                .asientos(asientos)
+                .comensalesSentados(comensalesSentados)
+                .utilizacion(asientos > 0 ? redondear(100.0 * comensalesSentados / asientos) : 0.0);
+
+        if (acumulado == null || acumulado.sesiones == 0) {
+            return dto.sesionesCerradas(0)
+                    .rotacionesPorMesa(Map.of())
+                    .ingresos(BigDecimal.ZERO)
+                    .ingresosPorAsientoHora(BigDecimal.ZERO)
+                    .build();
+        }
+
+        Map<String, Double> rotaciones = new LinkedHashMap<>();
+        acumulado.sesionesPorServicio.forEach((servicio, sesiones) ->
+            rotaciones.put(servicio, mesas.isEmpty() ? 0.0 : redondear((double) sesiones / mesas.size())));
+        BigDecimal asientoHoras = BigDecimal.valueOf(acumulado.asientoSegundos)
+            .divide(BigDecimal.valueOf(3600), 4, RoundingMode.HALF_UP);
+
+        return dto.sesionesCerradas(acumulado.sesiones)
+                .minutosMediosSentados(redondear(acumulado.segundosSentados / 60.0 / acumulado.sesiones))
+                .minutosHastaPrimeraComanda(acumulado.sesionesConComanda > 0
+                    ? redondear(acumulado.segundosHastaComanda / 60.0 / acumulado.sesionesConComanda) : null)
+                .rotacionesPorMesa(rotaciones)
+                .ingresos(acumulado.ingresos)
+                .ingresosPorAsientoHora(asientoHoras.signum() > 0
+                    ? acumulado.ingresos.divide(asientoHoras, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO)
+                .build();
+    }
+
+    /**
+     * Sumar una sesión cerrada a los acumulados de su ubicación (con el monitor del servicio tomado)
+     */
+    private void acumular(SesionAbierta sesion, LocalDateTime liberacion) {
+        LocalDate diaLiberacion = liberacion.toLocalDate();
+        reiniciarSiCambioElDia(diaLiberacion);
+        if (!diaLiberacion.equals(dia)) {
+            return;
+        }
+
+        AcumuladoUbicacion acumulado = acumulados.computeIfAbsent(sesion.ubicacion, ubicacion -> new AcumuladoUbicacion());
+        long segundos = Math.max(0, Duration.between(sesion.apertura, liberacion).getSeconds());
+        acumulado.sesiones++;
+        acumulado.segundosSentados += segundos;
+        acumulado.asientoSegundos += (long) sesion.personas() * segundos;
+        acumulado.ingresos = acumulado.ingresos.add(sesion.ingresos);
+        acumulado.sesionesPorServicio.merge(servicioDe(sesion.apertura.toLocalTime()), 1, Integer::sum);
+        if (sesion.primeraComanda != null) {
+            acumulado.sesionesConComanda++;
+            acumulado.segundosHastaComanda += Math.max(0, Duration.between(sesion.apertura, sesion.primeraComanda).getSeconds());
+        }
+    }
+
+    private void reiniciarSiCambioElDia(LocalDate hoy) {
+        if (hoy.isAfter(dia)) {
+            dia = hoy;
+            acumulados.clear();
+        }
+    }
+
+    private String servicioDe(LocalTime hora) {
+        for (Servicio servicio : servicios) {
+            if (!hora.isBefore(servicio.inicio) && hora.isBefore(servicio.fin)) {
+                return servicio.nombre;
+            }
+        }
+        return FUERA_DE_SERVICIO;
+    }
+
+    private static List<Servicio> leerServicios(String configuracion) {
+        List<Servicio> servicios = new ArrayList<>();
+        for (String definicion : configuracion.split(";")) {
+            if (definicion.isBlank()) {
+                continue;
+            }
+            String[] partes = definicion.split("=");
+            String[] horas = partes.length == 2 ? partes[1].split("-") : new String[0];
+            if (horas.length != 2) {
+                throw new IllegalArgumentException("Servicio no válido: " + definicion + ". Formato: Nombre=HH:mm-HH:mm");
+            }
+            LocalTime inicio = LocalTime.parse(horas[0].trim());
+            LocalTime fin = LocalTime.parse(horas[1].trim());
+            if (!fin.isAfter(inicio)) {
+                throw new IllegalArgumentException("El servicio " + partes[0].trim() + " debe terminar después de empezar");
+            }
+            servicios.add(new Servicio(partes[0].trim(), inicio, fin));
+        }
+        return servicios;
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Copia en memoria de una sesión abierta; sus campos cambian con el monitor del servicio tomado
+     */
+    private static final class SesionAbierta {
+        private final Long idSesion;
+        private final String ubicacion;
+        private final int capacidad;
+        private final LocalDateTime apertura;
+        private Integer comensales;
+        private LocalDateTime primeraComanda;
+        private BigDecimal ingresos;
+
+        private SesionAbierta(SesionMesa sesion) {
+            this.idSesion = sesion.getIdSesion();
+            this.ubicacion = sesion.getUbicacion();
+            this.capacidad = sesion.getCapacidad() != null ? sesion.getCapacidad() : 0;
+            this.apertura = sesion.getApertura();
+            this.comensales = sesion.getComensales();
+            this.primeraComanda = sesion.getPrimeraComanda();
+            this.ingresos = sesion.getIngresos() != null ? sesion.getIngresos() : BigDecimal.ZERO;
+        }
+
+        // Sin comensales indicados se cuenta la mesa completa
+        private int personas() {
+            return comensales != null ? comensales : capacidad;
+        }
+    }
+
+    private static final class AcumuladoUbicacion {
+        private int sesiones;
+        private long segundosSentados;
+        private long asientoSegundos;
+        private int sesionesConComanda;
+        private long segundosHastaComanda;
+        private BigDecimal ingresos = BigDecimal.ZERO;
+        private final Map<String, Integer> sesionesPorServicio = new LinkedHashMap<>();
+    }
+
+    private static final class Servicio {
+        private final String nombre;
+        private final LocalTime inicio;
+        private final LocalTime fin;
+
+        private Servicio(String nombre, LocalTime inicio, LocalTime fin) {
+            this.nombre = nombre;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.*;
+import com.example.demo.repository.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Servicio para registrar eventos de dominio en la tabla outbox
+ * Los eventos se escriben dentro de la transacción del servicio que los origina y se numeran justo antes
+ * de su commit; OutboxRelay se encarga después de publicarlos en ese orden
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Crear el contador de secuencia si la base de datos aún no lo tiene
+     */
+    @PostConstruct
+    public void iniciar() {
+        try {
+            if (eventoOutboxRepository.crearSecuenciaSiFalta() > 0) {
+                System.out.println("✅ Outbox - Contador de secuencia creado");
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Outbox - No se pudo crear el contador de secuencia: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registrar un evento en la outbox
+     * @param tipo tipo de evento (constantes de EventoOutbox)
+     * @param agregado nombre del agregado afectado
+     * @param idAgregado ID del agregado afectado
+     * @param datos datos del evento
+     * @return EventoOutbox registrado
+     */
+    public EventoOutbox registrar(String tipo, String agregado, Object idAgregado, Map<String, Object> datos) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo, e);
+        }
+        EventoOutbox evento = eventoOutboxRepository.save(new EventoOutbox(tipo, agregado, String.valueOf(idAgregado), payload));
+        numerarAlConfirmar(evento);
+        return evento;
+    }
+
+    /**
+     * Asignar la secuencia al evento justo antes del commit
+     * Primero se vacía la sesión, para que la transacción no espere ninguna otra fila mientras tiene el contador;
+     * el contador queda bloqueado hasta el commit, así que ninguna transacción puede confirmar una secuencia menor
+     * después y el relay no necesita esperar a las transacciones en curso
+     */
+    private void numerarAlConfirmar(EventoOutbox evento) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                entityManager.flush();
+                if (eventoOutboxRepository.avanzarSecuencia() == 0) {
+                    throw new IllegalStateException("Falta el contador de secuencia de la outbox");
+                }
+                Long secuencia = eventoOutboxRepository.leerSecuencia();
+                eventoOutboxRepository.asignarSecuencia(evento.getIdEvento(), secuencia);
+            }
+        });
+    }
+
+    /**
+     * Registrar la creación de una comanda
+     * @param comanda comanda creada
+     */
+    public void comandaCreada(Comanda comanda) {
+        Map<String, Object> datos = datosComanda(comanda);
+        datos.put("idMesero", comanda.getMesero() != null ? comanda.getMesero().getIdUsuario() : null);
+        datos.put("estado", nombreEstado(comanda.getEstado()));
+        datos.put("fecha", comanda.getFecha() != null ? comanda.getFecha().toString() : null);
+        registrar(EventoOutbox.COMANDA_CREADA, "Comanda", comanda.getIdComanda(), datos);
+    }
+
+    /**
+     * Registrar un cambio de estado de una comanda
+     * @param comanda comanda con el nuevo estado
+     * @param estadoAnterior estado previo al cambio
+     */
+    public void estadoCambiado(Comanda comanda, Estado estadoAnterior) {
+        Map<String, Object> datos = datosComanda(comanda);
+        datos.put("estadoAnterior", nombreEstado(estadoAnterior));
+        datos.put("estadoNuevo", nombreEstado(comanda.getEstado()));
+        registrar(EventoOutbox.ESTADO_CAMBIADO, "Comanda", comanda.getIdComanda(), datos);
+    }
+
+    /**
+     * Registrar que se agregaron unidades de un producto a una comanda
+     * @param detalle línea de la comanda después del cambio
+     * @param cantidadAgregada unidades añadidas en esta operación
+     */
+    public void lineaAgregada(DetalleComanda detalle, int cantidadAgregada) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idDetalleComanda", detalle.getIdDetalleComanda());
+        datos.put("idComanda", detalle.getComanda().getIdComanda());
+        datos.put("idProducto", detalle.getProducto().getIdProducto());
+        datos.put("cantidadAgregada", cantidadAgregada);
+        datos.put("cantidadTotal", detalle.getCantidad());
+        datos.put("precioUnitario", detalle.getPrecioUnitario());
+        datos.put("subtotal", detalle.getSubtotal());
+        registrar(EventoOutbox.LINEA_AGREGADA, "Comanda", detalle.getComanda().getIdComanda(), datos);
+    }
+
+    /**
+     * Registrar un ajuste de stock de un producto
+     * No registra nada si la variación es cero
+     * @param producto producto con el stock ya ajustado
+     * @param variacion unidades sumadas (positivo) o restadas (negativo)
+     * @param motivo causa del ajuste
+     */
+    public void stockAjustado(Producto producto, int variacion, String motivo) {
+        if (variacion == 0) {
+            return;
+        }
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idProducto", producto.getIdProducto());
+        datos.put("variacion", variacion);
+        datos.put("stockResultante", producto.getStock());
+        datos.put("motivo", motivo);
+        registrar(EventoOutbox.STOCK_AJUSTADO, "Producto", producto.getIdProducto(), datos);
+    }
+
+    /**
+     * Registrar el pago de una comanda
+     * @param comanda comanda pagada
+     */
+    public void comandaPagada(Comanda comanda) {
+        Map<String, Object> datos = datosComanda(comanda);
+        datos.put("total", comanda.calcularTotal());
+        registrar(EventoOutbox.COMANDA_PAGADA, "Comanda", comanda.getIdComanda(), datos);
+    }
+
+    private Map<String, Object> datosComanda(Comanda comanda) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idComanda", comanda.getIdComanda());
+        datos.put("idMesa", comanda.getMesa() != null ? comanda.getMesa().getIdMesa() : null);
+        return datos;
+    }
+
+    private String nombreEstado(Estado estado) {
+        return estado != null ? estado.getNombre() : null;
+    }
+}
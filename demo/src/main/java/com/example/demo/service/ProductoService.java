@@ -1,6 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.concurrencia.ReintentarConflicto;
+import com.example.demo.dto.projection.ProductoResumen;
+import com.example.demo.dto.response.ProductoResponseDTO;
 import com.example.demo.entity.*;
+import com.example.demo.mapper.ProductoMapper;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -9,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de productos
@@ -24,6 +29,18 @@ public class ProductoService {
     @Autowired
     private CategoriaRepository categoriaRepository;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ProductoMapper productoMapper;
+    
+    @Autowired
+    private AlertasStockService alertasStockService;
+    
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+    
     /**
      * Obtener todos los productos
      * @return Lista de todos los productos
@@ -50,16 +67,26 @@ public class ProductoService {
     }
     
     /**
-     * Obtener productos por categoría
+     * Listar todos los productos como DTO
+     * @return Lista de todos los productos
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResponseDTO> listarProductos() {
+        return aDTO(productoRepository.findAllResumen());
+    }
+    
+    /**
+     * Listar productos por categoría
      * @param idCategoria ID de la categoría
      * @return Lista de productos de esa categoría
      */
     @Transactional(readOnly = true)
-    public List<Producto> obtenerProductosPorCategoria(Integer idCategoria) {
-        Categoria categoria = categoriaRepository.findById(idCategoria)
-            .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada con ID: " + idCategoria));
+    public List<ProductoResponseDTO> listarProductosPorCategoria(Integer idCategoria) {
+        if (!categoriaRepository.existsById(idCategoria)) {
+            throw new IllegalArgumentException("Categoría no encontrada con ID: " + idCategoria);
+        }
         
-        return productoRepository.findByCategoria(categoria);
+        return aDTO(productoRepository.findResumenByCategoriaId(idCategoria));
     }
     
     /**
@@ -72,12 +99,21 @@ public class ProductoService {
     }
     
     /**
-     * Obtener productos inactivos
+     * Listar productos activos como DTO
+     * @return Lista de productos activos
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResponseDTO> listarProductosActivos() {
+        return aDTO(productoRepository.findResumenByEstado(true));
+    }
+    
+    /**
+     * Listar productos inactivos
      * @return Lista de productos inactivos
      */
     @Transactional(readOnly = true)
-    public List<Producto> obtenerProductosInactivos() {
-        return productoRepository.findByEstadoFalse();
+    public List<ProductoResponseDTO> listarProductosInactivos() {
+        return aDTO(productoRepository.findResumenByEstado(false));
     }
     
     /**
@@ -106,6 +142,8 @@ public class ProductoService {
         System.out.println("🔍 Producto antes de guardar - Categoría Nombre: " + (producto.getCategoria() != null ? producto.getCategoria().getNombre() : "null"));
         
         Producto productoCreado = productoRepository.save(producto);
+        outboxService.stockAjustado(productoCreado, productoCreado.getStock(), "ALTA_PRODUCTO");
+        alertasStockService.registrarStock(productoCreado);
         
         // Forzar refresh para asegurar que la categoría se cargue correctamente
         productoRepository.flush();
@@ -132,6 +170,7 @@ public class ProductoService {
      * @return Producto actualizado
      * @throws IllegalArgumentException si el producto no existe o hay conflictos
      */
+    @ReintentarConflicto
     public Producto actualizarProducto(Integer id, Producto producto) {
         Producto productoExistente = productoRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
@@ -149,6 +188,8 @@ public class ProductoService {
             throw new IllegalArgumentException("Ya existe un producto con el nombre: " + producto.getNombre());
         }
         
+        int stockAnterior = productoExistente.getStock();
+        
         // Actualizar datos
         productoExistente.setNombre(producto.getNombre().trim());
         productoExistente.setPrecio(producto.getPrecio());
@@ -156,7 +197,10 @@ public class ProductoService {
         productoExistente.setEstado(producto.getEstado());
         productoExistente.setCategoria(categoria);
         
-        return productoRepository.save(productoExistente);
+        Producto productoActualizado = productoRepository.save(productoExistente);
+        outboxService.stockAjustado(productoActualizado, productoActualizado.getStock() - stockAnterior, "AJUSTE_MANUAL");
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
     }
     
     /**
@@ -172,6 +216,8 @@ public class ProductoService {
         // TODO: Validar que el producto no esté siendo usado por detalles de comanda
         // Por ahora solo eliminamos
         productoRepository.delete(producto);
+        eliminacionRepository.save(new Eliminacion(Eliminacion.PRODUCTO, id));
+        alertasStockService.retirar(id);
     }
     
     /**
@@ -179,13 +225,16 @@ public class ProductoService {
      * @param id ID del producto
      * @return Producto actualizado
      */
+    @ReintentarConflicto
     public Producto activarProducto(Integer id) {
         Producto producto = productoRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
         
         producto.setEstado(true);
         
-        return productoRepository.save(producto);
+        Producto productoActualizado = productoRepository.save(producto);
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
     }
     
     /**
@@ -193,13 +242,16 @@ public class ProductoService {
      * @param id ID del producto
      * @return Producto actualizado
      */
+    @ReintentarConflicto
     public Producto desactivarProducto(Integer id) {
         Producto producto = productoRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
         
         producto.setEstado(false);
         
-        return productoRepository.save(producto);
+        Producto productoActualizado = productoRepository.save(producto);
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
     }
     
     /**
@@ -208,6 +260,7 @@ public class ProductoService {
      * @param nuevoStock nuevo stock
      * @return Producto actualizado
      */
+    @ReintentarConflicto
     public Producto actualizarStock(Integer id, Integer nuevoStock) {
         Producto producto = productoRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
@@ -216,9 +269,35 @@ public class ProductoService {
             throw new IllegalArgumentException("El stock no puede ser negativo");
         }
         
+        int variacion = nuevoStock - producto.getStock();
         producto.setStock(nuevoStock);
         
-        return productoRepository.save(producto);
+        Producto productoActualizado = productoRepository.save(producto);
+        outboxService.stockAjustado(productoActualizado, variacion, "AJUSTE_MANUAL");
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
+    }
+    
+    /**
+     * Actualizar el umbral de reposición de un producto
+     * @param id ID del producto
+     * @param umbral stock a partir del cual (incluido) el producto entra en las alertas de stock bajo
+     * @return Producto actualizado
+     */
+    @ReintentarConflicto
+    public Producto actualizarUmbral(Integer id, Integer umbral) {
+        Producto producto = productoRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
+        
+        if (umbral < 0) {
+            throw new IllegalArgumentException("El umbral de reposición no puede ser negativo");
+        }
+        
+        producto.setUmbralReposicion(umbral);
+        
+        Producto productoActualizado = productoRepository.save(producto);
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
     }
     
     /**
@@ -228,6 +307,7 @@ public class ProductoService {
      * @return Producto actualizado
      * @throws IllegalArgumentException si no hay stock suficiente
      */
+    @ReintentarConflicto
     public Producto reducirStock(Integer id, Integer cantidad) {
         Producto producto = productoRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
@@ -242,7 +322,10 @@ public class ProductoService {
         
         producto.setStock(producto.getStock() - cantidad);
         
-        return productoRepository.save(producto);
+        Producto productoActualizado = productoRepository.save(producto);
+        outboxService.stockAjustado(productoActualizado, -cantidad, "REDUCCION");
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
     }
     
     /**
@@ -251,6 +334,7 @@ public class ProductoService {
      * @param cantidad cantidad a aumentar
      * @return Producto actualizado
      */
+    @ReintentarConflicto
     public Producto aumentarStock(Integer id, Integer cantidad) {
         Producto producto = productoRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado con ID: " + id));
@@ -261,42 +345,50 @@ public class ProductoService {
         
         producto.setStock(producto.getStock() + cantidad);
         
-        return productoRepository.save(producto);
+        Producto productoActualizado = productoRepository.save(producto);
+        outboxService.stockAjustado(productoActualizado, cantidad, "REPOSICION");
+        alertasStockService.registrarStock(productoActualizado);
+        return productoActualizado;
     }
     
     /**
-     * Buscar productos por nombre
+     * Listar productos por nombre
      * @param nombre nombre o parte del nombre
      * @return Lista de productos que coinciden
      */
     @Transactional(readOnly = true)
-    public List<Producto> buscarProductosPorNombre(String nombre) {
-        return productoRepository.findByNombreContainingIgnoreCase(nombre);
+    public List<ProductoResponseDTO> listarProductosPorNombre(String nombre) {
+        return aDTO(productoRepository.findResumenByNombre(nombre));
     }
     
     /**
-     * Buscar productos por rango de precio
+     * Listar productos por rango de precio
      * @param precioMinimo precio mínimo
      * @param precioMaximo precio máximo
      * @return Lista de productos en ese rango
      */
     @Transactional(readOnly = true)
-    public List<Producto> buscarProductosPorRangoPrecio(BigDecimal precioMinimo, BigDecimal precioMaximo) {
+    public List<ProductoResponseDTO> listarProductosPorRangoPrecio(BigDecimal precioMinimo, BigDecimal precioMaximo) {
         if (precioMinimo.compareTo(precioMaximo) > 0) {
             throw new IllegalArgumentException("El precio mínimo no puede ser mayor al precio máximo");
         }
         
-        return productoRepository.findByPrecioBetween(precioMinimo, precioMaximo);
+        return aDTO(productoRepository.findResumenByRangoPrecio(precioMinimo, precioMaximo));
     }
     
     /**
-     * Obtener productos con stock bajo
+     * Listar productos con stock bajo
      * @param stockMinimo stock mínimo
      * @return Lista de productos con stock menor al mínimo
      */
     @Transactional(readOnly = true)
-    public List<Producto> obtenerProductosConStockBajo(Integer stockMinimo) {
-        return productoRepository.findByStockLessThan(stockMinimo);
+    public List<ProductoResponseDTO> listarProductosConStockBajo(Integer stockMinimo) {
+        // El índice de alertas da los IDs sin recorrer la tabla; sin índice cargado se consulta la base de datos
+        Optional<List<Integer>> ids = alertasStockService.obtenerIdsConStockMenorQue(stockMinimo);
+        if (ids.isEmpty()) {
+            return aDTO(productoRepository.findResumenByStockMenorQue(stockMinimo));
+        }
+        return ids.get().isEmpty() ? List.of() : aDTO(productoRepository.findResumenByIds(ids.get()));
     }
     
     /**
@@ -386,4 +478,11 @@ public class ProductoService {
         
         return crearProducto(producto);
     }
+    
+    /**
+     * Convertir proyecciones de producto a DTO
+     */
+    private List<ProductoResponseDTO> aDTO(List<ProductoResumen> productos) {
+        return productos.stream().map(productoMapper::toResponseDTO).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,348 @@
+package com.example.demo.service;
+
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.dto.response.AlertaStockDTO;
+import com.example.demo.dto.response.PronosticoProductoDTO;
+import com.example.demo.repository.ProductoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de pronóstico de consumo y reposición de productos
+ * Por cada producto se mantiene en memoria una serie de 168 franjas (las horas de la semana) con las
+ * unidades por hora suavizadas exponencialmente: al cerrarse cada hora, lo vendido en ella actualiza su
+ * franja. Las series se cargan al arrancar recorriendo con un único cursor las líneas de las últimas
+ * semanas (activas y archivadas) y se actualizan al confirmar cada alta o cambio de línea, de modo que
+ * el pronóstico se calcula sin consultas proyectando el stock actual sobre las franjas siguientes.
+ * Tras un reinicio las series se reconstruyen desde el historial, así que no hace falta persistirlas
+ */
+@Service
+public class PronosticoConsumoService {
+
+    static final int HORAS_SEMANA = 168;
+
+    // El 1 de enero de 1970 fue jueves: desplazamiento para que la franja 0 sea el lunes de 00:00 a 01:00
+    private static final int DESFASE_EPOCH = 72;
+
+    // Tras tantas semanas sin ventas la tasa ya es despreciable: no se siguen aplicando horas vacías
+    private static final int MAX_SEMANAS_VACIAS = 12;
+
+    private static final String CONSULTA_HISTORIAL =
+        "SELECT d.id_producto, c.fecha, d.cantidad FROM restaurante_detalle_comanda d " +
+        "JOIN restaurante_comandas c ON c.id_comanda = d.id_comanda WHERE c.fecha >= ? " +
+        "UNION ALL " +
+        "SELECT d.id_producto, c.fecha, d.cantidad FROM restaurante_detalle_comanda_historico d " +
+        "JOIN restaurante_comandas_historico c ON c.id_comanda = d.id_comanda WHERE c.fecha >= ? " +
+        "ORDER BY 2";
+
+    private static final Comparator<PronosticoProductoDTO> POR_AGOTAMIENTO = Comparator
+        .comparing(PronosticoProductoDTO::getAgotamiento, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(PronosticoProductoDTO::getIdProducto);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AlertasStockService alertasStockService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Value("${pronostico.semanas-historial:8}")
+    private int semanasHistorial = 8;
+
+    // Peso de la semana más reciente en cada franja; mientras una franja tiene pocas semanas se usa su media simple
+    @Value("${pronostico.alfa:0.3}")
+    private double alfa = 0.3;
+
+    @Value("${pronostico.horizonte-dias:28}")
+    private int horizonteDias = 28;
+
+    @Value("${pronostico.plazo-entrega-horas:48}")
+    private int plazoEntregaHoras = 48;
+
+    @Value("${pronostico.cobertura-dias:7}")
+    private int coberturaDias = 7;
+
+    // En MySQL solo se respeta con useCursorFetch=true en la URL; si no, el driver carga todo el resultado
+    @Value("${pronostico.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    private final Map<Integer, Serie> series = new ConcurrentHashMap<>();
+
+    /**
+     * Cargar las series con las ventas de las últimas semanas (pronostico.semanas-historial)
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (alfa <= 0 || alfa > 1) {
+            throw new IllegalArgumentException("pronostico.alfa debe ser mayor que 0 y como máximo 1");
+        }
+        try {
+            LocalDateTime desde = LocalDate.now().minusWeeks(semanasHistorial).atStartOfDay();
+            long inicio = hora(desde);
+            long[] lineas = {0};
+            jdbcTemplate.query(conexion -> {
+                PreparedStatement consulta = conexion.prepareStatement(CONSULTA_HISTORIAL);
+                consulta.setFetchSize(fetchSize);
+                consulta.setTimestamp(1, Timestamp.valueOf(desde));
+                consulta.setTimestamp(2, Timestamp.valueOf(desde));
+                return consulta;
+            }, (RowCallbackHandler) fila -> {
+                // Las horas anteriores a la primera venta de la ventana también cuentan como horas sin ventas
+                series.computeIfAbsent(fila.getInt(1), idProducto -> new Serie(inicio))
+                    .sumar(hora(fila.getTimestamp(2).toLocalDateTime()), fila.getInt(3), alfa);
+                lineas[0]++;
+            });
+            System.out.println("✅ Pronóstico de consumo - " + series.size() + " producto(s) cargados con " + lineas[0] + " línea(s)");
+        } catch (Exception e) {
+            System.out.println("⚠️ Pronóstico de consumo - No se pudo cargar el historial, se pronosticará solo con las ventas nuevas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registrar unidades consumidas (o devueltas, si es negativo) de un producto
+     * Las unidades se suman a la hora en curso cuando se confirma la línea
+     * @param idProducto ID del producto
+     * @param cantidad variación de unidades
+     */
+    public void registrarConsumo(Integer idProducto, int cantidad) {
+        if (cantidad == 0) {
+            return;
+        }
+        TrasTransaccion.alConfirmar(() -> registrar(idProducto, LocalDateTime.now(), cantidad));
+    }
+
+    /**
+     * Obtener el pronóstico de agotamiento y la cantidad a reponer de los productos activos
+     * @return Lista ordenada por agotamiento previsto (los que no se agotan dentro del horizonte, al final)
+     */
+    public List<PronosticoProductoDTO> obtenerPronostico() {
+        return calcularPronostico(LocalDateTime.now());
+    }
+
+    void registrar(Integer idProducto, LocalDateTime fecha, int cantidad) {
+        long hora = hora(fecha);
+        Serie serie = cantidad > 0
+            ? series.computeIfAbsent(idProducto, id -> new Serie(hora))
+            : series.get(idProducto);
+        if (serie != null) {
+            serie.sumar(hora, cantidad, alfa);
+        }
+    }
+
+    List<PronosticoProductoDTO> calcularPronostico(LocalDateTime ahora) {
+        List<AlertaStockDTO> niveles = alertasStockService.obtenerNivelesActivos().orElseGet(this::cargarNivelesActivos);
+        List<PronosticoProductoDTO> pronostico = new ArrayList<>(niveles.size());
+        for (AlertaStockDTO nivel : niveles) {
+            pronostico.add(pronosticar(nivel, ahora));
+        }
+        pronostico.sort(POR_AGOTAMIENTO);
+        return pronostico;
+    }
+
+    private PronosticoProductoDTO pronosticar(AlertaStockDTO nivel, LocalDateTime ahora) {
+        int stock = nivel.getStock() != null ? Math.max(0, nivel.getStock()) : 0;
+        int umbral = nivel.getUmbral() != null ? nivel.getUmbral() : 0;
+
+        double consumo24h = 0;
+        double demandaReposicion = 0;
+        Double horasHastaAgotamiento = null;
+        Serie serie = series.get(nivel.getIdProducto());
+        if (serie != null) {
+            long hora = hora(ahora);
+            double fraccion = 1 - (ahora.toEpochSecond(ZoneOffset.UTC) - hora * 3600) / 3600.0;
+            Proyeccion proyeccion = serie.proyectar(hora, fraccion, stock, horizonteDias * 24,
+                plazoEntregaHoras + coberturaDias * 24, alfa);
+            consumo24h = proyeccion.consumo24h;
+            demandaReposicion = proyeccion.demandaReposicion;
+            horasHastaAgotamiento = proyeccion.horasHastaAgotamiento;
+        } else if (stock == 0) {
+            horasHastaAgotamiento = 0.0;
+        }
+
+        LocalDateTime agotamiento = horasHastaAgotamiento != null
+            ? ahora.plusSeconds(Math.round(horasHastaAgotamiento * 3600)) : null;
+        return PronosticoProductoDTO.builder()
+            .idProducto(nivel.getIdProducto())
+            .nombre(nivel.getNombre())
+            .stock(stock)
+            .umbral(umbral)
+            .consumoPrevisto24h(redondear(consumo24h))
+            .agotamiento(agotamiento)
+            .horasHastaAgotamiento(horasHastaAgotamiento != null ? redondear(horasHastaAgotamiento) : null)
+            .pedirAntesDe(agotamiento != null ? agotamiento.minusHours(plazoEntregaHoras) : null)
+            .cantidadSugerida(Math.max(0, (int) Math.ceil(demandaReposicion - 1e-9) + umbral - stock))
+            .build();
+    }
+
+    private List<AlertaStockDTO> cargarNivelesActivos() {
+        List<AlertaStockDTO> niveles = new ArrayList<>();
+        for (Object[] fila : productoRepository.findNivelesStock()) {
+            if (Boolean.TRUE.equals(fila[4])) {
+                niveles.add(AlertaStockDTO.builder()
+                    .idProducto((Integer) fila[0])
+                    .nombre((String) fila[1])
+                    .stock((Integer) fila[2])
+                    .umbral(fila[3] != null ? (Integer) fila[3] : 0)
+                    .build());
+            }
+        }
+        return niveles;
+    }
+
+    // Horas desde epoch de una fecha local (las franjas siguen la hora del restaurante)
+    private static long hora(LocalDateTime fecha) {
+        return Math.floorDiv(fecha.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    private static int franja(long hora) {
+        return (int) Math.floorMod(hora + DESFASE_EPOCH, (long) HORAS_SEMANA);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Serie de consumo de un producto por franja horaria de la semana (protegida por su propio monitor)
+     */
+    private static final class Serie {
+
+        // Unidades por hora suavizadas de cada franja y semanas observadas en ella (hasta 127)
+        private final double[] tasas = new double[HORAS_SEMANA];
+        private final byte[] semanas = new byte[HORAS_SEMANA];
+        // Hora en curso (horas desde epoch) y unidades vendidas en ella, pendientes de pasar a su franja
+        private long horaActual;
+        private int unidadesHora;
+
+        private Serie(long hora) {
+            this.horaActual = hora;
+        }
+
+        private synchronized void sumar(long hora, int cantidad, double alfa) {
+            avanzar(hora, alfa);
+            // Una hora anterior a la hora en curso (reloj o historial desordenado) se suma a la hora en curso
+            unidadesHora += cantidad;
+        }
+
+        private synchronized Proyeccion proyectar(long hora, double fraccion, int stock, int horizonte,
+                                                  int horasReposicion, double alfa) {
+            avanzar(hora, alfa);
+            double semana = 0;
+            for (double tasa : tasas) {
+                semana += tasa;
+            }
+            return new Proyeccion(
+                demanda(hora, fraccion, 24, semana),
+                demanda(hora, fraccion, horasReposicion, semana),
+                horasHastaAgotar(hora, fraccion, stock, horizonte, semana));
+        }
+
+        /**
+         * Pasar a sus franjas las horas cerradas antes de la indicada (las horas sin ventas cuentan como cero)
+         */
+        private void avanzar(long hora, double alfa) {
+            if (hora <= horaActual) {
+                return;
+            }
+            observar(horaActual, Math.max(0, unidadesHora), alfa);
+            long vacias = Math.min(hora - horaActual - 1, (long) HORAS_SEMANA * MAX_SEMANAS_VACIAS);
+            for (long h = hora - vacias; h < hora; h++) {
+                observar(h, 0, alfa);
+            }
+            horaActual = hora;
+            unidadesHora = 0;
+        }
+
+        private void observar(long hora, int unidades, double alfa) {
+            int franja = franja(hora);
+            double peso = Math.max(alfa, 1.0 / (semanas[franja] + 1));
+            tasas[franja] += peso * (unidades - tasas[franja]);
+            if (semanas[franja] < Byte.MAX_VALUE) {
+                semanas[franja]++;
+            }
+        }
+
+        /**
+         * Unidades previstas en las próximas horas: la fracción que queda de la hora en curso y después horas completas
+         */
+        private double demanda(long hora, double fraccion, double horas, double semana) {
+            double total = tasas[franja(hora)] * Math.min(fraccion, horas);
+            double resto = horas - fraccion;
+            if (resto <= 0) {
+                return total;
+            }
+            long semanasCompletas = (long) (resto / HORAS_SEMANA);
+            total += semanasCompletas * semana;
+            resto -= semanasCompletas * HORAS_SEMANA;
+            for (long h = hora + 1; resto > 0; h++) {
+                total += tasas[franja(h)] * Math.min(1, resto);
+                resto -= 1;
+            }
+            return total;
+        }
+
+        /**
+         * Horas hasta consumir el stock, o null si no se consume dentro del horizonte
+         */
+        private Double horasHastaAgotar(long hora, double fraccion, int stock, int horizonte, double semana) {
+            if (stock <= 0) {
+                return 0.0;
+            }
+            double tasaEnCurso = tasas[franja(hora)];
+            if (tasaEnCurso * fraccion >= stock) {
+                return stock / tasaEnCurso;
+            }
+            if (semana <= 0) {
+                return null;
+            }
+            double restante = stock - tasaEnCurso * fraccion;
+            // Cada semana completa consume lo mismo: se saltan de una vez y solo se recorre la última
+            long semanasCompletas = (long) (restante / semana);
+            if (semanasCompletas > 0 && semanasCompletas * semana >= restante) {
+                semanasCompletas--;
+            }
+            restante -= semanasCompletas * semana;
+            double horas = fraccion + semanasCompletas * HORAS_SEMANA;
+            for (long h = hora + 1; horas < horizonte; h++) {
+                double tasa = tasas[franja(h)];
+                if (tasa >= restante) {
+                    horas += restante / tasa;
+                    return horas <= horizonte ? horas : null;
+                }
+                restante -= tasa;
+                horas += 1;
+            }
+            return null;
+        }
+    }
+
+    private static final class Proyeccion {
+
+        private final double consumo24h;
+        private final double demandaReposicion;
+        private final Double horasHastaAgotamiento;
+
+        private Proyeccion(double consumo24h, double demandaReposicion, Double horasHastaAgotamiento) {
+            this.consumo24h = consumo24h;
+            this.demandaReposicion = demandaReposicion;
+            this.horasHastaAgotamiento = horasHastaAgotamiento;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.LoginResponseDTO;
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.Usuario;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UsuarioRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.ListaRevocacion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Servicio para los refresh tokens que renuevan los access tokens de corta duración
+ * Cada refresh token es de un solo uso: al usarlo se marca como usado y se entrega otro de la misma familia
+ * Si se presenta un token ya usado (lo tiene otra persona) se revoca la familia completa
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ListaRevocacion listaRevocacion;
+
+    @Value("${jwt.refresh.expiration:604800000}") // 7 días en milisegundos
+    private long refreshExpiration = 604800000L;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * Emitir un refresh token para un login nuevo (familia nueva)
+     * @param idUsuario ID del usuario autenticado
+     * @return refresh token en claro; solo se guarda su hash
+     */
+    public String emitir(String idUsuario) {
+        return emitir(idUsuario, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Cambiar un refresh token por un access token nuevo y el siguiente refresh token de la familia
+     * @param refreshToken refresh token en claro
+     * @return respuesta de login con los tokens nuevos
+     * @throws IllegalArgumentException si el token no existe, expiró, fue revocado o ya se usó
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public LoginResponseDTO refrescar(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new IllegalArgumentException("El refresh token es obligatorio");
+        }
+
+        RefreshToken actual = refreshTokenRepository.findParaRotar(calcularHash(refreshToken))
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token inválido"));
+
+        if (actual.getRevocado()) {
+            throw new IllegalArgumentException("Refresh token revocado");
+        }
+
+        if (actual.getUsado()) {
+            // Reutilización: el token original y su sustituto dejan de valer (la revocación se confirma pese a la excepción)
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            System.out.println("⚠️ Refresh token reutilizado para " + actual.getIdUsuario() + ", sesión " + actual.getFamilia() + " revocada");
+            throw new IllegalArgumentException("Refresh token ya utilizado, inicie sesión nuevamente");
+        }
+
+        if (actual.getFechaExpiracion().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Refresh token expirado");
+        }
+
+        Usuario usuario = usuarioRepository.findById(actual.getIdUsuario()).orElse(null);
+        if (usuario == null) {
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            throw new IllegalArgumentException("Usuario no encontrado");
+        }
+
+        actual.setUsado(true);
+        String nuevoRefreshToken = emitir(usuario.getIdUsuario(), actual.getFamilia());
+        String rol = usuario.getRol().getNombre();
+
+        return LoginResponseDTO.builder()
+                .token(jwtUtil.generateToken(usuario.getIdUsuario(), usuario.getEmail(), rol))
+                .type("Bearer")
+                .idUsuario(usuario.getIdUsuario())
+                .nombre(usuario.getNombre())
+                .email(usuario.getEmail())
+                .rol(rol)
+                .expiresIn(jwtUtil.getExpirationTime())
+                .refreshToken(nuevoRefreshToken)
+                .refreshExpiresIn(refreshExpiration)
+                .build();
+    }
+
+    /**
+     * Cerrar la sesión de un refresh token revocando su familia
+     * @param refreshToken refresh token en claro
+     * @return true si el token existía
+     */
+    public boolean cerrarSesion(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return false;
+        }
+        return refreshTokenRepository.findByTokenHash(calcularHash(refreshToken))
+                .map(token -> {
+                    refreshTokenRepository.revocarFamilia(token.getFamilia());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Revocar todas las sesiones de un usuario: sus refresh tokens y los access tokens ya emitidos
+     * @param idUsuario ID del usuario
+     * @return número de refresh tokens revocados
+     */
+    public int revocarUsuario(String idUsuario) {
+        if (idUsuario == null || idUsuario.isBlank()) {
+            throw new IllegalArgumentException("El ID de usuario es obligatorio");
+        }
+        int revocados = refreshTokenRepository.revocarPorUsuario(idUsuario);
+        listaRevocacion.revocarUsuario(idUsuario);
+        System.out.println("✅ Sesiones de " + idUsuario + " revocadas (" + revocados + " refresh token(s))");
+        return revocados;
+    }
+
+    /**
+     * Obtener la duración configurada de los refresh tokens
+     * @return milisegundos
+     */
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    /**
+     * Eliminar los refresh tokens expirados
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.purga-ms:3600000}")
+    public void purgarExpirados() {
+        int eliminados = refreshTokenRepository.eliminarExpirados(LocalDateTime.now());
+        if (eliminados > 0) {
+            System.out.println("✅ Refresh tokens - " + eliminados + " token(s) expirado(s) eliminado(s)");
+        }
+    }
+
+    private String emitir(String idUsuario, String familia) {
+        byte[] aleatorio = new byte[32];
+        secureRandom.nextBytes(aleatorio);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(aleatorio);
+        refreshTokenRepository.save(new RefreshToken(calcularHash(token), idUsuario, familia,
+                LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration))));
+        return token;
+    }
+
+    private String calcularHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.demo.service;
+
+import com.example.demo.concurrencia.ReintentarConflicto;
+import com.example.demo.concurrencia.TrasTransaccion;
+import com.example.demo.dto.request.ReservaRequestDTO;
+import com.example.demo.dto.response.MesaResponseDTO;
+import com.example.demo.dto.response.ReservaResponseDTO;
+import com.example.demo.entity.Mesa;
+import com.example.demo.entity.Reserva;
+import com.example.demo.mapper.MesaMapper;
+import com.example.demo.mapper.ReservaMapper;
+import com.example.demo.repository.MesaRepository;
+import com.example.demo.repository.ReservaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio para la gestión de reservas de mesa por franja horaria
+ * Cada mesa tiene en memoria su agenda de reservas vigentes ordenada por inicio. Como las reservas de una
+ * mesa nunca se solapan, sus fines quedan en el mismo orden que sus inicios y basta una búsqueda en el árbol
+ * (O(log n)) para saber si un intervalo choca con alguna. La agenda se carga al arrancar; como otra instancia
+ * puede haber reservado la misma mesa, al reservar se comprueba además la base de datos
+ */
+@Service
+@Transactional
+public class ReservaService {
+
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ReservaMapper reservaMapper;
+
+    @Autowired
+    private MesaMapper mesaMapper;
+
+    // Tiempo que se supone que ocupa la mesa un cliente sin reserva
+    @Value("${reservas.estancia-minutos:90}")
+    private long estanciaMinutos = 90;
+
+    // Una reserva que empieza dentro de este margen se considera el grupo que llega, no un choque
+    @Value("${reservas.tolerancia-llegada-minutos:15}")
+    private long toleranciaLlegadaMinutos = 15;
+
+    @Value("${reservas.duracion-maxima-horas:6}")
+    private long duracionMaximaHoras = 6;
+
+    private final Map<Integer, TreeMap<LocalDateTime, Tramo>> agendas = new ConcurrentHashMap<>();
+
+    /**
+     * Cargar las reservas vigentes en las agendas de las mesas (las ya terminadas no se cargan)
+     */
+    @PostConstruct
+    public void iniciar() {
+        try {
+            List<Reserva> reservas = reservaRepository.findVigentesDesde(LocalDateTime.now());
+            agendas.clear();
+            for (Reserva reserva : reservas) {
+                agendaDe(reserva.getMesa().getIdMesa())
+                    .put(reserva.getInicio(), new Tramo(reserva.getIdReserva(), reserva.getInicio(), reserva.getFin()));
+            }
+            System.out.println("✅ Reservas - " + reservas.size() + " reserva(s) vigente(s) en " + agendas.size() + " mesa(s)");
+        } catch (Exception e) {
+            System.out.println("⚠️ Reservas - No se pudieron cargar las reservas vigentes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reservar una mesa para una franja horaria
+     * @param request datos de la reserva
+     * @return Reserva creada
+     * @throws IllegalArgumentException si los datos no son válidos o la mesa no está libre en esa franja
+     */
+    @ReintentarConflicto
+    public Reserva crearReserva(ReservaRequestDTO request) {
+        LocalDateTime ahora = LocalDateTime.now();
+        validarIntervalo(request.getInicio(), request.getFin());
+        if (!request.getInicio().isAfter(ahora)) {
+            throw new IllegalArgumentException("La reserva debe empezar en el futuro");
+        }
+
+        // La versión de la mesa se incrementa al confirmar: dos reservas simultáneas de la mesa no pasan las dos
+        Mesa mesa = mesaRepository.findByIdParaReservar(request.getIdMesa())
+            .orElseThrow(() -> new IllegalArgumentException("Mesa no encontrada con ID: " + request.getIdMesa()));
+
+        if (request.getPersonas() > mesa.getCapacidad()) {
+            throw new IllegalArgumentException("La mesa " + mesa.getIdMesa() + " tiene capacidad para " + mesa.getCapacidad() + " personas");
+        }
+
+        if (estaOcupada(mesa.getEstado() != null ? mesa.getEstado().getNombre() : null)
+                && request.getInicio().isBefore(ahora.plusMinutes(estanciaMinutos))) {
+            throw new IllegalArgumentException("La mesa " + mesa.getIdMesa() + " está ocupada y no se espera libre antes de las "
+                + ahora.plusMinutes(estanciaMinutos).format(HORA));
+        }
+
+        TreeMap<LocalDateTime, Tramo> agenda = agendaDe(mesa.getIdMesa());
+        synchronized (agenda) {
+            Tramo solapado = buscarSolapado(agenda, request.getInicio(), request.getFin());
+            if (solapado != null) {
+                throw new IllegalArgumentException("La mesa " + mesa.getIdMesa() + " ya está reservada de "
+                    + solapado.inicio.format(HORA) + " a " + solapado.fin.format(HORA));
+            }
+            if (reservaRepository.existeSolapada(mesa.getIdMesa(), request.getInicio(), request.getFin())) {
+                throw new IllegalArgumentException("La mesa " + mesa.getIdMesa() + " ya tiene una reserva en esa franja");
+            }
+
+            Reserva reserva = new Reserva(mesa, request.getNombreCliente().trim(), request.getPersonas(),
+                request.getInicio(), request.getFin());
+            reserva.setTelefono(request.getTelefono());
+            Reserva reservaCreada = reservaRepository.save(reserva);
+
+            // Se apunta ya en la agenda para que otra reserva de la misma franja la vea; si la transacción
+            // se deshace se quita
+            Tramo tramo = new Tramo(reservaCreada.getIdReserva(), reservaCreada.getInicio(), reservaCreada.getFin());
+            agenda.put(tramo.inicio, tramo);
+            TrasTransaccion.alDeshacer(() -> quitar(mesa.getIdMesa(), tramo));
+            return reservaCreada;
+        }
+    }
+
+    /**
+     * Cancelar una reserva
+     * @param id ID de la reserva
+     * @return Reserva cancelada
+     * @throws IllegalArgumentException si la reserva no existe o ya estaba cancelada
+     */
+    public Reserva cancelarReserva(Integer id) {
+        Reserva reserva = reservaRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Reserva no encontrada con ID: " + id));
+
+        if (reserva.getCancelada()) {
+            throw new IllegalArgumentException("La reserva " + id + " ya está cancelada");
+        }
+
+        reserva.setCancelada(true);
+        Reserva reservaCancelada = reservaRepository.save(reserva);
+
+        Integer idMesa = reserva.getMesa().getIdMesa();
+        Tramo tramo = new Tramo(reserva.getIdReserva(), reserva.getInicio(), reserva.getFin());
+        TrasTransaccion.alConfirmar(() -> quitar(idMesa, tramo));
+        return reservaCancelada;
+    }
+
+    /**
+     * Listar las reservas vigentes que se solapan con un intervalo
+     * @param desde inicio del intervalo
+     * @param hasta fin del intervalo
+     * @return Lista de reservas ordenada por inicio
+     */
+    @Transactional(readOnly = true)
+    public List<ReservaResponseDTO> listarReservas(LocalDateTime desde, LocalDateTime hasta) {
+        validarIntervalo(desde, hasta);
+        return reservaRepository.findVigentesEntre(desde, hasta).stream()
+            .map(reservaMapper::toResponseDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Listar las reservas vigentes de una mesa
+     * @param idMesa ID de la mesa
+     * @return Lista de reservas que aún no han terminado, ordenada por inicio
+     */
+    @Transactional(readOnly = true)
+    public List<ReservaResponseDTO> listarReservasPorMesa(Integer idMesa) {
+        if (!mesaRepository.existsById(idMesa)) {
+            throw new IllegalArgumentException("Mesa no encontrada con ID: " + idMesa);
+        }
+
+        return reservaRepository.findVigentesPorMesa(idMesa, LocalDateTime.now()).stream()
+            .map(reservaMapper::toResponseDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Buscar mesas libres para un grupo en una franja horaria
+     * @param personas número de comensales
+     * @param inicio inicio de la franja
+     * @param fin fin de la franja (excluido)
+     * @return Lista de mesas con capacidad suficiente y sin reservas en la franja, de menor a mayor capacidad
+     */
+    @Transactional(readOnly = true)
+    public List<MesaResponseDTO> buscarMesasDisponibles(Integer personas, LocalDateTime inicio, LocalDateTime fin) {
+        if (personas == null || personas < 1) {
+            throw new IllegalArgumentException("El número de personas debe ser mayor a 0");
+        }
+        validarIntervalo(inicio, fin);
+
+        LocalDateTime libreOcupadas = LocalDateTime.now().plusMinutes(estanciaMinutos);
+        return mesaRepository.findResumenByCapacidadMinima(personas).stream()
+            .filter(mesa -> !(estaOcupada(mesa.getEstado()) && inicio.isBefore(libreOcupadas)))
+            .filter(mesa -> !tieneReservaEntre(mesa.getIdMesa(), inicio, fin))
+            .map(mesaMapper::toResponseDTO)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Verificar que una mesa se puede ocupar ahora sin reserva (cliente sin reserva)
+     * Se rechaza si la mesa tiene una reserva que empieza antes de que termine una estancia normal;
+     * las reservas en curso o a punto de empezar corresponden al grupo que llega y no cuentan
+     * @param idMesa ID de la mesa
+     * @param ahora momento de la ocupación
+     * @throws IllegalArgumentException si la ocupación chocaría con una reserva
+     */
+    public void validarOcupacion(Integer idMesa, LocalDateTime ahora) {
+        TreeMap<LocalDateTime, Tramo> agenda = agendas.get(idMesa);
+        if (agenda == null) {
+            return;
+        }
+        synchronized (agenda) {
+            Map.Entry<LocalDateTime, Tramo> siguiente = agenda.higherEntry(ahora.plusMinutes(toleranciaLlegadaMinutos));
+            if (siguiente != null && siguiente.getKey().isBefore(ahora.plusMinutes(estanciaMinutos))) {
+                throw new IllegalArgumentException("La mesa " + idMesa + " está reservada a las "
+                    + siguiente.getKey().format(HORA) + "; asigna otra mesa al cliente sin reserva");
+            }
+        }
+    }
+
+    /**
+     * Verificar si una mesa tiene alguna reserva que se solape con un intervalo (según la agenda en memoria)
+     * @param idMesa ID de la mesa
+     * @param inicio inicio del intervalo
+     * @param fin fin del intervalo (excluido)
+     * @return true si hay solapamiento
+     */
+    public boolean tieneReservaEntre(Integer idMesa, LocalDateTime inicio, LocalDateTime fin) {
+        TreeMap<LocalDateTime, Tramo> agenda = agendas.get(idMesa);
+        if (agenda == null) {
+            return false;
+        }
+        synchronized (agenda) {
+            return buscarSolapado(agenda, inicio, fin) != null;
+        }
+    }
+
+    /**
+     * Quitar de las agendas las reservas ya terminadas
+     */
+    @Scheduled(fixedDelayString = "${reservas.purga-ms:3600000}")
+    public void purgar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (TreeMap<LocalDateTime, Tramo> agenda : agendas.values()) {
+            synchronized (agenda) {
+                // Los fines están en el mismo orden que los inicios: las terminadas están al principio
+                while (!agenda.isEmpty() && !agenda.firstEntry().getValue().fin.isAfter(ahora)) {
+                    agenda.pollFirstEntry();
+                }
+            }
+        }
+    }
+
+    private TreeMap<LocalDateTime, Tramo> agendaDe(Integer idMesa) {
+        return agendas.computeIfAbsent(idMesa, id -> new TreeMap<>());
+    }
+
+    /**
+     * La reserva que empieza más tarde antes del fin del intervalo es la única candidata a solaparse:
+     * las anteriores terminan antes que ella
+     */
+    private static Tramo buscarSolapado(TreeMap<LocalDateTime, Tramo> agenda, LocalDateTime inicio, LocalDateTime fin) {
+        Map.Entry<LocalDateTime, Tramo> candidata = agenda.lowerEntry(fin);
+        return candidata != null && candidata.getValue().fin.isAfter(inicio) ? candidata.getValue() : null;
+    }
+
+    private void quitar(Integer idMesa, Tramo tramo) {
+        TreeMap<LocalDateTime, Tramo> agenda = agendas.get(idMesa);
+        if (agenda == null) {
+            return;
+        }
+        synchronized (agenda) {
+            Tramo actual = agenda.get(tramo.inicio);
+            if (actual != null && actual.idReserva.equals(tramo.idReserva)) {
+                agenda.remove(tramo.inicio);
+            }
+        }
+    }
+
+    private void validarIntervalo(LocalDateTime inicio, LocalDateTime fin) {
+        if (inicio == null || fin == null) {
+            throw new IllegalArgumentException("El inicio y el fin son obligatorios");
+        }
+        if (!fin.isAfter(inicio)) {
+            throw new IllegalArgumentException("El fin debe ser posterior al inicio");
+        }
+        if (fin.isAfter(inicio.plusHours(duracionMaximaHoras))) {
+            throw new IllegalArgumentException("La franja no puede superar " + duracionMaximaHoras + " horas");
+        }
+    }
+
+    private static boolean estaOcupada(String estado) {
+        return "Ocupado".equalsIgnoreCase(estado) || "Ocupada".equalsIgnoreCase(estado);
+    }
+
+    /**
+     * Franja reservada de una mesa
+     */
+    private static final class Tramo {
+
+        private final Integer idReserva;
+        private final LocalDateTime inicio;
+        private final LocalDateTime fin;
+
+        private Tramo(Integer idReserva, LocalDateTime inicio, LocalDateTime fin) {
+            this.idReserva = idReserva;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+}
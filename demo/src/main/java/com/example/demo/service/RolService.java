@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.response.RolDTO;
 import com.example.demo.entity.Rol;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.repository.RolRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -8,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de roles de usuario
@@ -20,6 +23,9 @@ public class RolService {
     @Autowired
     private RolRepository rolRepository;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     /**
      * Obtener todos los roles
      * @return Lista de todos los roles
@@ -127,22 +133,26 @@ public class RolService {
     }
     
     /**
-     * Buscar roles que contengan el texto dado
-     * @param texto texto a buscar
-     * @return Lista de roles que coinciden
+     * Listar todos los roles ordenados por nombre como DTO
+     * @return Lista de roles ordenada alfabéticamente
      */
     @Transactional(readOnly = true)
-    public List<Rol> buscarRolesPorTexto(String texto) {
-        return rolRepository.findByNombreContaining(texto.toUpperCase());
+    public List<RolDTO> listarRolesOrdenados() {
+        return rolRepository.findAllCatalogo().stream()
+            .map(catalogoMapper::toRolDTO)
+            .collect(Collectors.toList());
     }
     
     /**
-     * Obtener todos los roles ordenados por nombre
-     * @return Lista de roles ordenada alfabéticamente
+     * Buscar roles por texto como DTO
+     * @param texto texto a buscar
+     * @return Lista de roles que coinciden
      */
     @Transactional(readOnly = true)
-    public List<Rol> obtenerRolesOrdenados() {
-        return rolRepository.findAllByOrderByNombreAsc();
+    public List<RolDTO> listarRolesPorTexto(String texto) {
+        return rolRepository.findCatalogoByNombreContaining(texto.toUpperCase()).stream()
+            .map(catalogoMapper::toRolDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.SecuenciaUsuario;
+import com.example.demo.repository.SecuenciaUsuarioRepository;
+import com.example.demo.repository.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio que genera los IDs de usuario por prefijo de rol (MESERO001, MESERO002...)
+ * Cada nodo reserva en restaurante_secuencias_usuario un bloque de números (hi/lo) con la fila
+ * bloqueada y los entrega desde memoria, así que la mayoría de IDs no consultan la base de datos
+ * y dos peticiones concurrentes, aunque sea en nodos distintos, nunca reciben el mismo número
+ * Los números de un bloque no usados se pierden al reiniciar (quedan huecos, no duplicados)
+ * Los IDs elegidos a mano con la misma forma no pueden caer en lo ya reservado, y los que quedan por encima
+ * se saltan cuando un bloque los alcanza
+ */
+@Service
+public class SecuenciaUsuarioService {
+
+    @Autowired
+    private SecuenciaUsuarioRepository secuenciaUsuarioRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${usuarios.id.tamano-bloque:10}")
+    private int tamanoBloque = 10;
+
+    // La reserva se confirma aparte para no retener el bloqueo de la fila durante el alta del usuario
+    private TransactionTemplate nuevaTransaccion;
+
+    private final ConcurrentHashMap<String, Bloque> bloques = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void iniciar() {
+        nuevaTransaccion = new TransactionTemplate(transactionManager);
+        nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Obtener el siguiente ID para un prefijo
+     * @param prefijo prefijo del rol (ej: MESERO)
+     * @return ID con el número relleno a 3 cifras (ej: MESERO007)
+     */
+    public String siguienteId(String prefijo) {
+        Bloque bloque = bloques.computeIfAbsent(prefijo, p -> new Bloque());
+        long numero;
+        synchronized (bloque) {
+            do {
+                if (bloque.siguiente >= bloque.limite) {
+                    long inicio = reservarBloque(prefijo);
+                    bloque.siguiente = inicio;
+                    bloque.limite = inicio + tamanoBloque;
+                    // Ya confirmada la reserva: cualquier alta manual en este tramo es visible
+                    bloque.ocupados = numerosUsados(prefijo).stream()
+                        .filter(usado -> usado >= inicio && usado < bloque.limite)
+                        .collect(Collectors.toSet());
+                }
+                numero = bloque.siguiente++;
+            } while (bloque.ocupados.contains(numero));
+        }
+        return String.format("%s%03d", prefijo, numero);
+    }
+
+    /**
+     * Comprobar que un ID elegido a mano no choque con los generados
+     * Si tiene la forma prefijo + número y el número ya está reservado (en uso o en el bloque de algún nodo),
+     * se rechaza. La fila de la secuencia queda bloqueada hasta el fin de la transacción, así que un bloque
+     * que se reserve a la vez ve el usuario ya dado de alta y salta su número
+     * @param idUsuario ID elegido a mano
+     * @throws IllegalArgumentException si el número está reservado para la generación automática
+     */
+    @Transactional
+    public void validarIdManual(String idUsuario) {
+        int corte = idUsuario.length();
+        while (corte > 0 && Character.isDigit(idUsuario.charAt(corte - 1))) {
+            corte--;
+        }
+        // Los prefijos generados van en mayúsculas y MySQL compara los IDs sin distinguirlas
+        String prefijo = idUsuario.substring(0, corte).toUpperCase();
+        long numero = numero(prefijo, idUsuario);
+        if (prefijo.isEmpty() || numero < 0) {
+            return;
+        }
+        secuenciaUsuarioRepository.findParaActualizar(prefijo).ifPresent(secuencia -> {
+            if (numero < secuencia.getSiguienteValor()) {
+                throw new IllegalArgumentException("El ID " + idUsuario + " está reservado para la generación automática; " +
+                                                   "use un número a partir de " + secuencia.getSiguienteValor() +
+                                                   " o deje el ID vacío");
+            }
+        });
+    }
+
+    /**
+     * Reservar el siguiente bloque de números de un prefijo
+     * La primera vez crea la secuencia a partir del mayor número ya usado por los usuarios existentes
+     * @param prefijo prefijo del rol
+     * @return primer número del bloque reservado
+     */
+    private long reservarBloque(String prefijo) {
+        for (int intento = 0; intento < 2; intento++) {
+            try {
+                Long inicio = nuevaTransaccion.execute(status -> {
+                    SecuenciaUsuario secuencia = secuenciaUsuarioRepository.findParaActualizar(prefijo).orElse(null);
+                    if (secuencia == null) {
+                        long primero = mayorNumeroExistente(prefijo) + 1;
+                        secuenciaUsuarioRepository.saveAndFlush(new SecuenciaUsuario(prefijo, primero + tamanoBloque));
+                        return primero;
+                    }
+                    long primero = secuencia.getSiguienteValor();
+                    secuencia.setSiguienteValor(primero + tamanoBloque);
+                    return primero;
+                });
+                return inicio;
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // Otro nodo creó la secuencia a la vez (clave duplicada o interbloqueo); en el reintento ya existe
+                System.out.println("⚠️ Secuencia de usuarios - Creación concurrente del prefijo " + prefijo + ", reintentando");
+            }
+        }
+        throw new IllegalStateException("No se pudo reservar un bloque de IDs para el prefijo: " + prefijo);
+    }
+
+    /**
+     * Obtener el mayor número usado por los IDs existentes de un prefijo (0 si no hay)
+     */
+    private long mayorNumeroExistente(String prefijo) {
+        return numerosUsados(prefijo).stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * Obtener los números de los IDs existentes de un prefijo que tienen la forma de los generados
+     */
+    private Set<Long> numerosUsados(String prefijo) {
+        return usuarioRepository.findIdsPorPatron(prefijo + "%").stream()
+            .map(id -> numero(prefijo, id))
+            .filter(numero -> numero >= 0)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * Obtener el número de un ID con la forma prefijo + dígitos (-1 si no la tiene)
+     */
+    private long numero(String prefijo, String id) {
+        String sufijo = id.substring(prefijo.length());
+        if (!sufijo.isEmpty() && sufijo.length() <= 18 && sufijo.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(sufijo);
+        }
+        return -1;
+    }
+
+    /**
+     * Números reservados en memoria para un prefijo: [siguiente, limite)
+     */
+    private static final class Bloque {
+
+        private long siguiente;
+        private long limite;
+        private Set<Long> ocupados = Set.of();
+    }
+}
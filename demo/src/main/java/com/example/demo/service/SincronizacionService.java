@@ -0,0 +1,281 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.DetalleComandaResumen;
+import com.example.demo.dto.response.*;
+import com.example.demo.entity.Eliminacion;
+import com.example.demo.entity.VersionCambioListener;
+import com.example.demo.mapper.ComandaMapper;
+import com.example.demo.mapper.MesaMapper;
+import com.example.demo.mapper.ProductoMapper;
+import com.example.demo.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.demo.entity.Eliminacion.*;
+
+/**
+ * Servicio de sincronización por diferencias para las tablets
+ * Cada alta o cambio de mesas, productos, comandas, líneas y usuarios lleva una versión de cambio
+ * (VersionCambioListener) y cada eliminación deja una lápida con la suya; una tablet solo pide lo que
+ * cambió desde la última versión que recibió, así el tráfico depende del volumen de cambios y no del
+ * tamaño de las tablas
+ */
+@Service
+@Transactional(readOnly = true)
+public class SincronizacionService {
+
+    // Entidades que sincroniza cada rol; cualquier otro rol solo recibe mesas y productos
+    private static final Map<String, Set<String>> ENTIDADES_POR_ROL = Map.of(
+        "ADMINISTRADOR", Set.of(MESA, PRODUCTO, COMANDA, DETALLE_COMANDA, USUARIO),
+        "MESERO", Set.of(MESA, PRODUCTO, COMANDA, DETALLE_COMANDA),
+        "COCINERO", Set.of(PRODUCTO, COMANDA, DETALLE_COMANDA),
+        "CAJERO", Set.of(MESA, COMANDA, DETALLE_COMANDA)
+    );
+    private static final Set<String> ENTIDADES_POR_DEFECTO = Set.of(MESA, PRODUCTO);
+
+    @Autowired
+    private MesaRepository mesaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ComandaRepository comandaRepository;
+
+    @Autowired
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+
+    @Autowired
+    private ComandaService comandaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private MesaMapper mesaMapper;
+
+    @Autowired
+    private ProductoMapper productoMapper;
+
+    @Autowired
+    private ComandaMapper comandaMapper;
+
+    // Los cambios más recientes esperan este margen: un commit en curso (o un nodo con el reloj algo atrasado)
+    // puede estar escribiendo versiones menores que las ya visibles. SelloVersionCambio asigna la versión justo
+    // antes del commit, así que basta con cubrir lo que tarda el commit y no toda la transacción
+    @Value("${sync.margen-ms:5000}")
+    private long margenMs = 5000;
+
+    @Value("${sync.max-cambios:500}")
+    private int maxCambios = 500;
+
+    @Value("${sync.retencion-horas:72}")
+    private long retencionHoras = 72;
+
+    /**
+     * Obtener los cambios posteriores a una versión que puede ver un rol
+     * @param since última versión recibida por el cliente (0 = sincronización completa)
+     * @param rol rol del usuario (sin el prefijo ROLE_)
+     * @return registros nuevos o modificados, eliminaciones y la versión para la siguiente llamada
+     * @throws IllegalArgumentException si la versión es negativa
+     */
+    public SincronizacionResponseDTO sincronizar(long since, String rol) {
+        if (since < 0) {
+            throw new IllegalArgumentException("La versión de sincronización no puede ser negativa");
+        }
+
+        long ahora = System.currentTimeMillis();
+        if (since > 0 && since < VersionCambioListener.versionEn(ahora - TimeUnit.HOURS.toMillis(retencionHoras))) {
+            // Pueden haberse purgado lápidas que este cliente no llegó a ver
+            return SincronizacionResponseDTO.builder()
+                .desde(since)
+                .hasta(since)
+                .hayMas(false)
+                .resincronizar(true)
+                .build();
+        }
+
+        long limite = VersionCambioListener.versionEn(ahora - margenMs) - 1;
+        if (since >= limite) {
+            return SincronizacionResponseDTO.builder()
+                .desde(since)
+                .hasta(since)
+                .hayMas(false)
+                .resincronizar(false)
+                .build();
+        }
+
+        Set<String> entidades = ENTIDADES_POR_ROL.getOrDefault(rol != null ? rol.toUpperCase(Locale.ROOT) : "", ENTIDADES_POR_DEFECTO);
+        if (since == 0) {
+            return sincronizarCompleto(entidades, limite);
+        }
+
+        long desde = since;
+        Corte corte = new Corte(desde, limite);
+        Pageable pagina = PageRequest.of(0, maxCambios);
+        SincronizacionResponseDTO.SincronizacionResponseDTOBuilder respuesta = SincronizacionResponseDTO.builder();
+
+        if (entidades.contains(MESA)) {
+            List<Integer> ids = corte.ids(mesaRepository.findCambios(desde, limite, pagina), maxCambios);
+            respuesta.mesas(ids.isEmpty() ? new ArrayList<>() : mesaRepository.findResumenByIds(ids).stream()
+                .map(mesaMapper::toResponseDTO)
+                .collect(Collectors.toList()));
+        }
+
+        if (entidades.contains(PRODUCTO)) {
+            List<Integer> ids = corte.ids(productoRepository.findCambios(desde, limite, pagina), maxCambios);
+            respuesta.productos(ids.isEmpty() ? new ArrayList<>() : productoRepository.findResumenByIds(ids).stream()
+                .map(productoMapper::toResponseDTO)
+                .collect(Collectors.toList()));
+        }
+
+        Set<Integer> idsComanda = new HashSet<>();
+        if (entidades.contains(COMANDA)) {
+            List<Integer> ids = corte.ids(comandaRepository.findCambios(desde, limite, pagina), maxCambios);
+            idsComanda.addAll(ids);
+            respuesta.comandas(comandaService.listarComandasPorIds(ids));
+        }
+
+        if (entidades.contains(DETALLE_COMANDA)) {
+            List<Integer> ids = corte.ids(detalleComandaRepository.findCambios(desde, limite, pagina), maxCambios);
+            List<DetalleComandaResumen> detalles = ids.isEmpty() ? new ArrayList<>() : detalleComandaRepository.findResumenByIds(ids);
+            // Las líneas de una comanda que ya viaja completa no se repiten
+            respuesta.detalles(detalles.stream()
+                .filter(detalle -> !idsComanda.contains(detalle.getIdComanda()))
+                .map(comandaMapper::toDetalleComandaDTO)
+                .collect(Collectors.toList()));
+        }
+
+        if (entidades.contains(USUARIO)) {
+            List<String> ids = corte.ids(usuarioRepository.findCambios(desde, limite, pagina), maxCambios);
+            respuesta.usuarios(usuarioService.listarUsuariosPorIds(ids));
+        }
+
+        List<Eliminacion> lapidas = eliminacionRepository.findCambios(entidades, desde, limite, pagina);
+        if (!lapidas.isEmpty()) {
+            corte.recortar(lapidas.size(), lapidas.get(lapidas.size() - 1).getVersionCambio(), maxCambios);
+        }
+        List<EliminacionDTO> eliminados = new ArrayList<>(lapidas.size());
+        for (Eliminacion lapida : lapidas) {
+            eliminados.add(EliminacionDTO.builder()
+                .entidad(lapida.getEntidad())
+                .id(lapida.getIdEntidad())
+                .versionCambio(lapida.getVersionCambio())
+                .build());
+        }
+
+        return respuesta
+            .desde(since)
+            .hasta(corte.hasta)
+            .hayMas(corte.hasta < limite)
+            .resincronizar(false)
+            .eliminados(eliminados)
+            .build();
+    }
+
+    /**
+     * Sincronización completa: todos los registros que ve el rol, con las mismas consultas que los listados
+     * Incluye las filas con versión 0 (anteriores a la sincronización por diferencias)
+     */
+    private SincronizacionResponseDTO sincronizarCompleto(Set<String> entidades, long limite) {
+        SincronizacionResponseDTO.SincronizacionResponseDTOBuilder respuesta = SincronizacionResponseDTO.builder();
+        if (entidades.contains(MESA)) {
+            respuesta.mesas(mesaRepository.findAllResumen().stream()
+                .map(mesaMapper::toResponseDTO)
+                .collect(Collectors.toList()));
+        }
+        if (entidades.contains(PRODUCTO)) {
+            respuesta.productos(productoRepository.findAllResumen().stream()
+                .map(productoMapper::toResponseDTO)
+                .collect(Collectors.toList()));
+        }
+        if (entidades.contains(COMANDA)) {
+            // Cada comanda viaja con todas sus líneas
+            respuesta.comandas(comandaService.listarComandas());
+        }
+        if (entidades.contains(DETALLE_COMANDA)) {
+            respuesta.detalles(new ArrayList<>());
+        }
+        if (entidades.contains(USUARIO)) {
+            respuesta.usuarios(usuarioService.listarUsuarios());
+        }
+        return respuesta
+            .desde(0L)
+            .hasta(limite)
+            .hayMas(false)
+            .resincronizar(false)
+            .eliminados(new ArrayList<>())
+            .build();
+    }
+
+    /**
+     * Eliminar las lápidas que superan la ventana de retención
+     */
+    @Scheduled(cron = "${sync.purga-cron:0 45 4 * * *}")
+    @Transactional
+    public void purgarEliminaciones() {
+        int eliminadas = eliminacionRepository.eliminarAnterioresA(LocalDateTime.now().minusHours(retencionHoras));
+        if (eliminadas > 0) {
+            System.out.println("✅ Sincronización - Purgadas " + eliminadas + " eliminación(es) fuera de la ventana de retención");
+        }
+    }
+
+    /**
+     * Hasta qué versión llega la respuesta. Si una entidad llenó la página, la respuesta solo garantiza
+     * haber enviado sus cambios anteriores a la última versión recibida; los de otras entidades posteriores
+     * a ese corte se volverán a enviar en la siguiente llamada, lo que no afecta a un cliente que aplica
+     * los cambios como altas o reemplazos
+     */
+    private static final class Corte {
+
+        private final long desde;
+        private long hasta;
+
+        private Corte(long desde, long hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> List<T> ids(List<Object[]> cambios, int maximo) {
+            List<T> ids = new ArrayList<>(cambios.size());
+            for (Object[] cambio : cambios) {
+                ids.add((T) cambio[0]);
+            }
+            if (!cambios.isEmpty()) {
+                recortar(cambios.size(), ((Number) cambios.get(cambios.size() - 1)[1]).longValue(), maximo);
+            }
+            return ids;
+        }
+
+        private void recortar(int recibidos, long ultimaVersion, int maximo) {
+            if (recibidos < maximo) {
+                return;
+            }
+            // Otro registro puede compartir la última versión (cambios simultáneos en dos nodos): se repite
+            long corte = Math.max(ultimaVersion - 1, desde + 1);
+            hasta = Math.min(hasta, corte);
+        }
+    }
+}
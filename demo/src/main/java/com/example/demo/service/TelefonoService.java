@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.response.TelefonoDTO;
 import com.example.demo.entity.Telefono;
+import com.example.demo.mapper.CatalogoMapper;
 import com.example.demo.repository.TelefonoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -8,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.regex.Pattern;
 
 /**
@@ -21,16 +24,21 @@ public class TelefonoService {
     @Autowired
     private TelefonoRepository telefonoRepository;
     
+    @Autowired
+    private CatalogoMapper catalogoMapper;
+    
     // Patrón para validar números de teléfono peruanos
     private static final Pattern PATRON_TELEFONO = Pattern.compile("^[+]?[0-9]{7,15}$");
     
     /**
-     * Obtener todos los teléfonos
+     * Listar todos los teléfonos
      * @return Lista de todos los teléfonos
      */
     @Transactional(readOnly = true)
-    public List<Telefono> obtenerTodosLosTelefonos() {
-        return telefonoRepository.findAll();
+    public List<TelefonoDTO> listarTelefonos() {
+        return telefonoRepository.findAllResumen().stream()
+            .map(catalogoMapper::toTelefonoDTO)
+            .collect(Collectors.toList());
     }
     
     /**
@@ -142,13 +150,15 @@ public class TelefonoService {
     }
     
     /**
-     * Buscar teléfonos que contengan el número dado
+     * Listar los teléfonos que contengan el número dado
      * @param numero número a buscar
      * @return Lista de teléfonos que coinciden
      */
     @Transactional(readOnly = true)
-    public List<Telefono> buscarTelefonosPorNumero(String numero) {
-        return telefonoRepository.findByNumeroContaining(numero);
+    public List<TelefonoDTO> listarTelefonosPorNumero(String numero) {
+        return telefonoRepository.findResumenByNumeroContaining(numero).stream()
+            .map(catalogoMapper::toTelefonoDTO)
+            .collect(Collectors.toList());
     }
     
     /**
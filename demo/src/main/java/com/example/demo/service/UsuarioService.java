@@ -1,14 +1,22 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.projection.TelefonoUsuarioResumen;
+import com.example.demo.dto.projection.UsuarioResumen;
+import com.example.demo.dto.response.UsuarioResponseDTO;
 import com.example.demo.entity.*;
+import com.example.demo.mapper.UsuarioMapper;
 import com.example.demo.repository.*;
+import com.example.demo.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
@@ -33,7 +41,19 @@ public class UsuarioService {
     private UsuarioTelefonoRepository usuarioTelefonoRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private SecuenciaUsuarioService secuenciaUsuarioService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private EliminacionRepository eliminacionRepository;
+    
+    @Autowired
+    private UsuarioMapper usuarioMapper;
     
     // Patrón para validar email
     private static final Pattern PATRON_EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
@@ -79,7 +99,8 @@ public class UsuarioService {
             .orElseThrow(() -> new IllegalArgumentException("Rol no encontrado con ID: " + usuario.getRol().getIdRol()));
         
         // Generar ID automáticamente si no se proporciona
-        if (usuario.getIdUsuario() == null || usuario.getIdUsuario().trim().isEmpty()) {
+        boolean idManual = usuario.getIdUsuario() != null && !usuario.getIdUsuario().trim().isEmpty();
+        if (!idManual) {
             String idGenerado = generarIdUsuario(rol);
             usuario.setIdUsuario(idGenerado);
         }
@@ -92,6 +113,11 @@ public class UsuarioService {
             throw new IllegalArgumentException("Ya existe un usuario con el ID: " + usuario.getIdUsuario());
         }
         
+        // Un ID manual no puede ocupar un número que la secuencia ya repartió
+        if (idManual) {
+            secuenciaUsuarioService.validarIdManual(usuario.getIdUsuario());
+        }
+        
         // Validar que el email no exista
         if (usuarioRepository.existsByEmail(usuario.getEmail())) {
             throw new IllegalArgumentException("Ya existe un usuario con el email: " + usuario.getEmail());
@@ -102,7 +128,7 @@ public class UsuarioService {
         usuario.setRol(rol);
         
         // Encriptar contraseña
-        String passwordEncriptada = passwordEncoder.encode(usuario.getPassword());
+        String passwordEncriptada = passwordHasher.codificarYEsperar(usuario.getPassword());
         usuario.setPassword(passwordEncriptada);
         
         return usuarioRepository.save(usuario);
@@ -110,27 +136,12 @@ public class UsuarioService {
     
     /**
      * Generar un ID único para un usuario basado en su rol
+     * Los números se reparten por bloques desde SecuenciaUsuarioService, sin consultar IDs libres uno a uno
      * @param rol rol del usuario
      * @return ID generado (ej: ADMIN001, MESERO001, COCINERO001)
      */
     private String generarIdUsuario(Rol rol) {
-        String prefijo = obtenerPrefijoRol(rol.getNombre());
-        
-        // Buscar el siguiente número disponible para este rol
-        int siguienteNumero = 1;
-        String idCandidato;
-        
-        do {
-            idCandidato = String.format("%s%03d", prefijo, siguienteNumero);
-            siguienteNumero++;
-            
-            // Evitar bucle infinito (máximo 999 usuarios por rol)
-            if (siguienteNumero > 999) {
-                throw new IllegalStateException("Se ha alcanzado el límite de usuarios para el rol: " + rol.getNombre());
-            }
-        } while (usuarioRepository.existsById(idCandidato));
-        
-        return idCandidato;
+        return secuenciaUsuarioService.siguienteId(obtenerPrefijoRol(rol.getNombre()));
     }
     
     /**
@@ -190,7 +201,7 @@ public class UsuarioService {
         
         // Actualizar contraseña solo si se proporcionó una nueva
         if (usuario.getPassword() != null && !usuario.getPassword().trim().isEmpty()) {
-            String passwordEncriptada = passwordEncoder.encode(usuario.getPassword());
+            String passwordEncriptada = passwordHasher.codificarYEsperar(usuario.getPassword());
             usuarioExistente.setPassword(passwordEncriptada);
         }
         
@@ -212,6 +223,10 @@ public class UsuarioService {
         // TODO: Validar que el usuario no esté siendo usado por comandas como mesero o cocinero
         // Por ahora solo eliminamos
         usuarioRepository.delete(usuario);
+        eliminacionRepository.save(new Eliminacion(Eliminacion.USUARIO, idUsuario));
+        
+        // Sus tokens ya emitidos dejan de valer de inmediato, sin esperar a que expiren
+        refreshTokenService.revocarUsuario(idUsuario);
     }
     
     /**
@@ -261,16 +276,49 @@ public class UsuarioService {
     }
     
     /**
-     * Obtener usuarios por rol
+     * Listar todos los usuarios como DTO
+     * @return Lista de todos los usuarios
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioResponseDTO> listarUsuarios() {
+        return aDTO(usuarioRepository.findAllResumen());
+    }
+    
+    /**
+     * Listar usuarios por rol
      * @param idRol ID del rol
      * @return Lista de usuarios con ese rol
      */
     @Transactional(readOnly = true)
-    public List<Usuario> obtenerUsuariosPorRol(Integer idRol) {
-        Rol rol = rolRepository.findById(idRol)
-            .orElseThrow(() -> new IllegalArgumentException("Rol no encontrado con ID: " + idRol));
+    public List<UsuarioResponseDTO> listarUsuariosPorRol(Integer idRol) {
+        if (!rolRepository.existsById(idRol)) {
+            throw new IllegalArgumentException("Rol no encontrado con ID: " + idRol);
+        }
         
-        return usuarioRepository.findByRol(rol);
+        return aDTO(usuarioRepository.findResumenByRolId(idRol));
+    }
+    
+    /**
+     * Listar usuarios por nombre (búsqueda parcial)
+     * @param nombre nombre o parte del nombre
+     * @return Lista de usuarios que coinciden
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioResponseDTO> listarUsuariosPorNombre(String nombre) {
+        return aDTO(usuarioRepository.findResumenByNombre(nombre));
+    }
+    
+    /**
+     * Listar varios usuarios por ID como DTO (los que no existen se omiten)
+     * @param ids IDs de los usuarios
+     * @return Lista de usuarios
+     */
+    @Transactional(readOnly = true)
+    public List<UsuarioResponseDTO> listarUsuariosPorIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return aDTO(usuarioRepository.findResumenByIds(ids));
     }
     
     /**
@@ -367,4 +415,26 @@ public class UsuarioService {
         
         return usuario;
     }
+    
+    /**
+     * Convertir proyecciones de usuario a DTO cargando los teléfonos de todos en una sola consulta
+     */
+    private List<UsuarioResponseDTO> aDTO(List<UsuarioResumen> usuarios) {
+        if (usuarios.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<String, List<String>> telefonosPorUsuario = new HashMap<>();
+        List<String> ids = usuarios.stream().map(UsuarioResumen::getIdUsuario).toList();
+        for (TelefonoUsuarioResumen telefono : usuarioTelefonoRepository.findNumerosByIdsUsuario(ids)) {
+            telefonosPorUsuario.computeIfAbsent(telefono.getIdUsuario(), id -> new ArrayList<>()).add(telefono.getNumero());
+        }
+        
+        List<UsuarioResponseDTO> resultado = new ArrayList<>(usuarios.size());
+        for (UsuarioResumen usuario : usuarios) {
+            resultado.add(usuarioMapper.toResponseDTO(usuario,
+                telefonosPorUsuario.getOrDefault(usuario.getIdUsuario(), new ArrayList<>())));
+        }
+        return resultado;
+    }
 }
@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.VentaDiariaResumen;
+import com.example.demo.entity.*;
+import com.example.demo.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio para los acumulados diarios de ventas (restaurante_ventas_diarias)
+ * Mantiene un acumulado por día × producto × categoría × mesero que se actualiza de forma
+ * incremental cuando una comanda se completa o se paga, y resuelve los totales de ventas
+ * por rango leyendo esos acumulados en lugar de todas las líneas vendidas
+ */
+@Service
+@Transactional
+public class VentasDiariasService {
+
+    @Autowired
+    private VentaDiariaRepository ventaDiariaRepository;
+
+    @Autowired
+    private ComandaRepository comandaRepository;
+
+    @Autowired
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Autowired
+    private ComandaHistoricoRepository comandaHistoricoRepository;
+
+    @Autowired
+    private DetalleComandaHistoricoRepository detalleComandaHistoricoRepository;
+
+    /**
+     * Indica si una comanda cuenta como venta: completada o pagada, y no cancelada
+     * @param comanda comanda a evaluar
+     * @return true si sus líneas deben sumarse a las ventas
+     */
+    public boolean cuentaComoVenta(Comanda comanda) {
+        Estado estado = comanda.getEstado();
+        if (estado != null && estado.esCancelado()) {
+            return false;
+        }
+        return comanda.estaPagada() || (estado != null && estado.esCompletado());
+    }
+
+    /**
+     * Sincronizar los acumulados con el estado actual de una comanda
+     * Suma sus líneas cuando pasa a completada/pagada y las resta si deja de contar (p. ej. se cancela)
+     * @param comanda comanda ya guardada
+     */
+    public void sincronizarComanda(Comanda comanda) {
+        boolean debeContar = cuentaComoVenta(comanda);
+        if (debeContar == comanda.getAcumuladaVentas()) {
+            return;
+        }
+
+        int signo = debeContar ? 1 : -1;
+        for (DetalleComanda detalle : detalleComandaRepository.findByComanda(comanda)) {
+            acumular(comanda, detalle.getProducto(), signo * detalle.getCantidad(),
+                detalle.getSubtotal().multiply(BigDecimal.valueOf(signo)));
+        }
+
+        comanda.setAcumuladaVentas(debeContar);
+        comandaRepository.save(comanda);
+    }
+
+    /**
+     * Restar de los acumulados una comanda que se va a eliminar
+     * @param comanda comanda a eliminar
+     */
+    public void retirarComanda(Comanda comanda) {
+        if (!comanda.getAcumuladaVentas()) {
+            return;
+        }
+        for (DetalleComanda detalle : detalleComandaRepository.findByComanda(comanda)) {
+            acumular(comanda, detalle.getProducto(), -detalle.getCantidad(), detalle.getSubtotal().negate());
+        }
+        comanda.setAcumuladaVentas(false);
+    }
+
+    /**
+     * Aplicar el cambio de una línea de una comanda que ya está acumulada
+     * No hace nada si la comanda todavía no cuenta como venta
+     * @param comanda comanda de la línea
+     * @param producto producto de la línea
+     * @param variacionCantidad unidades sumadas (positivo) o restadas (negativo)
+     * @param variacionTotal importe sumado o restado
+     */
+    public void ajustarLinea(Comanda comanda, Producto producto, int variacionCantidad, BigDecimal variacionTotal) {
+        if (!comanda.getAcumuladaVentas()) {
+            return;
+        }
+        acumular(comanda, producto, variacionCantidad, variacionTotal != null ? variacionTotal : BigDecimal.ZERO);
+    }
+
+    /**
+     * Obtener el total de ventas de un rango de fechas
+     * Los días completos anteriores a hoy se leen de los acumulados; los tramos parciales
+     * del rango y el día actual se calculan con las líneas (activas y archivadas)
+     * @param fechaInicio fecha de inicio (incluida)
+     * @param fechaFin fecha de fin (incluida)
+     * @return total de ventas
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal obtenerTotalVentas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        LocalDateTime finExclusivo = fechaFin.plusNanos(1);
+
+        // Días completos dentro del rango y anteriores a hoy
+        LocalDate primerDia = fechaInicio.equals(fechaInicio.toLocalDate().atStartOfDay())
+            ? fechaInicio.toLocalDate()
+            : fechaInicio.toLocalDate().plusDays(1);
+        LocalDate ultimoDia = finExclusivo.toLocalDate().minusDays(1);
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        if (ultimoDia.isAfter(ayer)) {
+            ultimoDia = ayer;
+        }
+
+        if (primerDia.isAfter(ultimoDia)) {
+            return sumarLineas(fechaInicio, finExclusivo);
+        }
+
+        BigDecimal total = ventaDiariaRepository.sumarTotalPorRangoDias(primerDia, ultimoDia);
+        total = total.add(sumarLineas(fechaInicio, primerDia.atStartOfDay()));
+        total = total.add(sumarLineas(ultimoDia.plusDays(1).atStartOfDay(), finExclusivo));
+        return total;
+    }
+
+    /**
+     * Obtener los acumulados de un rango de días
+     * @param desde primer día
+     * @param hasta último día
+     * @return Lista de acumulados ordenados por día
+     */
+    @Transactional(readOnly = true)
+    public List<VentaDiariaResumen> obtenerVentasDiarias(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        return ventaDiariaRepository.findResumenByFechaBetweenOrderByFechaAsc(desde, hasta);
+    }
+
+    /**
+     * Reconstruir los acumulados de un rango de días a partir de las líneas activas y archivadas
+     * Sirve para la carga inicial y para corregir desviaciones
+     * @param desde primer día
+     * @param hasta último día
+     * @return número de acumulados generados
+     */
+    public int reconstruir(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+
+        ventaDiariaRepository.eliminarPorRangoDias(desde, hasta);
+
+        Map<String, VentaDiaria> acumulados = new LinkedHashMap<>();
+        List<Object[]> filas = new ArrayList<>(detalleComandaRepository.agruparVentasCerradasPorDia(
+            inicio, fin, Estado.NOMBRES_COMPLETADO, Estado.NOMBRES_CANCELADO));
+        filas.addAll(detalleComandaHistoricoRepository.agruparVentasPorDia(inicio, fin, Estado.NOMBRES_CANCELADO));
+
+        for (Object[] fila : filas) {
+            LocalDate fecha = (LocalDate) fila[0];
+            Integer idProducto = (Integer) fila[1];
+            Integer idCategoria = (Integer) fila[2];
+            String idMesero = (String) fila[3];
+            long cantidad = ((Number) fila[4]).longValue();
+            BigDecimal total = (BigDecimal) fila[5];
+
+            String clave = fecha + "|" + idProducto + "|" + idCategoria + "|" + idMesero;
+            VentaDiaria acumulado = acumulados.get(clave);
+            if (acumulado == null) {
+                acumulados.put(clave, new VentaDiaria(fecha, idProducto, idCategoria, idMesero, cantidad, total));
+            } else {
+                acumulado.setCantidad(acumulado.getCantidad() + cantidad);
+                acumulado.setTotal(acumulado.getTotal().add(total));
+            }
+        }
+        ventaDiariaRepository.saveAll(acumulados.values());
+
+        comandaRepository.desmarcarAcumuladasVentas(inicio, fin);
+        comandaRepository.marcarAcumuladasVentas(inicio, fin, Estado.NOMBRES_COMPLETADO, Estado.NOMBRES_CANCELADO);
+
+        System.out.println("✅ Ventas diarias reconstruidas del " + desde + " al " + hasta + ": " + acumulados.size() + " acumulado(s)");
+        return acumulados.size();
+    }
+
+    /**
+     * Sumar las ventas de un intervalo directamente desde las líneas activas y archivadas
+     */
+    private BigDecimal sumarLineas(LocalDateTime desde, LocalDateTime hasta) {
+        if (!desde.isBefore(hasta)) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal activas = detalleComandaRepository.sumarVentasCerradas(
+            desde, hasta, Estado.NOMBRES_COMPLETADO, Estado.NOMBRES_CANCELADO);
+        BigDecimal archivadas = comandaHistoricoRepository.sumarVentasEntre(desde, hasta, Estado.NOMBRES_CANCELADO);
+        return activas.add(archivadas);
+    }
+
+    /**
+     * Sumar cantidad e importe al acumulado del día de la comanda, creándolo si no existe
+     */
+    private void acumular(Comanda comanda, Producto producto, long cantidad, BigDecimal total) {
+        if (cantidad == 0 && total.signum() == 0) {
+            return;
+        }
+        LocalDate fecha = comanda.getFecha().toLocalDate();
+        Integer idProducto = producto.getIdProducto();
+        Integer idCategoria = producto.getCategoria().getIdCategoria();
+        String idMesero = comanda.getMesero().getIdUsuario();
+
+        // Upsert atómico: las transacciones concurrentes sobre el mismo acumulado, exista o no, no pierden incrementos
+        ventaDiariaRepository.acumular(fecha, idProducto, idCategoria, idMesero, cantidad, total);
+    }
+}
@@ -0,0 +1,31 @@
+-- Informes de cierre que calcula el modo batch (perfil batch) fuera de los nodos web
+-- Cada ejecución reemplaza las filas de los días procesados, así que puede repetirse sin duplicar
+
+CREATE TABLE restaurante_informe_z (
+    fecha DATE PRIMARY KEY,
+    comandas_vendidas INT NOT NULL,
+    comandas_canceladas INT NOT NULL,
+    comandas_abiertas INT NOT NULL,
+    unidades_vendidas BIGINT NOT NULL,
+    total_ventas DECIMAL(14, 2) NOT NULL,
+    total_cancelado DECIMAL(14, 2) NOT NULL,
+    fecha_generacion DATETIME(6) NOT NULL
+);
+
+CREATE TABLE restaurante_informe_producto (
+    fecha DATE NOT NULL,
+    id_producto INT NOT NULL,
+    cantidad BIGINT NOT NULL,
+    total DECIMAL(14, 2) NOT NULL,
+    PRIMARY KEY (fecha, id_producto)
+);
+
+CREATE TABLE restaurante_informe_mesero (
+    fecha DATE NOT NULL,
+    id_mesero VARCHAR(20) NOT NULL,
+    comandas_vendidas INT NOT NULL,
+    total_ventas DECIMAL(14, 2) NOT NULL,
+    comandas_canceladas INT NOT NULL,
+    total_cancelado DECIMAL(14, 2) NOT NULL,
+    PRIMARY KEY (fecha, id_mesero)
+);
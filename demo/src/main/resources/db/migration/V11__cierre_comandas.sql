@@ -0,0 +1,9 @@
+-- Hora de cierre de las comandas (paso a completada o cancelada) para medir el tiempo de atención
+-- Las comandas cerradas antes de esta versión quedan sin hora de cierre y no cuentan en los promedios
+-- Índices por mesero y fecha para las analíticas de rendimiento por mesero
+
+ALTER TABLE restaurante_comandas ADD COLUMN fecha_cierre DATETIME(6) NULL;
+ALTER TABLE restaurante_comandas_historico ADD COLUMN fecha_cierre DATETIME(6) NULL;
+
+CREATE INDEX idx_comandas_mesero_fecha ON restaurante_comandas (id_mesero, fecha);
+CREATE INDEX idx_comandas_historico_mesero_fecha ON restaurante_comandas_historico (id_mesero, fecha);
@@ -0,0 +1,18 @@
+-- Sesiones de ocupación de las mesas: desde que se sienta un grupo hasta que la mesa se libera
+-- Guardan ubicación y capacidad de la mesa en ese momento (sin clave foránea: son históricas y la mesa puede eliminarse)
+
+CREATE TABLE restaurante_sesiones_mesa (
+    id_sesion BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id_mesa INT NOT NULL,
+    ubicacion VARCHAR(50) NOT NULL,
+    capacidad INT NOT NULL,
+    comensales INT,
+    apertura DATETIME(6) NOT NULL,
+    primera_comanda DATETIME(6),
+    cuenta DATETIME(6),
+    liberacion DATETIME(6),
+    ingresos DECIMAL(12, 2) NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_sesiones_mesa_mesa_apertura ON restaurante_sesiones_mesa (id_mesa, apertura);
+CREATE INDEX idx_sesiones_mesa_liberacion ON restaurante_sesiones_mesa (liberacion);
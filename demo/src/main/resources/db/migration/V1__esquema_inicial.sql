@@ -0,0 +1,91 @@
+-- Esquema base del restaurante (el que generaba ddl-auto=update más el script manual
+-- add_pagada_to_comandas.sql)
+-- Flyway lo aplica solo en bases de datos vacías; las existentes se marcan como versión 1
+-- (spring.flyway.baseline-on-migrate) y continúan desde V2
+
+CREATE TABLE restaurante_estados (
+    id_estado INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE restaurante_roles (
+    id_rol INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(20) NOT NULL,
+    CONSTRAINT uk_roles_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE restaurante_categorias (
+    id_categoria INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(20) NOT NULL,
+    CONSTRAINT uk_categorias_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE restaurante_usuarios (
+    id_usuario VARCHAR(20) NOT NULL PRIMARY KEY,
+    nombre VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    fecha_registro DATETIME(6),
+    rol INT NOT NULL,
+    CONSTRAINT uk_usuarios_email UNIQUE (email),
+    CONSTRAINT fk_usuarios_rol FOREIGN KEY (rol) REFERENCES restaurante_roles (id_rol)
+);
+
+CREATE TABLE restaurante_telefonos (
+    id_telefono INT AUTO_INCREMENT PRIMARY KEY,
+    numero VARCHAR(15) NOT NULL,
+    CONSTRAINT uk_telefonos_numero UNIQUE (numero)
+);
+
+CREATE TABLE restaurante_usuarios_telefonos (
+    id_usuarios_telefonos INT AUTO_INCREMENT PRIMARY KEY,
+    id_usuario VARCHAR(20) NOT NULL,
+    id_telefono INT NOT NULL,
+    CONSTRAINT fk_usuarios_telefonos_usuario FOREIGN KEY (id_usuario) REFERENCES restaurante_usuarios (id_usuario),
+    CONSTRAINT fk_usuarios_telefonos_telefono FOREIGN KEY (id_telefono) REFERENCES restaurante_telefonos (id_telefono)
+);
+
+CREATE TABLE restaurante_mesas (
+    id_mesa INT AUTO_INCREMENT PRIMARY KEY,
+    capacidad INT NOT NULL,
+    ubicacion VARCHAR(50) NOT NULL,
+    estado INT NOT NULL,
+    CONSTRAINT fk_mesas_estado FOREIGN KEY (estado) REFERENCES restaurante_estados (id_estado)
+);
+
+CREATE TABLE restaurante_productos (
+    id_producto INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(50) NOT NULL,
+    precio DECIMAL(10, 2) NOT NULL,
+    stock INT NOT NULL,
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    categoria INT NOT NULL,
+    CONSTRAINT fk_productos_categoria FOREIGN KEY (categoria) REFERENCES restaurante_categorias (id_categoria)
+);
+
+CREATE TABLE restaurante_comandas (
+    id_comanda INT AUTO_INCREMENT PRIMARY KEY,
+    fecha DATETIME(6) NOT NULL,
+    mesa INT NOT NULL,
+    id_mesero VARCHAR(20) NOT NULL,
+    id_cocinero VARCHAR(20),
+    estado INT NOT NULL,
+    pagada BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_comandas_mesa FOREIGN KEY (mesa) REFERENCES restaurante_mesas (id_mesa),
+    CONSTRAINT fk_comandas_mesero FOREIGN KEY (id_mesero) REFERENCES restaurante_usuarios (id_usuario),
+    CONSTRAINT fk_comandas_cocinero FOREIGN KEY (id_cocinero) REFERENCES restaurante_usuarios (id_usuario),
+    CONSTRAINT fk_comandas_estado FOREIGN KEY (estado) REFERENCES restaurante_estados (id_estado)
+);
+
+CREATE TABLE restaurante_detalle_comanda (
+    id_detalle_comanda INT AUTO_INCREMENT PRIMARY KEY,
+    id_comanda INT NOT NULL,
+    id_producto INT NOT NULL,
+    cantidad INT NOT NULL,
+    precio_unitario DECIMAL(10, 2) NOT NULL,
+    subtotal DECIMAL(10, 2) NOT NULL,
+    id_estado INT NOT NULL,
+    CONSTRAINT fk_detalle_comanda_comanda FOREIGN KEY (id_comanda) REFERENCES restaurante_comandas (id_comanda),
+    CONSTRAINT fk_detalle_comanda_producto FOREIGN KEY (id_producto) REFERENCES restaurante_productos (id_producto),
+    CONSTRAINT fk_detalle_comanda_estado FOREIGN KEY (id_estado) REFERENCES restaurante_estados (id_estado)
+);
@@ -0,0 +1,117 @@
+-- Tablas y columnas añadidas después del esquema inicial: idempotencia, outbox, histórico de comandas,
+-- acumulados de ventas, secuencias de usuario y tokens (antes las creaba ddl-auto=update o los scripts
+-- add_ventas_diarias.sql y add_refresh_tokens.sql)
+-- Las bases de datos marcadas como V1 pueden tener ya alguna, así que todo es idempotente: las tablas
+-- usan IF NOT EXISTS con sus índices dentro del CREATE y la columna nueva se añade solo si falta
+
+-- Columna de acumulados de ventas en las comandas
+SET @existe_acumulada = (SELECT COUNT(*) FROM information_schema.COLUMNS
+                         WHERE TABLE_SCHEMA = DATABASE()
+                           AND TABLE_NAME = 'restaurante_comandas'
+                           AND COLUMN_NAME = 'acumulada_ventas');
+SET @sql_acumulada = IF(@existe_acumulada = 0,
+    'ALTER TABLE restaurante_comandas ADD COLUMN acumulada_ventas BOOLEAN NOT NULL DEFAULT FALSE AFTER pagada',
+    'SELECT 1');
+PREPARE sentencia_acumulada FROM @sql_acumulada;
+EXECUTE sentencia_acumulada;
+DEALLOCATE PREPARE sentencia_acumulada;
+
+CREATE TABLE IF NOT EXISTS restaurante_idempotencia (
+    clave VARCHAR(300) NOT NULL PRIMARY KEY,
+    huella VARCHAR(64) NOT NULL,
+    status INT,
+    content_type VARCHAR(100),
+    cuerpo MEDIUMBLOB,
+    creado_en DATETIME(6) NOT NULL,
+    expira_en DATETIME(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS restaurante_outbox (
+    id_evento BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(50) NOT NULL,
+    agregado VARCHAR(50) NOT NULL,
+    id_agregado VARCHAR(50) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    secuencia BIGINT,
+    publicado BOOLEAN NOT NULL DEFAULT FALSE,
+    fecha_publicacion DATETIME(6),
+    INDEX idx_outbox_secuencia (publicado, secuencia)
+);
+
+-- Contador de la secuencia de confirmación de la outbox; OutboxService crea su fila al arrancar
+CREATE TABLE IF NOT EXISTS restaurante_outbox_secuencia (
+    id_contador INT NOT NULL PRIMARY KEY,
+    ultimo_valor BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS restaurante_comandas_historico (
+    id_comanda INT NOT NULL PRIMARY KEY,
+    fecha DATETIME(6) NOT NULL,
+    mesa INT NOT NULL,
+    id_mesero VARCHAR(20) NOT NULL,
+    id_cocinero VARCHAR(20),
+    estado INT NOT NULL,
+    pagada BOOLEAN NOT NULL DEFAULT FALSE,
+    total DECIMAL(12, 2) NOT NULL,
+    fecha_archivado DATETIME(6) NOT NULL,
+    INDEX idx_comandas_historico_fecha (fecha),
+    CONSTRAINT fk_comandas_historico_mesa FOREIGN KEY (mesa) REFERENCES restaurante_mesas (id_mesa),
+    CONSTRAINT fk_comandas_historico_mesero FOREIGN KEY (id_mesero) REFERENCES restaurante_usuarios (id_usuario),
+    CONSTRAINT fk_comandas_historico_cocinero FOREIGN KEY (id_cocinero) REFERENCES restaurante_usuarios (id_usuario),
+    CONSTRAINT fk_comandas_historico_estado FOREIGN KEY (estado) REFERENCES restaurante_estados (id_estado)
+);
+
+CREATE TABLE IF NOT EXISTS restaurante_detalle_comanda_historico (
+    id_detalle_comanda INT NOT NULL PRIMARY KEY,
+    id_comanda INT NOT NULL,
+    id_producto INT NOT NULL,
+    cantidad INT NOT NULL,
+    precio_unitario DECIMAL(10, 2) NOT NULL,
+    subtotal DECIMAL(10, 2) NOT NULL,
+    id_estado INT NOT NULL,
+    INDEX idx_detalle_historico_comanda (id_comanda),
+    CONSTRAINT fk_detalle_historico_comanda FOREIGN KEY (id_comanda) REFERENCES restaurante_comandas_historico (id_comanda),
+    CONSTRAINT fk_detalle_historico_producto FOREIGN KEY (id_producto) REFERENCES restaurante_productos (id_producto),
+    CONSTRAINT fk_detalle_historico_estado FOREIGN KEY (id_estado) REFERENCES restaurante_estados (id_estado)
+);
+
+-- Tras crearla hay que reconstruir los acumulados: POST /api/ventas-diarias/reconstruir?desde=AAAA-MM-DD&hasta=AAAA-MM-DD
+-- o arrancar la aplicación con --ventas-diarias.backfill.desde=AAAA-MM-DD
+CREATE TABLE IF NOT EXISTS restaurante_ventas_diarias (
+    id_venta_diaria BIGINT AUTO_INCREMENT PRIMARY KEY,
+    fecha DATE NOT NULL,
+    id_producto INT NOT NULL,
+    id_categoria INT NOT NULL,
+    id_mesero VARCHAR(20) NOT NULL,
+    cantidad BIGINT NOT NULL,
+    total DECIMAL(14, 2) NOT NULL,
+    CONSTRAINT uk_ventas_diarias_clave UNIQUE (fecha, id_producto, id_categoria, id_mesero)
+);
+
+-- La primera vez que se usa un prefijo, SecuenciaUsuarioService lo inicia tras el mayor ID existente
+CREATE TABLE IF NOT EXISTS restaurante_secuencias_usuario (
+    prefijo VARCHAR(10) NOT NULL PRIMARY KEY,
+    siguiente_valor BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS restaurante_refresh_tokens (
+    id_refresh_token BIGINT AUTO_INCREMENT PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL,
+    id_usuario VARCHAR(20) NOT NULL,
+    familia VARCHAR(36) NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_expiracion DATETIME(6) NOT NULL,
+    usado BOOLEAN NOT NULL DEFAULT FALSE,
+    revocado BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash),
+    INDEX idx_refresh_tokens_usuario (id_usuario),
+    INDEX idx_refresh_tokens_familia (familia)
+);
+
+CREATE TABLE IF NOT EXISTS restaurante_tokens_revocados (
+    clave VARCHAR(64) NOT NULL PRIMARY KEY,
+    fecha_revocacion DATETIME(6) NOT NULL,
+    fecha_expiracion DATETIME(6) NOT NULL,
+    INDEX idx_tokens_revocados_revocacion (fecha_revocacion)
+);
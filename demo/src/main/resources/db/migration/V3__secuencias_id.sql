@@ -0,0 +1,24 @@
+-- Tabla de generadores de IDs de comandas, detalles y productos (antes add_secuencias_id.sql)
+-- Es idempotente: en las bases de datos donde ya se ejecutó el script manual no cambia nada
+--
+-- Hibernate reserva los IDs en bloques de 50 (optimizador pooled): el valor guardado es el último ID
+-- del bloque siguiente, así que se inicializa con MAX(id) + 50 para continuar después de los existentes.
+-- Las comandas archivadas conservan su ID en las tablas *_historico y también cuentan.
+
+CREATE TABLE IF NOT EXISTS restaurante_secuencias_id (
+    entidad VARCHAR(255) NOT NULL PRIMARY KEY,
+    siguiente_valor BIGINT
+);
+
+INSERT IGNORE INTO restaurante_secuencias_id (entidad, siguiente_valor)
+SELECT 'comanda', GREATEST(
+    COALESCE((SELECT MAX(id_comanda) FROM restaurante_comandas), 0),
+    COALESCE((SELECT MAX(id_comanda) FROM restaurante_comandas_historico), 0)) + 50;
+
+INSERT IGNORE INTO restaurante_secuencias_id (entidad, siguiente_valor)
+SELECT 'detalle_comanda', GREATEST(
+    COALESCE((SELECT MAX(id_detalle_comanda) FROM restaurante_detalle_comanda), 0),
+    COALESCE((SELECT MAX(id_detalle_comanda) FROM restaurante_detalle_comanda_historico), 0)) + 50;
+
+INSERT IGNORE INTO restaurante_secuencias_id (entidad, siguiente_valor)
+SELECT 'producto', COALESCE((SELECT MAX(id_producto) FROM restaurante_productos), 0) + 50;
@@ -0,0 +1,14 @@
+-- Índices secundarios para las columnas por las que filtran las consultas frecuentes
+-- (comandas por fecha, por mesa abierta, por estado y por cocinero; detalles por comanda y producto;
+-- catálogo de productos activos por categoría)
+-- En tablas grandes de MySQL 8 se crean en línea (ALGORITHM=INPLACE) sin bloquear las escrituras
+
+CREATE INDEX idx_comandas_fecha ON restaurante_comandas (fecha);
+CREATE INDEX idx_comandas_mesa_estado_pagada ON restaurante_comandas (mesa, estado, pagada);
+CREATE INDEX idx_comandas_estado_fecha ON restaurante_comandas (estado, fecha);
+CREATE INDEX idx_comandas_cocinero_estado ON restaurante_comandas (id_cocinero, estado);
+
+CREATE INDEX idx_detalle_comanda_comanda ON restaurante_detalle_comanda (id_comanda);
+CREATE INDEX idx_detalle_comanda_producto ON restaurante_detalle_comanda (id_producto);
+
+CREATE INDEX idx_productos_estado_categoria ON restaurante_productos (estado, categoria);
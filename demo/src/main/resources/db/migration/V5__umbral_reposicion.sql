@@ -0,0 +1,4 @@
+-- Umbral de reposición por producto: con stock igual o menor el producto aparece en las alertas de stock bajo
+-- Los productos existentes empiezan en 0 (solo avisan al agotarse) hasta que se configure su umbral
+
+ALTER TABLE restaurante_productos ADD COLUMN umbral_reposicion INT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Columnas de versión para el bloqueo optimista de comandas, productos y mesas (@Version)
+-- Las filas existentes empiezan en la versión 0
+
+ALTER TABLE restaurante_comandas ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurante_productos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurante_mesas ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- Reservas de mesa por franja horaria [inicio, fin)
+
+CREATE TABLE restaurante_reservas (
+    id_reserva INT AUTO_INCREMENT PRIMARY KEY,
+    id_mesa INT NOT NULL,
+    nombre_cliente VARCHAR(100) NOT NULL,
+    telefono VARCHAR(15),
+    personas INT NOT NULL,
+    inicio DATETIME(6) NOT NULL,
+    fin DATETIME(6) NOT NULL,
+    cancelada BOOLEAN NOT NULL DEFAULT FALSE,
+    fecha_creacion DATETIME(6) NOT NULL,
+    CONSTRAINT fk_reservas_mesa FOREIGN KEY (id_mesa) REFERENCES restaurante_mesas (id_mesa)
+);
+
+CREATE INDEX idx_reservas_mesa_inicio ON restaurante_reservas (id_mesa, inicio);
+CREATE INDEX idx_reservas_fin ON restaurante_reservas (fin);
@@ -0,0 +1,28 @@
+-- Sincronización por diferencias de las tablets (GET /api/sync)
+-- Versión de cambio de cada registro sincronizable; las filas existentes empiezan en 0 y solo
+-- las recibe una sincronización completa (since=0)
+
+ALTER TABLE restaurante_mesas ADD COLUMN version_cambio BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurante_productos ADD COLUMN version_cambio BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurante_comandas ADD COLUMN version_cambio BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurante_detalle_comanda ADD COLUMN version_cambio BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE restaurante_usuarios ADD COLUMN version_cambio BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_mesas_version_cambio ON restaurante_mesas (version_cambio);
+CREATE INDEX idx_productos_version_cambio ON restaurante_productos (version_cambio);
+CREATE INDEX idx_comandas_version_cambio ON restaurante_comandas (version_cambio);
+CREATE INDEX idx_detalle_comanda_version_cambio ON restaurante_detalle_comanda (version_cambio);
+CREATE INDEX idx_usuarios_version_cambio ON restaurante_usuarios (version_cambio);
+
+-- Lápidas de los registros eliminados, conservadas durante la ventana de retención
+CREATE TABLE restaurante_eliminaciones (
+    id_eliminacion BIGINT NOT NULL AUTO_INCREMENT,
+    entidad VARCHAR(30) NOT NULL,
+    id_entidad VARCHAR(50) NOT NULL,
+    version_cambio BIGINT NOT NULL,
+    fecha DATETIME(6) NOT NULL,
+    PRIMARY KEY (id_eliminacion)
+);
+
+CREATE INDEX idx_eliminaciones_version ON restaurante_eliminaciones (version_cambio);
+CREATE INDEX idx_eliminaciones_fecha ON restaurante_eliminaciones (fecha);
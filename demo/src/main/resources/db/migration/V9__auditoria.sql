@@ -0,0 +1,17 @@
+-- Registro de auditoría de los cambios en las entidades de negocio
+-- Lo escribe EscritorAuditoria en lotes, fuera de la transacción que originó el cambio
+
+CREATE TABLE restaurante_auditoria (
+    id_registro BIGINT AUTO_INCREMENT PRIMARY KEY,
+    fecha DATETIME(6) NOT NULL,
+    usuario VARCHAR(50) NOT NULL,
+    entidad VARCHAR(50) NOT NULL,
+    id_entidad VARCHAR(50) NOT NULL,
+    operacion VARCHAR(10) NOT NULL,
+    antes VARCHAR(4000),
+    despues VARCHAR(4000)
+);
+
+CREATE INDEX idx_auditoria_entidad ON restaurante_auditoria (entidad, id_entidad, fecha);
+CREATE INDEX idx_auditoria_usuario ON restaurante_auditoria (usuario, fecha);
+CREATE INDEX idx_auditoria_fecha ON restaurante_auditoria (fecha);
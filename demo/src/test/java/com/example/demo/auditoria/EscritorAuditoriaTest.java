@@ -0,0 +1,158 @@
+package com.example.demo.auditoria;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para EscritorAuditoria y su cola
+ */
+@ExtendWith(MockitoExtension.class)
+class EscritorAuditoriaTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private EscritorAuditoria escritor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(escritor, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(escritor, "capacidad", 4);
+        ReflectionTestUtils.setField(escritor, "tamanoLote", 3);
+        escritor.iniciar();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDrenarEscribeLotesConLosValoresEnJson() {
+        // Arrange
+        for (int i = 1; i <= 4; i++) {
+            escritor.encolar(evento(String.valueOf(i)));
+        }
+
+        // Act
+        escritor.drenar();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(EscritorAuditoria.INSERT), lotes.capture());
+        assertThat(lotes.getAllValues().get(0)).hasSize(3);
+        assertThat(lotes.getAllValues().get(1)).hasSize(1);
+        Object[] fila = lotes.getAllValues().get(0).get(0);
+        assertThat(fila[1]).isEqualTo("1001");
+        assertThat(fila[3]).isEqualTo("1");
+        assertThat(fila[5]).isEqualTo("{\"precioUnitario\":\"12000\"}");
+        assertThat(fila[6]).isEqualTo("{\"precioUnitario\":\"10500\"}");
+        assertThat(escritor.obtenerEstadisticas()).containsEntry("escritos", 4L).containsEntry("enCola", 0);
+    }
+
+    @Test
+    void testConLaColaLlenaDescartaSinEsperar() {
+        // Act
+        for (int i = 1; i <= 4; i++) {
+            assertThat(escritor.encolar(evento(String.valueOf(i)))).isTrue();
+        }
+        boolean aceptado = escritor.encolar(evento("5"));
+
+        // Assert
+        assertThat(aceptado).isFalse();
+        Map<String, Object> estadisticas = escritor.obtenerEstadisticas();
+        assertThat(estadisticas).containsEntry("aceptados", 4L).containsEntry("descartados", 1L)
+            .containsEntry("ocupacionMaxima", 4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUnLoteFallidoSeReintentaEnElSiguienteDrenado() {
+        // Arrange
+        escritor.encolar(evento("1"));
+        escritor.encolar(evento("2"));
+        when(jdbcTemplate.batchUpdate(eq(EscritorAuditoria.INSERT), anyList()))
+            .thenThrow(new DataAccessResourceFailureException("Sin conexión"))
+            .thenReturn(new int[]{1, 1});
+
+        // Act
+        escritor.drenar();
+        escritor.drenar();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(EscritorAuditoria.INSERT), lotes.capture());
+        assertThat(lotes.getAllValues().get(1)).extracting(fila -> fila[3]).containsExactly("1", "2");
+        assertThat(escritor.obtenerEstadisticas()).containsEntry("fallosEscritura", 1L).containsEntry("escritos", 2L);
+    }
+
+    @Test
+    void testLaColaMantieneElOrdenConVariosProductores() throws Exception {
+        // Arrange
+        AnilloEventos<Integer> cola = new AnilloEventos<>(1024);
+        int productores = 4;
+        int porProductor = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(productores);
+        CountDownLatch inicio = new CountDownLatch(1);
+        for (int p = 0; p < productores; p++) {
+            int base = p * porProductor;
+            executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < porProductor; i++) {
+                    while (!cola.ofrecer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        // Act
+        inicio.countDown();
+        List<Integer> recibidos = new ArrayList<>();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recibidos.size() < productores * porProductor && System.nanoTime() < limite) {
+            Integer elemento = cola.tomar();
+            if (elemento != null) {
+                recibidos.add(elemento);
+            }
+        }
+        executor.shutdown();
+
+        // Assert: llegan todos, y los de cada productor en el orden en que los encoló
+        assertThat(recibidos).hasSize(productores * porProductor);
+        int[] ultimo = new int[productores];
+        Arrays.fill(ultimo, -1);
+        for (Integer elemento : recibidos) {
+            int productor = elemento / porProductor;
+            assertThat(elemento % porProductor).isGreaterThan(ultimo[productor]);
+            ultimo[productor] = elemento % porProductor;
+        }
+        assertThat(cola.tamano()).isZero();
+    }
+
+    private static EventoAuditoria evento(String idEntidad) {
+        return new EventoAuditoria("1001", "DetalleComanda", idEntidad, "CAMBIO",
+            Map.of("precioUnitario", "12000"), Map.of("precioUnitario", "10500"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de arranque: tiempo desde que se lanza la JVM hasta la primera respuesta 200 de
+ * GET /api/comandas/pendientes (login incluido, como hace una tablet al reconectar)
+ * Cada repetición arranca el jar en un proceso nuevo; los resultados se añaden a target/arranque.csv
+ * para comparar entre versiones.
+ *
+ * Ejecutar desde demo/ después de mvn -Parranque-rapido package (con la base de datos disponible):
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.demo.benchmark.ArranqueBenchmark \
+ *       -Dbenchmark.email=admin@restaurante.com -Dbenchmark.password=... \
+ *       -Dbenchmark.etiqueta=aot-cds \
+ *       "-Dbenchmark.jvm=-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true"
+ * Sin -Dbenchmark.jvm se mide el arranque normal del mismo jar.
+ */
+public class ArranqueBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Path directorio = Path.of(System.getProperty("benchmark.directorio", "target/arranque-rapido"));
+        String jar = System.getProperty("benchmark.jar", "demo-0.0.1-SNAPSHOT.jar");
+        String jvm = System.getProperty("benchmark.jvm", "").trim();
+        String etiqueta = System.getProperty("benchmark.etiqueta", jvm.isEmpty() ? "normal" : "ajustado");
+        String email = requerido("benchmark.email");
+        String password = requerido("benchmark.password");
+        int repeticiones = Integer.getInteger("benchmark.repeticiones", 5);
+        int puerto = Integer.getInteger("benchmark.puerto", 8089);
+        Duration limite = Duration.ofSeconds(Integer.getInteger("benchmark.timeout-segundos", 180));
+        Path resultados = Path.of(System.getProperty("benchmark.resultados", "target/arranque.csv"));
+
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvm.isEmpty()) {
+            comando.addAll(Arrays.asList(jvm.split("\\s+")));
+        }
+        comando.add("-Dserver.port=" + puerto);
+        comando.add("-jar");
+        comando.add(jar);
+
+        String base = "http://localhost:" + puerto;
+        List<Long> tiempos = new ArrayList<>();
+        for (int i = 1; i <= repeticiones; i++) {
+            long milisegundos = medirArranque(comando, directorio, base, email, password, limite,
+                directorio.resolve("arranque-" + i + ".log"));
+            tiempos.add(milisegundos);
+            System.out.println("⏱️ " + etiqueta + " #" + i + ": " + milisegundos + " ms");
+            Files.writeString(resultados, LocalDateTime.now() + "," + etiqueta + "," + i + "," + milisegundos + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        Collections.sort(tiempos);
+        System.out.println("📊 " + etiqueta + ": mediana " + tiempos.get(tiempos.size() / 2) + " ms, mínimo "
+            + tiempos.get(0) + " ms, máximo " + tiempos.get(tiempos.size() - 1) + " ms");
+    }
+
+    private static long medirArranque(List<String> comando, Path directorio, String base, String email,
+                                      String password, Duration limite, Path log) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+        String login = OBJECT_MAPPER.writeValueAsString(Map.of("email", email, "password", password));
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+            .directory(directorio.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        try {
+            String token = null;
+            while (System.nanoTime() - inicio < limite.toNanos()) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException("La aplicación terminó al arrancar, ver " + log);
+                }
+                try {
+                    if (token == null) {
+                        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(login))
+                                .build(),
+                            HttpResponse.BodyHandlers.ofString());
+                        if (respuesta.statusCode() == 200) {
+                            JsonNode cuerpo = OBJECT_MAPPER.readTree(respuesta.body());
+                            token = cuerpo.path("token").asText(null);
+                        } else if (respuesta.statusCode() == 400) {
+                            throw new IllegalStateException("Credenciales rechazadas por /api/auth/login");
+                        }
+                    }
+                    if (token != null) {
+                        HttpResponse<Void> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base + "/api/comandas/pendientes"))
+                                .header("Authorization", "Bearer " + token)
+                                .GET()
+                                .build(),
+                            HttpResponse.BodyHandlers.discarding());
+                        if (respuesta.statusCode() == 200) {
+                            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                        }
+                    }
+                } catch (IOException e) {
+                    // El servidor todavía no acepta conexiones
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("Sin respuesta de /api/comandas/pendientes en " + limite.toSeconds() + " s, ver " + log);
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String requerido(String propiedad) {
+        String valor = System.getProperty(propiedad);
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("Falta -D" + propiedad);
+        }
+        return valor;
+    }
+}
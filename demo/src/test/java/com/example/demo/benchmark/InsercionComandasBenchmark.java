@@ -0,0 +1,127 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.entity.*;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de inserción de comandas con sus líneas (1 comanda + 20 detalles por operación)
+ * - tamanoLote=1: un INSERT por fila, como cuando los IDs eran IDENTITY
+ * - tamanoLote=50: lotes JDBC de application.properties, posibles con los generadores de tabla
+ * Filas por segundo = operaciones por segundo x 21
+ *
+ * Por defecto usa H2 en memoria (perfil test), donde cada ida y vuelta es casi gratis; contra MySQL
+ * la diferencia es mucho mayor. Para medir contra MySQL (migrada por Flyway al arrancar):
+ *   -Dbenchmark.url=jdbc:mysql://localhost:3306/restaurante_db?rewriteBatchedStatements=true
+ *
+ * Ejecutar desde demo/ con:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.demo.benchmark.InsercionComandasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercionComandasBenchmark {
+
+    private static final int LINEAS_POR_COMANDA = 20;
+
+    @Param({"1", "50"})
+    public int tamanoLote;
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionTemplate transaccion;
+    private EntityManager entityManager;
+
+    private Integer idMesa;
+    private String idMesero;
+    private Integer idEstado;
+    private final List<Integer> idsProductos = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> propiedades = new ArrayList<>(List.of(
+            "server.port=0",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=" + tamanoLote,
+            "archivado.habilitado=false",
+            "outbox.sink=memoria",
+            "logging.level.root=WARN",
+            "logging.level.com.example.demo=WARN",
+            "logging.level.org.hibernate.SQL=WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        String url = System.getProperty("benchmark.url");
+        if (url != null) {
+            propiedades.add("spring.datasource.url=" + url);
+        }
+
+        contexto = new SpringApplicationBuilder(DemoApplication.class)
+            .profiles(url == null ? "test" : "default")
+            .properties(propiedades.toArray(new String[0]))
+            .run();
+        transaccion = contexto.getBean(TransactionTemplate.class);
+        entityManager = contexto.getBean(EntityManager.class);
+
+        // Sufijo para poder repetir la ejecución contra una base de datos persistente
+        String sufijo = Long.toString(System.currentTimeMillis() % 100000000L, 36).toUpperCase();
+        transaccion.executeWithoutResult(status -> {
+            Estado estado = new Estado("BENCH" + sufijo);
+            entityManager.persist(estado);
+            Rol rol = new Rol("BENCH" + sufijo);
+            entityManager.persist(rol);
+            Usuario mesero = new Usuario("BENCH" + sufijo, "Mesero Benchmark", "bench" + sufijo + "@restaurante.com", "x", rol);
+            entityManager.persist(mesero);
+            Mesa mesa = new Mesa(4, "Benchmark", estado);
+            entityManager.persist(mesa);
+            Categoria categoria = new Categoria("BENCH" + sufijo);
+            entityManager.persist(categoria);
+            for (int i = 0; i < LINEAS_POR_COMANDA; i++) {
+                Producto producto = new Producto("Producto " + i, new BigDecimal("10.00").add(BigDecimal.valueOf(i)), 1000000, categoria);
+                entityManager.persist(producto);
+                idsProductos.add(producto.getIdProducto());
+            }
+            idMesa = mesa.getIdMesa();
+            idMesero = mesero.getIdUsuario();
+            idEstado = estado.getIdEstado();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Integer insertarComanda() {
+        return transaccion.execute(status -> {
+            Estado estado = entityManager.getReference(Estado.class, idEstado);
+            Comanda comanda = new Comanda(entityManager.getReference(Mesa.class, idMesa),
+                entityManager.getReference(Usuario.class, idMesero), estado);
+            entityManager.persist(comanda);
+            for (int i = 0; i < LINEAS_POR_COMANDA; i++) {
+                DetalleComanda detalle = new DetalleComanda(comanda, entityManager.getReference(Producto.class, idsProductos.get(i)),
+                    i + 1, BigDecimal.TEN);
+                detalle.setEstado(estado);
+                entityManager.persist(detalle);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return comanda.getIdComanda();
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[] {InsercionComandasBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.response.*;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la serialización de un listado de 500 comandas (GET /api/comandas)
+ * - actual: ObjectMapper de Spring Boot sin módulos extra y un ObjectWriter nuevo por petición
+ * - ajustado: Blackbird y el ObjectWriter guardado por ConvertidorJson
+ *
+ * Ejecutar desde demo/ con:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.demo.benchmark.SerializacionComandasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class SerializacionComandasBenchmark {
+
+    private static final int COMANDAS = 500;
+    private static final int LINEAS_POR_COMANDA = 4;
+
+    private List<ComandaResponseDTO> comandas;
+    private ObjectMapper mapperActual;
+    private JavaType tipoActual;
+    private ObjectWriter escritorAjustado;
+
+    @Setup
+    public void setUp() {
+        comandas = crearComandas();
+
+        mapperActual = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        tipoActual = mapperActual.getTypeFactory().constructCollectionType(List.class, ComandaResponseDTO.class);
+
+        ObjectMapper mapperAjustado = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new BlackbirdModule())
+            .build();
+        JavaType tipoAjustado = mapperAjustado.getTypeFactory().constructCollectionType(List.class, ComandaResponseDTO.class);
+        // El mismo ObjectWriter que ConvertidorJson guarda para el tipo
+        escritorAjustado = mapperAjustado.writerFor(tipoAjustado);
+    }
+
+    @Benchmark
+    public byte[] actual() throws Exception {
+        // Lo que hace MappingJackson2HttpMessageConverter en cada petición
+        return mapperActual.writer().forType(tipoActual).writeValueAsBytes(comandas);
+    }
+
+    @Benchmark
+    public byte[] ajustado() throws Exception {
+        return escritorAjustado.writeValueAsBytes(comandas);
+    }
+
+    private List<ComandaResponseDTO> crearComandas() {
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<ComandaResponseDTO> resultado = new ArrayList<>(COMANDAS);
+        for (int i = 0; i < COMANDAS; i++) {
+            List<DetalleComandaDTO> productos = new ArrayList<>(LINEAS_POR_COMANDA);
+            double total = 0;
+            for (int j = 0; j < LINEAS_POR_COMANDA; j++) {
+                BigDecimal precio = new BigDecimal("12.50").add(BigDecimal.valueOf(j));
+                BigDecimal subtotal = precio.multiply(BigDecimal.valueOf(j + 1));
+                total += subtotal.doubleValue();
+                productos.add(DetalleComandaDTO.builder()
+                    .idDetalle((long) i * LINEAS_POR_COMANDA + j)
+                    .idComanda((long) i)
+                    .idProducto((long) j + 1)
+                    .nombreProducto("Producto " + (j + 1))
+                    .cantidad(j + 1)
+                    .precioUnitario(precio)
+                    .subtotal(subtotal)
+                    .estado("PENDIENTE")
+                    .build());
+            }
+            resultado.add(ComandaResponseDTO.builder()
+                .idComanda((long) i)
+                .fecha(inicio.plusMinutes(i))
+                .mesa(MesaSimpleDTO.builder().idMesa((long) (i % 20) + 1).ubicacion("Salón").capacidad(4).estado("OCUPADO").build())
+                .mesero(UsuarioSimpleDTO.builder().idUsuario("MESERO001").nombre("Maria Lopez").email("maria@restaurante.com").rol("MESERO").build())
+                .cocinero(UsuarioSimpleDTO.builder().idUsuario("COCINERO001").nombre("Carlos Rodriguez").email("carlos@restaurante.com").rol("COCINERO").build())
+                .estado(EstadoDTO.builder().idEstado(1L).nombre("PENDIENTE").build())
+                .productos(productos)
+                .total(total)
+                .build());
+        }
+        return resultado;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(new String[] {SerializacionComandasBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.concurrencia;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests para ReintentoConflictosAspect
+ */
+class ReintentoConflictosAspectTest {
+
+    private ReintentoConflictosAspect aspecto;
+    private OperacionConConflictos objetivo;
+    private OperacionConConflictos proxy;
+
+    @BeforeEach
+    void setUp() {
+        aspecto = new ReintentoConflictosAspect();
+        ReflectionTestUtils.setField(aspecto, "esperaInicialMs", 1L);
+        ReflectionTestUtils.setField(aspecto, "esperaMaximaMs", 2L);
+        objetivo = new OperacionConConflictos();
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(objetivo);
+        fabrica.addAspect(aspecto);
+        proxy = fabrica.getProxy();
+    }
+
+    @Test
+    void testReintentaHastaQueDejaDeHaberConflicto() {
+        // Arrange
+        objetivo.conflictosPendientes = 2;
+
+        // Act
+        String resultado = proxy.actualizar();
+
+        // Assert
+        assertThat(resultado).isEqualTo("ok");
+        assertThat(objetivo.ejecuciones).isEqualTo(3);
+        Map<String, Object> estadisticas = aspecto.obtenerEstadisticas();
+        assertThat(estadisticas).containsEntry("conflictos", 2L);
+        assertThat(estadisticas).containsEntry("reintentos", 2L);
+        assertThat(estadisticas).containsEntry("resueltosTrasReintento", 1L);
+    }
+
+    @Test
+    void testConflictoPersistenteSePropagaTrasElMaximoDeIntentos() {
+        // Arrange
+        objetivo.conflictosPendientes = 10;
+
+        // Act & Assert
+        assertThatThrownBy(() -> proxy.actualizar()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(objetivo.ejecuciones).isEqualTo(4);
+        assertThat(aspecto.obtenerEstadisticas()).containsEntry("agotados", 1L);
+    }
+
+    @Test
+    void testSinPresupuestoNoSeReintenta() {
+        // Arrange
+        ReflectionTestUtils.setField(aspecto, "presupuestoMaximo", 1.0);
+        objetivo.conflictosPendientes = 10;
+        assertThatThrownBy(() -> proxy.actualizar()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        objetivo.ejecuciones = 0;
+
+        // Act & Assert
+        assertThatThrownBy(() -> proxy.actualizar()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(objetivo.ejecuciones).isEqualTo(1);
+        assertThat(aspecto.obtenerEstadisticas()).containsEntry("sinPresupuesto", 2L);
+    }
+
+    @Test
+    void testOtrasExcepcionesNoSeReintentan() {
+        // Act & Assert
+        assertThatThrownBy(() -> proxy.fallar()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(objetivo.ejecuciones).isEqualTo(1);
+        assertThat(aspecto.obtenerEstadisticas()).containsEntry("conflictos", 0L);
+    }
+
+    @Test
+    void testUnaInterrupcionDuranteLaEsperaDevuelveElConflicto() {
+        // Arrange: el hilo ya está interrumpido cuando llega la primera espera
+        objetivo.conflictosPendientes = 10;
+        Thread.currentThread().interrupt();
+
+        // Act & Assert
+        try {
+            assertThatThrownBy(() -> proxy.actualizar()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+            assertThat(objetivo.ejecuciones).isEqualTo(1);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testLaEsperaNoSuperaElTope() {
+        // Arrange
+        ReflectionTestUtils.setField(aspecto, "esperaInicialMs", 20L);
+        ReflectionTestUtils.setField(aspecto, "esperaMaximaMs", 400L);
+
+        // Act & Assert
+        for (int intento = 1; intento <= 40; intento++) {
+            assertThat(aspecto.calcularEspera(intento)).isBetween(0L, 400L);
+        }
+        assertThat(aspecto.calcularEspera(1)).isBetween(0L, 20L);
+    }
+
+    /**
+     * Operación de prueba que falla con conflicto de versión las primeras veces
+     */
+    static class OperacionConConflictos {
+
+        int conflictosPendientes;
+        int ejecuciones;
+
+        @ReintentarConflicto
+        public String actualizar() {
+            ejecuciones++;
+            if (conflictosPendientes-- > 0) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1);
+            }
+            return "ok";
+        }
+
+        @ReintentarConflicto
+        public String fallar() {
+            ejecuciones++;
+            throw new IllegalArgumentException("Dato no válido");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.response.ComandaResponseDTO;
+import com.example.demo.dto.response.EstadoDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para ConvertidorJson
+ */
+class ConvertidorJsonTest {
+
+    private ObjectMapper objectMapper;
+    private ConvertidorJson convertidor;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        convertidor = new ConvertidorJson(objectMapper);
+    }
+
+    @Test
+    void testReutilizaElEscritorDeUnListado() throws Exception {
+        // Arrange
+        JavaType tipo = objectMapper.getTypeFactory().constructCollectionType(List.class, EstadoDTO.class);
+
+        // Act
+        ObjectWriter primero = convertidor.customizeWriter(objectMapper.writer(), tipo, MediaType.APPLICATION_JSON);
+        ObjectWriter segundo = convertidor.customizeWriter(objectMapper.writer(), tipo, MediaType.APPLICATION_JSON);
+
+        // Assert
+        assertThat(segundo).isSameAs(primero);
+        assertThat(convertidor.getNumeroEscritores()).isEqualTo(1);
+        assertThat(primero.writeValueAsString(List.of(EstadoDTO.builder().idEstado(1L).nombre("PENDIENTE").build())))
+            .contains("\"nombre\":\"PENDIENTE\"");
+    }
+
+    @Test
+    void testPrecalentarGuardaLosEscritores() {
+        // Act
+        convertidor.precalentar(ComandaResponseDTO.class,
+            objectMapper.getTypeFactory().constructCollectionType(List.class, ComandaResponseDTO.class));
+
+        // Assert
+        assertThat(convertidor.getNumeroEscritores()).isEqualTo(2);
+    }
+
+    @Test
+    void testNoGuardaEscritoresConVistaNiTiposNoDto() {
+        // Arrange
+        ObjectWriter conVista = objectMapper.writerWithView(Object.class);
+        JavaType listado = objectMapper.getTypeFactory().constructCollectionType(List.class, EstadoDTO.class);
+        JavaType generico = objectMapper.constructType(Object.class);
+        ObjectWriter original = objectMapper.writer();
+
+        // Act
+        ObjectWriter resultadoVista = convertidor.customizeWriter(conVista, listado, MediaType.APPLICATION_JSON);
+        ObjectWriter resultadoGenerico = convertidor.customizeWriter(original, generico, MediaType.APPLICATION_JSON);
+
+        // Assert
+        assertThat(resultadoVista).isSameAs(conVista);
+        assertThat(resultadoGenerico).isSameAs(original);
+        assertThat(convertidor.getNumeroEscritores()).isZero();
+    }
+
+    @Test
+    void testMapasSeGuardanComoContenedores() {
+        // Arrange
+        JavaType mapa = objectMapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class);
+
+        // Act
+        convertidor.customizeWriter(objectMapper.writer(), mapa, MediaType.APPLICATION_JSON);
+
+        // Assert
+        assertThat(convertidor.getNumeroEscritores()).isEqualTo(1);
+    }
+}
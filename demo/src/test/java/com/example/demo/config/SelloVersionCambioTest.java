@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Estado;
+import com.example.demo.entity.Mesa;
+import com.example.demo.entity.VersionCambioListener;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de SelloVersionCambio: la versión de cambio que queda en la base de datos es la del commit
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@Import(SelloVersionCambio.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SelloVersionCambioTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testLaVersionSeAsignaAlConfirmarYNoAlHacerFlush() {
+        long[] versiones = new long[2];
+
+        // Act: la mesa se inserta y se modifica con flush, y la transacción sigue trabajando antes de confirmar
+        Integer idMesa = transactionTemplate.execute(status -> {
+            Estado estado = new Estado("Disponible");
+            entityManager.persist(estado);
+            Mesa mesa = new Mesa(4, "Terraza", estado);
+            entityManager.persist(mesa);
+            mesa.setCapacidad(6);
+            entityManager.flush();
+            versiones[0] = mesa.getVersionCambio();
+            versiones[1] = VersionCambioListener.siguienteVersion();
+            return mesa.getIdMesa();
+        });
+
+        // Assert: la fila lleva una versión posterior a todo lo ocurrido antes del commit
+        Long guardada = jdbcTemplate.queryForObject(
+            "SELECT version_cambio FROM restaurante_mesas WHERE id_mesa = ?", Long.class, idMesa);
+        assertThat(guardada).isGreaterThan(versiones[1]).isGreaterThan(versiones[0]);
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM restaurante_mesas WHERE id_mesa = ?", Long.class, idMesa);
+        assertThat(version).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.Rol;
+import com.example.demo.entity.Usuario;
+import com.example.demo.mapper.UsuarioMapper;
+import com.example.demo.repository.RolRepository;
+import com.example.demo.repository.TelefonoRepository;
+import com.example.demo.repository.UsuarioRepository;
+import com.example.demo.repository.UsuarioTelefonoRepository;
+import com.example.demo.security.IdempotencyFilter;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.ListaRevocacion;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.PasswordHasher;
+import com.example.demo.security.RateLimitFilter;
+import com.example.demo.service.RefreshTokenService;
+import com.example.demo.service.SecuenciaUsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests para AuthController
+ */
+@WebMvcTest(controllers = AuthController.class, excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+    classes = {JwtAuthenticationFilter.class, RateLimitFilter.class, IdempotencyFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import(UsuarioMapper.class)
+class AuthControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private UsuarioRepository usuarioRepository;
+    
+    @MockBean
+    private RolRepository rolRepository;
+    
+    @MockBean
+    private TelefonoRepository telefonoRepository;
+    
+    @MockBean
+    private UsuarioTelefonoRepository usuarioTelefonoRepository;
+    
+    @MockBean
+    private PasswordHasher passwordHasher;
+    
+    @MockBean
+    private LoginThrottle loginThrottle;
+    
+    @MockBean
+    private JwtUtil jwtUtil;
+    
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+    
+    @MockBean
+    private ListaRevocacion listaRevocacion;
+    
+    @MockBean
+    private SecuenciaUsuarioService secuenciaUsuarioService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private Usuario usuario;
+    
+    @BeforeEach
+    void setUp() {
+        Rol rolAdmin = new Rol("ADMINISTRADOR");
+        rolAdmin.setIdRol(1);
+        
+        usuario = new Usuario("admin001", "Juan Perez", "admin@test.com", "$2a$10$hash", rolAdmin);
+        
+        when(usuarioRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(usuario));
+        when(jwtUtil.generateToken(anyString(), anyString(), anyString())).thenReturn("jwt");
+        when(jwtUtil.getExpirationTime()).thenReturn(900000L);
+        when(refreshTokenService.emitir("admin001")).thenReturn("refresh");
+    }
+    
+    @Test
+    void testAutenticarUsuario() throws Exception {
+        // Arrange
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("email", "admin@test.com");
+        credentials.put("password", "pass123");
+        
+        when(passwordHasher.verificar("pass123", "$2a$10$hash")).thenReturn(CompletableFuture.completedFuture(true));
+        
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(credentials)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultado))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.nombre").value("Juan Perez"))
+            .andExpect(jsonPath("$.email").value("admin@test.com"));
+    }
+    
+    @Test
+    void testAutenticarUsuarioCredencialesInvalidas() throws Exception {
+        // Arrange
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("email", "admin@test.com");
+        credentials.put("password", "wrongpass");
+        
+        when(passwordHasher.verificar("wrongpass", "$2a$10$hash")).thenReturn(CompletableFuture.completedFuture(false));
+        
+        // Act & Assert
+        MvcResult resultado = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(credentials)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultado))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").exists());
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.demo.controller;
+
+import jakarta.persistence.Entity;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para verificar que ningún controlador devuelve entidades JPA
+ * El primero recorre el tipo de retorno de cada endpoint (genéricos incluidos) y los campos de los DTOs que contiene.
+ * Los endpoints que responden ResponseEntity<?> o Map<String, Object> no dicen nada en su firma, así que el segundo
+ * los invoca con servicios simulados que devuelven entidades rellenas y revisa el cuerpo que llegaría a Jackson
+ */
+class ControladoresSinEntidadesTest {
+
+    private static final String PAQUETE_BASE = "com.example.demo";
+
+    @Test
+    void testNingunEndpointDevuelveEntidades() throws Exception {
+        // Arrange
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        Set<BeanDefinition> controladores = escaner.findCandidateComponents(PAQUETE_BASE + ".controller");
+
+        // Act
+        List<String> infracciones = new ArrayList<>();
+        for (BeanDefinition definicion : controladores) {
+            Class<?> controlador = Class.forName(definicion.getBeanClassName());
+            for (Method metodo : controlador.getDeclaredMethods()) {
+                if (esEndpoint(metodo)) {
+                    Set<Class<?>> entidades = new LinkedHashSet<>();
+                    buscarEntidades(metodo.getGenericReturnType(), new HashSet<>(), entidades);
+                    entidades.forEach(entidad -> infracciones.add(
+                        controlador.getSimpleName() + "." + metodo.getName() + " -> " + entidad.getSimpleName()));
+                }
+            }
+        }
+
+        // Assert
+        assertThat(controladores).isNotEmpty();
+        assertThat(infracciones).isEmpty();
+    }
+
+    @Test
+    void testNingunaRespuestaContieneEntidades() throws Exception {
+        // Arrange
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        Set<BeanDefinition> controladores = escaner.findCandidateComponents(PAQUETE_BASE + ".controller");
+
+        // Act
+        List<String> infracciones = new ArrayList<>();
+        List<String> opacosSinRespuesta = new ArrayList<>();
+        for (BeanDefinition definicion : controladores) {
+            Class<?> clase = Class.forName(definicion.getBeanClassName());
+            for (Method metodo : clase.getDeclaredMethods()) {
+                if (!esEndpoint(metodo)) {
+                    continue;
+                }
+                String nombre = clase.getSimpleName() + "." + metodo.getName();
+                Object cuerpo = invocar(clase, metodo);
+                if (cuerpo == null && esOpaco(metodo.getGenericReturnType())) {
+                    opacosSinRespuesta.add(nombre);
+                }
+                Set<Class<?>> entidades = new LinkedHashSet<>();
+                buscarEntidadesEn(cuerpo, Collections.newSetFromMap(new IdentityHashMap<>()), entidades);
+                entidades.forEach(entidad -> infracciones.add(nombre + " -> " + entidad.getSimpleName()));
+            }
+        }
+
+        // Assert
+        assertThat(infracciones).isEmpty();
+        assertThat(opacosSinRespuesta).isEmpty();
+    }
+
+    private boolean esEndpoint(Method metodo) {
+        if (!Modifier.isPublic(metodo.getModifiers())) {
+            return false;
+        }
+        return Arrays.stream(metodo.getAnnotations())
+            .anyMatch(anotacion -> anotacion.annotationType().isAnnotationPresent(RequestMapping.class)
+                || anotacion.annotationType().equals(RequestMapping.class));
+    }
+
+    private void buscarEntidades(Type tipo, Set<Type> visitados, Set<Class<?>> entidades) {
+        if (tipo == null || !visitados.add(tipo)) {
+            return;
+        }
+        if (tipo instanceof ParameterizedType parametrizado) {
+            buscarEntidades(parametrizado.getRawType(), visitados, entidades);
+            for (Type argumento : parametrizado.getActualTypeArguments()) {
+                buscarEntidades(argumento, visitados, entidades);
+            }
+        } else if (tipo instanceof WildcardType comodin) {
+            for (Type limite : comodin.getUpperBounds()) {
+                buscarEntidades(limite, visitados, entidades);
+            }
+        } else if (tipo instanceof GenericArrayType arreglo) {
+            buscarEntidades(arreglo.getGenericComponentType(), visitados, entidades);
+        } else if (tipo instanceof Class<?> clase) {
+            if (clase.isArray()) {
+                buscarEntidades(clase.getComponentType(), visitados, entidades);
+            } else if (clase.isAnnotationPresent(Entity.class)) {
+                entidades.add(clase);
+            } else if (clase.getName().startsWith(PAQUETE_BASE)) {
+                // DTOs propios: una entidad anidada en un campo también llega a Jackson
+                for (Field campo : clase.getDeclaredFields()) {
+                    if (!Modifier.isStatic(campo.getModifiers())) {
+                        buscarEntidades(campo.getGenericType(), visitados, entidades);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean esOpaco(Type tipo) {
+        if (tipo instanceof WildcardType || tipo == Object.class) {
+            return true;
+        }
+        return tipo instanceof ParameterizedType parametrizado
+            && Arrays.stream(parametrizado.getActualTypeArguments()).anyMatch(this::esOpaco);
+    }
+
+    /**
+     * Invocar el endpoint con dependencias simuladas y devolver el cuerpo de la primera respuesta 2xx
+     * Las fechas en texto se prueban como día y como fecha y hora, porque cada endpoint parsea una de las dos.
+     * Un último intento solo encuentra lo que se busca por id, para las altas que comprueban que el email o el
+     * nombre no estén repetidos
+     */
+    private Object invocar(Class<?> clase, Method metodo) throws Exception {
+        for (int intento = 0; intento < 3; intento++) {
+            boolean conHora = intento == 1;
+            soloPorId = intento == 2;
+            Parameter[] parametros = metodo.getParameters();
+            Object[] argumentos = new Object[parametros.length];
+            for (int i = 0; i < parametros.length; i++) {
+                argumentos[i] = argumento(parametros[i], conHora);
+            }
+            Object cuerpo = responder(construir(clase), metodo, argumentos);
+            if (cuerpo != null) {
+                return cuerpo;
+            }
+        }
+        return null;
+    }
+
+    private Object responder(Object controlador, Method metodo, Object[] argumentos) throws Exception {
+        Object resultado;
+        try {
+            metodo.setAccessible(true);
+            resultado = metodo.invoke(controlador, argumentos);
+            if (resultado instanceof CompletableFuture<?> futuro) {
+                resultado = futuro.join();
+            }
+        } catch (InvocationTargetException | CompletionException e) {
+            return null;
+        }
+        if (resultado instanceof ResponseEntity<?> respuesta) {
+            return respuesta.getStatusCode().is2xxSuccessful() ? respuesta.getBody() : null;
+        }
+        return resultado;
+    }
+
+    private Object argumento(Parameter parametro, boolean conHora) throws Exception {
+        RequestParam requestParam = parametro.getAnnotation(RequestParam.class);
+        if (requestParam != null && !ValueConstants.DEFAULT_NONE.equals(requestParam.defaultValue())) {
+            return new DefaultConversionService().convert(requestParam.defaultValue(), parametro.getType());
+        }
+        if (parametro.isAnnotationPresent(RequestHeader.class)) {
+            return "Bearer muestra";
+        }
+        if (parametro.getType() == String.class && parametro.getName().matches("desde|hasta|inicio|fin|fecha.*")) {
+            return conHora ? LocalDateTime.now().withNano(0).toString() : LocalDate.now().toString();
+        }
+        if (parametro.isAnnotationPresent(RequestBody.class) && parametro.getParameterizedType() instanceof ParameterizedType mapa
+                && Map.class.equals(mapa.getRawType())) {
+            return cuerpoDeMuestra(mapa.getActualTypeArguments()[1]);
+        }
+        return muestra(parametro.getParameterizedType(), PROFUNDIDAD);
+    }
+
+    /**
+     * Cuerpo JSON de muestra: cualquier clave está presente; en un Map<String, Object> los identificadores
+     * y cantidades llegan como números y el resto como texto, igual que los envía el frontend
+     */
+    private Map<String, Object> cuerpoDeMuestra(Type tipoValor) {
+        return new HashMap<>() {
+            @Override
+            public Object get(Object clave) {
+                try {
+                    if (tipoValor != Object.class) {
+                        return muestra(tipoValor, PROFUNDIDAD);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return String.valueOf(clave).matches("id.*|capacidad|cantidad|stock|umbral|precio.*") ? 1 : "muestra";
+            }
+
+            @Override
+            public boolean containsKey(Object clave) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Crear el controlador (o un mapper) con sus dependencias: los mappers reales y el resto simulado
+     */
+    private Object construir(Class<?> clase) throws Exception {
+        Constructor<?> constructor = clase.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object instancia = constructor.newInstance();
+        for (Class<?> actual = clase; actual != null && actual.getName().startsWith(PAQUETE_BASE); actual = actual.getSuperclass()) {
+            for (Field campo : actual.getDeclaredFields()) {
+                if (!campo.isAnnotationPresent(Autowired.class)) {
+                    continue;
+                }
+                campo.setAccessible(true);
+                Class<?> tipo = campo.getType();
+                campo.set(instancia, tipo.getName().startsWith(PAQUETE_BASE + ".mapper")
+                    ? construir(tipo)
+                    : Mockito.mock(tipo, RESPUESTA_DE_MUESTRA));
+            }
+        }
+        return instancia;
+    }
+
+    private static final int PROFUNDIDAD = 4;
+
+    // Los servicios simulados devuelven valores de muestra: entidades con sus relaciones rellenas, listas con un elemento
+    private final Answer<Object> RESPUESTA_DE_MUESTRA = new Answer<>() {
+        @Override
+        public Object answer(InvocationOnMock invocacion) throws Throwable {
+            Method metodo = invocacion.getMethod();
+            if (soloPorId && metodo.getReturnType() == Optional.class && !metodo.getName().startsWith("findById")) {
+                return Optional.empty();
+            }
+            // Los repositorios heredan findById y save de JpaRepository: el tipo se resuelve contra el simulado
+            return muestra(ResolvableType.forMethodReturnType(metodo, invocacion.getMock().getClass()), PROFUNDIDAD);
+        }
+    };
+
+    private boolean soloPorId;
+
+    private Object muestra(Type tipo, int profundidad) throws Exception {
+        return muestra(ResolvableType.forType(tipo), profundidad);
+    }
+
+    private Object muestra(ResolvableType tipo, int profundidad) throws Exception {
+        Class<?> clase = tipo.resolve();
+        if (clase == null || clase == void.class) {
+            return null;
+        }
+        ResolvableType argumento = tipo.getGeneric(0);
+        if (Optional.class.equals(clase)) {
+            return Optional.ofNullable(muestra(argumento, profundidad));
+        }
+        if (CompletableFuture.class.equals(clase)) {
+            return CompletableFuture.completedFuture(muestra(argumento, profundidad));
+        }
+        if (Map.class.isAssignableFrom(clase)) {
+            return new HashMap<>();
+        }
+        if (Collection.class.isAssignableFrom(clase)) {
+            Collection<Object> coleccion = Set.class.isAssignableFrom(clase) ? new HashSet<>() : new ArrayList<>();
+            Object elemento = profundidad > 0 ? muestra(argumento, profundidad - 1) : null;
+            if (elemento != null) {
+                coleccion.add(elemento);
+            }
+            return coleccion;
+        }
+        if (clase == String.class) {
+            return "muestra";
+        }
+        if (clase == Integer.class) {
+            return 1;
+        }
+        if (clase == Long.class) {
+            return 1L;
+        }
+        if (clase == Double.class) {
+            return 1.0;
+        }
+        if (clase == Boolean.class) {
+            return true;
+        }
+        if (clase == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (clase == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (clase == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (clase == LocalTime.class) {
+            return LocalTime.NOON;
+        }
+        if (clase.isEnum()) {
+            return clase.getEnumConstants()[0];
+        }
+        if (clase.isPrimitive()) {
+            // Cero o false: ningún intento pendiente, nada existe todavía
+            return Array.get(Array.newInstance(clase, 1), 0);
+        }
+        if (!clase.getName().startsWith(PAQUETE_BASE)) {
+            return clase.isInterface() || !Modifier.isFinal(clase.getModifiers()) ? Mockito.mock(clase) : null;
+        }
+        if (clase.isInterface()) {
+            return Mockito.mock(clase, RESPUESTA_DE_MUESTRA);
+        }
+        return rellenar(clase, profundidad);
+    }
+
+    /**
+     * Instanciar una entidad o un DTO propio con sus campos rellenos hasta cierta profundidad
+     */
+    private Object rellenar(Class<?> clase, int profundidad) throws Exception {
+        if (profundidad == 0 || Modifier.isAbstract(clase.getModifiers())) {
+            return null;
+        }
+        Constructor<?> constructor;
+        try {
+            constructor = clase.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        constructor.setAccessible(true);
+        Object instancia = constructor.newInstance();
+        for (Class<?> actual = clase; actual != null && actual.getName().startsWith(PAQUETE_BASE); actual = actual.getSuperclass()) {
+            for (Field campo : actual.getDeclaredFields()) {
+                if (Modifier.isStatic(campo.getModifiers()) || Modifier.isFinal(campo.getModifiers())) {
+                    continue;
+                }
+                campo.setAccessible(true);
+                Object valor = muestra(campo.getGenericType(), profundidad - 1);
+                if (valor != null && campo.getType().isInstance(valor)) {
+                    campo.set(instancia, valor);
+                }
+            }
+        }
+        return instancia;
+    }
+
+    /**
+     * Recorrer el cuerpo de la respuesta como lo haría Jackson: mapas, colecciones y campos de los DTOs propios
+     */
+    private void buscarEntidadesEn(Object valor, Set<Object> visitados, Set<Class<?>> entidades) throws IllegalAccessException {
+        if (valor == null || !visitados.add(valor)) {
+            return;
+        }
+        Class<?> clase = valor.getClass();
+        if (clase.isAnnotationPresent(Entity.class)) {
+            entidades.add(clase);
+        } else if (valor instanceof Map<?, ?> mapa) {
+            for (Object elemento : mapa.values()) {
+                buscarEntidadesEn(elemento, visitados, entidades);
+            }
+        } else if (valor instanceof Iterable<?> iterable) {
+            for (Object elemento : iterable) {
+                buscarEntidadesEn(elemento, visitados, entidades);
+            }
+        } else if (valor instanceof Optional<?> opcional) {
+            buscarEntidadesEn(opcional.orElse(null), visitados, entidades);
+        } else if (clase.isArray() && !clase.getComponentType().isPrimitive()) {
+            for (Object elemento : (Object[]) valor) {
+                buscarEntidadesEn(elemento, visitados, entidades);
+            }
+        } else if (clase.getName().startsWith(PAQUETE_BASE) && !Mockito.mockingDetails(valor).isMock()) {
+            for (Class<?> actual = clase; actual != null && actual.getName().startsWith(PAQUETE_BASE); actual = actual.getSuperclass()) {
+                for (Field campo : actual.getDeclaredFields()) {
+                    if (!Modifier.isStatic(campo.getModifiers())) {
+                        campo.setAccessible(true);
+                        buscarEntidadesEn(campo.get(valor), visitados, entidades);
+                    }
+                }
+            }
+        }
+    }
+}
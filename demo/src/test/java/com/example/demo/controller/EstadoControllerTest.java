@@ -1,13 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.EstadoDTO;
 import com.example.demo.entity.Estado;
+import com.example.demo.mapper.CatalogoMapper;
+import com.example.demo.security.IdempotencyFilter;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.RateLimitFilter;
 import com.example.demo.service.EstadoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -25,7 +34,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Tests para EstadoController
  * Usa @WebMvcTest para probar solo la capa de controlador
  */
-@WebMvcTest(EstadoController.class)
+@WebMvcTest(controllers = EstadoController.class, excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+    classes = {JwtAuthenticationFilter.class, RateLimitFilter.class, IdempotencyFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import(CatalogoMapper.class)
 class EstadoControllerTest {
     
     @Autowired
@@ -38,18 +50,21 @@ class EstadoControllerTest {
     private ObjectMapper objectMapper;
     
     private Estado estado;
+    private EstadoDTO estadoDTO;
     
     @BeforeEach
     void setUp() {
         estado = new Estado("DISPONIBLE");
         estado.setIdEstado(1);
+        
+        estadoDTO = EstadoDTO.builder().idEstado(1L).nombre("DISPONIBLE").build();
     }
     
     @Test
     void testObtenerTodosLosEstados() throws Exception {
         // Arrange
-        List<Estado> estados = Arrays.asList(estado);
-        when(estadoService.obtenerEstadosOrdenados()).thenReturn(estados);
+        List<EstadoDTO> estados = Arrays.asList(estadoDTO);
+        when(estadoService.listarEstadosOrdenados()).thenReturn(estados);
         
         // Act & Assert
         mockMvc.perform(get("/api/estados"))
@@ -119,8 +134,8 @@ class EstadoControllerTest {
     @Test
     void testBuscarEstados() throws Exception {
         // Arrange
-        List<Estado> estados = Arrays.asList(estado);
-        when(estadoService.buscarEstadosPorTexto("DISP")).thenReturn(estados);
+        List<EstadoDTO> estados = Arrays.asList(estadoDTO);
+        when(estadoService.listarEstadosPorTexto("DISP")).thenReturn(estados);
         
         // Act & Assert
         mockMvc.perform(get("/api/estados/buscar?texto=DISP"))
@@ -1,14 +1,26 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.ProductoResponseDTO;
+import com.example.demo.dto.response.ProductoTopDTO;
 import com.example.demo.entity.Categoria;
 import com.example.demo.entity.Producto;
+import com.example.demo.mapper.ProductoMapper;
+import com.example.demo.security.IdempotencyFilter;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.RateLimitFilter;
+import com.example.demo.service.AlertasStockService;
+import com.example.demo.service.BestSellerService;
 import com.example.demo.service.ProductoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -28,7 +40,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 /**
  * Tests para ProductoController
  */
-@WebMvcTest(ProductoController.class)
+@WebMvcTest(controllers = ProductoController.class, excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+    classes = {JwtAuthenticationFilter.class, RateLimitFilter.class, IdempotencyFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import(ProductoMapper.class)
 class ProductoControllerTest {
     
     @Autowired
@@ -37,11 +52,18 @@ class ProductoControllerTest {
     @MockBean
     private ProductoService productoService;
     
+    @MockBean
+    private BestSellerService bestSellerService;
+    
+    @MockBean
+    private AlertasStockService alertasStockService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
     private Categoria categoria;
     private Producto producto;
+    private ProductoResponseDTO productoDTO;
     
     @BeforeEach
     void setUp() {
@@ -50,13 +72,24 @@ class ProductoControllerTest {
         
         producto = new Producto("Ensalada", new BigDecimal("12.50"), 50, categoria);
         producto.setIdProducto(1);
+        
+        productoDTO = ProductoResponseDTO.builder()
+                .idProducto(1L)
+                .nombre("Ensalada")
+                .precio(new BigDecimal("12.50"))
+                .stock(50)
+                .categoria("ENTRADAS")
+                .idCategoria(1)
+                .disponible(true)
+                .estado(true)
+                .build();
     }
     
     @Test
     void testObtenerTodosLosProductos() throws Exception {
         // Arrange
-        List<Producto> productos = Arrays.asList(producto);
-        when(productoService.obtenerTodosLosProductos()).thenReturn(productos);
+        List<ProductoResponseDTO> productos = Arrays.asList(productoDTO);
+        when(productoService.listarProductos()).thenReturn(productos);
         
         // Act & Assert
         mockMvc.perform(get("/api/productos"))
@@ -93,8 +126,8 @@ class ProductoControllerTest {
     @Test
     void testObtenerProductosActivos() throws Exception {
         // Arrange
-        List<Producto> productos = Arrays.asList(producto);
-        when(productoService.obtenerProductosActivos()).thenReturn(productos);
+        List<ProductoResponseDTO> productos = Arrays.asList(productoDTO);
+        when(productoService.listarProductosActivos()).thenReturn(productos);
         
         // Act & Assert
         mockMvc.perform(get("/api/productos/activos"))
@@ -142,4 +175,25 @@ class ProductoControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.estado").value(false));
     }
+    
+    @Test
+    void testObtenerProductosMasVendidos() throws Exception {
+        // Arrange
+        when(bestSellerService.obtenerTop(BestSellerService.Ventana.SIETE_DIAS, 3))
+            .thenReturn(List.of(new ProductoTopDTO(1, "Ensalada", 42L)));
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/productos/top").param("ventana", "7d").param("k", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].idProducto").value(1))
+            .andExpect(jsonPath("$[0].cantidadVendida").value(42));
+    }
+    
+    @Test
+    void testObtenerProductosMasVendidosConVentanaInvalida() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/productos/top").param("ventana", "2h"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").exists());
+    }
 }
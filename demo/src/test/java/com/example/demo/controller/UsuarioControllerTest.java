@@ -1,25 +1,34 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.response.RolDTO;
+import com.example.demo.dto.response.UsuarioResponseDTO;
 import com.example.demo.entity.Rol;
 import com.example.demo.entity.Usuario;
+import com.example.demo.mapper.CatalogoMapper;
+import com.example.demo.mapper.UsuarioMapper;
+import com.example.demo.security.IdempotencyFilter;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.RateLimitFilter;
 import com.example.demo.service.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,7 +36,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 /**
  * Tests para UsuarioController
  */
-@WebMvcTest(UsuarioController.class)
+@WebMvcTest(controllers = UsuarioController.class, excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+    classes = {JwtAuthenticationFilter.class, RateLimitFilter.class, IdempotencyFilter.class}))
+@AutoConfigureMockMvc(addFilters = false)
+@Import({UsuarioMapper.class, CatalogoMapper.class})
 class UsuarioControllerTest {
     
     @Autowired
@@ -41,6 +53,7 @@ class UsuarioControllerTest {
     
     private Rol rolAdmin;
     private Usuario usuario;
+    private UsuarioResponseDTO usuarioDTO;
     
     @BeforeEach
     void setUp() {
@@ -48,13 +61,21 @@ class UsuarioControllerTest {
         rolAdmin.setIdRol(1);
         
         usuario = new Usuario("admin001", "Juan Perez", "admin@test.com", "pass123", rolAdmin);
+        
+        usuarioDTO = UsuarioResponseDTO.builder()
+                .idUsuario("admin001")
+                .nombre("Juan Perez")
+                .email("admin@test.com")
+                .rol(RolDTO.builder().idRol(1L).nombre("ADMINISTRADOR").build())
+                .telefonos(List.of())
+                .build();
     }
     
     @Test
     void testObtenerTodosLosUsuarios() throws Exception {
         // Arrange
-        List<Usuario> usuarios = Arrays.asList(usuario);
-        when(usuarioService.obtenerTodosLosUsuarios()).thenReturn(usuarios);
+        List<UsuarioResponseDTO> usuarios = Arrays.asList(usuarioDTO);
+        when(usuarioService.listarUsuarios()).thenReturn(usuarios);
         
         // Act & Assert
         mockMvc.perform(get("/api/usuarios"))
@@ -90,55 +111,23 @@ class UsuarioControllerTest {
         // Arrange
         when(usuarioService.crearUsuario(any(Usuario.class))).thenReturn(usuario);
         
+        // La contraseña no se serializa al leer el usuario: se añade a mano al cuerpo de la petición
+        Map<String, Object> cuerpo = objectMapper.convertValue(usuario, Map.class);
+        cuerpo.put("password", "pass123");
+        
         // Act & Assert
         mockMvc.perform(post("/api/usuarios")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(usuario)))
+                .content(objectMapper.writeValueAsString(cuerpo)))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.nombre").value("Juan Perez"));
     }
     
-    @Test
-    void testAutenticarUsuario() throws Exception {
-        // Arrange
-        Map<String, String> credentials = new HashMap<>();
-        credentials.put("email", "admin@test.com");
-        credentials.put("password", "pass123");
-        
-        when(usuarioService.autenticarUsuario(anyString(), anyString())).thenReturn(usuario);
-        
-        // Act & Assert
-        mockMvc.perform(post("/api/usuarios/login")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(credentials)))
-            .andExpect(status().isOk())
-            .andExpect(jsonPath("$.nombre").value("Juan Perez"))
-            .andExpect(jsonPath("$.email").value("admin@test.com"));
-    }
-    
-    @Test
-    void testAutenticarUsuarioCredencialesInvalidas() throws Exception {
-        // Arrange
-        Map<String, String> credentials = new HashMap<>();
-        credentials.put("email", "admin@test.com");
-        credentials.put("password", "wrongpass");
-        
-        when(usuarioService.autenticarUsuario(anyString(), anyString()))
-            .thenThrow(new IllegalArgumentException("Credenciales inválidas"));
-        
-        // Act & Assert
-        mockMvc.perform(post("/api/usuarios/login")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(credentials)))
-            .andExpect(status().isBadRequest())
-            .andExpect(jsonPath("$.error").exists());
-    }
-    
     @Test
     void testBuscarUsuarios() throws Exception {
         // Arrange
-        List<Usuario> usuarios = Arrays.asList(usuario);
-        when(usuarioService.buscarUsuariosPorNombre("Juan")).thenReturn(usuarios);
+        List<UsuarioResponseDTO> usuarios = Arrays.asList(usuarioDTO);
+        when(usuarioService.listarUsuariosPorNombre("Juan")).thenReturn(usuarios);
         
         // Act & Assert
         mockMvc.perform(get("/api/usuarios/buscar?nombre=Juan"))
@@ -2,14 +2,20 @@ package com.example.demo.integration;
 
 import com.example.demo.entity.*;
 import com.example.demo.repository.*;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.PasswordHasher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -25,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Prueba todo el flujo de la aplicación desde endpoints hasta base de datos
  */
 @SpringBootTest
+@ActiveProfiles("test")
 @AutoConfigureMockMvc
 @Transactional
 class RestauranteIntegrationTest {
@@ -59,6 +66,12 @@ class RestauranteIntegrationTest {
     @Autowired
     private DetalleComandaRepository detalleComandaRepository;
     
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
     private Estado estadoDisponible;
     private Estado estadoPendiente;
     private Rol rolMesero;
@@ -69,6 +82,7 @@ class RestauranteIntegrationTest {
     private Mesa mesa;
     private Producto producto1;
     private Producto producto2;
+    private String token;
     
     @BeforeEach
     void setUp() {
@@ -85,19 +99,31 @@ class RestauranteIntegrationTest {
         // Crear datos base
         estadoDisponible = estadoRepository.save(new Estado("DISPONIBLE"));
         estadoPendiente = estadoRepository.save(new Estado("PENDIENTE"));
+        estadoRepository.save(new Estado("OCUPADO"));
         
         rolMesero = rolRepository.save(new Rol("MESERO"));
         rolCocinero = rolRepository.save(new Rol("COCINERO"));
         
         categoria = categoriaRepository.save(new Categoria("PLATOS FUERTES"));
         
-        mesero = usuarioRepository.save(new Usuario("mesero001", "Maria Lopez", "mesero@test.com", "pass123", rolMesero));
+        mesero = usuarioRepository.save(new Usuario("mesero001", "Maria Lopez", "mesero@test.com",
+            passwordHasher.codificarYEsperar("pass123"), rolMesero));
         cocinero = usuarioRepository.save(new Usuario("cocinero001", "Carlos Rodriguez", "cocinero@test.com", "pass123", rolCocinero));
         
         mesa = mesaRepository.save(new Mesa(4, "Ventana", estadoDisponible));
         
         producto1 = productoRepository.save(new Producto("Lomo Saltado", new BigDecimal("25.00"), 50, categoria));
         producto2 = productoRepository.save(new Producto("Arroz Chaufa", new BigDecimal("18.00"), 30, categoria));
+        
+        // Las rutas fuera de /api/auth exigen token: las pruebas actúan como el mesero
+        token = jwtUtil.generateToken(mesero.getIdUsuario(), mesero.getEmail(), rolMesero.getNombre());
+    }
+    
+    /**
+     * Añadir el token del mesero a la petición
+     */
+    private MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder peticion) {
+        return peticion.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
     }
     
     @Test
@@ -113,9 +139,9 @@ class RestauranteIntegrationTest {
         comandaData.put("mesero", Map.of("idUsuario", mesero.getIdUsuario()));
         comandaData.put("estado", Map.of("idEstado", estadoPendiente.getIdEstado()));
         
-        String comandaResponse = mockMvc.perform(post("/api/comandas")
+        String comandaResponse = mockMvc.perform(autenticado(post("/api/comandas")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(comandaData)))
+                .content(objectMapper.writeValueAsString(comandaData))))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.idComanda").exists())
             .andReturn().getResponse().getContentAsString();
@@ -130,9 +156,9 @@ class RestauranteIntegrationTest {
         detalle1.put("cantidad", 2);
         detalle1.put("precioUnitario", 25.00);
         
-        mockMvc.perform(post("/api/detalle-comandas/crear")
+        mockMvc.perform(autenticado(post("/api/detalle-comandas/crear")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(detalle1)))
+                .content(objectMapper.writeValueAsString(detalle1))))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.cantidad").value(2))
             .andExpect(jsonPath("$.subtotal").value(50.00));
@@ -142,18 +168,18 @@ class RestauranteIntegrationTest {
         assertThat(productoActualizado.getStock()).isEqualTo(48); // 50 - 2
         
         // 5. Asignar cocinero
-        mockMvc.perform(put("/api/comandas/" + idComanda + "/asignar-cocinero/cocinero001"))
+        mockMvc.perform(autenticado(put("/api/comandas/" + idComanda + "/asignar-cocinero/cocinero001")))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.cocinero.nombre").value("Carlos Rodriguez"));
         
         // 6. Verificar detalles de la comanda
-        mockMvc.perform(get("/api/detalle-comandas/comanda/" + idComanda))
+        mockMvc.perform(autenticado(get("/api/detalle-comandas/comanda/" + idComanda)))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$").isArray())
-            .andExpect(jsonPath("$[0].producto.nombre").value("Lomo Saltado"));
+            .andExpect(jsonPath("$[0].nombreProducto").value("Lomo Saltado"));
         
         // 7. Calcular subtotal
-        mockMvc.perform(get("/api/detalle-comandas/subtotal/" + idComanda))
+        mockMvc.perform(autenticado(get("/api/detalle-comandas/subtotal/" + idComanda)))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.subtotal").value(50.00));
     }
@@ -165,19 +191,28 @@ class RestauranteIntegrationTest {
         credentials.put("email", "mesero@test.com");
         credentials.put("password", "pass123");
         
-        mockMvc.perform(post("/api/usuarios/login")
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(credentials)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mockMvc.perform(asyncDispatch(login))
             .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").exists())
             .andExpect(jsonPath("$.nombre").value("Maria Lopez"))
-            .andExpect(jsonPath("$.rol.nombre").value("MESERO"));
+            .andExpect(jsonPath("$.rol").value("MESERO"));
         
         // 2. Login con credenciales incorrectas
         credentials.put("password", "wrongpass");
         
-        mockMvc.perform(post("/api/usuarios/login")
+        MvcResult rechazado = mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(credentials)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mockMvc.perform(asyncDispatch(rechazado))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.error").exists());
     }
@@ -185,12 +220,12 @@ class RestauranteIntegrationTest {
     @Test
     void testFlujoDeGestionDeMesas() throws Exception {
         // 1. Listar mesas disponibles
-        mockMvc.perform(get("/api/mesas/disponibles"))
+        mockMvc.perform(autenticado(get("/api/mesas/disponibles")))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$").isArray());
         
         // 2. Ocupar mesa
-        mockMvc.perform(put("/api/mesas/" + mesa.getIdMesa() + "/ocupar"))
+        mockMvc.perform(autenticado(put("/api/mesas/" + mesa.getIdMesa() + "/ocupar")))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.estado.nombre").value("OCUPADO"));
         
@@ -199,7 +234,7 @@ class RestauranteIntegrationTest {
         assertThat(mesasDisponibles).isEqualTo(0);
         
         // 4. Liberar mesa
-        mockMvc.perform(put("/api/mesas/" + mesa.getIdMesa() + "/liberar"))
+        mockMvc.perform(autenticado(put("/api/mesas/" + mesa.getIdMesa() + "/liberar")))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.estado.nombre").value("DISPONIBLE"));
     }
@@ -214,18 +249,18 @@ class RestauranteIntegrationTest {
         Map<String, Integer> request = new HashMap<>();
         request.put("cantidad", 10);
         
-        mockMvc.perform(put("/api/productos/" + producto1.getIdProducto() + "/reducir-stock")
+        mockMvc.perform(autenticado(put("/api/productos/" + producto1.getIdProducto() + "/reducir-stock")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+                .content(objectMapper.writeValueAsString(request))))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.stock").value(stockInicial - 10));
         
         // 3. Aumentar stock
         request.put("cantidad", 20);
         
-        mockMvc.perform(put("/api/productos/" + producto1.getIdProducto() + "/aumentar-stock")
+        mockMvc.perform(autenticado(put("/api/productos/" + producto1.getIdProducto() + "/aumentar-stock")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+                .content(objectMapper.writeValueAsString(request))))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.stock").value(stockInicial - 10 + 20));
     }
@@ -239,12 +274,12 @@ class RestauranteIntegrationTest {
         Map<String, Object> detalle = new HashMap<>();
         detalle.put("idComanda", comanda.getIdComanda());
         detalle.put("idProducto", producto1.getIdProducto());
-        detalle.put("cantidad", 1000); // Más que el stock
+        detalle.put("cantidad", 60); // Más que el stock (50), dentro del máximo por línea
         detalle.put("precioUnitario", 25.00);
         
-        mockMvc.perform(post("/api/detalle-comandas/crear")
+        mockMvc.perform(autenticado(post("/api/detalle-comandas/crear")
                 .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(detalle)))
+                .content(objectMapper.writeValueAsString(detalle))))
             .andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.error").value(org.hamcrest.Matchers.containsString("stock")));
     }
@@ -0,0 +1,102 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.EventoOutbox;
+import com.example.demo.repository.EventoOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para OutboxRelay con el destino en memoria
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    private MemoriaOutboxSink memoriaOutboxSink;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        memoriaOutboxSink = new MemoriaOutboxSink();
+        outboxRelay = new OutboxRelay();
+        ReflectionTestUtils.setField(outboxRelay, "eventoOutboxRepository", eventoOutboxRepository);
+        ReflectionTestUtils.setField(outboxRelay, "sinks", new ArrayList<>(List.of(memoriaOutboxSink)));
+        ReflectionTestUtils.setField(outboxRelay, "habilitado", true);
+        ReflectionTestUtils.setField(outboxRelay, "tamanoLote", 2);
+    }
+
+    @Test
+    void testPublicaLotesEnOrdenYLosMarca() {
+        // Arrange
+        when(eventoOutboxRepository.findPendientes(any(Pageable.class)))
+            .thenReturn(Arrays.asList(evento(1L), evento(2L)))
+            .thenReturn(List.of(evento(3L)));
+
+        // Act
+        outboxRelay.publicarPendientes();
+
+        // Assert
+        assertThat(memoriaOutboxSink.getEventos())
+            .extracting(EventoOutbox::getIdEvento)
+            .containsExactly(1L, 2L, 3L);
+        verify(eventoOutboxRepository).marcarPublicados(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(eventoOutboxRepository).marcarPublicados(eq(List.of(3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testLoteFallidoNoSeMarcaComoPublicado() throws Exception {
+        // Arrange
+        OutboxSink sinkFallido = mock(OutboxSink.class);
+        when(sinkFallido.getNombre()).thenReturn("fallido");
+        ReflectionTestUtils.setField(outboxRelay, "sinks", List.of(sinkFallido));
+        when(eventoOutboxRepository.findPendientes(any(Pageable.class)))
+            .thenReturn(Arrays.asList(evento(1L), evento(2L)));
+        doThrow(new IllegalStateException("sin conexión")).when(sinkFallido).publicar(anyList());
+
+        // Act
+        int publicados = outboxRelay.publicarLote();
+
+        // Assert
+        assertThat(publicados).isZero();
+        verify(eventoOutboxRepository, never()).marcarPublicados(anyList(), any(LocalDateTime.class));
+        assertThat(outboxRelay.obtenerEstadisticas()).containsEntry("lotesFallidos", 1L);
+    }
+
+    @Test
+    void testSinPendientesNoPublicaNada() {
+        // Arrange
+        when(eventoOutboxRepository.findPendientes(any(Pageable.class)))
+            .thenReturn(List.of());
+
+        // Act
+        outboxRelay.publicarPendientes();
+
+        // Assert
+        assertThat(memoriaOutboxSink.getEventos()).isEmpty();
+        verify(eventoOutboxRepository, never()).marcarPublicados(anyList(), any(LocalDateTime.class));
+    }
+
+    private EventoOutbox evento(Long id) {
+        EventoOutbox evento = new EventoOutbox(EventoOutbox.COMANDA_CREADA, "Comanda", String.valueOf(id), "{}");
+        evento.setIdEvento(id);
+        evento.setSecuencia(id);
+        return evento;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.projection.ProductoResumen;
 import com.example.demo.entity.Categoria;
 import com.example.demo.entity.Producto;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -20,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
 class ProductoRepositoryTest {
     
     @Autowired
@@ -130,4 +133,14 @@ class ProductoRepositoryTest {
         
         assertThat(existe).isTrue();
     }
+    
+    @Test
+    void testListarResumenPorCategoria() {
+        List<ProductoResumen> productos = productoRepository.findResumenByCategoriaId(categoria2.getIdCategoria());
+        
+        assertThat(productos).hasSize(1);
+        assertThat(productos.get(0).getNombre()).isEqualTo("Lomo Saltado");
+        assertThat(productos.get(0).getCategoria()).isEqualTo("PLATOS FUERTES");
+        assertThat(productos.get(0).getPrecio()).isEqualByComparingTo("25.00");
+    }
 }
@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.VentaDiaria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para VentaDiariaRepository
+ * El upsert es SQL de MySQL: se prueba con H2 en modo MySQL
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:ventasdiarias;MODE=MySQL")
+class VentaDiariaRepositoryTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 14);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VentaDiariaRepository ventaDiariaRepository;
+
+    @Test
+    void testAcumularCreaElAcumuladoYLuegoSuma() {
+        ventaDiariaRepository.acumular(DIA, 5, 2, "MESERO001", 3L, new BigDecimal("12.00"));
+        ventaDiariaRepository.acumular(DIA, 5, 2, "MESERO001", 2L, new BigDecimal("8.00"));
+        ventaDiariaRepository.acumular(DIA, 5, 2, "MESERO001", -1L, new BigDecimal("-4.00"));
+        ventaDiariaRepository.acumular(DIA, 5, 2, "MESERO002", 1L, new BigDecimal("4.00"));
+        entityManager.clear();
+
+        List<VentaDiaria> acumulados = ventaDiariaRepository.findAll();
+
+        assertThat(acumulados).hasSize(2);
+        VentaDiaria mesero1 = acumulados.stream().filter(v -> v.getIdMesero().equals("MESERO001")).findFirst().orElseThrow();
+        assertThat(mesero1.getCantidad()).isEqualTo(4L);
+        assertThat(mesero1.getTotal()).isEqualByComparingTo("16.00");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.security;
+
+import com.example.demo.repository.IdempotenciaRegistroRepository;
+import com.example.demo.service.IdempotenciaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para IdempotencyFilter con el almacén en memoria de IdempotenciaService
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotenciaRegistroRepository idempotenciaRegistroRepository;
+
+    @InjectMocks
+    private IdempotenciaService idempotenciaService;
+
+    private IdempotencyFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotenciaService, "ttlSegundos", 3600L);
+        ReflectionTestUtils.setField(idempotenciaService, "maxEntradas", 100);
+        ReflectionTestUtils.setField(idempotenciaService, "persistente", false);
+        filtro = new IdempotencyFilter();
+        ReflectionTestUtils.setField(filtro, "idempotenciaService", idempotenciaService);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("MESERO001", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReintentoTrasConflictoVuelveAEjecutarLaPeticion() throws Exception {
+        // Arrange: la primera ejecución choca con otra transacción, la segunda termina bien
+        AtomicInteger ejecuciones = new AtomicInteger();
+        FilterChain cadena = (request, response) -> {
+            int status = ejecuciones.incrementAndGet() == 1 ? HttpServletResponse.SC_CONFLICT : HttpServletResponse.SC_CREATED;
+            ((HttpServletResponse) response).setStatus(status);
+            response.getOutputStream().write(("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8));
+        };
+
+        // Act
+        MockHttpServletResponse primera = ejecutar(cadena);
+        MockHttpServletResponse segunda = ejecutar(cadena);
+
+        // Assert
+        assertThat(primera.getStatus()).isEqualTo(409);
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getHeader(IdempotencyFilter.HEADER_REPLAYED)).isNull();
+        assertThat(ejecuciones.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testReintentoTrasRespuestaDefinitivaLaReproduce() throws Exception {
+        // Arrange
+        AtomicInteger ejecuciones = new AtomicInteger();
+        FilterChain cadena = (request, response) -> {
+            ejecuciones.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_CREATED);
+        };
+
+        // Act
+        ejecutar(cadena);
+        MockHttpServletResponse segunda = ejecutar(cadena);
+
+        // Assert
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getHeader(IdempotencyFilter.HEADER_REPLAYED)).isEqualTo("true");
+        assertThat(ejecuciones.get()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse ejecutar(FilterChain cadena) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/comandas/crear");
+        request.addHeader(IdempotencyFilter.HEADER_IDEMPOTENCY_KEY, "clave-1");
+        request.setContentType("application/json");
+        request.setContent("{\"idMesa\":1}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, cadena);
+        return response;
+    }
+}
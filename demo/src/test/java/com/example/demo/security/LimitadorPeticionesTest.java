@@ -0,0 +1,97 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests para LimitadorPeticiones
+ */
+class LimitadorPeticionesTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private LimitadorPeticiones limitador;
+
+    @BeforeEach
+    void setUp() {
+        limitador = new LimitadorPeticiones();
+        ReflectionTestUtils.setField(limitador, "configuracion",
+            "ADMINISTRADOR:/api/dashboard/**=4/60;*:/api/dashboard/**=2/6;*:/api/comandas/**=3/60");
+        limitador.iniciar();
+    }
+
+    @Test
+    void testPermiteLaRafagaYLuegoPideEsperar() {
+        // Arrange
+        long ahora = 0;
+        limitador.consumir("ME001", "MESERO", "/api/dashboard/estadisticas", ahora);
+        limitador.consumir("ME001", "MESERO", "/api/dashboard/estadisticas", ahora);
+
+        // Act
+        long espera = limitador.consumir("ME001", "MESERO", "/api/dashboard/estadisticas", ahora);
+
+        // Assert (6 por minuto: un token cada 10 s)
+        assertThat(espera).isEqualTo(10 * SEGUNDO);
+        assertThat(limitador.consumir("ME001", "MESERO", "/api/dashboard/estadisticas", ahora + 10 * SEGUNDO)).isZero();
+    }
+
+    @Test
+    void testCadaUsuarioYGrupoDeRutasTieneSuCubeta() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limitador.consumir("ME001", "MESERO", "/api/dashboard/estadisticas", 0);
+        }
+
+        // Act & Assert
+        assertThat(limitador.consumir("ME002", "MESERO", "/api/dashboard/estadisticas", 0)).isZero();
+        assertThat(limitador.consumir("ME001", "MESERO", "/api/comandas/12", 0)).isZero();
+        assertThat(limitador.consumir("ME001", "MESERO", "/api/productos", 0)).isZero();
+    }
+
+    @Test
+    void testLaReglaDelRolTienePrioridadSobreLaGenerica() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            assertThat(limitador.consumir("AD001", "ADMINISTRADOR", "/api/dashboard/ventas", 0)).isZero();
+        }
+        long espera = limitador.consumir("AD001", "ADMINISTRADOR", "/api/dashboard/ventas", 0);
+
+        // Assert
+        assertThat(espera).isEqualTo(SEGUNDO);
+        Map<String, Object> estadisticas = limitador.obtenerEstadisticas();
+        assertThat(estadisticas).containsEntry("rechazadas", 1L);
+        assertThat(estadisticas).containsEntry("permitidas", 4L);
+    }
+
+    @Test
+    void testPurgaLasCubetasLlenas() {
+        // Arrange
+        long ahora = System.nanoTime();
+        limitador.consumir("ME001", "MESERO", "/api/comandas", ahora - TimeUnit.MINUTES.toNanos(5));
+        limitador.consumir("ME002", "MESERO", "/api/comandas", ahora + TimeUnit.MINUTES.toNanos(5));
+
+        // Act
+        limitador.purgar();
+
+        // Assert
+        assertThat(limitador.obtenerEstadisticas()).containsEntry("cubetasActivas", 1);
+    }
+
+    @Test
+    void testReglaMalFormadaEsUnError() {
+        // Arrange
+        ReflectionTestUtils.setField(limitador, "configuracion", "*:/api/**=10");
+
+        // Act & Assert
+        assertThatThrownBy(() -> limitador.iniciar())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Límite de peticiones no válido");
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.TokenRevocado;
+import com.example.demo.repository.TokenRevocadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para ListaRevocacion
+ */
+@ExtendWith(MockitoExtension.class)
+class ListaRevocacionTest {
+
+    @Mock
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private ListaRevocacion listaRevocacion;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(listaRevocacion, "capacidad", 1000);
+    }
+
+    @Test
+    void testCargaLasRevocacionesVigentesAlArrancar() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(tokenRevocadoRepository.findVigentes(any())).thenReturn(List.of(
+            new TokenRevocado(TokenRevocado.PREFIJO_TOKEN + "jti-1", ahora.minusMinutes(1), ahora.plusMinutes(10)),
+            new TokenRevocado(TokenRevocado.PREFIJO_USUARIO + "MESERO001", ahora, ahora.plusMinutes(15))
+        ));
+
+        // Act
+        listaRevocacion.cargar();
+
+        // Assert
+        long antes = milis(ahora.minusMinutes(5));
+        long despues = milis(ahora.plusMinutes(1));
+        assertThat(listaRevocacion.estaRevocado("jti-1", "COCINERO001", antes)).isTrue();
+        assertThat(listaRevocacion.estaRevocado("jti-2", "MESERO001", antes)).isTrue();
+        assertThat(listaRevocacion.estaRevocado("jti-3", "MESERO001", despues)).isFalse();
+        assertThat(listaRevocacion.estaRevocado("jti-4", "COCINERO001", antes)).isFalse();
+        verify(tokenRevocadoRepository, never()).findRevocadosDesde(any());
+    }
+
+    @Test
+    void testRevocarTokenLoPersisteYLoRechazaEnMemoria() {
+        // Arrange
+        when(tokenRevocadoRepository.findVigentes(any())).thenReturn(List.of());
+        listaRevocacion.cargar();
+        long ahora = System.currentTimeMillis();
+
+        // Act
+        listaRevocacion.revocarToken("jti-logout", ahora + 60_000);
+
+        // Assert
+        verify(tokenRevocadoRepository).save(any(TokenRevocado.class));
+        assertThat(listaRevocacion.estaRevocado("jti-logout", "MESERO001", ahora)).isTrue();
+        assertThat(listaRevocacion.estaRevocado("jti-otro", "MESERO001", ahora)).isFalse();
+        assertThat(listaRevocacion.obtenerEstadisticas()).containsEntry("tokensRechazados", 1L);
+    }
+
+    @Test
+    void testUnaRevocacionDeshechaNoQuedaEnMemoria() {
+        // Arrange
+        when(tokenRevocadoRepository.findVigentes(any())).thenReturn(List.of());
+        listaRevocacion.cargar();
+        long ahora = System.currentTimeMillis();
+
+        // Act: la revocación se hace dentro de una transacción que se revierte
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listaRevocacion.revocarToken("jti-revertido", ahora + 60_000);
+            assertThat(listaRevocacion.estaRevocado("jti-revertido", "MESERO001", ahora)).isFalse();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertThat(listaRevocacion.estaRevocado("jti-revertido", "MESERO001", ahora)).isFalse();
+    }
+
+    @Test
+    void testPurgarOlvidaLasRevocacionesExpiradas() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(tokenRevocadoRepository.findVigentes(any())).thenReturn(List.of(
+            new TokenRevocado(TokenRevocado.PREFIJO_TOKEN + "viejo", ahora.minusMinutes(30), ahora.minusMinutes(1)),
+            new TokenRevocado(TokenRevocado.PREFIJO_TOKEN + "vigente", ahora.minusMinutes(1), ahora.plusMinutes(10))
+        ));
+        listaRevocacion.cargar();
+
+        // Act
+        listaRevocacion.purgar();
+
+        // Assert
+        assertThat(listaRevocacion.estaRevocado("viejo", null, 0)).isFalse();
+        assertThat(listaRevocacion.estaRevocado("vigente", null, 0)).isTrue();
+        assertThat(listaRevocacion.obtenerEstadisticas()).containsEntry("revocacionesVigentes", 1);
+        verify(tokenRevocadoRepository).eliminarExpirados(any());
+    }
+
+    @Test
+    void testFiltroBloomNoDaFalsosNegativosYPocosFalsosPositivos() {
+        // Arrange
+        FiltroBloom filtro = new FiltroBloom(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filtro.agregar("jti:" + i);
+        }
+
+        // Act
+        int falsosPositivos = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (filtro.puedeContener("jti:" + i)) {
+                falsosPositivos++;
+            }
+        }
+
+        // Assert
+        for (int i = 0; i < 10000; i++) {
+            assertThat(filtro.puedeContener("jti:" + i)).isTrue();
+        }
+        assertThat(falsosPositivos).isLessThan(2000);
+    }
+
+    private long milis(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests para LoginThrottle
+ */
+class LoginThrottleTest {
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottle = new LoginThrottle();
+        ReflectionTestUtils.setField(loginThrottle, "maxFallos", 3);
+        ReflectionTestUtils.setField(loginThrottle, "bloqueoInicialSegundos", 30L);
+        ReflectionTestUtils.setField(loginThrottle, "maxConcurrentes", 2);
+    }
+
+    @Test
+    void testBloqueaLaCuentaTrasVariosFallos() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            assertThat(loginThrottle.iniciarIntento("mesero@test.com")).isZero();
+            loginThrottle.finalizarIntento("mesero@test.com", false);
+        }
+
+        // Act
+        long espera = loginThrottle.iniciarIntento("MESERO@test.com ");
+
+        // Assert
+        assertThat(espera).isBetween(1L, 30L);
+        assertThat(loginThrottle.iniciarIntento("cocinero@test.com")).isZero();
+        assertThat(loginThrottle.obtenerEstadisticas()).containsEntry("cuentasBloqueadas", 1L);
+    }
+
+    @Test
+    void testLoginCorrectoReiniciaLosFallos() {
+        // Arrange
+        for (int i = 0; i < 2; i++) {
+            loginThrottle.iniciarIntento("mesero@test.com");
+            loginThrottle.finalizarIntento("mesero@test.com", false);
+        }
+        loginThrottle.iniciarIntento("mesero@test.com");
+        loginThrottle.finalizarIntento("mesero@test.com", true);
+
+        // Act
+        loginThrottle.iniciarIntento("mesero@test.com");
+        loginThrottle.finalizarIntento("mesero@test.com", false);
+
+        // Assert
+        assertThat(loginThrottle.iniciarIntento("mesero@test.com")).isZero();
+    }
+
+    @Test
+    void testLimitaLosIntentosSimultaneosDeUnaCuenta() {
+        // Act
+        long primero = loginThrottle.iniciarIntento("mesero@test.com");
+        long segundo = loginThrottle.iniciarIntento("mesero@test.com");
+        long tercero = loginThrottle.iniciarIntento("mesero@test.com");
+
+        // Assert
+        assertThat(primero).isZero();
+        assertThat(segundo).isZero();
+        assertThat(tercero).isEqualTo(1L);
+        assertThat(loginThrottle.obtenerEstadisticas()).containsEntry("intentosRechazados", 1L);
+    }
+}
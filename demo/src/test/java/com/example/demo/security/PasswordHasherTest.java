@@ -0,0 +1,95 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests para PasswordHasher
+ */
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher();
+        ReflectionTestUtils.setField(passwordHasher, "passwordEncoder", new BCryptPasswordEncoder(5));
+        ReflectionTestUtils.setField(passwordHasher, "hilos", 1);
+        ReflectionTestUtils.setField(passwordHasher, "capacidadCola", 1);
+        ReflectionTestUtils.setField(passwordHasher, "timeoutMs", 10000L);
+        passwordHasher.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.detener();
+    }
+
+    @Test
+    void testCodificarYVerificar() throws Exception {
+        // Act
+        String hash = passwordHasher.codificarYEsperar("secreto123");
+
+        // Assert
+        assertThat(passwordHasher.verificar("secreto123", hash).get()).isTrue();
+        assertThat(passwordHasher.verificar("otra", hash).get()).isFalse();
+        assertThat(passwordHasher.obtenerEstadisticas()).containsEntry("tareasCompletadas", 3L);
+    }
+
+    @Test
+    void testHashConCosteMenorNecesitaRehash() {
+        // Arrange
+        String hashAntiguo = new BCryptPasswordEncoder(4).encode("secreto123");
+        String hashActual = new BCryptPasswordEncoder(5).encode("secreto123");
+
+        // Act & Assert
+        assertThat(passwordHasher.necesitaRehash(hashAntiguo)).isTrue();
+        assertThat(passwordHasher.necesitaRehash(hashActual)).isFalse();
+    }
+
+    @Test
+    void testColaLlenaRechazaSinEsperar() throws Exception {
+        // Arrange: el único hilo queda ocupado y la cola admite una tarea más
+        CountDownLatch liberar = new CountDownLatch(1);
+        ReflectionTestUtils.setField(passwordHasher, "passwordEncoder", new BCryptPasswordEncoder(5) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        });
+        CompletableFuture<String> enEjecucion = passwordHasher.codificar("a");
+        while ((int) passwordHasher.obtenerEstadisticas().get("hilosActivos") == 0) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<String> enCola = passwordHasher.codificar("b");
+
+        // Act
+        CompletableFuture<String> rechazada = passwordHasher.codificar("c");
+
+        // Assert
+        assertThatThrownBy(rechazada::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(passwordHasher.obtenerEstadisticas()).containsEntry("tareasRechazadas", 1L);
+
+        liberar.countDown();
+        assertThat(enEjecucion.get()).isNotBlank();
+        assertThat(enCola.get()).isNotBlank();
+    }
+}
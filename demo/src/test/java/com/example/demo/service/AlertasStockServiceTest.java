@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.AlertaStockDTO;
+import com.example.demo.entity.Categoria;
+import com.example.demo.entity.Producto;
+import com.example.demo.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests para AlertasStockService
+ */
+@ExtendWith(MockitoExtension.class)
+class AlertasStockServiceTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private AlertasStockService alertasStockService;
+
+    @BeforeEach
+    void setUp() {
+        when(productoRepository.findNivelesStock()).thenReturn(List.of(
+            new Object[]{1, "Limonada", 3, 5, true, 1L},
+            new Object[]{2, "Sopa", 20, 5, true, 1L},
+            new Object[]{3, "Flan", 0, 2, false, 1L},
+            new Object[]{4, "Pan", 6, 6, true, 1L}
+        ));
+        alertasStockService.iniciar();
+    }
+
+    @Test
+    void testCargaSoloProductosActivosBajoUmbralOrdenadosPorMargen() {
+        // Act
+        List<AlertaStockDTO> alertas = alertasStockService.obtenerBajoUmbral();
+
+        // Assert
+        assertThat(alertas).extracting(AlertaStockDTO::getIdProducto).containsExactly(1, 4);
+        assertThat(alertas.get(0).getMargen()).isEqualTo(-2);
+        assertThat(alertas).extracting(AlertaStockDTO::getTipo).containsOnly(AlertasStockService.BAJO_UMBRAL);
+    }
+
+    @Test
+    void testCambiosDeStockEntranYSalenDelUmbral() {
+        // Act
+        alertasStockService.registrarStock(producto(2, "Sopa", 4, 5, true, 2L));
+        alertasStockService.registrarStock(producto(1, "Limonada", 30, 5, true, 2L));
+
+        // Assert
+        assertThat(alertasStockService.obtenerBajoUmbral()).extracting(AlertaStockDTO::getIdProducto).containsExactly(2, 4);
+    }
+
+    @Test
+    void testDesactivarORetirarSacaDeLasAlertas() {
+        // Act
+        alertasStockService.registrarStock(producto(1, "Limonada", 3, 5, false, 2L));
+        alertasStockService.retirar(4);
+
+        // Assert
+        assertThat(alertasStockService.obtenerBajoUmbral()).isEmpty();
+        assertThat(alertasStockService.obtenerIdsConStockMenorQue(100)).contains(List.of(3, 1, 2));
+    }
+
+    @Test
+    void testStockMenorQueUsaElIndice() {
+        // Act
+        Optional<List<Integer>> ids = alertasStockService.obtenerIdsConStockMenorQue(6);
+
+        // Assert
+        assertThat(ids).contains(List.of(3, 1));
+        assertThat(alertasStockService.obtenerIdsConStockMenorQue(0)).contains(List.of());
+    }
+
+    @Test
+    void testUnNivelAntiguoQueLlegaTardeNoPisaAlReciente() {
+        // Act: la transacción que dejó la versión 3 confirma antes que la que dejó la 2
+        alertasStockService.registrarStock(producto(2, "Sopa", 30, 5, true, 3L));
+        alertasStockService.registrarStock(producto(2, "Sopa", 4, 5, true, 2L));
+
+        // Assert
+        assertThat(alertasStockService.obtenerBajoUmbral()).extracting(AlertaStockDTO::getIdProducto).containsExactly(1, 4);
+        assertThat(alertasStockService.obtenerIdsConStockMenorQue(30)).contains(List.of(3, 1, 4));
+    }
+
+    private Producto producto(int id, String nombre, int stock, int umbral, boolean activo, long version) {
+        Producto producto = new Producto(nombre, new BigDecimal("3.00"), stock, new Categoria("BEBIDAS"));
+        producto.setIdProducto(id);
+        producto.setUmbralReposicion(umbral);
+        producto.setEstado(activo);
+        producto.setVersion(version);
+        return producto;
+    }
+}
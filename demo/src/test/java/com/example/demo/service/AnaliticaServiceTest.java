@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.RendimientoMeseroResumen;
+import com.example.demo.dto.response.RendimientoMeseroDTO;
+import com.example.demo.entity.Estado;
+import com.example.demo.repository.ComandaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para AnaliticaService
+ */
+@ExtendWith(MockitoExtension.class)
+class AnaliticaServiceTest {
+
+    @Mock
+    private ComandaRepository comandaRepository;
+
+    @InjectMocks
+    private AnaliticaService analiticaService;
+
+    @Test
+    void testDerivaLasRatiosDeLosAgregados() {
+        // Arrange
+        RendimientoMeseroResumen resumen = resumen(1L, "ME001", 20L, 16L, 2L, "800000", 56L, 2730.0);
+        when(comandaRepository.agruparRendimientoMeseros(any(), any(), any(), any())).thenReturn(List.of(resumen));
+
+        // Act
+        List<RendimientoMeseroDTO> meseros = analiticaService.obtenerRendimientoMeseros(
+            LocalDate.of(2024, 4, 1), LocalDate.of(2024, 6, 30));
+
+        // Assert
+        assertThat(meseros).hasSize(1);
+        RendimientoMeseroDTO mesero = meseros.get(0);
+        assertThat(mesero.getPosicion()).isEqualTo(1L);
+        assertThat(mesero.getTicketMedio()).isEqualByComparingTo("50000");
+        assertThat(mesero.getArticulosPorComanda()).isEqualTo(3.5);
+        assertThat(mesero.getTasaCancelacion()).isEqualTo(10.0);
+        assertThat(mesero.getMinutosHastaCierre()).isEqualTo(45.5);
+        verify(comandaRepository).agruparRendimientoMeseros(
+            LocalDate.of(2024, 4, 1).atStartOfDay(), LocalDate.of(2024, 7, 1).atStartOfDay(),
+            Estado.NOMBRES_CANCELADO, Estado.NOMBRES_COMPLETADO);
+    }
+
+    @Test
+    void testUnMeseroSinVentasNoDivideEntreCero() {
+        // Arrange
+        RendimientoMeseroResumen resumen = resumen(2L, "ME002", 3L, 0L, 3L, "0", 0L, null);
+        when(comandaRepository.agruparRendimientoMeseros(any(), any(), any(), any())).thenReturn(List.of(resumen));
+
+        // Act
+        RendimientoMeseroDTO mesero = analiticaService.obtenerRendimientoMeseros(
+            LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 1)).get(0);
+
+        // Assert
+        assertThat(mesero.getTicketMedio()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(mesero.getArticulosPorComanda()).isZero();
+        assertThat(mesero.getTasaCancelacion()).isEqualTo(100.0);
+        assertThat(mesero.getMinutosHastaCierre()).isNull();
+    }
+
+    @Test
+    void testRechazaRangosInvalidos() {
+        // Act & Assert
+        assertThatThrownBy(() -> analiticaService.obtenerRendimientoMeseros(LocalDate.of(2024, 6, 2), LocalDate.of(2024, 6, 1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> analiticaService.obtenerRendimientoMeseros(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 6, 1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("366");
+        verifyNoInteractions(comandaRepository);
+    }
+
+    private static RendimientoMeseroResumen resumen(Long posicion, String idMesero, Long comandas, Long vendidas,
+                                                    Long canceladas, String ingresos, Long unidades, Double segundos) {
+        RendimientoMeseroResumen resumen = mock(RendimientoMeseroResumen.class);
+        when(resumen.getPosicion()).thenReturn(posicion);
+        when(resumen.getIdMesero()).thenReturn(idMesero);
+        when(resumen.getNombreMesero()).thenReturn("Mesero " + idMesero);
+        when(resumen.getComandas()).thenReturn(comandas);
+        when(resumen.getComandasVendidas()).thenReturn(vendidas);
+        when(resumen.getComandasCanceladas()).thenReturn(canceladas);
+        when(resumen.getIngresos()).thenReturn(new BigDecimal(ingresos));
+        when(resumen.getUnidades()).thenReturn(unidades);
+        when(resumen.getSegundosHastaCierre()).thenReturn(segundos);
+        return resumen;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.*;
+import com.example.demo.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para ArchivadoComandasService
+ */
+@ExtendWith(MockitoExtension.class)
+class ArchivadoComandasServiceTest {
+
+    @Mock
+    private ComandaRepository comandaRepository;
+
+    @Mock
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Mock
+    private ComandaHistoricoRepository comandaHistoricoRepository;
+
+    @Mock
+    private DetalleComandaHistoricoRepository detalleComandaHistoricoRepository;
+
+    @Mock
+    private EliminacionRepository eliminacionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ArchivadoComandasService archivadoComandasService;
+
+    private Comanda comanda;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archivadoComandasService, "tamanoLote", 500);
+
+        Estado estado = new Estado("Completado");
+        estado.setIdEstado(3);
+        comanda = new Comanda(new Mesa(), new Usuario(), estado);
+        comanda.setIdComanda(7);
+        comanda.setPagada(true);
+        comanda.setFecha(LocalDateTime.now().minusDays(120));
+
+        DetalleComanda detalle = new DetalleComanda();
+        detalle.setIdDetalleComanda(70);
+        detalle.setCantidad(2);
+        detalle.setPrecioUnitario(new BigDecimal("12.50"));
+        detalle.calcularSubtotal();
+        comanda.agregarDetalleComanda(detalle);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testArchivarMueveComandasYLineasAlHistorico() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(comandaRepository.findIdsArchivables(any(LocalDateTime.class), anyList(), any(Pageable.class)))
+            .thenReturn(List.of(7));
+        when(comandaRepository.findConDetallesByIds(List.of(7))).thenReturn(List.of(comanda));
+
+        // Act
+        int archivadas = archivadoComandasService.archivarComandas(90);
+
+        // Assert
+        assertThat(archivadas).isEqualTo(1);
+
+        ArgumentCaptor<List<ComandaHistorico>> historicos = ArgumentCaptor.forClass(List.class);
+        verify(comandaHistoricoRepository).saveAll(historicos.capture());
+        assertThat(historicos.getValue()).hasSize(1);
+        assertThat(historicos.getValue().get(0).getIdComanda()).isEqualTo(7);
+        assertThat(historicos.getValue().get(0).getTotal()).isEqualByComparingTo("25.00");
+        assertThat(historicos.getValue().get(0).isNew()).isTrue();
+
+        ArgumentCaptor<List<DetalleComandaHistorico>> detalles = ArgumentCaptor.forClass(List.class);
+        verify(detalleComandaHistoricoRepository).saveAll(detalles.capture());
+        assertThat(detalles.getValue()).extracting(DetalleComandaHistorico::getIdDetalleComanda).containsExactly(70);
+
+        verify(detalleComandaRepository).eliminarPorIdsComanda(List.of(7));
+        verify(comandaRepository).eliminarPorIds(List.of(7));
+        verify(eliminacionRepository).saveAll(anyList());
+    }
+
+    @Test
+    void testArchivarConAntiguedadInvalida() {
+        assertThatThrownBy(() -> archivadoComandasService.archivarComandas(0))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(comandaRepository);
+    }
+
+    @Test
+    void testComandasArchivadasSeReconstruyenConSusLineas() {
+        // Arrange
+        ComandaHistorico historico = new ComandaHistorico(comanda, new BigDecimal("25.00"));
+        DetalleComandaHistorico detalle = new DetalleComandaHistorico(comanda.getDetalleComandas().get(0), historico);
+        LocalDateTime inicio = LocalDateTime.now().minusYears(1);
+        LocalDateTime fin = LocalDateTime.now();
+        when(comandaHistoricoRepository.findByFechaBetween(inicio, fin)).thenReturn(List.of(historico));
+        when(detalleComandaHistoricoRepository.findByIdsComanda(List.of(7))).thenReturn(List.of(detalle));
+
+        // Act
+        List<Comanda> resultado = archivadoComandasService.obtenerComandasArchivadasPorRangoFechas(inicio, fin);
+
+        // Assert
+        assertThat(resultado).hasSize(1);
+        assertThat(resultado.get(0).getIdComanda()).isEqualTo(7);
+        assertThat(resultado.get(0).calcularTotal()).isEqualTo(25.0);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.ProductoTopDTO;
+import com.example.demo.entity.Comanda;
+import com.example.demo.entity.Producto;
+import com.example.demo.repository.DetalleComandaRepository;
+import com.example.demo.repository.ProductoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para BestSellerService
+ */
+@ExtendWith(MockitoExtension.class)
+class BestSellerServiceTest {
+
+    @Mock
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private BestSellerService bestSellerService;
+
+    @Test
+    void testTopDesdeContadoresEnMemoria() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(detalleComandaRepository.findCantidadesPorProductoDesde(any(LocalDateTime.class))).thenReturn(List.of(
+            new Object[]{1, ahora.minusMinutes(5), 4L},
+            new Object[]{2, ahora.minusMinutes(10), 9L},
+            new Object[]{3, ahora.minusDays(3), 50L}));
+        when(productoRepository.findAllById(anyList())).thenReturn(List.of(producto(1, "Limonada"), producto(2, "Tacos")));
+        bestSellerService.cargarContadores();
+        bestSellerService.registrarVenta(comanda(ahora.minusMinutes(2)), 1, 6);
+
+        // Act
+        List<ProductoTopDTO> top = bestSellerService.obtenerTop(BestSellerService.Ventana.HORA, 2);
+
+        // Assert
+        assertThat(top).extracting(ProductoTopDTO::getIdProducto).containsExactly(1, 2);
+        assertThat(top).extracting(ProductoTopDTO::getCantidadVendida).containsExactly(10L, 9L);
+        assertThat(top.get(0).getNombre()).isEqualTo("Limonada");
+        verify(detalleComandaRepository, never()).findProductosMasVendidosPorFecha(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testVentanaDeSieteDiasIncluyeVentasAnteriores() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(detalleComandaRepository.findCantidadesPorProductoDesde(any(LocalDateTime.class))).thenReturn(List.of(
+            new Object[]{1, ahora.minusMinutes(5), 4L},
+            new Object[]{3, ahora.minusDays(3), 50L},
+            new Object[]{4, ahora.minusDays(20), 80L}));
+        when(productoRepository.findAllById(anyList())).thenReturn(List.of());
+        bestSellerService.cargarContadores();
+
+        // Act
+        List<ProductoTopDTO> top = bestSellerService.obtenerTop(BestSellerService.Ventana.SIETE_DIAS, 5);
+
+        // Assert
+        assertThat(top).extracting(ProductoTopDTO::getIdProducto).containsExactly(3, 1);
+    }
+
+    @Test
+    void testLaVentaCuentaEnLaFechaDeSuComanda() {
+        // Arrange
+        LocalDateTime ahora = LocalDateTime.now();
+        when(detalleComandaRepository.findCantidadesPorProductoDesde(any(LocalDateTime.class))).thenReturn(List.of());
+        when(productoRepository.findAllById(anyList())).thenReturn(List.of());
+        bestSellerService.cargarContadores();
+
+        // Act: una línea añadida ahora a una comanda abierta hace dos horas, igual que la cuenta la base de datos
+        bestSellerService.registrarVenta(comanda(ahora.minusHours(2)), 5, 3);
+
+        // Assert
+        assertThat(bestSellerService.obtenerTop(BestSellerService.Ventana.HORA, 5)).isEmpty();
+        assertThat(bestSellerService.obtenerTop(BestSellerService.Ventana.SIETE_DIAS, 5))
+            .extracting(ProductoTopDTO::getIdProducto).containsExactly(5);
+    }
+
+    @Test
+    void testSinContadoresCargadosUsaLaBaseDeDatos() {
+        // Arrange
+        when(detalleComandaRepository.findProductosMasVendidosPorFecha(any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(PageRequest.of(0, 3))))
+            .thenReturn(List.<Object[]>of(new Object[]{2, "Tacos", new BigDecimal("8.00"), 12L}));
+
+        // Act
+        List<ProductoTopDTO> top = bestSellerService.obtenerTop(BestSellerService.Ventana.TREINTA_DIAS, 3);
+
+        // Assert
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0).getNombre()).isEqualTo("Tacos");
+        assertThat(top.get(0).getCantidadVendida()).isEqualTo(12L);
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void testKFueraDeRango() {
+        assertThatThrownBy(() -> bestSellerService.obtenerTop(BestSellerService.Ventana.HOY, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BestSellerService.Ventana.desdeCodigo("2h"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Comanda comanda(LocalDateTime fecha) {
+        Comanda comanda = new Comanda();
+        comanda.setFecha(fecha);
+        return comanda;
+    }
+
+    private Producto producto(Integer id, String nombre) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre(nombre);
+        return producto;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.EstacionCocinaDTO;
+import com.example.demo.dto.response.LineaEstacionDTO;
+import com.example.demo.entity.*;
+import com.example.demo.repository.DetalleComandaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests para EstacionesCocinaService
+ */
+@ExtendWith(MockitoExtension.class)
+class EstacionesCocinaServiceTest {
+
+    @Mock
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @InjectMocks
+    private EstacionesCocinaService estacionesCocinaService;
+
+    private Comanda comanda;
+    private Estado pendiente;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(estacionesCocinaService, "configuracion", "bebidas:3;calientes:1,2");
+        pendiente = estado(1, "PENDIENTE");
+        Mesa mesa = new Mesa(4, "Terraza", estado(5, "OCUPADO"));
+        mesa.setIdMesa(7);
+        comanda = new Comanda(mesa, new Usuario(), pendiente);
+        comanda.setIdComanda(40);
+        comanda.setFecha(LocalDateTime.now().minusMinutes(10));
+    }
+
+    @Test
+    void testRepartePorCategoriaYEstacionPorDefecto() {
+        // Arrange
+        when(detalleComandaRepository.findLineasAbiertas(anyCollection())).thenReturn(List.of());
+        estacionesCocinaService.iniciar();
+
+        // Act
+        estacionesCocinaService.registrarLinea(detalle(100, 3, "Limonada", 2));
+        estacionesCocinaService.registrarLinea(detalle(101, 1, "Sopa", 1));
+        estacionesCocinaService.registrarLinea(detalle(102, 9, "Pan", 1));
+
+        // Assert
+        assertThat(estacionesCocinaService.obtenerPendientes("bebidas")).extracting(LineaEstacionDTO::getIdDetalle).containsExactly(100);
+        assertThat(estacionesCocinaService.obtenerPendientes("CALIENTES")).extracting(LineaEstacionDTO::getIdDetalle).containsExactly(101);
+        assertThat(estacionesCocinaService.obtenerPendientes("general")).extracting(LineaEstacionDTO::getIdDetalle).containsExactly(102);
+        assertThat(estacionesCocinaService.obtenerPendientes("bebidas").get(0).getIdMesa()).isEqualTo(7);
+        assertThatThrownBy(() -> estacionesCocinaService.obtenerPendientes("parrilla"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Estación no encontrada");
+    }
+
+    @Test
+    void testCompletarRetiraLaLineaYCuentaEnElRendimiento() {
+        // Arrange
+        when(detalleComandaRepository.findLineasAbiertas(anyCollection())).thenReturn(List.of());
+        estacionesCocinaService.iniciar();
+        DetalleComanda limonada = detalle(100, 3, "Limonada", 2);
+        estacionesCocinaService.registrarLinea(limonada);
+        LocalDateTime llegada = estacionesCocinaService.obtenerPendientes("bebidas").get(0).getFechaLlegada();
+
+        // Act
+        limonada.setCantidad(3);
+        estacionesCocinaService.registrarLinea(limonada);
+        List<LineaEstacionDTO> trasCambio = estacionesCocinaService.obtenerPendientes("bebidas");
+        limonada.setEstado(estado(2, "Completado"));
+        estacionesCocinaService.registrarLinea(limonada);
+
+        // Assert
+        assertThat(trasCambio).hasSize(1);
+        assertThat(trasCambio.get(0).getCantidad()).isEqualTo(3);
+        assertThat(trasCambio.get(0).getFechaLlegada()).isEqualTo(llegada);
+        assertThat(estacionesCocinaService.obtenerPendientes("bebidas")).isEmpty();
+        EstacionCocinaDTO bebidas = estacionesCocinaService.obtenerEstaciones().get(0);
+        assertThat(bebidas.getNombre()).isEqualTo("bebidas");
+        assertThat(bebidas.getLineasCompletadas()).isEqualTo(1L);
+        assertThat(bebidas.getSegundosMedioPreparacion()).isNotNull();
+    }
+
+    @Test
+    void testRetirarComandaVaciaTodasLasEstaciones() {
+        // Arrange
+        when(detalleComandaRepository.findLineasAbiertas(anyCollection())).thenReturn(List.of());
+        estacionesCocinaService.iniciar();
+        estacionesCocinaService.registrarLinea(detalle(100, 3, "Limonada", 2));
+        estacionesCocinaService.registrarLinea(detalle(101, 1, "Sopa", 1));
+
+        // Act
+        estacionesCocinaService.retirarComanda(40);
+
+        // Assert
+        assertThat(estacionesCocinaService.obtenerEstaciones())
+            .extracting(EstacionCocinaDTO::getLineasPendientes)
+            .containsOnly(0);
+        assertThat(estacionesCocinaService.obtenerEstaciones())
+            .extracting(EstacionCocinaDTO::getLineasCompletadas)
+            .containsOnly(0L);
+    }
+
+    @Test
+    void testCategoriaEnDosEstacionesEsUnError() {
+        // Arrange
+        ReflectionTestUtils.setField(estacionesCocinaService, "configuracion", "bebidas:3;barra:3");
+
+        // Act & Assert
+        assertThatThrownBy(() -> estacionesCocinaService.iniciar())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("La categoría 3");
+    }
+
+    private DetalleComanda detalle(int id, int idCategoria, String nombre, int cantidad) {
+        Categoria categoria = new Categoria("CAT" + idCategoria);
+        categoria.setIdCategoria(idCategoria);
+        Producto producto = new Producto(nombre, new BigDecimal("5.00"), 10, categoria);
+        producto.setIdProducto(id + 1000);
+        DetalleComanda detalle = new DetalleComanda(comanda, producto, cantidad, producto.getPrecio());
+        detalle.setIdDetalleComanda(id);
+        detalle.setEstado(pendiente);
+        return detalle;
+    }
+
+    private Estado estado(int id, String nombre) {
+        Estado estado = new Estado(nombre);
+        estado.setIdEstado(id);
+        return estado;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para ExportacionService
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportacionServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportacionService exportacionService;
+
+    private LocalDateTime fecha;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportacionService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(exportacionService, "limpiarCada", 2);
+        fecha = LocalDateTime.of(2025, 3, 14, 20, 30);
+    }
+
+    @Test
+    void testCsvEscribeUnaFilaPorLineaYEscapaTextos() throws Exception {
+        // Arrange
+        prepararConsultas(
+            new Object[][]{
+                {5, fecha, 1, "MESERO001", "Ana", "Completado", true, 50, 7, "Pizza", 1, new BigDecimal("9.00"), new BigDecimal("9.00")}
+            },
+            new Object[][]{
+                {10, fecha, 2, "MESERO002", "Luis", "Pendiente", false, 100, 3, "Café, doble", 2, new BigDecimal("2.50"), new BigDecimal("5.00")},
+                {10, fecha, 2, "MESERO002", "Luis", "Pendiente", false, 101, 4, "Pan \"casero\"", 1, new BigDecimal("1.00"), new BigDecimal("1.00")},
+                {11, fecha, 3, "MESERO002", "Luis", "Pendiente", false, null, null, null, null, null, null}
+            });
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long filas = exportacionService.exportarComandas(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31),
+            ExportacionService.Formato.CSV, salida);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(filas).isEqualTo(4);
+        assertThat(lineas).hasSize(5);
+        assertThat(lineas[0]).startsWith("id_comanda,fecha,");
+        assertThat(lineas[1]).isEqualTo("5,2025-03-14T20:30,1,MESERO001,Ana,Completado,true,true,50,7,Pizza,1,9.00,9.00");
+        assertThat(lineas[2]).contains("\"Café, doble\"").contains(",false,false,");
+        assertThat(lineas[3]).contains("\"Pan \"\"casero\"\"\"");
+        assertThat(lineas[4]).isEqualTo("11,2025-03-14T20:30,3,MESERO002,Luis,Pendiente,false,false,,,,,,");
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    void testNdjsonAgrupaLasLineasPorComanda() throws Exception {
+        // Arrange
+        prepararConsultas(
+            new Object[0][],
+            new Object[][]{
+                {10, fecha, 2, "MESERO002", "Luis", "Pendiente", false, 100, 3, "Café", 2, new BigDecimal("2.50"), new BigDecimal("5.00")},
+                {10, fecha, 2, "MESERO002", "Luis", "Pendiente", false, 101, 4, "Pan", 1, new BigDecimal("1.00"), new BigDecimal("1.00")},
+                {11, fecha, 3, "MESERO002", "Luis", "Pendiente", false, null, null, null, null, null, null}
+            });
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        exportacionService.exportarComandas(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31),
+            ExportacionService.Formato.NDJSON, salida);
+
+        // Assert
+        ObjectMapper objectMapper = new ObjectMapper();
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lineas).hasSize(2);
+        assertThat(objectMapper.readTree(lineas[0]).get("idComanda").asInt()).isEqualTo(10);
+        assertThat(objectMapper.readTree(lineas[0]).get("lineas")).hasSize(2);
+        assertThat(objectMapper.readTree(lineas[1]).get("lineas")).isEmpty();
+    }
+
+    @Test
+    void testRangoYFormatoInvalidos() {
+        assertThatThrownBy(() -> exportacionService.validarRango(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 3, 1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExportacionService.Formato.desdeCodigo("xlsx"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void prepararConsultas(Object[][] archivadas, Object[][] activas) {
+        TypedQuery<Object[]> consultaArchivadas = mock(TypedQuery.class);
+        TypedQuery<Object[]> consultaActivas = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Object[].class))).thenAnswer(invocation ->
+            ((String) invocation.getArgument(0)).contains("ComandaHistorico") ? consultaArchivadas : consultaActivas);
+        Query<Object[]> hibernateArchivadas = consultaHibernate(archivadas);
+        Query<Object[]> hibernateActivas = consultaHibernate(activas);
+        when(consultaArchivadas.unwrap(Query.class)).thenReturn(hibernateArchivadas);
+        when(consultaActivas.unwrap(Query.class)).thenReturn(hibernateActivas);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Query<Object[]> consultaHibernate(Object[][] filas) {
+        Query<Object[]> consulta = mock(Query.class, RETURNS_SELF);
+        ScrollableResults<Object[]> resultados = mock(ScrollableResults.class);
+        doReturn(resultados).when(consulta).scroll(ScrollMode.FORWARD_ONLY);
+
+        int[] posicion = {-1};
+        when(resultados.next()).thenAnswer(invocation -> ++posicion[0] < filas.length);
+        if (filas.length > 0) {
+            when(resultados.get()).thenAnswer(invocation -> filas[posicion[0]]);
+        }
+        return consulta;
+    }
+}
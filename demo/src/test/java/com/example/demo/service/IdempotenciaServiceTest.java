@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.IdempotenciaRegistroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests para IdempotenciaService (almacén en memoria)
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaServiceTest {
+
+    @Mock
+    private IdempotenciaRegistroRepository idempotenciaRegistroRepository;
+
+    @InjectMocks
+    private IdempotenciaService idempotenciaService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotenciaService, "ttlSegundos", 3600L);
+        ReflectionTestUtils.setField(idempotenciaService, "maxEntradas", 2);
+        ReflectionTestUtils.setField(idempotenciaService, "persistente", false);
+    }
+
+    @Test
+    void testReintentoDevuelveRespuestaOriginal() {
+        // Arrange
+        assertThat(idempotenciaService.reservar("MESERO001:abc", "huella")).isTrue();
+        idempotenciaService.guardar("MESERO001:abc", "huella", 201, "application/json",
+            "{\"idComanda\":1}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        Optional<IdempotenciaService.RespuestaAlmacenada> resultado = idempotenciaService.buscar("MESERO001:abc");
+
+        // Assert
+        assertThat(resultado).isPresent();
+        assertThat(resultado.get().getStatus()).isEqualTo(201);
+        assertThat(new String(resultado.get().getCuerpo(), StandardCharsets.UTF_8)).isEqualTo("{\"idComanda\":1}");
+        verifyNoInteractions(idempotenciaRegistroRepository);
+    }
+
+    @Test
+    void testReservaConcurrenteEsRechazada() {
+        assertThat(idempotenciaService.reservar("MESERO001:abc", "huella")).isTrue();
+        assertThat(idempotenciaService.reservar("MESERO001:abc", "huella")).isFalse();
+
+        idempotenciaService.liberar("MESERO001:abc");
+
+        assertThat(idempotenciaService.reservar("MESERO001:abc", "huella")).isTrue();
+    }
+
+    @Test
+    void testAlmacenAcotadoDescartaLasMasAntiguas() {
+        idempotenciaService.guardar("u:1", "h1", 200, null, new byte[0]);
+        idempotenciaService.guardar("u:2", "h2", 200, null, new byte[0]);
+        idempotenciaService.guardar("u:3", "h3", 200, null, new byte[0]);
+
+        assertThat(idempotenciaService.contarEntradas()).isEqualTo(2);
+        assertThat(idempotenciaService.buscar("u:1")).isEmpty();
+        assertThat(idempotenciaService.buscar("u:3")).isPresent();
+    }
+
+    @Test
+    void testRespuestaExpiradaNoSeDevuelve() {
+        ReflectionTestUtils.setField(idempotenciaService, "ttlSegundos", -1L);
+        idempotenciaService.guardar("u:1", "h1", 200, null, new byte[0]);
+
+        assertThat(idempotenciaService.buscar("u:1")).isEmpty();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.*;
+import com.example.demo.service.InformesCierreService.InformeDia;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de InformesCierreService contra H2: recorre las comandas con la sesión sin estado y guarda los informes
+ * Sin transacción de test, porque el servicio lee con su propia conexión y solo vería datos confirmados
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@Import(InformesCierreService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = "/db/migration/V9__informes_cierre.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class InformesCierreServiceH2Test {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 6, 20);
+
+    @Autowired
+    private InformesCierreService informesCierreService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testProcesarDiaRecorreArchivadasYActivasYGuardaElInforme() {
+        // Arrange: una archivada completada, una activa pagada, una cancelada y otra de un día distinto
+        transactionTemplate.executeWithoutResult(status -> {
+            Rol rol = persistir(new Rol("MESERO"));
+            Usuario mesero = persistir(new Usuario("ME001", "Ana Ruiz", "ana@test.com", "pass123", rol));
+            Estado completada = persistir(new Estado("Completada"));
+            Estado pendiente = persistir(new Estado("Pendiente"));
+            Estado cancelada = persistir(new Estado("Cancelada"));
+            Mesa mesa = persistir(new Mesa(4, "Terraza", persistir(new Estado("Disponible"))));
+            Categoria categoria = persistir(new Categoria("Platos"));
+            Producto arroz = persistir(new Producto("Arroz", new BigDecimal("12000"), 50, categoria));
+            Producto flan = persistir(new Producto("Flan", new BigDecimal("8000"), 50, categoria));
+
+            Comanda archivada = new Comanda(mesa, mesero, completada);
+            archivada.setIdComanda(900);
+            archivada.setFecha(DIA.atTime(10, 0));
+            archivada.setPagada(true);
+            ComandaHistorico historico = persistir(new ComandaHistorico(archivada, new BigDecimal("24000")));
+            DetalleComanda lineaArchivada = new DetalleComanda(archivada, arroz, 2);
+            lineaArchivada.setIdDetalleComanda(9000);
+            lineaArchivada.setEstado(completada);
+            persistir(new DetalleComandaHistorico(lineaArchivada, historico));
+
+            comanda(mesa, mesero, pendiente, true, 12, arroz, 1, completada, DIA);
+            comanda(mesa, mesero, cancelada, false, 13, flan, 3, cancelada, DIA);
+            comanda(mesa, mesero, completada, true, 12, flan, 5, completada, DIA.plusDays(1));
+        });
+
+        // Act
+        InformeDia informe = informesCierreService.procesarDia(DIA);
+
+        // Assert
+        assertThat(informe.getComandasVendidas()).isEqualTo(2);
+        assertThat(informe.getComandasCanceladas()).isEqualTo(1);
+        assertThat(informe.getUnidadesVendidas()).isEqualTo(3);
+        assertThat(informe.getTotalVentas()).isEqualByComparingTo("36000");
+        assertThat(informe.getTotalCancelado()).isEqualByComparingTo("24000");
+
+        Map<String, Object> z = jdbcTemplate.queryForMap("SELECT * FROM restaurante_informe_z WHERE fecha = ?", Date.valueOf(DIA));
+        assertThat((BigDecimal) z.get("TOTAL_VENTAS")).isEqualByComparingTo("36000");
+        assertThat(jdbcTemplate.queryForObject("SELECT cantidad FROM restaurante_informe_producto WHERE fecha = ?",
+            Long.class, Date.valueOf(DIA))).isEqualTo(3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT comandas_vendidas FROM restaurante_informe_mesero WHERE id_mesero = 'ME001'",
+            Integer.class)).isEqualTo(2);
+
+        // Repetir el día reemplaza sus filas en lugar de duplicarlas
+        informesCierreService.procesarDia(DIA);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM restaurante_informe_z", Integer.class)).isEqualTo(1);
+    }
+
+    private void comanda(Mesa mesa, Usuario mesero, Estado estado, boolean pagada, int hora,
+                         Producto producto, int cantidad, Estado estadoLinea, LocalDate dia) {
+        Comanda comanda = new Comanda(mesa, mesero, estado);
+        comanda.setFecha(dia.atTime(hora, 0));
+        comanda.setPagada(pagada);
+        persistir(comanda);
+        DetalleComanda linea = new DetalleComanda(comanda, producto, cantidad);
+        linea.setEstado(estadoLinea);
+        persistir(linea);
+    }
+
+    private <T> T persistir(T entidad) {
+        entityManager.persist(entidad);
+        return entidad;
+    }
+}
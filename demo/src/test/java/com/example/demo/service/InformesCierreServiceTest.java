@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import com.example.demo.service.InformesCierreService.InformeDia;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests para InformesCierreService
+ */
+class InformesCierreServiceTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 6, 20);
+
+    @Test
+    void testInformeDiaSeparaVentasCancelacionesYComandasAbiertas() {
+        // Arrange
+        InformeDia informe = new InformeDia(DIA);
+
+        // Act: archivada completada, activa pagada, activa cancelada y activa aún abierta
+        informe.registrar(fila(1, "ME001", "Completada", true, 10, 2, "24000"), true);
+        informe.registrar(fila(1, "ME001", "Completada", true, 11, 1, "8000"), true);
+        informe.registrar(fila(2, "ME002", "Pendiente", true, 10, 1, "12000"), false);
+        informe.registrar(fila(3, "ME001", "Cancelada", false, 11, 3, "24000"), false);
+        informe.registrar(fila(4, "ME002", "Pendiente", false, 10, 5, "60000"), false);
+
+        // Assert
+        assertThat(informe.getComandasVendidas()).isEqualTo(2);
+        assertThat(informe.getComandasCanceladas()).isEqualTo(1);
+        assertThat(informe.getComandasAbiertas()).isEqualTo(1);
+        assertThat(informe.getUnidadesVendidas()).isEqualTo(4);
+        assertThat(informe.getTotalVentas()).isEqualByComparingTo("44000");
+        assertThat(informe.getTotalCancelado()).isEqualByComparingTo("24000");
+        assertThat(informe.productos()).isEqualTo(2);
+        assertThat(informe.meseros()).isEqualTo(2);
+    }
+
+    @Test
+    void testInformeDiaCuentaLasComandasSinLineas() {
+        // Arrange
+        InformeDia informe = new InformeDia(DIA);
+
+        // Act
+        informe.registrar(fila(7, "ME001", "Completado", false, null, null, null), false);
+
+        // Assert
+        assertThat(informe.getComandasVendidas()).isEqualTo(1);
+        assertThat(informe.getUnidadesVendidas()).isZero();
+        assertThat(informe.getTotalVentas()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(informe.productos()).isZero();
+    }
+
+    @Test
+    void testGenerarRechazaUnRangoInvertido() {
+        // Arrange
+        InformesCierreService service = new InformesCierreService();
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.generar(DIA, DIA.minusDays(1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("posterior");
+        assertThatThrownBy(() -> service.generar(DIA, DIA.plusDays(400)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("366");
+    }
+
+    private static Object[] fila(Integer idComanda, String idMesero, String estado, Boolean pagada,
+                                 Integer idProducto, Integer cantidad, String subtotal) {
+        return new Object[]{idComanda, idMesero, estado, pagada, idProducto, cantidad,
+            subtotal != null ? new BigDecimal(subtotal) : null};
+    }
+}
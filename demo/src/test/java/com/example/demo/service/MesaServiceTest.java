@@ -18,6 +18,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -32,6 +33,12 @@ class MesaServiceTest {
     @Mock
     private EstadoRepository estadoRepository;
     
+    @Mock
+    private ReservaService reservaService;
+    
+    @Mock
+    private OcupacionMesasService ocupacionMesasService;
+    
     @InjectMocks
     private MesaService mesaService;
     
@@ -98,6 +105,7 @@ class MesaServiceTest {
         // Arrange
         when(mesaRepository.findById(1)).thenReturn(Optional.of(mesa));
         when(estadoRepository.findByNombre("OCUPADO")).thenReturn(Optional.of(estadoOcupado));
+        when(estadoRepository.findById(2)).thenReturn(Optional.of(estadoOcupado));
         when(mesaRepository.save(any(Mesa.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         // Act
@@ -105,6 +113,7 @@ class MesaServiceTest {
         
         // Assert
         assertThat(resultado.getEstado().getNombre()).isEqualTo("OCUPADO");
+        verify(ocupacionMesasService).mesaOcupada(mesa, null);
     }
     
     @Test
@@ -112,7 +121,9 @@ class MesaServiceTest {
         // Arrange
         mesa.setEstado(estadoOcupado);
         when(mesaRepository.findById(1)).thenReturn(Optional.of(mesa));
+        when(estadoRepository.findByNombre(anyString())).thenReturn(Optional.empty());
         when(estadoRepository.findByNombre("DISPONIBLE")).thenReturn(Optional.of(estadoDisponible));
+        when(estadoRepository.findById(1)).thenReturn(Optional.of(estadoDisponible));
         when(mesaRepository.save(any(Mesa.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         // Act
@@ -120,6 +131,22 @@ class MesaServiceTest {
         
         // Assert
         assertThat(resultado.getEstado().getNombre()).isEqualTo("DISPONIBLE");
+        verify(ocupacionMesasService).mesaLiberada(1);
+    }
+    
+    @Test
+    void testCambiarEstadoEntreOcupadasNoAbreOtraSesion() {
+        // Arrange
+        mesa.setEstado(new Estado("Ocupada"));
+        when(mesaRepository.findById(1)).thenReturn(Optional.of(mesa));
+        when(estadoRepository.findById(2)).thenReturn(Optional.of(estadoOcupado));
+        when(mesaRepository.save(any(Mesa.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        mesaService.cambiarEstadoMesa(1, 2);
+        
+        // Assert
+        verifyNoInteractions(ocupacionMesasService);
     }
     
     @Test
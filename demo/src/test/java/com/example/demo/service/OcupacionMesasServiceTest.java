@@ -0,0 +1,196 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.MesaResumen;
+import com.example.demo.dto.response.OcupacionUbicacionDTO;
+import com.example.demo.entity.Estado;
+import com.example.demo.entity.Mesa;
+import com.example.demo.entity.SesionMesa;
+import com.example.demo.repository.MesaRepository;
+import com.example.demo.repository.SesionMesaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para OcupacionMesasService
+ */
+@ExtendWith(MockitoExtension.class)
+class OcupacionMesasServiceTest {
+
+    @Mock
+    private SesionMesaRepository sesionMesaRepository;
+
+    @Mock
+    private MesaRepository mesaRepository;
+
+    @InjectMocks
+    private OcupacionMesasService ocupacionMesasService;
+
+    private Mesa mesa;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ocupacionMesasService, "configuracionServicios", "Almuerzo=12:00-16:30;Cena=19:00-23:59");
+        mesa = new Mesa(4, "Terraza", new Estado("OCUPADO"));
+        mesa.setIdMesa(1);
+    }
+
+    @Test
+    void testLasSesionesCerradasHoySeRecuperanAlArrancar() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        SesionMesa almuerzo = sesion(1, 4, 4, hoy.atTime(12, 30), hoy.atTime(14, 0), "240000");
+        almuerzo.setPrimeraComanda(hoy.atTime(12, 36));
+        SesionMesa cena = sesion(2, 2, null, hoy.atTime(20, 0), hoy.atTime(21, 0), "60000");
+        when(sesionMesaRepository.findByLiberacionIsNull()).thenReturn(List.of());
+        when(sesionMesaRepository.findByLiberacionGreaterThanEqualOrderByLiberacionAsc(hoy.atStartOfDay()))
+            .thenReturn(List.of(almuerzo, cena));
+        List<MesaResumen> mesas = List.of(mesaResumen(4), mesaResumen(2));
+        when(mesaRepository.findAllResumen()).thenReturn(mesas);
+
+        // Act
+        ocupacionMesasService.iniciar();
+        OcupacionUbicacionDTO terraza = ocupacionMesasService.obtenerOcupacion().get(0);
+
+        // Assert (4 comensales × 1,5 h + 2 asientos × 1 h = 8 asiento-horas)
+        assertThat(terraza.getUbicacion()).isEqualTo("Terraza");
+        assertThat(terraza.getSesionesCerradas()).isEqualTo(2);
+        assertThat(terraza.getMinutosMediosSentados()).isEqualTo(75.0);
+        assertThat(terraza.getMinutosHastaPrimeraComanda()).isEqualTo(6.0);
+        assertThat(terraza.getRotacionesPorMesa()).containsEntry("Almuerzo", 0.5).containsEntry("Cena", 0.5);
+        assertThat(terraza.getIngresos()).isEqualByComparingTo("300000");
+        assertThat(terraza.getIngresosPorAsientoHora()).isEqualByComparingTo("37500");
+    }
+
+    @Test
+    void testOcuparYLiberarActualizaLaOcupacionEnVivo() {
+        // Arrange
+        ocupacionMesasService.iniciar();
+        when(sesionMesaRepository.save(any(SesionMesa.class))).thenAnswer(invocation -> {
+            SesionMesa sesion = invocation.getArgument(0);
+            if (sesion.getIdSesion() == null) {
+                sesion.setIdSesion(10L);
+            }
+            return sesion;
+        });
+        List<MesaResumen> mesas = List.of(mesaResumen(4), mesaResumen(2));
+        when(mesaRepository.findAllResumen()).thenReturn(mesas);
+
+        // Act
+        ocupacionMesasService.mesaOcupada(mesa, 3);
+        OcupacionUbicacionDTO ocupada = ocupacionMesasService.obtenerOcupacion().get(0);
+
+        ArgumentCaptor<SesionMesa> guardada = ArgumentCaptor.forClass(SesionMesa.class);
+        verify(sesionMesaRepository).save(guardada.capture());
+        when(sesionMesaRepository.findById(10L)).thenReturn(Optional.of(guardada.getValue()));
+        ocupacionMesasService.cuentaCobrada(1, new BigDecimal("95000"));
+        ocupacionMesasService.mesaLiberada(1);
+        OcupacionUbicacionDTO libre = ocupacionMesasService.obtenerOcupacion().get(0);
+
+        // Assert
+        assertThat(ocupada.getMesasOcupadas()).isEqualTo(1);
+        assertThat(ocupada.getComensalesSentados()).isEqualTo(3);
+        assertThat(ocupada.getUtilizacion()).isEqualTo(50.0);
+        assertThat(libre.getMesasOcupadas()).isZero();
+        assertThat(libre.getSesionesCerradas()).isEqualTo(1);
+        assertThat(libre.getIngresos()).isEqualByComparingTo("95000");
+        assertThat(guardada.getValue().getCuenta()).isNotNull();
+        assertThat(guardada.getValue().getLiberacion()).isNotNull();
+    }
+
+    @Test
+    void testLaPrimeraComandaAbreLaSesionSiLaMesaNoTenia() {
+        // Arrange
+        ocupacionMesasService.iniciar();
+        when(sesionMesaRepository.save(any(SesionMesa.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ocupacionMesasService.comandaCreada(mesa);
+        ocupacionMesasService.comandaCreada(mesa);
+
+        // Assert: la segunda comanda ya no toca la sesión
+        ArgumentCaptor<SesionMesa> guardada = ArgumentCaptor.forClass(SesionMesa.class);
+        verify(sesionMesaRepository, times(1)).save(guardada.capture());
+        assertThat(guardada.getValue().getPrimeraComanda()).isEqualTo(guardada.getValue().getApertura());
+        assertThat(guardada.getValue().getUbicacion()).isEqualTo("Terraza");
+    }
+
+    @Test
+    void testSiFallaLaCargaSeRecuperaLaSesionAbiertaDeLaBaseDeDatos() {
+        // Arrange: la carga falla y la mesa tiene una sesión abierta (abierta antes del arranque o por otra instancia)
+        when(sesionMesaRepository.findByLiberacionIsNull()).thenThrow(new IllegalStateException("sin conexión"));
+        SesionMesa abierta = sesion(1, 4, 2, LocalDateTime.now().minusHours(1), null, "0");
+        abierta.setIdSesion(7L);
+        when(sesionMesaRepository.findFirstByIdMesaAndLiberacionIsNullOrderByAperturaDesc(1)).thenReturn(Optional.of(abierta));
+        when(sesionMesaRepository.findById(7L)).thenReturn(Optional.of(abierta));
+
+        // Act
+        ocupacionMesasService.iniciar();
+        ocupacionMesasService.comandaCreada(mesa);
+        ocupacionMesasService.mesaLiberada(1);
+
+        // Assert: se completa esa sesión en lugar de abrir otra
+        verify(sesionMesaRepository, times(2)).save(abierta);
+        verify(mesaRepository, never()).findByIdParaReservar(any());
+        assertThat(abierta.getPrimeraComanda()).isNotNull();
+        assertThat(abierta.getLiberacion()).isNotNull();
+    }
+
+    @Test
+    void testAbrirUnaSesionIncrementaLaVersionDeLaMesa() {
+        // Arrange
+        ocupacionMesasService.iniciar();
+        when(sesionMesaRepository.save(any(SesionMesa.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ocupacionMesasService.mesaOcupada(mesa, 2);
+
+        // Assert: dos aperturas simultáneas de la mesa chocan al confirmar
+        verify(mesaRepository).findByIdParaReservar(1);
+    }
+
+    @Test
+    void testRechazaComensalesNoValidos() {
+        // Act & Assert
+        assertThatThrownBy(() -> ocupacionMesasService.mesaOcupada(mesa, 0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("comensales");
+        verifyNoInteractions(sesionMesaRepository);
+    }
+
+    private static SesionMesa sesion(Integer idMesa, int capacidad, Integer comensales, LocalDateTime apertura,
+                                     LocalDateTime liberacion, String ingresos) {
+        SesionMesa sesion = new SesionMesa();
+        sesion.setIdMesa(idMesa);
+        sesion.setUbicacion("Terraza");
+        sesion.setCapacidad(capacidad);
+        sesion.setComensales(comensales);
+        sesion.setApertura(apertura);
+        sesion.setLiberacion(liberacion);
+        sesion.setIngresos(new BigDecimal(ingresos));
+        return sesion;
+    }
+
+    private static MesaResumen mesaResumen(int capacidad) {
+        MesaResumen resumen = mock(MesaResumen.class);
+        when(resumen.getUbicacion()).thenReturn("Terraza");
+        when(resumen.getCapacidad()).thenReturn(capacidad);
+        return resumen;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.EventoOutbox;
+import com.example.demo.repository.EventoOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de OutboxService contra H2: los eventos se publican en el orden en que se confirmaron sus transacciones
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@Import(OutboxService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxServiceH2Test {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testUnEventoInsertadoAntesPeroConfirmadoDespuesSalePorDetras() throws Exception {
+        CountDownLatch insertado = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+
+        // Act: la primera transacción inserta su evento y tarda en confirmar; la segunda inserta y confirma antes
+        CompletableFuture<Long> lenta = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            EventoOutbox evento = outboxService.registrar(EventoOutbox.COMANDA_CREADA, "Comanda", 1, Map.of());
+            insertado.countDown();
+            esperar(confirmar);
+            return evento.getIdEvento();
+        }));
+        assertThat(insertado.await(5, TimeUnit.SECONDS)).isTrue();
+        Long rapida = transactionTemplate.execute(status ->
+            outboxService.registrar(EventoOutbox.COMANDA_PAGADA, "Comanda", 2, Map.of()).getIdEvento());
+
+        // Mientras la lenta no confirma, el relay solo ve la rápida
+        assertThat(eventoOutboxRepository.findPendientes(PageRequest.of(0, 10)))
+            .extracting(EventoOutbox::getIdEvento)
+            .containsExactly(rapida);
+
+        confirmar.countDown();
+        Long primera = lenta.get(5, TimeUnit.SECONDS);
+
+        // Assert: el ID más bajo va detrás porque se confirmó después
+        List<EventoOutbox> pendientes = eventoOutboxRepository.findPendientes(PageRequest.of(0, 10));
+        assertThat(primera).isLessThan(rapida);
+        assertThat(pendientes).extracting(EventoOutbox::getIdEvento).containsExactly(rapida, primera);
+        assertThat(pendientes.get(0).getSecuencia()).isLessThan(pendientes.get(1).getSecuencia());
+    }
+
+    @Test
+    void testUnEventoDeshechoNoConsumeSecuencia() {
+        // Arrange
+        transactionTemplate.executeWithoutResult(status ->
+            outboxService.registrar(EventoOutbox.STOCK_AJUSTADO, "Producto", 5, Map.of()));
+        Long antes = eventoOutboxRepository.leerSecuencia();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.registrar(EventoOutbox.STOCK_AJUSTADO, "Producto", 5, Map.of());
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertThat(eventoOutboxRepository.leerSecuencia()).isEqualTo(antes);
+    }
+
+    private void esperar(CountDownLatch senal) {
+        try {
+            senal.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
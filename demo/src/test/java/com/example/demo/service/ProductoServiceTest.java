@@ -33,6 +33,12 @@ class ProductoServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository;
     
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private AlertasStockService alertasStockService;
+    
     @InjectMocks
     private ProductoService productoService;
     
@@ -52,7 +58,7 @@ class ProductoServiceTest {
     void testObtenerTodosLosProductos() {
         // Arrange
         List<Producto> productos = Arrays.asList(producto);
-        when(productoRepository.findAll()).thenReturn(productos);
+        when(productoRepository.findAllWithCategoria()).thenReturn(productos);
         
         // Act
         List<Producto> resultado = productoService.obtenerTodosLosProductos();
@@ -81,6 +87,7 @@ class ProductoServiceTest {
         when(categoriaRepository.findById(1)).thenReturn(Optional.of(categoria));
         when(productoRepository.existsByNombre(anyString())).thenReturn(false);
         when(productoRepository.save(any(Producto.class))).thenReturn(producto);
+        when(productoRepository.findById(1)).thenReturn(Optional.of(producto));
         
         // Act
         Producto resultado = productoService.crearProducto(producto);
@@ -100,7 +107,7 @@ class ProductoServiceTest {
         // Act & Assert
         assertThatThrownBy(() -> productoService.crearProducto(producto))
             .isInstanceOf(IllegalArgumentException.class)
-            .hasMessageContaining("ya existe un producto");
+            .hasMessageContaining("Ya existe un producto");
     }
     
     @Test
@@ -141,6 +148,7 @@ class ProductoServiceTest {
         
         // Assert
         assertThat(resultado.getStock()).isEqualTo(100);
+        verify(outboxService).stockAjustado(producto, 50, "AJUSTE_MANUAL");
     }
     
     @Test
@@ -164,7 +172,7 @@ class ProductoServiceTest {
         // Act & Assert
         assertThatThrownBy(() -> productoService.reducirStock(1, 100))
             .isInstanceOf(IllegalArgumentException.class)
-            .hasMessageContaining("Stock insuficiente");
+            .hasMessageContaining("No hay stock suficiente");
     }
     
     @Test
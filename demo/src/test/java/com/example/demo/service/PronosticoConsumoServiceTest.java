@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.AlertaStockDTO;
+import com.example.demo.dto.response.PronosticoProductoDTO;
+import com.example.demo.repository.ProductoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para PronosticoConsumoService
+ */
+@ExtendWith(MockitoExtension.class)
+class PronosticoConsumoServiceTest {
+
+    @Mock
+    private AlertasStockService alertasStockService;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private PronosticoConsumoService pronosticoConsumoService;
+
+    @Test
+    void testConsumoConstanteSeAgotaYSugiereReposicion() {
+        // Arrange: 2 unidades cada hora durante dos semanas (lunes 5 a domingo 18 de octubre)
+        LocalDateTime inicio = LocalDateTime.of(2026, 10, 5, 0, 10);
+        for (int hora = 0; hora < 2 * PronosticoConsumoService.HORAS_SEMANA; hora++) {
+            pronosticoConsumoService.registrar(1, inicio.plusHours(hora), 2);
+        }
+        when(alertasStockService.obtenerNivelesActivos()).thenReturn(Optional.of(List.of(
+            nivel(1, "Limonada", 10, 5),
+            nivel(2, "Flan", 3, 5))));
+
+        // Act
+        List<PronosticoProductoDTO> pronostico = pronosticoConsumoService.calcularPronostico(LocalDateTime.of(2026, 10, 19, 0, 0));
+
+        // Assert: 10 unidades a 2 por hora duran 5 horas; la reposición cubre 48 h de entrega + 7 días
+        PronosticoProductoDTO limonada = pronostico.get(0);
+        assertThat(limonada.getIdProducto()).isEqualTo(1);
+        assertThat(limonada.getConsumoPrevisto24h()).isEqualTo(48.0);
+        assertThat(limonada.getHorasHastaAgotamiento()).isEqualTo(5.0);
+        assertThat(limonada.getAgotamiento()).isEqualTo(LocalDateTime.of(2026, 10, 19, 5, 0));
+        assertThat(limonada.getPedirAntesDe()).isEqualTo(LocalDateTime.of(2026, 10, 17, 5, 0));
+        assertThat(limonada.getCantidadSugerida()).isEqualTo(432 + 5 - 10);
+
+        // Sin ventas no se agota: solo se sugiere volver al umbral
+        PronosticoProductoDTO flan = pronostico.get(1);
+        assertThat(flan.getAgotamiento()).isNull();
+        assertThat(flan.getConsumoPrevisto24h()).isZero();
+        assertThat(flan.getCantidadSugerida()).isEqualTo(2);
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    void testElConsumoSeProyectaPorFranjaDeLaSemana() {
+        // Arrange: solo se vende los viernes de 20:00 a 21:00 (3 unidades)
+        for (int semana = 0; semana < 3; semana++) {
+            pronosticoConsumoService.registrar(7, LocalDateTime.of(2026, 10, 2, 20, 15).plusWeeks(semana), 3);
+        }
+        when(alertasStockService.obtenerNivelesActivos()).thenReturn(Optional.of(List.of(nivel(7, "Paella", 4, 0))));
+
+        // Act
+        PronosticoProductoDTO paella = pronosticoConsumoService.calcularPronostico(LocalDateTime.of(2026, 10, 19, 10, 0)).get(0);
+
+        // Assert: el viernes 23 se venden 3 y la cuarta unidad, en el primer tercio de la franja del viernes 30
+        assertThat(paella.getConsumoPrevisto24h()).isZero();
+        assertThat(paella.getAgotamiento()).isEqualTo(LocalDateTime.of(2026, 10, 30, 20, 20));
+        assertThat(paella.getCantidadSugerida()).isZero();
+    }
+
+    @Test
+    void testLasDevolucionesDescuentanLaHoraEnCurso() {
+        // Arrange: una semana vendiendo 4 por hora y, en la última hora, se devuelven las 4
+        LocalDateTime inicio = LocalDateTime.of(2026, 10, 12, 0, 0);
+        for (int hora = 0; hora < PronosticoConsumoService.HORAS_SEMANA; hora++) {
+            pronosticoConsumoService.registrar(1, inicio.plusHours(hora), 4);
+        }
+        pronosticoConsumoService.registrar(1, inicio.plusHours(PronosticoConsumoService.HORAS_SEMANA - 1), -4);
+        pronosticoConsumoService.registrar(9, inicio, -1);
+        when(alertasStockService.obtenerNivelesActivos()).thenReturn(Optional.empty());
+        when(productoRepository.findNivelesStock()).thenReturn(List.of(
+            new Object[]{1, "Limonada", 100, 0, true},
+            new Object[]{9, "Retirado", 0, 0, false}));
+
+        // Act
+        List<PronosticoProductoDTO> pronostico = pronosticoConsumoService.calcularPronostico(inicio.plusWeeks(1));
+
+        // Assert: la franja del domingo a las 23:00 quedó a cero; el resto sigue a 4 por hora
+        assertThat(pronostico).extracting(PronosticoProductoDTO::getIdProducto).containsExactly(1);
+        assertThat(pronostico.get(0).getConsumoPrevisto24h()).isEqualTo(96.0);
+        assertThat(pronostico.get(0).getHorasHastaAgotamiento()).isEqualTo(25.0);
+    }
+
+    private static AlertaStockDTO nivel(Integer idProducto, String nombre, int stock, int umbral) {
+        return AlertaStockDTO.builder()
+            .idProducto(idProducto)
+            .nombre(nombre)
+            .stock(stock)
+            .umbral(umbral)
+            .build();
+    }
+}
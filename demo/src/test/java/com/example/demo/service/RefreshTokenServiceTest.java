@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.LoginResponseDTO;
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.Rol;
+import com.example.demo.entity.Usuario;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UsuarioRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.ListaRevocacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para RefreshTokenService
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private ListaRevocacion listaRevocacion;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setIdUsuario("MESERO001");
+        usuario.setNombre("Ana");
+        usuario.setEmail("ana@restaurante.com");
+        usuario.setRol(new Rol("MESERO"));
+    }
+
+    @Test
+    void testRefrescarRotaElTokenDentroDeLaMismaFamilia() {
+        // Arrange
+        String original = refreshTokenService.emitir("MESERO001");
+        ArgumentCaptor<RefreshToken> guardados = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(guardados.capture());
+        RefreshToken emitido = guardados.getValue();
+        when(refreshTokenRepository.findParaRotar(emitido.getTokenHash())).thenReturn(Optional.of(emitido));
+        when(usuarioRepository.findById("MESERO001")).thenReturn(Optional.of(usuario));
+        when(jwtUtil.generateToken("MESERO001", "ana@restaurante.com", "MESERO")).thenReturn("jwt-nuevo");
+
+        // Act
+        LoginResponseDTO respuesta = refreshTokenService.refrescar(original);
+
+        // Assert
+        assertThat(emitido.getTokenHash()).hasSize(64).isNotEqualTo(original);
+        assertThat(emitido.getUsado()).isTrue();
+        assertThat(respuesta.getToken()).isEqualTo("jwt-nuevo");
+        assertThat(respuesta.getRefreshToken()).isNotBlank().isNotEqualTo(original);
+        verify(refreshTokenRepository, times(2)).save(guardados.capture());
+        assertThat(guardados.getValue().getFamilia()).isEqualTo(emitido.getFamilia());
+        assertThat(guardados.getValue().getUsado()).isFalse();
+    }
+
+    @Test
+    void testReutilizarUnTokenRevocaLaFamilia() {
+        // Arrange
+        RefreshToken usado = new RefreshToken("hash", "MESERO001", "familia-1", LocalDateTime.now().plusDays(1));
+        usado.setUsado(true);
+        when(refreshTokenRepository.findParaRotar(anyString())).thenReturn(Optional.of(usado));
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refrescar("token-robado"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("ya utilizado");
+        verify(refreshTokenRepository).revocarFamilia("familia-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRefrescarRechazaTokensExpiradosOInexistentes() {
+        // Arrange
+        RefreshToken expirado = new RefreshToken("hash", "MESERO001", "familia-1", LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findParaRotar(anyString()))
+            .thenReturn(Optional.of(expirado))
+            .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refrescar("expirado"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Refresh token expirado");
+        assertThatThrownBy(() -> refreshTokenService.refrescar("desconocido"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Refresh token inválido");
+        verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testRevocarUsuarioInvalidaRefreshYAccessTokens() {
+        // Arrange
+        when(refreshTokenRepository.revocarPorUsuario("MESERO001")).thenReturn(3);
+
+        // Act
+        int revocados = refreshTokenService.revocarUsuario("MESERO001");
+
+        // Assert
+        assertThat(revocados).isEqualTo(3);
+        verify(listaRevocacion).revocarUsuario("MESERO001");
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.MesaResumen;
+import com.example.demo.dto.request.ReservaRequestDTO;
+import com.example.demo.dto.response.MesaResponseDTO;
+import com.example.demo.entity.Estado;
+import com.example.demo.entity.Mesa;
+import com.example.demo.entity.Reserva;
+import com.example.demo.mapper.MesaMapper;
+import com.example.demo.repository.MesaRepository;
+import com.example.demo.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests para ReservaService
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservaServiceTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private MesaRepository mesaRepository;
+
+    @Mock
+    private MesaMapper mesaMapper;
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    private LocalDateTime manana;
+    private Mesa mesa1;
+
+    @BeforeEach
+    void setUp() {
+        manana = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        mesa1 = mesa(1, 4, "Disponible");
+        when(reservaRepository.findVigentesDesde(any(LocalDateTime.class))).thenReturn(List.of(
+            reserva(10, mesa1, manana.plusHours(20), manana.plusHours(22)),
+            reserva(11, mesa(2, 6, "Disponible"), manana.plusHours(13), manana.plusHours(15))
+        ));
+        reservaService.iniciar();
+    }
+
+    @Test
+    void testReservaSolapadaSeRechazaSinConsultarLaBase() {
+        // Arrange
+        when(mesaRepository.findByIdParaReservar(1)).thenReturn(Optional.of(mesa1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservaService.crearReserva(request(1, 2, manana.plusHours(21), manana.plusHours(23))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("ya está reservada");
+        verify(reservaRepository, never()).existeSolapada(any(), any(), any());
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
+    @Test
+    void testReservaContiguaSeAceptaYOcupaLaAgenda() {
+        // Arrange
+        when(mesaRepository.findByIdParaReservar(1)).thenReturn(Optional.of(mesa1));
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(invocation -> {
+            Reserva reserva = invocation.getArgument(0);
+            ReflectionTestUtils.setField(reserva, "idReserva", 12);
+            return reserva;
+        });
+
+        // Act
+        Reserva resultado = reservaService.crearReserva(request(1, 2, manana.plusHours(18), manana.plusHours(20)));
+
+        // Assert
+        assertThat(resultado.getIdReserva()).isEqualTo(12);
+        assertThat(reservaService.tieneReservaEntre(1, manana.plusHours(19), manana.plusHours(19).plusMinutes(30))).isTrue();
+        assertThat(reservaService.tieneReservaEntre(1, manana.plusHours(22), manana.plusHours(23))).isFalse();
+    }
+
+    @Test
+    void testReservaQueSuperaLaCapacidadSeRechaza() {
+        // Arrange
+        when(mesaRepository.findByIdParaReservar(1)).thenReturn(Optional.of(mesa1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservaService.crearReserva(request(1, 6, manana.plusHours(12), manana.plusHours(14))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("capacidad");
+    }
+
+    @Test
+    void testDisponibilidadExcluyeLasMesasReservadasEnLaFranja() {
+        // Arrange
+        MesaResumen resumen1 = resumen(1);
+        MesaResumen resumen2 = resumen(2);
+        when(mesaRepository.findResumenByCapacidadMinima(4)).thenReturn(List.of(resumen1, resumen2));
+        MesaResponseDTO dto2 = new MesaResponseDTO();
+        dto2.setIdMesa(2L);
+        when(mesaMapper.toResponseDTO(resumen2)).thenReturn(dto2);
+
+        // Act
+        List<MesaResponseDTO> disponibles = reservaService.buscarMesasDisponibles(4, manana.plusHours(21), manana.plusHours(23));
+
+        // Assert
+        assertThat(disponibles).extracting(MesaResponseDTO::getIdMesa).containsExactly(2L);
+    }
+
+    @Test
+    void testClienteSinReservaNoOcupaUnaMesaReservadaEnBreve() {
+        // Arrange
+        LocalDateTime ahora = manana.plusHours(19);
+
+        // Act & Assert: la reserva de las 20:00 empieza antes de que termine una estancia de 90 minutos
+        assertThatThrownBy(() -> reservaService.validarOcupacion(1, ahora))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("está reservada");
+        assertThatCode(() -> reservaService.validarOcupacion(1, manana.plusHours(17))).doesNotThrowAnyException();
+        assertThatCode(() -> reservaService.validarOcupacion(3, ahora)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testElGrupoQueLlegaPuedeOcuparSuMesa() {
+        // Act & Assert: la reserva empieza dentro de la tolerancia de llegada
+        assertThatCode(() -> reservaService.validarOcupacion(1, manana.plusHours(19).plusMinutes(50))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testCancelarLiberaLaFranja() {
+        // Arrange
+        Reserva reserva = reserva(10, mesa1, manana.plusHours(20), manana.plusHours(22));
+        when(reservaRepository.findById(10)).thenReturn(Optional.of(reserva));
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        reservaService.cancelarReserva(10);
+
+        // Assert
+        assertThat(reserva.getCancelada()).isTrue();
+        assertThat(reservaService.tieneReservaEntre(1, manana.plusHours(20), manana.plusHours(22))).isFalse();
+    }
+
+    private Mesa mesa(int id, int capacidad, String estado) {
+        Mesa mesa = new Mesa(capacidad, "Salón", new Estado(estado));
+        mesa.setIdMesa(id);
+        return mesa;
+    }
+
+    private Reserva reserva(int id, Mesa mesa, LocalDateTime inicio, LocalDateTime fin) {
+        Reserva reserva = new Reserva(mesa, "Cliente " + id, 2, inicio, fin);
+        ReflectionTestUtils.setField(reserva, "idReserva", id);
+        return reserva;
+    }
+
+    private ReservaRequestDTO request(int idMesa, int personas, LocalDateTime inicio, LocalDateTime fin) {
+        return new ReservaRequestDTO(idMesa, "Laura Gómez", "3001234567", personas, inicio, fin);
+    }
+
+    private MesaResumen resumen(int idMesa) {
+        MesaResumen resumen = mock(MesaResumen.class);
+        when(resumen.getIdMesa()).thenReturn(idMesa);
+        when(resumen.getEstado()).thenReturn("Disponible");
+        return resumen;
+    }
+}
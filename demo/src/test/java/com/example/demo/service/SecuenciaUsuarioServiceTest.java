@@ -0,0 +1,142 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.SecuenciaUsuario;
+import com.example.demo.repository.SecuenciaUsuarioRepository;
+import com.example.demo.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para SecuenciaUsuarioService
+ */
+@ExtendWith(MockitoExtension.class)
+class SecuenciaUsuarioServiceTest {
+
+    @Mock
+    private SecuenciaUsuarioRepository secuenciaUsuarioRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private TransactionTemplate nuevaTransaccion;
+
+    @InjectMocks
+    private SecuenciaUsuarioService secuenciaUsuarioService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(secuenciaUsuarioService, "nuevaTransaccion", nuevaTransaccion);
+        ReflectionTestUtils.setField(secuenciaUsuarioService, "tamanoBloque", 10);
+        lenient().when(nuevaTransaccion.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Long>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void testPrimeraSecuenciaContinuaDesdeLosIdsExistentes() {
+        // Arrange
+        when(secuenciaUsuarioRepository.findParaActualizar("MESERO")).thenReturn(Optional.empty());
+        when(usuarioRepository.findIdsPorPatron("MESERO%")).thenReturn(List.of("MESERO001", "MESERO007", "MESEROX"));
+
+        // Act
+        String primero = secuenciaUsuarioService.siguienteId("MESERO");
+        String segundo = secuenciaUsuarioService.siguienteId("MESERO");
+
+        // Assert
+        assertThat(primero).isEqualTo("MESERO008");
+        assertThat(segundo).isEqualTo("MESERO009");
+        ArgumentCaptor<SecuenciaUsuario> secuencia = ArgumentCaptor.forClass(SecuenciaUsuario.class);
+        verify(secuenciaUsuarioRepository).saveAndFlush(secuencia.capture());
+        assertThat(secuencia.getValue().getSiguienteValor()).isEqualTo(18L);
+        assertThat(secuencia.getValue().isNew()).isTrue();
+    }
+
+    @Test
+    void testSoloConsultaLaBaseDeDatosAlAgotarElBloque() {
+        // Arrange
+        SecuenciaUsuario secuencia = new SecuenciaUsuario("COCINERO", 41L);
+        when(secuenciaUsuarioRepository.findParaActualizar("COCINERO")).thenReturn(Optional.of(secuencia));
+
+        // Act
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            ids.add(secuenciaUsuarioService.siguienteId("COCINERO"));
+        }
+
+        // Assert
+        assertThat(ids.get(0)).isEqualTo("COCINERO041");
+        assertThat(ids.get(9)).isEqualTo("COCINERO050");
+        assertThat(ids.get(10)).isEqualTo("COCINERO051");
+        verify(nuevaTransaccion, times(2)).execute(any());
+        assertThat(secuencia.getSiguienteValor()).isEqualTo(61L);
+    }
+
+    @Test
+    void testPeticionesConcurrentesNoRepitenIds() throws Exception {
+        // Arrange
+        SecuenciaUsuario secuencia = new SecuenciaUsuario("ADMIN", 1L);
+        when(secuenciaUsuarioRepository.findParaActualizar("ADMIN")).thenReturn(Optional.of(secuencia));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<String>> futuros = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futuros.add(executor.submit(() -> secuenciaUsuarioService.siguienteId("ADMIN")));
+        }
+        Set<String> ids = new HashSet<>();
+        for (Future<String> futuro : futuros) {
+            ids.add(futuro.get());
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(ids).hasSize(200);
+        verify(nuevaTransaccion, times(20)).execute(any());
+    }
+
+    @Test
+    void testElBloqueSaltaLosIdsDadosDeAltaAMano() {
+        // Arrange: MESERO012 y MESERO013 se crearon a mano por encima de lo reservado
+        SecuenciaUsuario secuencia = new SecuenciaUsuario("MESERO", 11L);
+        when(secuenciaUsuarioRepository.findParaActualizar("MESERO")).thenReturn(Optional.of(secuencia));
+        when(usuarioRepository.findIdsPorPatron("MESERO%")).thenReturn(List.of("MESERO003", "MESERO012", "MESERO013"));
+
+        // Act
+        List<String> ids = List.of(secuenciaUsuarioService.siguienteId("MESERO"),
+            secuenciaUsuarioService.siguienteId("MESERO"), secuenciaUsuarioService.siguienteId("MESERO"));
+
+        // Assert
+        assertThat(ids).containsExactly("MESERO011", "MESERO014", "MESERO015");
+    }
+
+    @Test
+    void testUnIdManualDentroDeLoReservadoSeRechaza() {
+        // Arrange
+        when(secuenciaUsuarioRepository.findParaActualizar("MESERO")).thenReturn(Optional.of(new SecuenciaUsuario("MESERO", 21L)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> secuenciaUsuarioService.validarIdManual("mesero015"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("reservado");
+        secuenciaUsuarioService.validarIdManual("MESERO021");
+        secuenciaUsuarioService.validarIdManual("ana.ruiz");
+        verify(secuenciaUsuarioRepository, times(2)).findParaActualizar("MESERO");
+    }
+}
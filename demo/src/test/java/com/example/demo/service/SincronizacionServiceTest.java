@@ -0,0 +1,204 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.projection.DetalleComandaResumen;
+import com.example.demo.dto.projection.MesaResumen;
+import com.example.demo.dto.response.*;
+import com.example.demo.entity.Eliminacion;
+import com.example.demo.entity.VersionCambioListener;
+import com.example.demo.mapper.ComandaMapper;
+import com.example.demo.mapper.MesaMapper;
+import com.example.demo.mapper.ProductoMapper;
+import com.example.demo.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para SincronizacionService
+ */
+@ExtendWith(MockitoExtension.class)
+class SincronizacionServiceTest {
+
+    @Mock
+    private MesaRepository mesaRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private ComandaRepository comandaRepository;
+
+    @Mock
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private EliminacionRepository eliminacionRepository;
+
+    @Mock
+    private ComandaService comandaService;
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @Mock
+    private MesaMapper mesaMapper;
+
+    @Mock
+    private ProductoMapper productoMapper;
+
+    @Mock
+    private ComandaMapper comandaMapper;
+
+    @InjectMocks
+    private SincronizacionService sincronizacionService;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        since = VersionCambioListener.versionEn(System.currentTimeMillis() - 60_000);
+    }
+
+    @Test
+    void testMeseroRecibeSoloCambiosYEliminacionesDeSusEntidades() {
+        // Arrange
+        MesaResumen mesa = mock(MesaResumen.class);
+        MesaResponseDTO mesaDTO = new MesaResponseDTO();
+        when(mesaRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.<Object[]>of(new Object[]{3, since + 10}));
+        when(mesaRepository.findResumenByIds(List.of(3))).thenReturn(List.of(mesa));
+        when(mesaMapper.toResponseDTO(mesa)).thenReturn(mesaDTO);
+        when(productoRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of());
+        when(comandaRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of());
+        when(comandaService.listarComandasPorIds(List.of())).thenReturn(List.of());
+        when(detalleComandaRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of());
+        Eliminacion lapida = new Eliminacion(Eliminacion.PRODUCTO, 8);
+        lapida.setVersionCambio(since + 20);
+        when(eliminacionRepository.findCambios(eq(Set.of(Eliminacion.MESA, Eliminacion.PRODUCTO, Eliminacion.COMANDA,
+            Eliminacion.DETALLE_COMANDA)), eq(since), anyLong(), any())).thenReturn(List.of(lapida));
+
+        // Act
+        SincronizacionResponseDTO cambios = sincronizacionService.sincronizar(since, "MESERO");
+
+        // Assert
+        assertThat(cambios.getMesas()).containsExactly(mesaDTO);
+        assertThat(cambios.getProductos()).isEmpty();
+        assertThat(cambios.getUsuarios()).isNull();
+        assertThat(cambios.getEliminados()).extracting(EliminacionDTO::getId).containsExactly("8");
+        assertThat(cambios.getHayMas()).isFalse();
+        assertThat(cambios.getHasta()).isGreaterThan(since + 20);
+        verifyNoInteractions(usuarioRepository, usuarioService);
+    }
+
+    @Test
+    void testPaginaLlenaRecortaLaVersionDevuelta() {
+        // Arrange
+        ReflectionTestUtils.setField(sincronizacionService, "maxCambios", 2);
+        when(mesaRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of(
+            new Object[]{1, since + 5},
+            new Object[]{2, since + 9}
+        ));
+        when(mesaRepository.findResumenByIds(List.of(1, 2))).thenReturn(List.of());
+        when(productoRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of());
+
+        // Act
+        SincronizacionResponseDTO cambios = sincronizacionService.sincronizar(since, "OTRO");
+
+        // Assert: la siguiente llamada repite la versión since + 9 por si otra mesa la comparte
+        assertThat(cambios.getHasta()).isEqualTo(since + 8);
+        assertThat(cambios.getHayMas()).isTrue();
+        assertThat(cambios.getComandas()).isNull();
+    }
+
+    @Test
+    void testLineasDeComandasQueViajanCompletasNoSeRepiten() {
+        // Arrange
+        DetalleComandaResumen lineaIncluida = mock(DetalleComandaResumen.class);
+        DetalleComandaResumen lineaSuelta = mock(DetalleComandaResumen.class);
+        when(lineaIncluida.getIdComanda()).thenReturn(7);
+        when(lineaSuelta.getIdComanda()).thenReturn(9);
+        DetalleComandaDTO lineaSueltaDTO = new DetalleComandaDTO();
+        when(comandaMapper.toDetalleComandaDTO(lineaSuelta)).thenReturn(lineaSueltaDTO);
+        when(productoRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of());
+        when(comandaRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.<Object[]>of(new Object[]{7, since + 1}));
+        when(comandaService.listarComandasPorIds(List.of(7))).thenReturn(List.of(new ComandaResponseDTO()));
+        when(detalleComandaRepository.findCambios(eq(since), anyLong(), any())).thenReturn(List.of(
+            new Object[]{70, since + 1},
+            new Object[]{90, since + 2}
+        ));
+        when(detalleComandaRepository.findResumenByIds(List.of(70, 90))).thenReturn(List.of(lineaIncluida, lineaSuelta));
+        when(eliminacionRepository.findCambios(any(), eq(since), anyLong(), any())).thenReturn(List.of());
+
+        // Act
+        SincronizacionResponseDTO cambios = sincronizacionService.sincronizar(since, "COCINERO");
+
+        // Assert
+        assertThat(cambios.getComandas()).hasSize(1);
+        assertThat(cambios.getDetalles()).containsExactly(lineaSueltaDTO);
+        assertThat(cambios.getMesas()).isNull();
+    }
+
+    @Test
+    void testSinceAnteriorALaRetencionPideResincronizar() {
+        // Arrange
+        long antiguo = VersionCambioListener.versionEn(System.currentTimeMillis() - 100L * 3600 * 1000);
+
+        // Act
+        SincronizacionResponseDTO cambios = sincronizacionService.sincronizar(antiguo, "MESERO");
+
+        // Assert
+        assertThat(cambios.getResincronizar()).isTrue();
+        verifyNoInteractions(mesaRepository, eliminacionRepository);
+    }
+
+    @Test
+    void testSinceCeroEsSincronizacionCompleta() {
+        // Arrange
+        when(mesaRepository.findAllResumen()).thenReturn(List.of());
+        when(productoRepository.findAllResumen()).thenReturn(List.of());
+
+        // Act
+        SincronizacionResponseDTO cambios = sincronizacionService.sincronizar(0, null);
+
+        // Assert
+        assertThat(cambios.getResincronizar()).isFalse();
+        assertThat(cambios.getEliminados()).isEmpty();
+        assertThat(cambios.getHasta()).isGreaterThan(since);
+        verify(mesaRepository, never()).findCambios(anyLong(), anyLong(), any());
+        verifyNoInteractions(eliminacionRepository);
+    }
+
+    @Test
+    void testVersionNegativaEsUnError() {
+        // Act & Assert
+        assertThatThrownBy(() -> sincronizacionService.sincronizar(-1, "MESERO"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testLasVersionesDeCambioSiempreCrecen() {
+        // Act
+        long primera = VersionCambioListener.siguienteVersion();
+        long segunda = VersionCambioListener.siguienteVersion();
+
+        // Assert
+        assertThat(segunda).isGreaterThan(primera);
+        assertThat(primera).isGreaterThanOrEqualTo(since);
+    }
+}
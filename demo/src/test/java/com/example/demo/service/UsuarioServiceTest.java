@@ -6,6 +6,7 @@ import com.example.demo.repository.RolRepository;
 import com.example.demo.repository.TelefonoRepository;
 import com.example.demo.repository.UsuarioRepository;
 import com.example.demo.repository.UsuarioTelefonoRepository;
+import com.example.demo.security.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +43,12 @@ class UsuarioServiceTest {
     @Mock
     private UsuarioTelefonoRepository usuarioTelefonoRepository;
     
+    @Mock
+    private SecuenciaUsuarioService secuenciaUsuarioService;
+    
+    @Mock
+    private PasswordHasher passwordHasher;
+    
     @InjectMocks
     private UsuarioService usuarioService;
     
@@ -102,6 +109,7 @@ class UsuarioServiceTest {
         // Arrange
         when(rolRepository.findById(1)).thenReturn(Optional.of(rolAdmin));
         when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordHasher.codificarYEsperar("pass123")).thenReturn("hash-pass123");
         when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
         
         // Act
@@ -111,6 +119,7 @@ class UsuarioServiceTest {
         assertThat(resultado).isNotNull();
         assertThat(resultado.getNombre()).isEqualTo("Juan Perez");
         verify(usuarioRepository, times(1)).save(any(Usuario.class));
+        verify(passwordHasher).codificarYEsperar("pass123");
     }
     
     @Test
@@ -122,7 +131,7 @@ class UsuarioServiceTest {
         // Act & Assert
         assertThatThrownBy(() -> usuarioService.crearUsuario(usuario))
             .isInstanceOf(IllegalArgumentException.class)
-            .hasMessageContaining("email ya está registrado");
+            .hasMessageContaining("Ya existe un usuario con el email");
         
         verify(usuarioRepository, never()).save(any(Usuario.class));
     }
@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.*;
+import com.example.demo.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para VentasDiariasService
+ */
+@ExtendWith(MockitoExtension.class)
+class VentasDiariasServiceTest {
+
+    @Mock
+    private VentaDiariaRepository ventaDiariaRepository;
+
+    @Mock
+    private ComandaRepository comandaRepository;
+
+    @Mock
+    private DetalleComandaRepository detalleComandaRepository;
+
+    @Mock
+    private ComandaHistoricoRepository comandaHistoricoRepository;
+
+    @Mock
+    private DetalleComandaHistoricoRepository detalleComandaHistoricoRepository;
+
+    @InjectMocks
+    private VentasDiariasService ventasDiariasService;
+
+    private Comanda comanda;
+    private DetalleComanda detalle;
+
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = new Categoria("BEBIDAS");
+        categoria.setIdCategoria(2);
+        Producto producto = new Producto("Limonada", new BigDecimal("4.00"), 20, categoria);
+        producto.setIdProducto(5);
+
+        Usuario mesero = new Usuario();
+        mesero.setIdUsuario("MESERO001");
+
+        Estado completado = new Estado("Completado");
+        completado.setIdEstado(3);
+
+        comanda = new Comanda(new Mesa(), mesero, completado);
+        comanda.setIdComanda(10);
+        comanda.setFecha(LocalDateTime.of(2025, 3, 14, 20, 30));
+
+        detalle = new DetalleComanda(comanda, producto, 3);
+        detalle.calcularSubtotal();
+    }
+
+    @Test
+    void testComandaCompletadaSeSumaUnaSolaVez() {
+        // Arrange
+        when(detalleComandaRepository.findByComanda(comanda)).thenReturn(List.of(detalle));
+
+        // Act
+        ventasDiariasService.sincronizarComanda(comanda);
+        ventasDiariasService.sincronizarComanda(comanda);
+
+        // Assert
+        assertThat(comanda.getAcumuladaVentas()).isTrue();
+        verify(ventaDiariaRepository, times(1)).acumular(LocalDate.of(2025, 3, 14), 5, 2, "MESERO001", 3L, new BigDecimal("12.00"));
+        verify(ventaDiariaRepository, never()).save(any());
+    }
+
+    @Test
+    void testComandaCanceladaDespuesDeAcumularSeResta() {
+        // Arrange
+        comanda.setAcumuladaVentas(true);
+        comanda.setEstado(new Estado("Cancelado"));
+        when(detalleComandaRepository.findByComanda(comanda)).thenReturn(List.of(detalle));
+
+        // Act
+        ventasDiariasService.sincronizarComanda(comanda);
+
+        // Assert
+        assertThat(comanda.getAcumuladaVentas()).isFalse();
+        verify(ventaDiariaRepository).acumular(LocalDate.of(2025, 3, 14), 5, 2, "MESERO001", -3L, new BigDecimal("-12.00"));
+    }
+
+    @Test
+    void testTotalUsaAcumuladosParaDiasCerradosYLineasParaHoy() {
+        // Arrange
+        LocalDate hoy = LocalDate.now();
+        LocalDateTime inicio = hoy.minusDays(30).atStartOfDay();
+        LocalDateTime fin = hoy.atTime(23, 59, 59);
+        when(ventaDiariaRepository.sumarTotalPorRangoDias(hoy.minusDays(30), hoy.minusDays(1)))
+            .thenReturn(new BigDecimal("1000.00"));
+        when(detalleComandaRepository.sumarVentasCerradas(eq(hoy.atStartOfDay()), any(), anyList(), anyList()))
+            .thenReturn(new BigDecimal("50.00"));
+        when(comandaHistoricoRepository.sumarVentasEntre(eq(hoy.atStartOfDay()), any(), anyList()))
+            .thenReturn(BigDecimal.ZERO);
+
+        // Act
+        BigDecimal total = ventasDiariasService.obtenerTotalVentas(inicio, fin);
+
+        // Assert
+        assertThat(total).isEqualByComparingTo("1050.00");
+        verify(detalleComandaRepository, times(1)).sumarVentasCerradas(any(), any(), anyList(), anyList());
+    }
+}